@@ -0,0 +1,122 @@
+package com.mercadolibre.inventory_challenge.Service;
+
+import com.mercadolibre.inventory_challenge.model.ChangeSequenceEpoch;
+import com.mercadolibre.inventory_challenge.replica.ReadRouting;
+import com.mercadolibre.inventory_challenge.repository.ChangeSequenceEpochRepository;
+import com.mercadolibre.inventory_challenge.repository.InventoryRepository;
+import com.mercadolibre.inventory_challenge.repository.InventorySliceRepository;
+import com.mercadolibre.inventory_challenge.shard.ShardRouter;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Secuencia monótona de cambios del inventario. Cada escritura toma un número y lo guarda en la fila (change_seq).
+ * Como las transacciones no confirman en el orden en que tomaron su número, el feed de cambios solo lee hasta la
+ * {@link #watermark()}: el mayor número tal que ninguno menor sigue en curso. Así un cursor nunca salta un cambio
+ * que todavía no era visible. La secuencia arranca desde el máximo persistido; supone un único nodo escritor.
+ * La época se guarda en la base junto a los números: un reinicio la conserva y solo cambia si la secuencia vuelve a
+ * empezar (base nueva), que es cuando los cursores anteriores dejan de servir.
+ * <p>
+ * Fuera de una transacción el número se da por completo al tomarlo: el motor en memoria lo toma y lo guarda en el
+ * contador bajo el lock de su shard, y su feed recorre los contadores con esos mismos locks.
+ */
+@Component
+public class ChangeSequence {
+    private final InventoryRepository inventoryRepository;
+    private final InventorySliceRepository sliceRepository;
+    private final ChangeSequenceEpochRepository epochRepository;
+    // Identifica esta secuencia: un cursor de otra época (base recreada) obliga al cliente a resincronizar completo
+    private volatile long epoch;
+    // Protegidos por this. Bloques en curso: primer número -> último número (una entrada por escritura o lote)
+    private final NavigableMap<Long, Long> inFlight = new TreeMap<>();
+    private long last;
+
+    // Con sharding el máximo persistido se busca en todos los shards
+    @Autowired(required = false)
+    private ShardRouter shardRouter;
+
+    public ChangeSequence(InventoryRepository inventoryRepository, InventorySliceRepository sliceRepository,
+                          ChangeSequenceEpochRepository epochRepository) {
+        this.inventoryRepository = inventoryRepository;
+        this.sliceRepository = sliceRepository;
+        this.epochRepository = epochRepository;
+    }
+
+    @PostConstruct
+    public void load() {
+        long persisted = shardRouter == null ? maxPersisted()
+                : shardRouter.fanOut(this::maxPersisted).stream().mapToLong(Long::longValue).max().orElse(0);
+        synchronized (this) {
+            last = Math.max(last, persisted);
+        }
+        epoch = ReadRouting.onPrimary(() -> epochRepository.findById(ChangeSequenceEpoch.SINGLETON_ID)
+                .orElseGet(() -> epochRepository.save(ChangeSequenceEpoch.builder()
+                        .id(ChangeSequenceEpoch.SINGLETON_ID)
+                        .epoch(System.currentTimeMillis())
+                        .build()))
+                .getEpoch());
+    }
+
+    // Del primario: una réplica atrasada haría repetir números ya usados
+    private long maxPersisted() {
+        return ReadRouting.onPrimary(() -> Math.max(inventoryRepository.maxChangeSeq(), sliceRepository.maxChangeSeq()));
+    }
+
+    /**
+     * Número para una escritura dentro de la transacción actual; queda en curso hasta el commit o rollback.
+     */
+    public long next() {
+        long seq;
+        synchronized (this) {
+            seq = ++last;
+            inFlight.put(seq, seq);
+        }
+        onCompletion(seq);
+        return seq;
+    }
+
+    /**
+     * Bloque contiguo de {@code count} números para una escritura masiva en la transacción actual; devuelve el primero.
+     */
+    public long nextBlock(int count) {
+        long first;
+        synchronized (this) {
+            first = last + 1;
+            last += count;
+            inFlight.put(first, last);
+        }
+        onCompletion(first);
+        return first;
+    }
+
+    private void onCompletion(long first) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    complete(first);
+                }
+            });
+        } else {
+            complete(first);
+        }
+    }
+
+    private synchronized void complete(long first) {
+        inFlight.remove(first);
+    }
+
+    public synchronized long watermark() {
+        return inFlight.isEmpty() ? last : inFlight.firstKey() - 1;
+    }
+
+    public long epoch() {
+        return epoch;
+    }
+}
@@ -0,0 +1,6 @@
+package com.mercadolibre.inventory_challenge.Service;
+
+public enum ExecutionMode {
+    DIRECT,
+    ACTOR
+}
@@ -0,0 +1,43 @@
+package com.mercadolibre.inventory_challenge.Service;
+
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Cuenta conflictos de versión por (sku, storeId) en ventanas de tiempo fijas.
+ * Una clave es caliente si está configurada por SKU o si supera el umbral de conflictos en la ventana actual.
+ */
+@Component
+public class HotKeyDetector {
+    private final InventoryProperties.HotKeys settings;
+    private final Map<StockKey, AtomicInteger> conflicts = new ConcurrentHashMap<>();
+    private volatile long windowStart = System.nanoTime();
+
+    public HotKeyDetector(InventoryProperties inventoryProperties) {
+        this.settings = inventoryProperties.getHotKeys();
+    }
+
+    public void recordConflict(StockKey key) {
+        rollWindow();
+        conflicts.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    public boolean isHot(StockKey key) {
+        if (settings.getSkus().contains(key.sku())) return true;
+        AtomicInteger count = conflicts.get(key);
+        return count != null && count.get() >= settings.getConflictThreshold();
+    }
+
+    // Al vencer la ventana se descartan los contadores: el mapa solo contiene claves con conflictos recientes
+    private void rollWindow() {
+        long now = System.nanoTime();
+        if (now - windowStart > settings.getWindow().toNanos()) {
+            windowStart = now;
+            conflicts.clear();
+        }
+    }
+}
@@ -0,0 +1,444 @@
+package com.mercadolibre.inventory_challenge.Service;
+
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import com.mercadolibre.inventory_challenge.dictionary.KeyDictionary;
+import com.mercadolibre.inventory_challenge.dictionary.LongObjectMap;
+import com.mercadolibre.inventory_challenge.exception.InsufficientStockException;
+import com.mercadolibre.inventory_challenge.exception.InventoryNotFoundException;
+import com.mercadolibre.inventory_challenge.exception.UnsupportedMovementTypeException;
+import com.mercadolibre.inventory_challenge.model.Inventory;
+import com.mercadolibre.inventory_challenge.model.StockMovement;
+import com.mercadolibre.inventory_challenge.replica.ReadRouting;
+import com.mercadolibre.inventory_challenge.repository.InventoryRepository;
+import com.mercadolibre.inventory_challenge.repository.StockMovementRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Motor de stock en memoria. Los contadores en memoria son la fuente de verdad: se reparten en shards
+ * por hash de (sku, storeId), cada uno con su propio lock, y se persisten en segundo plano. La clave se guarda
+ * empaquetada como {@code skuId << 32 | storeId} con los ids del {@link KeyDictionary}, en un mapa de claves
+ * primitivas: cada contador no retiene strings propios ni nodos de {@code HashMap}.
+ * <p>
+ * Durabilidad: un movimiento confirmado al cliente queda en memoria hasta el próximo flush
+ * ({@code inventory.engine.memory.flush-interval}). Si el proceso muere antes, esos movimientos se pierden.
+ * El motor asume un único nodo escritor: cambios hechos directamente en la base mientras corre se pisan.
+ */
+@Component
+@ConditionalOnProperty(prefix = "inventory.engine.memory", name = "enabled", havingValue = "true")
+public class InMemoryStockEngine {
+    private static final Logger logger = LoggerFactory.getLogger(InMemoryStockEngine.class);
+
+    private final InventoryRepository inventoryRepository;
+    private final StockMovementRepository stockMovementRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ChangeSequence changeSequence;
+    private final InventoryProperties.Memory settings;
+    private final Shard[] shards;
+    private final KeyDictionary dictionary;
+    // skuId -> storeIds con contador; copy-on-write porque se lee sin el lock de ningún shard
+    private final Map<Integer, int[]> storesBySku = new ConcurrentHashMap<>();
+    // Solo lo usa el hilo de flush: movimientos de un flush fallido que se reintentan primero
+    private final Deque<StockMovement> pendingJournal = new ArrayDeque<>();
+    private ScheduledExecutorService flusher;
+
+    public InMemoryStockEngine(InventoryRepository inventoryRepository, StockMovementRepository stockMovementRepository,
+                               PlatformTransactionManager transactionManager, ChangeSequence changeSequence,
+                               InventoryProperties inventoryProperties, KeyDictionary dictionary) {
+        this.inventoryRepository = inventoryRepository;
+        this.stockMovementRepository = stockMovementRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.changeSequence = changeSequence;
+        this.settings = inventoryProperties.getEngine().getMemory();
+        this.dictionary = dictionary;
+        this.shards = new Shard[Integer.highestOneBit(Math.max(1, settings.getShards() - 1)) << 1];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard();
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        load();
+        long interval = settings.getFlushInterval().toMillis();
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "inventory-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushSafely, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        flusher.shutdown();
+        flusher.awaitTermination(10, TimeUnit.SECONDS);
+        flush();
+    }
+
+    // Recarga el estado completo desde la base al arrancar
+    private void load() {
+        int loaded = 0;
+        for (Inventory inventory : ReadRouting.onPrimary(inventoryRepository::findAll)) {
+            long key = dictionary.intern(inventory.getSku(), inventory.getStoreId());
+            Counter counter = new Counter(key, inventory.getQuantity());
+            counter.id = inventory.getId();
+            counter.changeSeq = inventory.getChangeSeq();
+            shard(key).counters.put(key, counter);
+            index(key);
+            loaded++;
+        }
+        logger.info("In-memory stock engine loaded {} inventory rows into {} shards", loaded, shards.length);
+    }
+
+    public List<Inventory> getAllInventory() {
+        List<Inventory> result = new ArrayList<>();
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                shard.counters.forEachValue(counter -> result.add(counter.toInventory(dictionary)));
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return result;
+    }
+
+    // Las filas aún no persistidas (sin id) aparecen en la paginación después del próximo flush
+    public List<Inventory> getInventoryPage(long afterId, String storeId, String sku, int limit) {
+        List<Inventory> page = new ArrayList<>();
+        forEachInventory(storeId, sku, inventory -> {
+            if (inventory.getId() != null && inventory.getId() > afterId) page.add(inventory);
+        });
+        page.sort(Comparator.comparing(Inventory::getId));
+        return page.size() > limit ? new ArrayList<>(page.subList(0, limit)) : page;
+    }
+
+    // Copia un shard por vez bajo su lock y entrega las filas fuera del lock
+    public void forEachInventory(String storeId, String sku, Consumer<Inventory> consumer) {
+        int storeKey = storeId == null ? 0 : dictionary.storeIdOf(storeId);
+        int skuKey = sku == null ? 0 : dictionary.skuIdOf(sku);
+        if (storeKey < 0 || skuKey < 0) return;
+        for (Shard shard : shards) {
+            List<Inventory> rows = new ArrayList<>();
+            shard.lock.lock();
+            try {
+                shard.counters.forEachValue(counter -> {
+                    if ((storeKey == 0 || storeKey == LongObjectMap.low(counter.key))
+                            && (skuKey == 0 || skuKey == LongObjectMap.high(counter.key))) {
+                        rows.add(counter.toInventory(dictionary));
+                    }
+                });
+            } finally {
+                shard.lock.unlock();
+            }
+            rows.forEach(consumer);
+        }
+    }
+
+    // Recorre todos los contadores: el costo es proporcional a la tabla, pero sin acceso a la base
+    public List<Inventory> getChanges(long since, long upTo, String storeId, int limit) {
+        List<Inventory> changes = new ArrayList<>();
+        int storeKey = storeId == null ? 0 : dictionary.storeIdOf(storeId);
+        if (storeKey < 0) return changes;
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                shard.counters.forEachValue(counter -> {
+                    if (counter.changeSeq > since && counter.changeSeq <= upTo
+                            && (storeKey == 0 || storeKey == LongObjectMap.low(counter.key))) {
+                        changes.add(counter.toInventory(dictionary));
+                    }
+                });
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        changes.sort(Comparator.comparingLong(Inventory::getChangeSeq));
+        return changes.size() > limit ? new ArrayList<>(changes.subList(0, limit)) : changes;
+    }
+
+    public List<Inventory> getInventoryBySku(String sku) {
+        List<Inventory> result = new ArrayList<>();
+        int skuId = dictionary.skuIdOf(sku);
+        if (skuId < 0) return result;
+        for (int storeId : storesBySku.getOrDefault(skuId, new int[0])) {
+            long key = LongObjectMap.pack(skuId, storeId);
+            Shard shard = shard(key);
+            shard.lock.lock();
+            try {
+                Counter counter = shard.counters.get(key);
+                if (counter != null) result.add(counter.toInventory(dictionary));
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        return result;
+    }
+
+    public Inventory updateStock(String sku, String storeId, Integer newStock) {
+        return setStock(sku, storeId, newStock, false);
+    }
+
+    // Carga masiva: crea la clave si no existe
+    public Inventory upsertStock(String sku, String storeId, int newStock) {
+        return setStock(sku, storeId, newStock, true);
+    }
+
+    private Inventory setStock(String sku, String storeId, int newStock, boolean create) {
+        // Sin create no se registra en el diccionario una clave que no existe
+        long key = create ? dictionary.intern(sku, storeId) : dictionary.keyOf(sku, storeId);
+        if (key < 0) throw new InventoryNotFoundException(sku, storeId);
+        Shard shard = shard(key);
+        shard.lock.lock();
+        try {
+            Counter counter = shard.counters.get(key);
+            if (counter == null) {
+                if (!create) throw new InventoryNotFoundException(sku, storeId);
+                counter = new Counter(key, 0);
+                shard.counters.put(key, counter);
+                index(key);
+            }
+            counter.quantity = newStock;
+            counter.changeSeq = changeSequence.next();
+            shard.markDirty(counter);
+            return counter.toInventory(dictionary);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    public StockMovement registerMovement(String sku, String storeId, String type, Integer quantity) {
+        boolean sale = "sale".equalsIgnoreCase(type);
+        if (!sale && !"restock".equalsIgnoreCase(type)) {
+            throw UnsupportedMovementTypeException.INSTANCE;
+        }
+        // Se interna fuera del lock del shard: un valor nuevo toma el lock de su espacio del diccionario
+        long key = dictionary.intern(sku, storeId);
+        Shard shard = shard(key);
+        StockMovement movement;
+        shard.lock.lock();
+        try {
+            Counter counter = shard.counters.get(key);
+            int available = counter == null ? 0 : counter.quantity;
+            if (sale && available < quantity) throw InsufficientStockException.INSTANCE;
+            if (counter == null) {
+                counter = new Counter(key, 0);
+                shard.counters.put(key, counter);
+                index(key);
+            }
+            counter.quantity = sale ? available - quantity : available + quantity;
+            counter.changeSeq = changeSequence.next();
+            shard.markDirty(counter);
+            movement = StockMovement.builder()
+                    .sku(sku)
+                    .storeId(storeId)
+                    .type(type)
+                    .quantity(quantity)
+                    .timestamp(LocalDateTime.now())
+                    .build();
+            shard.journal.add(movement);
+        } finally {
+            shard.lock.unlock();
+        }
+        return movement;
+    }
+
+    /**
+     * Ventas de un pedido, todas o ninguna: toma los locks de los shards involucrados en orden de índice (así dos
+     * pedidos no se bloquean entre sí), valida todas las líneas y recién entonces descuenta.
+     */
+    public List<StockMovement> registerOrder(String storeId, SortedMap<String, Integer> lines) {
+        long[] keys = new long[lines.size()];
+        TreeSet<Integer> shardIndexes = new TreeSet<>();
+        int i = 0;
+        for (String sku : lines.keySet()) {
+            // Una clave que no está en el diccionario no tiene stock: no se interna
+            keys[i] = dictionary.keyOf(sku, storeId);
+            if (keys[i] < 0) throw InsufficientStockException.INSTANCE;
+            shardIndexes.add(LongObjectMap.mix(keys[i]) & (shards.length - 1));
+            i++;
+        }
+        List<ReentrantLock> locked = new ArrayList<>(shardIndexes.size());
+        try {
+            for (int index : shardIndexes) {
+                shards[index].lock.lock();
+                locked.add(shards[index].lock);
+            }
+            Counter[] counters = new Counter[keys.length];
+            i = 0;
+            for (int quantity : lines.values()) {
+                counters[i] = shard(keys[i]).counters.get(keys[i]);
+                if (counters[i] == null || counters[i].quantity < quantity) throw InsufficientStockException.INSTANCE;
+                i++;
+            }
+            List<StockMovement> movements = new ArrayList<>(keys.length);
+            i = 0;
+            LocalDateTime now = LocalDateTime.now();
+            for (Map.Entry<String, Integer> line : lines.entrySet()) {
+                Counter counter = counters[i];
+                Shard shard = shard(keys[i]);
+                counter.quantity -= line.getValue();
+                counter.changeSeq = changeSequence.next();
+                shard.markDirty(counter);
+                StockMovement movement = StockMovement.builder()
+                        .sku(line.getKey())
+                        .storeId(storeId)
+                        .type("sale")
+                        .quantity(line.getValue())
+                        .timestamp(now)
+                        .build();
+                shard.journal.add(movement);
+                movements.add(movement);
+                i++;
+            }
+            return movements;
+        } finally {
+            for (int j = locked.size() - 1; j >= 0; j--) locked.get(j).unlock();
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            logger.error("In-memory stock engine flush failed, will retry on next interval", ex);
+        }
+    }
+
+    /**
+     * Group commit: toma las altas del diccionario, los contadores sucios y el journal de cada shard y los persiste en
+     * una única transacción. Si la transacción falla, los contadores se vuelven a marcar sucios y las altas y el
+     * journal se reintentan en el próximo flush.
+     */
+    public synchronized void flush() {
+        KeyDictionary.Pending newKeys = dictionary.takePending();
+        List<Counter> dirty = new ArrayList<>();
+        List<Integer> quantities = new ArrayList<>();
+        List<Long> changeSeqs = new ArrayList<>();
+        List<StockMovement> journal = new ArrayList<>(pendingJournal);
+        pendingJournal.clear();
+        for (Shard shard : shards) {
+            shard.lock.lock();
+            try {
+                for (Counter counter : shard.dirty) {
+                    counter.dirty = false;
+                    dirty.add(counter);
+                    quantities.add(counter.quantity);
+                    changeSeqs.add(counter.changeSeq);
+                }
+                shard.dirty.clear();
+                journal.addAll(shard.journal);
+                shard.journal.clear();
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+        if (newKeys.isEmpty() && dirty.isEmpty() && journal.isEmpty()) return;
+
+        Map<Counter, Long> insertedIds = new HashMap<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                dictionary.persist(newKeys);
+                for (int i = 0; i < dirty.size(); i++) {
+                    Counter counter = dirty.get(i);
+                    if (counter.id == null) {
+                        Inventory saved = inventoryRepository.save(Inventory.builder()
+                                .sku(dictionary.sku(counter.key)).storeId(dictionary.storeId(counter.key)).quantity(quantities.get(i))
+                                .changeSeq(changeSeqs.get(i)).build());
+                        insertedIds.put(counter, saved.getId());
+                    } else {
+                        inventoryRepository.setStock(dictionary.sku(counter.key), dictionary.storeId(counter.key), quantities.get(i), changeSeqs.get(i));
+                    }
+                }
+                stockMovementRepository.saveAll(journal);
+            });
+        } catch (RuntimeException ex) {
+            for (Counter counter : dirty) {
+                Shard shard = shard(counter.key);
+                shard.lock.lock();
+                try {
+                    shard.markDirty(counter);
+                } finally {
+                    shard.lock.unlock();
+                }
+            }
+            journal.forEach(movement -> movement.setId(null));
+            pendingJournal.addAll(journal);
+            dictionary.restore(newKeys);
+            throw ex;
+        }
+        insertedIds.forEach((counter, id) -> counter.id = id);
+        logger.debug("Flushed {} inventory rows and {} movements", dirty.size(), journal.size());
+    }
+
+    private void index(long key) {
+        int storeId = LongObjectMap.low(key);
+        storesBySku.merge(LongObjectMap.high(key), new int[]{storeId}, (stores, added) -> {
+            for (int store : stores) if (store == storeId) return stores;
+            int[] grown = Arrays.copyOf(stores, stores.length + 1);
+            grown[stores.length] = storeId;
+            return grown;
+        });
+    }
+
+    private Shard shard(long key) {
+        return shards[LongObjectMap.mix(key) & (shards.length - 1)];
+    }
+
+    private static final class Shard {
+        final ReentrantLock lock = new ReentrantLock();
+        final LongObjectMap<Counter> counters = new LongObjectMap<>();
+        final List<Counter> dirty = new ArrayList<>();
+        final List<StockMovement> journal = new ArrayList<>();
+
+        void markDirty(Counter counter) {
+            if (!counter.dirty) {
+                counter.dirty = true;
+                dirty.add(counter);
+            }
+        }
+    }
+
+    private static final class Counter {
+        final long key;
+        volatile Long id;
+        int quantity;
+        long changeSeq;
+        boolean dirty;
+
+        Counter(long key, int quantity) {
+            this.key = key;
+            this.quantity = quantity;
+        }
+
+        Inventory toInventory(KeyDictionary dictionary) {
+            return Inventory.builder().id(id).sku(dictionary.sku(key)).storeId(dictionary.storeId(key))
+                    .quantity(quantity).changeSeq(changeSeq).build();
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.mercadolibre.inventory_challenge.Service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import com.mercadolibre.inventory_challenge.dto.CacheStatsResponse;
+import com.mercadolibre.inventory_challenge.model.Inventory;
+import com.mercadolibre.inventory_challenge.replica.ReadRouting;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * Cache de lectura por SKU (Caffeine, W-TinyLFU, acotado por cantidad de filas).
+ * <p>
+ * Las escrituras invalidan el SKU recién después del commit. La carga corre fuera de los locks de Caffeine: el
+ * afterCommit de una escritura todavía retiene su conexión, y si esperara a una carga que a su vez espera una
+ * conexión del pool, con el pool tomado por escritores se bloquearían todos hasta el timeout de Hikari. Para que un
+ * valor leído antes del commit no sobreviva a la invalidación, cada invalidación avanza un sello por franja de SKU y
+ * la carga solo se guarda si el sello de su SKU no cambió desde que empezó: cualquier lectura posterior a la
+ * respuesta de una escritura ve el dato confirmado. Lecturas simultáneas de un SKU ausente pueden cargarlo más de
+ * una vez.
+ */
+@Component
+public class InventoryCache {
+    private static final int STRIPES = 1024;
+
+    private final Cache<String, List<Inventory>> cache;
+    // Sello de invalidaciones por franja de SKU
+    private final AtomicLongArray stamps = new AtomicLongArray(STRIPES);
+
+    public InventoryCache(InventoryProperties inventoryProperties) {
+        InventoryProperties.Cache settings = inventoryProperties.getCache();
+        this.cache = !settings.isEnabled() ? null : Caffeine.newBuilder()
+                .maximumWeight(settings.getMaximumWeight())
+                .<String, List<Inventory>>weigher((sku, rows) -> rows.size() + 1)
+                .expireAfterWrite(settings.getExpireAfterWrite())
+                .recordStats()
+                .build();
+    }
+
+    public List<Inventory> getBySku(String sku, Function<String, List<Inventory>> loader) {
+        if (cache == null) return loader.apply(sku);
+        // Se carga del primario: la invalidación sigue a sus commits, y una carga desde una réplica atrasada
+        // quedaría en la cache hasta la próxima escritura del SKU
+        List<Inventory> cached = cache.getIfPresent(sku);
+        if (cached != null) return cached;
+        int stripe = stripe(sku);
+        long stamp = stamps.get(stripe);
+        List<Inventory> loaded = List.copyOf(ReadRouting.onPrimary(() -> loader.apply(sku)));
+        // Bajo el lock de la clave: una invalidación posterior a este put lo borra, una anterior cambió el sello
+        cache.asMap().compute(sku, (key, current) -> stamps.get(stripe) == stamp ? loaded : current);
+        return loaded;
+    }
+
+    public void evictAfterCommit(String sku) {
+        evictAfterCommit(Set.of(sku));
+    }
+
+    public void evictAfterCommit(Collection<String> skus) {
+        if (cache == null || skus.isEmpty()) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidate(skus);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                invalidate(skus);
+            }
+        });
+    }
+
+    private void invalidate(Collection<String> skus) {
+        for (String sku : skus) stamps.incrementAndGet(stripe(sku));
+        cache.invalidateAll(skus);
+    }
+
+    private static int stripe(String sku) {
+        return (sku.hashCode() & 0x7fffffff) % STRIPES;
+    }
+
+    public CacheStatsResponse stats() {
+        if (cache == null) return CacheStatsResponse.builder().enabled(false).build();
+        CacheStats stats = cache.stats();
+        return CacheStatsResponse.builder()
+                .enabled(true)
+                .size(cache.estimatedSize())
+                .hits(stats.hitCount())
+                .misses(stats.missCount())
+                .evictions(stats.evictionCount())
+                .hitRate(stats.hitRate())
+                .build();
+    }
+}
@@ -1,62 +1,459 @@
 package com.mercadolibre.inventory_challenge.Service;
 
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import com.mercadolibre.inventory_challenge.dto.BatchMovementResult;
+import com.mercadolibre.inventory_challenge.dto.CacheStatsResponse;
+import com.mercadolibre.inventory_challenge.dto.ChangesResponse;
+import com.mercadolibre.inventory_challenge.dto.MovementHistoryEntry;
+import com.mercadolibre.inventory_challenge.dto.MovementHistoryResponse;
+import com.mercadolibre.inventory_challenge.dto.OrderLine;
+import com.mercadolibre.inventory_challenge.dto.StockMovementRequest;
+import com.mercadolibre.inventory_challenge.exception.InsufficientStockException;
 import com.mercadolibre.inventory_challenge.exception.InventoryException;
+import com.mercadolibre.inventory_challenge.exception.InventoryNotFoundException;
+import com.mercadolibre.inventory_challenge.exception.UnsupportedMovementTypeException;
+import com.mercadolibre.inventory_challenge.journal.MovementJournal;
+import com.mercadolibre.inventory_challenge.metrics.InventoryMetrics;
+import com.mercadolibre.inventory_challenge.metrics.InventoryMetrics.Operation;
 import com.mercadolibre.inventory_challenge.model.Inventory;
+import com.mercadolibre.inventory_challenge.model.MovementRollup;
 import com.mercadolibre.inventory_challenge.model.StockMovement;
 import com.mercadolibre.inventory_challenge.repository.InventoryRepository;
+import com.mercadolibre.inventory_challenge.repository.MovementRollupRepository;
+import com.mercadolibre.inventory_challenge.repository.SliceChange;
+import com.mercadolibre.inventory_challenge.replica.ReadRouting;
+import com.mercadolibre.inventory_challenge.reservation.ReservationHolds;
 import com.mercadolibre.inventory_challenge.repository.StockMovementRepository;
-import jakarta.transaction.Transactional;
+import com.mercadolibre.inventory_challenge.shard.ShardRouter;
+import com.mercadolibre.inventory_challenge.stream.StockChangeBuffer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
 
 @Service
 public class InventoryService {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryService.class);
+    private static final int MAX_BATCH_KEY_ATTEMPTS = 3;
+    // Límites del historial cuando no se indica rango
+    private static final LocalDateTime HISTORY_START = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime HISTORY_END = LocalDateTime.of(9999, 1, 1, 0, 0);
+    // Orden global del historial: agregados diarios primero, después movimientos, cada parte por (fecha, id)
+    private static final Comparator<MovementHistoryEntry> HISTORY_ORDER = Comparator
+            .comparing((MovementHistoryEntry entry) -> !MovementHistoryEntry.DAILY.equals(entry.getGranularity()))
+            .thenComparing(MovementHistoryEntry::getTimestamp)
+            .thenComparing(MovementHistoryEntry::getId);
+
     private final InventoryRepository inventoryRepository;
     private final StockMovementRepository stockMovementRepository;
+    private final MovementRollupRepository movementRollupRepository;
+    private final InventoryProperties inventoryProperties;
+    private final SplitCounterService splitCounters;
+    private final InventoryCache inventoryCache;
+    private final InventoryMetrics metrics;
+    private final ChangeSequence changeSequence;
+
+    // Solo existe con inventory.engine.memory.enabled=true; en ese caso es la fuente de verdad del stock
+    @Autowired(required = false)
+    private InMemoryStockEngine memoryEngine;
+
+    // Solo existe con inventory.journal.enabled=true: los movimientos se escriben en el log en vez de stock_movement
+    @Autowired(required = false)
+    private MovementJournal journal;
+
+    // Solo existe con inventory.sharding.enabled=true: cada operación va a la base del shard de su tienda
+    @Autowired(required = false)
+    private ShardRouter shardRouter;
+
+    // Solo existe con inventory.reservations.enabled=true: las ventas no pueden tomar unidades reservadas
+    @Autowired(required = false)
+    private ReservationHolds reservationHolds;
+
+    // Solo existe con inventory.stream.enabled=true: las escrituras avisan sus claves al stream después del commit
+    @Autowired(required = false)
+    private StockChangeBuffer stockChanges;
 
-    public InventoryService(InventoryRepository inventoryRepository, StockMovementRepository stockMovementRepository) {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public InventoryService(InventoryRepository inventoryRepository, StockMovementRepository stockMovementRepository,
+                            MovementRollupRepository movementRollupRepository, InventoryProperties inventoryProperties, SplitCounterService splitCounters,
+                            InventoryCache inventoryCache, InventoryMetrics metrics, ChangeSequence changeSequence) {
         this.inventoryRepository = inventoryRepository;
         this.stockMovementRepository = stockMovementRepository;
+        this.movementRollupRepository = movementRollupRepository;
+        this.inventoryProperties = inventoryProperties;
+        this.splitCounters = splitCounters;
+        this.inventoryCache = inventoryCache;
+        this.metrics = metrics;
+        this.changeSequence = changeSequence;
     }
 
+    /**
+     * Las consultas corren en transacciones de solo lectura: Hibernate no guarda copias para dirty checking ni
+     * hace flush, y con {@code inventory.replica.enabled=true} la conexión sale del pool de la réplica.
+     */
+    @Transactional(readOnly = true)
     public List<Inventory> getAllInventory() {
-        return inventoryRepository.findAll();
+        long start = System.nanoTime();
+        try {
+            List<Inventory> result = memoryEngine != null ? memoryEngine.getAllInventory()
+                    : allShards(() -> splitCounters.withSliceTotals(inventoryRepository.findAll(), null));
+            metrics.success(Operation.GET_ALL_INVENTORY, start);
+            return result;
+        } catch (RuntimeException ex) {
+            metrics.failure(Operation.GET_ALL_INVENTORY, start, ex);
+            throw ex;
+        }
     }
 
+    // SUPPORTS: marca el alcance como de solo lectura sin abrir una transacción, así un acierto de la cache no toma conexión
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public List<Inventory> getInventoryBySku(String sku) {
-        return inventoryRepository.findBySku(sku);
+        long start = System.nanoTime();
+        try {
+            List<Inventory> result = memoryEngine != null ? memoryEngine.getInventoryBySku(sku)
+                    : inventoryCache.getBySku(sku, key -> allShards(() -> splitCounters.withSliceTotals(inventoryRepository.findBySku(key), key)));
+            metrics.success(Operation.GET_INVENTORY_BY_SKU, start);
+            return result;
+        } catch (RuntimeException ex) {
+            metrics.failure(Operation.GET_INVENTORY_BY_SKU, start, ex);
+            throw ex;
+        }
+    }
+
+    // Stock de una clave leído de la fuente de verdad, sin cache: lo usan las reservas bajo el lock de la clave
+    @Transactional(readOnly = true)
+    public Optional<Integer> getCurrentQuantity(String sku, String storeId) {
+        List<Inventory> rows = memoryEngine != null ? memoryEngine.getInventoryBySku(sku)
+                : splitCounters.withSliceTotals(inventoryRepository.findBySku(sku), sku);
+        return rows.stream().filter(inventory -> storeId.equals(inventory.getStoreId())).findFirst().map(Inventory::getQuantity);
+    }
+
+    // Stock de varias claves de una tienda en una consulta, sin cache: lo usa GET /inventory/stream después de cada commit
+    @Transactional(readOnly = true)
+    public Map<String, Integer> getCurrentQuantities(String storeId, Collection<String> skus) {
+        Map<String, Integer> quantities = new HashMap<>();
+        if (memoryEngine != null) {
+            for (String sku : skus) getCurrentQuantity(sku, storeId).ifPresent(quantity -> quantities.put(sku, quantity));
+            return quantities;
+        }
+        List<Inventory> rows = onStore(storeId, () ->
+                splitCounters.withSliceTotals(inventoryRepository.findByStoreIdAndSkuIn(storeId, skus), null));
+        for (Inventory row : rows) quantities.put(row.getSku(), row.getQuantity());
+        return quantities;
+    }
+
+    /**
+     * Historial de movimientos de un SKU, opcionalmente filtrado por tienda y rango [from, to), paginado por keyset.
+     * Los días ya compactados por {@link MovementRollupJob} se devuelven como agregados diarios (entran si el día se
+     * solapa con el rango) antes de los movimientos originales; el cursor indica en cuál de las dos partes sigue.
+     * Con el journal activo se lee del log a través del índice por SKU y no hay agregados.
+     * Con sharding y sin tienda cada shard arma su página con el mismo cursor y se combinan en {@link #HISTORY_ORDER}.
+     */
+    @Transactional(readOnly = true)
+    public MovementHistoryResponse getMovementHistory(String sku, String storeId, LocalDateTime from, LocalDateTime to,
+                                                      String cursor, int limit) {
+        if (shardRouter == null) return historyPage(sku, storeId, from, to, cursor, limit);
+        if (storeId != null) return shardRouter.onStore(storeId, () -> historyPage(sku, storeId, from, to, cursor, limit));
+        return mergeHistory(shardRouter.fanOut(() -> historyPage(sku, null, from, to, cursor, limit)), limit);
+    }
+
+    private MovementHistoryResponse historyPage(String sku, String storeId, LocalDateTime from, LocalDateTime to,
+                                                String cursor, int limit) {
+        LocalDateTime lower = from != null ? from : HISTORY_START;
+        LocalDateTime upper = to != null ? to : HISTORY_END;
+        HistoryCursor position = cursor != null ? HistoryCursor.parse(cursor) : null;
+        List<MovementHistoryEntry> page = new ArrayList<>(limit);
+
+        if (!usesJournal() && (position == null || position.daily())) {
+            LocalDate fromDay = lower.toLocalDate();
+            LocalDate toDay = upper.toLocalTime().equals(LocalTime.MIDNIGHT) ? upper.toLocalDate() : upper.toLocalDate().plusDays(1);
+            List<MovementRollup> rollups = movementRollupRepository.findHistory(sku, storeId, fromDay, toDay,
+                    position != null ? position.day() : fromDay, position != null ? position.id() : -1, Limit.of(limit));
+            rollups.forEach(rollup -> page.add(MovementHistoryEntry.of(rollup)));
+            if (rollups.size() == limit) {
+                MovementRollup last = rollups.get(rollups.size() - 1);
+                return new MovementHistoryResponse(page, HistoryCursor.daily(last.getDay(), last.getId()));
+            }
+        }
+
+        boolean resume = position != null && !position.daily();
+        int remaining = limit - page.size();
+        List<StockMovement> rows = historyRows(sku, storeId, lower, upper,
+                resume ? position.timestamp() : lower, resume ? position.id() : -1, remaining);
+        rows.forEach(movement -> page.add(MovementHistoryEntry.of(movement)));
+        String next = null;
+        if (rows.size() == remaining) {
+            StockMovement last = rows.get(rows.size() - 1);
+            next = HistoryCursor.movement(last.getTimestamp(), last.getId());
+        }
+        return new MovementHistoryResponse(page, next);
+    }
+
+    // Las primeras `limit` entradas del orden global están entre las primeras `limit` de cada shard
+    private static MovementHistoryResponse mergeHistory(List<MovementHistoryResponse> pages, int limit) {
+        List<MovementHistoryEntry> merged = new ArrayList<>();
+        boolean hasMore = false;
+        for (MovementHistoryResponse page : pages) {
+            merged.addAll(page.getMovements());
+            hasMore |= page.getNextCursor() != null;
+        }
+        merged.sort(HISTORY_ORDER);
+        if (merged.size() > limit) {
+            merged = new ArrayList<>(merged.subList(0, limit));
+            hasMore = true;
+        }
+        if (!hasMore) return new MovementHistoryResponse(merged, null);
+        MovementHistoryEntry last = merged.get(merged.size() - 1);
+        return new MovementHistoryResponse(merged, MovementHistoryEntry.DAILY.equals(last.getGranularity())
+                ? HistoryCursor.daily(last.getDay(), last.getId())
+                : HistoryCursor.movement(last.getTimestamp(), last.getId()));
+    }
+
+    // Movimientos originales con (timestamp, id) posterior a la posición dada, ordenados por (timestamp, id)
+    private List<StockMovement> historyRows(String sku, String storeId, LocalDateTime from, LocalDateTime to,
+                                            LocalDateTime afterTimestamp, long afterId, int limit) {
+        if (!usesJournal()) {
+            return stockMovementRepository.findHistory(sku, storeId, from, to, afterTimestamp, afterId, Limit.of(limit));
+        }
+        Comparator<StockMovement> order = Comparator.comparing(StockMovement::getTimestamp).thenComparing(StockMovement::getId);
+        StockMovement after = StockMovement.builder().timestamp(afterTimestamp).id(afterId).build();
+        return journal.findBySku(sku).stream()
+                .filter(m -> storeId == null || storeId.equals(m.getStoreId()))
+                .filter(m -> !m.getTimestamp().isBefore(from) && m.getTimestamp().isBefore(to))
+                .filter(m -> order.compare(m, after) > 0)
+                .sorted(order)
+                .limit(limit)
+                .toList();
+    }
+
+    // Posición en el historial: "d:{día}:{id}" dentro de los agregados o "m:{timestamp}:{id}" dentro de los movimientos
+    private record HistoryCursor(boolean daily, LocalDate day, LocalDateTime timestamp, long id) {
+        static String daily(LocalDate day, long id) {
+            return "d:" + day + ":" + id;
+        }
+
+        static String movement(LocalDateTime timestamp, long id) {
+            return "m:" + timestamp + ":" + id;
+        }
+
+        static HistoryCursor parse(String cursor) {
+            int idSeparator = cursor.lastIndexOf(':');
+            try {
+                if (cursor.length() > 2 && cursor.charAt(1) == ':' && idSeparator > 2) {
+                    String value = cursor.substring(2, idSeparator);
+                    long id = Long.parseLong(cursor.substring(idSeparator + 1));
+                    if (cursor.charAt(0) == 'd') return new HistoryCursor(true, LocalDate.parse(value), null, id);
+                    if (cursor.charAt(0) == 'm') return new HistoryCursor(false, null, LocalDateTime.parse(value), id);
+                }
+            } catch (NumberFormatException | DateTimeParseException ignored) {
+                // cae en el error de abajo
+            }
+            throw new InventoryException("Invalid history cursor: " + cursor);
+        }
+    }
+
+    /**
+     * Feed incremental: filas cuyo número de cambio supera el cursor, hasta la marca de agua de la secuencia.
+     * Sin cursor devuelve solo el cursor actual, para tomarlo antes de una descarga completa.
+     * Con la base usa los índices sobre change_seq (costo proporcional a los cambios); el motor en memoria recorre sus contadores.
+     * Se lee del primario: una réplica atrasada podría no tener todavía cambios por debajo de la marca de agua.
+     */
+    public ChangesResponse getChanges(String cursor, String storeId, int limit) {
+        long upTo = changeSequence.watermark();
+        String current = formatCursor(upTo);
+        if (cursor == null) {
+            return ChangesResponse.builder().changes(List.of()).cursor(current).build();
+        }
+        Long since = parseCursor(cursor);
+        if (since == null || since > upTo) {
+            return ChangesResponse.builder().changes(List.of()).cursor(current).fullSyncRequired(true).build();
+        }
+        List<Inventory> changes = memoryEngine != null
+                ? memoryEngine.getChanges(since, upTo, storeId, limit)
+                : acrossShards(storeId, () -> ReadRouting.onPrimary(() -> changedRows(since, upTo, storeId, limit)),
+                        Comparator.comparingLong(Inventory::getChangeSeq), limit);
+        boolean hasMore = changes.size() == limit;
+        return ChangesResponse.builder()
+                .changes(changes)
+                .cursor(hasMore ? formatCursor(changes.get(changes.size() - 1).getChangeSeq()) : current)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    // Movimiento ya registrado con esa Idempotency-Key, para reconstruir la respuesta original (se lee del primario)
+    public Optional<StockMovement> findMovementByIdempotencyKey(String idempotencyKey) {
+        if (memoryEngine != null || usesJournal()) return Optional.empty();
+        return allShards(() -> ReadRouting.onPrimary(() -> stockMovementRepository.findByIdempotencyKey(idempotencyKey)
+                .stream().toList())).stream().findFirst();
+    }
+
+    public CacheStatsResponse getCacheStats() {
+        return inventoryCache.stats();
+    }
+
+    /**
+     * Página por keyset: filas con id mayor a afterId, ordenadas por id, con filtros opcionales.
+     */
+    @Transactional(readOnly = true)
+    public List<Inventory> getInventoryPage(Long afterId, String storeId, String sku, int limit) {
+        long after = afterId == null ? 0L : afterId;
+        if (memoryEngine != null) return memoryEngine.getInventoryPage(after, storeId, sku, limit);
+        return acrossShards(storeId, () -> pageRows(after, storeId, sku, limit), Comparator.comparingLong(Inventory::getId), limit);
     }
 
+    private List<Inventory> pageRows(long after, String storeId, String sku, int limit) {
+        List<Inventory> page;
+        if (storeId != null && sku != null) {
+            page = inventoryRepository.findBySkuAndStoreIdAndIdGreaterThanOrderByIdAsc(sku, storeId, after, Limit.of(limit));
+        } else if (storeId != null) {
+            page = inventoryRepository.findByStoreIdAndIdGreaterThanOrderByIdAsc(storeId, after, Limit.of(limit));
+        } else if (sku != null) {
+            page = inventoryRepository.findBySkuAndIdGreaterThanOrderByIdAsc(sku, after, Limit.of(limit));
+        } else {
+            page = inventoryRepository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit));
+        }
+        return splitCounters.withSliceTotals(page, sku);
+    }
+
+    /**
+     * Recorre el inventario con un cursor de la base y entrega cada fila al consumidor. Cada fila se desacopla
+     * del contexto de persistencia después de entregarla, así el heap no crece con el tamaño de la tabla.
+     * Con sharding y sin tienda los shards se recorren de a uno, cada uno en su propia transacción.
+     */
+    @Transactional(readOnly = true)
+    public void streamInventory(String storeId, String sku, Consumer<Inventory> consumer) {
+        if (memoryEngine != null) {
+            memoryEngine.forEachInventory(storeId, sku, consumer);
+        } else if (shardRouter == null) {
+            streamRows(storeId, sku, consumer);
+        } else if (storeId != null) {
+            shardRouter.onStore(storeId, () -> streamRows(storeId, sku, consumer));
+        } else {
+            for (String shard : shardRouter.shards()) {
+                shardRouter.inTransaction(shard, () -> streamRows(null, sku, consumer));
+            }
+        }
+    }
+
+    private Void streamRows(String storeId, String sku, Consumer<Inventory> consumer) {
+        Map<StockKey, Long> sliceTotals = splitCounters.sliceTotals(sku);
+        try (Stream<Inventory> rows = inventoryRepository.streamAll(storeId, sku)) {
+            rows.forEach(row -> {
+                entityManager.detach(row);
+                consumer.accept(sliceTotals.isEmpty() ? row : splitCounters.withSliceTotal(row, sliceTotals));
+            });
+        }
+        return null;
+    }
+
+    /**
+     * Las métricas de escritura miden el cuerpo del método; el commit (que ya no puede fallar por versión,
+     * porque el flush se hace adentro) queda fuera.
+     */
     @Transactional
     public Inventory updateStock(String sku, String storeId, Integer newStock) {
+        long start = System.nanoTime();
+        try {
+            Inventory result = onStore(storeId, () -> applyUpdateStock(sku, storeId, newStock));
+            if (usesJournal()) journal.appendSetAfterCommit(sku, storeId, newStock);
+            notifyChanged(List.of(new StockKey(sku, storeId)));
+            metrics.success(Operation.UPDATE_STOCK, start);
+            return result;
+        } catch (RuntimeException ex) {
+            metrics.failure(Operation.UPDATE_STOCK, start, ex);
+            throw ex;
+        }
+    }
+
+    private Inventory applyUpdateStock(String sku, String storeId, Integer newStock) {
+        if (memoryEngine != null) return memoryEngine.updateStock(sku, storeId, newStock);
+        inventoryCache.evictAfterCommit(sku);
+        if (splitCounters.isHot(sku, storeId)) {
+            inventoryRepository.findBySkuAndStoreId(sku, storeId).orElseThrow(() -> notFound(sku, storeId));
+            return splitCounters.setTotal(sku, storeId, newStock);
+        }
+        if (strategy() == MovementStrategy.ATOMIC) {
+            if (inventoryRepository.setStock(sku, storeId, newStock, changeSequence.next()) == 0) {
+                throw notFound(sku, storeId);
+            }
+            return inventoryRepository.findBySkuAndStoreId(sku, storeId).orElseThrow(() -> notFound(sku, storeId));
+        }
         Inventory inventory = inventoryRepository.findBySkuAndStoreId(sku, storeId)
-                .orElseThrow(() -> new InventoryException("Inventory not found for SKU: " + sku + " and Store ID: " + storeId));
+                .orElseThrow(() -> notFound(sku, storeId));
         inventory.setQuantity(newStock);
-        return inventoryRepository.save(inventory);
+        inventory.setChangeSeq(changeSequence.next());
+        Inventory saved = inventoryRepository.save(inventory);
+        flushRecordingConflicts(sku, storeId);
+        return saved;
     }
 
     @Transactional
     public StockMovement registerMovement(String sku, String storeId, String type, Integer quantity) {
-        // Buscar el inventario
-        Inventory inventory = inventoryRepository.findAll().stream()
-                .filter(inv -> inv.getSku().equals(sku) && inv.getStoreId().equals(storeId))
-                .findFirst()
-                .orElse(Inventory.builder().sku(sku).storeId(storeId).quantity(0).build());
+        return registerMovement(sku, storeId, type, quantity, null);
+    }
 
-        if ("sale".equalsIgnoreCase(type)) {
-            if (inventory.getQuantity() < quantity) throw new IllegalArgumentException("No hay suficiente stock");
-            inventory.setQuantity(inventory.getQuantity() - quantity);
-        } else if ("restock".equalsIgnoreCase(type)) {
-            inventory.setQuantity(inventory.getQuantity() + quantity);
-        } else {
-            throw new IllegalArgumentException("Tipo de movimiento no soportado");
+    /**
+     * Con {@code idempotencyKey} el movimiento se guarda con esa clave única: si ya se aplicó, el INSERT falla
+     * al confirmar y se revierte también el cambio de stock. El motor en memoria y el journal no la persisten.
+     */
+    @Transactional
+    public StockMovement registerMovement(String sku, String storeId, String type, Integer quantity, String idempotencyKey) {
+        long start = System.nanoTime();
+        try {
+            StockMovement result = onStore(storeId, () -> applyMovement(sku, storeId, type, quantity, idempotencyKey));
+            notifyChanged(List.of(new StockKey(sku, storeId)));
+            metrics.success(Operation.REGISTER_MOVEMENT, start);
+            return result;
+        } catch (RuntimeException ex) {
+            metrics.failure(Operation.REGISTER_MOVEMENT, start, ex);
+            throw ex;
         }
+    }
 
-        inventoryRepository.save(inventory);
+    private StockMovement applyMovement(String sku, String storeId, String type, Integer quantity, String idempotencyKey) {
+        if (reservationHolds != null) {
+            reservationHolds.lockUntilCompletion(List.of(new StockKey(sku, storeId)));
+            checkReserved(sku, storeId, type, quantity);
+        }
+        if (memoryEngine != null) return memoryEngine.registerMovement(sku, storeId, type, quantity);
+        inventoryCache.evictAfterCommit(sku);
+        if (splitCounters.isHot(sku, storeId)) {
+            splitCounters.applyMovement(sku, storeId, type, quantity);
+        } else if (strategy() == MovementStrategy.ATOMIC) {
+            applyAtomicMovement(sku, storeId, type, quantity);
+        } else {
+            applyOptimisticMovement(sku, storeId, type, quantity);
+        }
+        if (usesJournal()) return journal.appendAfterCommit(sku, storeId, type, quantity);
 
         StockMovement movement = StockMovement.builder()
                 .sku(sku)
@@ -64,8 +461,470 @@ public class InventoryService {
                 .type(type)
                 .quantity(quantity)
                 .timestamp(LocalDateTime.now())
+                .idempotencyKey(idempotencyKey)
                 .build();
 
         return stockMovementRepository.save(movement);
     }
-}
\ No newline at end of file
+
+    /**
+     * Aplica un lote de movimientos en una sola transacción. Los movimientos se agrupan por (sku, storeId)
+     * y cada clave recibe su delta neto en un único UPDATE; los StockMovement se insertan en lotes JDBC.
+     * Cada ítem tiene su propio resultado, en el mismo orden del pedido: una línea sin stock no rechaza el lote.
+     * Con sharding, un lote que cruza shards se aplica en una transacción por shard; si un shard falla, sólo sus ítems
+     * quedan rechazados y los de los shards que confirmaron se informan como aplicados.
+     * Si el método lanza una excepción, ningún movimiento del lote quedó confirmado.
+     */
+    @Transactional
+    public List<BatchMovementResult> registerMovements(List<StockMovementRequest> requests) {
+        long start = System.nanoTime();
+        try {
+            List<BatchMovementResult> results = shardRouter == null ? applyMovements(requests) : applyMovementsByShard(requests);
+            if (stockChanges != null) {
+                notifyChanged(results.stream().filter(result -> BatchMovementResult.APPLIED.equals(result.getStatus()))
+                        .map(result -> new StockKey(result.getSku(), result.getStoreId())).distinct().toList());
+            }
+            metrics.success(Operation.REGISTER_MOVEMENTS, start);
+            return results;
+        } catch (RuntimeException ex) {
+            metrics.failure(Operation.REGISTER_MOVEMENTS, start, ex);
+            throw ex;
+        }
+    }
+
+    private List<BatchMovementResult> applyMovements(List<StockMovementRequest> requests) {
+        if (reservationHolds != null) lockReservedKeys(requests);
+        if (memoryEngine != null) return registerMovementsInMemory(requests);
+        BatchMovementResult[] results = new BatchMovementResult[requests.size()];
+        Map<String, Map<String, List<Integer>>> itemsByStoreAndSku = new LinkedHashMap<>();
+        Set<String> touchedSkus = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            StockMovementRequest request = requests.get(i);
+            String error = validate(request);
+            if (error != null) {
+                results[i] = rejected(i, request, error);
+                continue;
+            }
+            itemsByStoreAndSku.computeIfAbsent(request.getStoreId(), store -> new LinkedHashMap<>())
+                    .computeIfAbsent(request.getSku(), sku -> new ArrayList<>())
+                    .add(i);
+            touchedSkus.add(request.getSku());
+        }
+        inventoryCache.evictAfterCommit(touchedSkus);
+
+        List<StockMovement> movements = new ArrayList<>();
+        List<Integer> movementIndexes = new ArrayList<>();
+        for (Map.Entry<String, Map<String, List<Integer>>> store : itemsByStoreAndSku.entrySet()) {
+            Map<String, Integer> current = currentQuantities(store.getKey(), store.getValue().keySet());
+            for (Map.Entry<String, List<Integer>> sku : store.getValue().entrySet()) {
+                if (splitCounters.isHot(sku.getKey(), store.getKey())) {
+                    applyHotKey(sku.getValue(), requests, results);
+                } else {
+                    int reserved = reservationHolds == null ? 0 : reservationHolds.held(sku.getKey(), store.getKey());
+                    applyKey(sku.getKey(), store.getKey(), current.get(sku.getKey()), reserved, sku.getValue(), requests, results);
+                }
+                for (int index : sku.getValue()) {
+                    if (results[index] == null) {
+                        movements.add(toMovement(requests.get(index)));
+                        movementIndexes.add(index);
+                    }
+                }
+            }
+        }
+
+        List<StockMovement> saved = usesJournal() ? movements : stockMovementRepository.saveAll(movements);
+        for (int i = 0; i < saved.size(); i++) {
+            int index = movementIndexes.get(i);
+            StockMovementRequest request = requests.get(index);
+            results[index] = BatchMovementResult.builder()
+                    .index(index)
+                    .sku(request.getSku())
+                    .storeId(request.getStoreId())
+                    .status(BatchMovementResult.APPLIED)
+                    .movementId(saved.get(i).getId())
+                    .build();
+        }
+        // Con journal los ids se asignan al confirmar y se copian entonces a los resultados
+        if (usesJournal()) {
+            journal.appendAllAfterCommit(movements, () -> {
+                for (int i = 0; i < movements.size(); i++) results[movementIndexes.get(i)].setMovementId(movements.get(i).getId());
+            });
+        }
+        return List.of(results);
+    }
+
+    /**
+     * Pedido de una tienda: todas sus ventas se aplican en una transacción o ninguna (una línea sin stock responde 409
+     * y revierte el resto). Las líneas se agrupan por sku y las filas se bloquean con un único SELECT ... FOR UPDATE
+     * ordenado por sku, así dos pedidos con skus en común toman los locks en el mismo orden y no se bloquean entre sí.
+     * Los cambios de stock salen en un lote JDBC de UPDATE y los movimientos (uno por sku) en uno de INSERT.
+     */
+    @Transactional
+    public List<StockMovement> registerOrder(String storeId, List<OrderLine> lines) {
+        long start = System.nanoTime();
+        try {
+            List<StockMovement> result = onStore(storeId, () -> applyOrder(storeId, lines));
+            notifyChanged(result.stream().map(movement -> new StockKey(movement.getSku(), storeId)).toList());
+            metrics.success(Operation.REGISTER_ORDER, start);
+            return result;
+        } catch (RuntimeException ex) {
+            metrics.failure(Operation.REGISTER_ORDER, start, ex);
+            throw ex;
+        }
+    }
+
+    private List<StockMovement> applyOrder(String storeId, List<OrderLine> lines) {
+        SortedMap<String, Integer> quantities = new TreeMap<>();
+        for (OrderLine line : lines) {
+            if (line == null || line.getSku() == null || line.getQuantity() == null || line.getQuantity() <= 0) {
+                throw new InventoryException("Each order line needs a sku and a positive quantity");
+            }
+            quantities.merge(line.getSku(), line.getQuantity(), Integer::sum);
+        }
+        if (quantities.isEmpty()) throw new InventoryException("An order needs at least one line");
+        if (reservationHolds != null) {
+            reservationHolds.lockUntilCompletion(quantities.keySet().stream().map(sku -> new StockKey(sku, storeId)).toList());
+        }
+        if (memoryEngine != null) {
+            if (reservationHolds != null) quantities.forEach((sku, quantity) -> checkReserved(sku, storeId, "sale", quantity));
+            return memoryEngine.registerOrder(storeId, quantities);
+        }
+        inventoryCache.evictAfterCommit(quantities.keySet());
+
+        List<String> hotSkus = new ArrayList<>();
+        List<String> rowSkus = new ArrayList<>();
+        for (String sku : quantities.keySet()) {
+            (splitCounters.isHot(sku, storeId) ? hotSkus : rowSkus).add(sku);
+        }
+        List<Inventory> rows = rowSkus.isEmpty() ? List.of() : inventoryRepository.lockForOrder(storeId, rowSkus);
+        if (rows.size() < rowSkus.size()) throw InsufficientStockException.INSTANCE;
+        for (Inventory row : rows) {
+            int reserved = reservationHolds == null ? 0 : reservationHolds.held(row.getSku(), storeId);
+            int current = row.getQuantity() == null ? 0 : row.getQuantity();
+            if (current - reserved < quantities.get(row.getSku())) throw InsufficientStockException.INSTANCE;
+        }
+        for (Inventory row : rows) {
+            row.setQuantity(row.getQuantity() - quantities.get(row.getSku()));
+            row.setChangeSeq(changeSequence.next());
+        }
+        // Las filas se escriben antes de tocar slices: sus UPDATE limpian el contexto de persistencia y dejarían las filas detached
+        inventoryRepository.flush();
+        // Las claves divididas descuentan de sus slices; si alguna no alcanza, la excepción revierte todo el pedido
+        for (String sku : hotSkus) {
+            if (reservationHolds != null) checkReserved(sku, storeId, "sale", quantities.get(sku));
+            splitCounters.applyMovement(sku, storeId, "sale", quantities.get(sku));
+        }
+
+        List<StockMovement> movements = new ArrayList<>(quantities.size());
+        LocalDateTime now = LocalDateTime.now();
+        quantities.forEach((sku, quantity) -> movements.add(StockMovement.builder()
+                .sku(sku)
+                .storeId(storeId)
+                .type("sale")
+                .quantity(quantity)
+                .timestamp(now)
+                .build()));
+        return usesJournal() ? journal.appendAllAfterCommit(movements) : stockMovementRepository.saveAll(movements);
+    }
+
+    private List<BatchMovementResult> applyMovementsByShard(List<StockMovementRequest> requests) {
+        Map<String, List<Integer>> indexesByShard = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            StockMovementRequest request = requests.get(i);
+            // Sin tienda el ítem se rechaza en la validación, sin tocar la base: cualquier shard sirve
+            String shard = request == null || request.getStoreId() == null
+                    ? shardRouter.shards().get(0) : shardRouter.shardFor(request.getStoreId());
+            indexesByShard.computeIfAbsent(shard, key -> new ArrayList<>()).add(i);
+        }
+        if (indexesByShard.size() == 1) {
+            return shardRouter.onShard(indexesByShard.keySet().iterator().next(), () -> applyMovements(requests));
+        }
+        BatchMovementResult[] results = new BatchMovementResult[requests.size()];
+        for (Map.Entry<String, List<Integer>> shard : indexesByShard.entrySet()) {
+            List<Integer> indexes = shard.getValue();
+            List<StockMovementRequest> part = indexes.stream().map(requests::get).toList();
+            List<BatchMovementResult> partial;
+            try {
+                partial = shardRouter.inTransaction(shard.getKey(), () -> applyMovements(part));
+            } catch (RuntimeException ex) {
+                // Los shards anteriores ya confirmaron: sólo se rechazan los ítems del shard que revirtió
+                logger.warn("Batch part on shard {} rolled back", shard.getKey(), ex);
+                String error = "Shard " + shard.getKey() + " failed: " + ex.getClass().getSimpleName();
+                partial = part.stream().map(request -> rejected(0, request, error)).toList();
+                partial.forEach(result -> result.setRetryable(true));
+            }
+            for (int j = 0; j < indexes.size(); j++) {
+                BatchMovementResult result = partial.get(j);
+                result.setIndex(indexes.get(j));
+                results[indexes.get(j)] = result;
+            }
+        }
+        return List.of(results);
+    }
+
+    private List<BatchMovementResult> registerMovementsInMemory(List<StockMovementRequest> requests) {
+        List<BatchMovementResult> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            StockMovementRequest request = requests.get(i);
+            String error = validate(request);
+            if (error == null) {
+                try {
+                    if (reservationHolds != null) checkReserved(request.getSku(), request.getStoreId(), request.getType(), request.getQuantity());
+                    memoryEngine.registerMovement(request.getSku(), request.getStoreId(), request.getType(), request.getQuantity());
+                } catch (InsufficientStockException | UnsupportedMovementTypeException ex) {
+                    error = ex.getMessage();
+                }
+            }
+            results.add(error != null ? rejected(i, request, error) : BatchMovementResult.builder()
+                    .index(i)
+                    .sku(request.getSku())
+                    .storeId(request.getStoreId())
+                    .status(BatchMovementResult.APPLIED)
+                    .build());
+        }
+        return results;
+    }
+
+    private Map<String, Integer> currentQuantities(String storeId, Collection<String> skus) {
+        Map<String, Integer> quantities = new HashMap<>();
+        for (Inventory inventory : inventoryRepository.findByStoreIdAndSkuIn(storeId, skus)) {
+            quantities.put(inventory.getSku(), inventory.getQuantity());
+        }
+        return quantities;
+    }
+
+    // Simula los movimientos de una clave en orden, marca los rechazados y aplica el delta neto.
+    // Si otra transacción cambió la fila entre la lectura y el UPDATE, se relee y se vuelve a simular.
+    // Las ventas no pueden bajar el stock por debajo de `reserved`.
+    private void applyKey(String sku, String storeId, Integer current, int reserved, List<Integer> indexes,
+                          List<StockMovementRequest> requests, BatchMovementResult[] results) {
+        for (int attempt = 0; attempt < MAX_BATCH_KEY_ATTEMPTS; attempt++) {
+            int start = current == null ? 0 : current;
+            int available = start - reserved;
+            for (int index : indexes) {
+                StockMovementRequest request = requests.get(index);
+                results[index] = null;
+                if ("sale".equalsIgnoreCase(request.getType())) {
+                    if (available < request.getQuantity()) {
+                        results[index] = rejected(index, request, "No hay suficiente stock");
+                    } else {
+                        available -= request.getQuantity();
+                    }
+                } else {
+                    available += request.getQuantity();
+                }
+            }
+
+            int delta = available + reserved - start;
+            if (current == null) {
+                if (indexes.stream().anyMatch(index -> results[index] == null)) {
+                    inventoryRepository.save(Inventory.builder().sku(sku).storeId(storeId).quantity(available + reserved)
+                            .changeSeq(changeSequence.next()).build());
+                }
+                return;
+            }
+            if (delta == 0 || inventoryRepository.applyDelta(sku, storeId, delta, changeSequence.next()) == 1) {
+                return;
+            }
+            metrics.recordContention(sku, storeId);
+            current = inventoryRepository.findBySkuAndStoreId(sku, storeId).map(Inventory::getQuantity).orElse(null);
+        }
+        for (int index : indexes) {
+            results[index] = rejected(index, requests.get(index), "Concurrency conflict: Resource was modified by another transaction");
+        }
+    }
+
+    private void applyHotKey(List<Integer> indexes, List<StockMovementRequest> requests, BatchMovementResult[] results) {
+        for (int index : indexes) {
+            StockMovementRequest request = requests.get(index);
+            try {
+                if (reservationHolds != null) checkReserved(request.getSku(), request.getStoreId(), request.getType(), request.getQuantity());
+                splitCounters.applyMovement(request.getSku(), request.getStoreId(), request.getType(), request.getQuantity());
+            } catch (InsufficientStockException | UnsupportedMovementTypeException ex) {
+                results[index] = rejected(index, request, ex.getMessage());
+            }
+        }
+    }
+
+    // Toma los locks de reserva de todas las claves válidas del lote hasta el commit
+    private void lockReservedKeys(List<StockMovementRequest> requests) {
+        List<StockKey> keys = new ArrayList<>();
+        for (StockMovementRequest request : requests) {
+            if (validate(request) == null) keys.add(new StockKey(request.getSku(), request.getStoreId()));
+        }
+        reservationHolds.lockUntilCompletion(keys);
+    }
+
+    // Con unidades reservadas en la clave, la venta solo puede tomar el stock no reservado (bajo el lock de la clave)
+    private void checkReserved(String sku, String storeId, String type, Integer quantity) {
+        if (!"sale".equalsIgnoreCase(type) || quantity == null) return;
+        int reserved = reservationHolds.held(sku, storeId);
+        if (reserved > 0 && getCurrentQuantity(sku, storeId).orElse(0) - reserved < quantity) {
+            throw InsufficientStockException.INSTANCE;
+        }
+    }
+
+    private static String validate(StockMovementRequest request) {
+        if (request == null || request.getSku() == null || request.getStoreId() == null
+                || request.getType() == null || request.getQuantity() == null) {
+            return "sku, storeId, type and quantity are required";
+        }
+        // Una venta negativa sumaría stock a través del delta neto
+        if (request.getQuantity() <= 0) return "quantity must be positive";
+        if (!"sale".equalsIgnoreCase(request.getType()) && !"restock".equalsIgnoreCase(request.getType())) {
+            return UnsupportedMovementTypeException.MESSAGE;
+        }
+        return null;
+    }
+
+    private static BatchMovementResult rejected(int index, StockMovementRequest request, String error) {
+        return BatchMovementResult.builder()
+                .index(index)
+                .sku(request == null ? null : request.getSku())
+                .storeId(request == null ? null : request.getStoreId())
+                .status(BatchMovementResult.REJECTED)
+                .error(error)
+                .build();
+    }
+
+    private static StockMovement toMovement(StockMovementRequest request) {
+        return StockMovement.builder()
+                .sku(request.getSku())
+                .storeId(request.getStoreId())
+                .type(request.getType())
+                .quantity(request.getQuantity())
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
+    private void applyOptimisticMovement(String sku, String storeId, String type, Integer quantity) {
+        // Buscar el inventario por la clave única (sku, storeId); si no existe se crea.
+        // Si dos movimientos crean el mismo par a la vez, el índice único rechaza el segundo (409).
+        Inventory inventory = inventoryRepository.findBySkuAndStoreId(sku, storeId)
+                .orElseGet(() -> Inventory.builder().sku(sku).storeId(storeId).quantity(0).build());
+
+        if ("sale".equalsIgnoreCase(type)) {
+            if (inventory.getQuantity() < quantity) throw InsufficientStockException.INSTANCE;
+            inventory.setQuantity(inventory.getQuantity() - quantity);
+        } else if ("restock".equalsIgnoreCase(type)) {
+            inventory.setQuantity(inventory.getQuantity() + quantity);
+        } else {
+            throw UnsupportedMovementTypeException.INSTANCE;
+        }
+
+        inventory.setChangeSeq(changeSequence.next());
+        inventoryRepository.save(inventory);
+        flushRecordingConflicts(sku, storeId);
+    }
+
+    // El flush dentro del método hace visible el conflicto de versión aquí (y no recién en el commit),
+    // para contabilizarlo en la detección de claves calientes antes de propagarlo como 409.
+    private void flushRecordingConflicts(String sku, String storeId) {
+        try {
+            inventoryRepository.flush();
+        } catch (OptimisticLockingFailureException ex) {
+            splitCounters.recordConflict(sku, storeId);
+            metrics.recordContention(sku, storeId);
+            throw ex;
+        }
+    }
+
+    private void applyAtomicMovement(String sku, String storeId, String type, Integer quantity) {
+        // Una sola sentencia UPDATE condicional: sin lectura previa ni conflicto de versión.
+        // Las filas afectadas indican si hubo stock suficiente (venta) o si la fila existe (reposición).
+        if ("sale".equalsIgnoreCase(type)) {
+            if (inventoryRepository.decrementStock(sku, storeId, quantity, changeSequence.next()) == 0) {
+                throw InsufficientStockException.INSTANCE;
+            }
+        } else if ("restock".equalsIgnoreCase(type)) {
+            if (inventoryRepository.incrementStock(sku, storeId, quantity, changeSequence.next()) == 0) {
+                inventoryRepository.save(Inventory.builder().sku(sku).storeId(storeId).quantity(quantity)
+                        .changeSeq(changeSequence.next()).build());
+            }
+        } else {
+            throw UnsupportedMovementTypeException.INSTANCE;
+        }
+    }
+
+    // Filas con change_seq en el rango más las claves divididas con slices modificados, ordenadas por número de cambio
+    private List<Inventory> changedRows(long since, long upTo, String storeId, int limit) {
+        List<Inventory> rows = storeId == null
+                ? inventoryRepository.findByChangeSeqGreaterThanAndChangeSeqLessThanEqualOrderByChangeSeqAsc(since, upTo, Limit.of(limit))
+                : inventoryRepository.findByStoreIdAndChangeSeqGreaterThanAndChangeSeqLessThanEqualOrderByChangeSeqAsc(storeId, since, upTo, Limit.of(limit));
+        List<SliceChange> sliceChanges = splitCounters.changes(since, upTo, storeId);
+        if (sliceChanges.isEmpty()) return splitCounters.withSliceTotals(rows, null);
+
+        Map<StockKey, Inventory> byKey = new LinkedHashMap<>();
+        for (Inventory row : rows) byKey.put(new StockKey(row.getSku(), row.getStoreId()), row);
+        for (SliceChange change : sliceChanges) {
+            StockKey key = new StockKey(change.sku(), change.storeId());
+            Inventory row = byKey.get(key);
+            if (row == null) row = inventoryRepository.findBySkuAndStoreId(change.sku(), change.storeId()).orElse(null);
+            if (row == null) continue;
+            byKey.put(key, Inventory.builder()
+                    .id(row.getId())
+                    .sku(row.getSku())
+                    .storeId(row.getStoreId())
+                    .quantity(row.getQuantity())
+                    .version(row.getVersion())
+                    .changeSeq(Math.max(row.getChangeSeq(), change.changeSeq()))
+                    .build());
+        }
+        List<Inventory> merged = new ArrayList<>(splitCounters.withSliceTotals(new ArrayList<>(byKey.values()), null));
+        merged.sort(Comparator.comparingLong(Inventory::getChangeSeq));
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    private String formatCursor(long seq) {
+        return changeSequence.epoch() + "-" + seq;
+    }
+
+    // null si el cursor es inválido o de otra época de la secuencia
+    private Long parseCursor(String cursor) {
+        int dash = cursor.indexOf('-');
+        try {
+            if (dash < 0 || Long.parseLong(cursor.substring(0, dash)) != changeSequence.epoch()) return null;
+            return Long.parseLong(cursor.substring(dash + 1));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+    }
+
+    private void notifyChanged(Collection<StockKey> keys) {
+        if (stockChanges != null) stockChanges.recordAfterCommit(keys);
+    }
+
+    private <T> T onStore(String storeId, Supplier<T> action) {
+        return shardRouter == null ? action.get() : shardRouter.onStore(storeId, action);
+    }
+
+    // Filas de todos los shards (sin sharding, de la única base)
+    private <T> List<T> allShards(Supplier<List<T>> query) {
+        if (shardRouter == null) return query.get();
+        List<T> all = new ArrayList<>();
+        shardRouter.fanOut(query).forEach(all::addAll);
+        return all;
+    }
+
+    // Con tienda la consulta va a su shard; sin tienda corre en todos y se toman las primeras `limit` filas según `order`
+    private <T> List<T> acrossShards(String storeId, Supplier<List<T>> query, Comparator<? super T> order, int limit) {
+        if (shardRouter == null) return query.get();
+        if (storeId != null) return shardRouter.onStore(storeId, query);
+        List<T> merged = allShards(query);
+        merged.sort(order);
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    // Con el motor en memoria activo, sus movimientos se persisten por su propio flush
+    private boolean usesJournal() {
+        return journal != null && memoryEngine == null;
+    }
+
+    private MovementStrategy strategy() {
+        return inventoryProperties.getMovement().getStrategy();
+    }
+
+    private static InventoryException notFound(String sku, String storeId) {
+        return new InventoryNotFoundException(sku, storeId);
+    }
+}
@@ -0,0 +1,97 @@
+package com.mercadolibre.inventory_challenge.Service;
+
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import jakarta.annotation.PreDestroy;
+import org.springframework.stereotype.Component;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * Ejecuta escrituras según {@code inventory.execution.mode}. En modo ACTOR cada (sku, storeId) tiene un buzón
+ * serial que se vacía en un hilo virtual: las escrituras sobre la misma clave se encolan en vez de competir por
+ * la versión de la fila, y las de claves distintas corren en paralelo sin depender de la cantidad de hilos de plataforma.
+ * Los buzones se crean y se eliminan bajo el lock de la clave en el mapa, así nunca hay dos activos para la misma clave.
+ */
+@Component
+public class KeyedExecutor {
+    private final InventoryProperties.Execution settings;
+    private final ConcurrentHashMap<StockKey, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public KeyedExecutor(InventoryProperties inventoryProperties) {
+        this.settings = inventoryProperties.getExecution();
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.close();
+    }
+
+    /**
+     * Ejecuta la escritura y espera su resultado. Las excepciones de la tarea se propagan sin envolver.
+     */
+    public <T> T execute(String sku, String storeId, Supplier<T> task) {
+        if (settings.getMode() != ExecutionMode.ACTOR) return task.get();
+        try {
+            return submit(new StockKey(sku, storeId), task).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) throw cause;
+            throw ex;
+        }
+    }
+
+    public <T> CompletableFuture<T> submit(StockKey key, Supplier<T> task) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Runnable job = () -> {
+            try {
+                result.complete(task.get());
+            } catch (Throwable ex) {
+                result.completeExceptionally(ex);
+            }
+        };
+        boolean[] start = new boolean[1];
+        mailboxes.compute(key, (k, mailbox) -> {
+            if (mailbox == null) {
+                mailbox = new Mailbox();
+                start[0] = true;
+            }
+            mailbox.tasks.add(job);
+            return mailbox;
+        });
+        if (start[0]) executor.execute(() -> drain(key));
+        return result;
+    }
+
+    // Cantidad de claves con trabajo pendiente o en curso
+    public int activeKeys() {
+        return mailboxes.size();
+    }
+
+    private void drain(StockKey key) {
+        Mailbox mailbox = mailboxes.get(key);
+        while (true) {
+            Runnable job;
+            while ((job = mailbox.tasks.poll()) != null) {
+                job.run();
+            }
+            // Se elimina el buzón solo si sigue vacío; si llegó una tarea mientras tanto, se sigue drenando
+            boolean[] done = new boolean[1];
+            mailboxes.compute(key, (k, current) -> {
+                done[0] = current.tasks.isEmpty();
+                return done[0] ? null : current;
+            });
+            if (done[0]) return;
+        }
+    }
+
+    private static final class Mailbox {
+        final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    }
+}
@@ -0,0 +1,124 @@
+package com.mercadolibre.inventory_challenge.Service;
+
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import com.mercadolibre.inventory_challenge.model.MovementRollup;
+import com.mercadolibre.inventory_challenge.replica.ReadRouting;
+import com.mercadolibre.inventory_challenge.repository.MovementAggregate;
+import com.mercadolibre.inventory_challenge.repository.MovementRollupRepository;
+import com.mercadolibre.inventory_challenge.repository.StockMovementRepository;
+import com.mercadolibre.inventory_challenge.shard.ShardRouter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compacta los movimientos más viejos que {@code inventory.history.retention-days} en agregados diarios
+ * por (sku, storeId, tipo). Cada día se procesa en su propia transacción: se suman sus filas en el agregado
+ * y se borran, así una corrida interrumpida deja días completos de un lado o del otro, nunca a medias.
+ */
+@Component
+@ConditionalOnProperty(prefix = "inventory.history", name = "rollup-enabled", havingValue = "true", matchIfMissing = true)
+public class MovementRollupJob {
+    private static final Logger logger = LoggerFactory.getLogger(MovementRollupJob.class);
+
+    private final StockMovementRepository stockMovementRepository;
+    private final MovementRollupRepository movementRollupRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final InventoryProperties.History settings;
+    private ScheduledExecutorService scheduler;
+
+    // Con sharding cada shard compacta sus propios movimientos, uno después del otro
+    @Autowired(required = false)
+    private ShardRouter shardRouter;
+
+    public MovementRollupJob(StockMovementRepository stockMovementRepository, MovementRollupRepository movementRollupRepository,
+                             PlatformTransactionManager transactionManager, InventoryProperties inventoryProperties) {
+        this.stockMovementRepository = stockMovementRepository;
+        this.movementRollupRepository = movementRollupRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.settings = inventoryProperties.getHistory();
+    }
+
+    @PostConstruct
+    public void start() {
+        long interval = settings.getRollupInterval().toMillis();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "movement-rollup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::rollupSafely, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void rollupSafely() {
+        try {
+            rollup();
+        } catch (RuntimeException e) {
+            logger.error("Movement rollup failed, retrying on next run", e);
+        }
+    }
+
+    public int rollup() {
+        return rollup(LocalDate.now().minusDays(settings.getRetentionDays()));
+    }
+
+    /**
+     * Compacta todos los días anteriores a {@code cutoffDay}. Devuelve la cantidad de movimientos compactados.
+     */
+    public int rollup(LocalDate cutoffDay) {
+        if (shardRouter == null) return rollupShard(cutoffDay);
+        int compacted = 0;
+        for (String shard : shardRouter.shards()) {
+            compacted += shardRouter.onShard(shard, () -> rollupShard(cutoffDay));
+        }
+        return compacted;
+    }
+
+    private int rollupShard(LocalDate cutoffDay) {
+        LocalDateTime oldest = ReadRouting.onPrimary(stockMovementRepository::findOldestTimestamp);
+        int compacted = 0;
+        for (LocalDate day = oldest == null ? cutoffDay : oldest.toLocalDate(); day.isBefore(cutoffDay); day = day.plusDays(1)) {
+            compacted += rollupDay(day);
+        }
+        if (compacted > 0) {
+            logger.info("Compacted {} movements older than {} into daily rollups", compacted, cutoffDay);
+        }
+        return compacted;
+    }
+
+    private int rollupDay(LocalDate day) {
+        LocalDateTime from = day.atStartOfDay();
+        LocalDateTime to = day.plusDays(1).atStartOfDay();
+        return transactionTemplate.execute(status -> {
+            for (MovementAggregate aggregate : stockMovementRepository.aggregate(from, to)) {
+                // Suma sobre un agregado existente por si el día ya se había compactado parcialmente
+                MovementRollup rollup = movementRollupRepository
+                        .findBySkuAndStoreIdAndDayAndType(aggregate.sku(), aggregate.storeId(), day, aggregate.type())
+                        .orElseGet(() -> MovementRollup.builder()
+                                .sku(aggregate.sku()).storeId(aggregate.storeId()).day(day).type(aggregate.type()).build());
+                rollup.setQuantity(rollup.getQuantity() + aggregate.quantity());
+                rollup.setMovements(rollup.getMovements() + aggregate.movements());
+                movementRollupRepository.save(rollup);
+            }
+            return stockMovementRepository.deleteByTimestampRange(from, to);
+        });
+    }
+}
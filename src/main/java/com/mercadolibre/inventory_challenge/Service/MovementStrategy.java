@@ -0,0 +1,6 @@
+package com.mercadolibre.inventory_challenge.Service;
+
+public enum MovementStrategy {
+    OPTIMISTIC,
+    ATOMIC
+}
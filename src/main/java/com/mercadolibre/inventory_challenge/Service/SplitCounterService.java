@@ -0,0 +1,188 @@
+package com.mercadolibre.inventory_challenge.Service;
+
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import com.mercadolibre.inventory_challenge.exception.InsufficientStockException;
+import com.mercadolibre.inventory_challenge.exception.UnsupportedMovementTypeException;
+import com.mercadolibre.inventory_challenge.model.Inventory;
+import com.mercadolibre.inventory_challenge.model.InventorySlice;
+import com.mercadolibre.inventory_challenge.replica.ReadRouting;
+import com.mercadolibre.inventory_challenge.repository.InventoryRepository;
+import com.mercadolibre.inventory_challenge.repository.InventorySliceRepository;
+import com.mercadolibre.inventory_challenge.repository.SliceChange;
+import com.mercadolibre.inventory_challenge.repository.SliceTotal;
+import com.mercadolibre.inventory_challenge.shard.ShardRouter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Contadores divididos (escrow) para claves calientes. Al dividir una clave, su quantity en Inventory pasa a 0
+ * y el stock se reparte en N filas de inventory_slice. Las ventas descuentan de un slice elegido al azar con un
+ * UPDATE condicional, de modo que escritores concurrentes rara vez compiten por la misma fila; si ningún slice
+ * alcanza por sí solo, se bloquean todos los slices de la clave y se redistribuye el total.
+ * Debe invocarse dentro de la transacción de InventoryService.
+ */
+@Service
+public class SplitCounterService {
+    private static final Logger logger = LoggerFactory.getLogger(SplitCounterService.class);
+
+    private final InventoryRepository inventoryRepository;
+    private final InventorySliceRepository sliceRepository;
+    private final HotKeyDetector hotKeyDetector;
+    private final ChangeSequence changeSequence;
+    private final InventoryProperties.HotKeys settings;
+    private final Set<StockKey> splitKeys = ConcurrentHashMap.newKeySet();
+
+    // Con sharding las claves ya divididas se buscan en todos los shards
+    @Autowired(required = false)
+    private ShardRouter shardRouter;
+
+    public SplitCounterService(InventoryRepository inventoryRepository, InventorySliceRepository sliceRepository,
+                               HotKeyDetector hotKeyDetector, ChangeSequence changeSequence,
+                               InventoryProperties inventoryProperties) {
+        this.inventoryRepository = inventoryRepository;
+        this.sliceRepository = sliceRepository;
+        this.hotKeyDetector = hotKeyDetector;
+        this.changeSequence = changeSequence;
+        this.settings = inventoryProperties.getHotKeys();
+    }
+
+    @PostConstruct
+    public void loadSplitKeys() {
+        if (!settings.isEnabled()) return;
+        List<List<SliceTotal>> totals = shardRouter == null ? List.of(ReadRouting.onPrimary(sliceRepository::findTotals))
+                : shardRouter.fanOut(sliceRepository::findTotals);
+        for (List<SliceTotal> shardTotals : totals) {
+            for (SliceTotal total : shardTotals) {
+                splitKeys.add(new StockKey(total.sku(), total.storeId()));
+            }
+        }
+    }
+
+    public void recordConflict(String sku, String storeId) {
+        if (settings.isEnabled()) hotKeyDetector.recordConflict(new StockKey(sku, storeId));
+    }
+
+    public boolean isHot(String sku, String storeId) {
+        if (!settings.isEnabled()) return false;
+        StockKey key = new StockKey(sku, storeId);
+        return splitKeys.contains(key) || hotKeyDetector.isHot(key);
+    }
+
+    public void applyMovement(String sku, String storeId, String type, int quantity) {
+        boolean sale = "sale".equalsIgnoreCase(type);
+        if (!sale && !"restock".equalsIgnoreCase(type)) throw UnsupportedMovementTypeException.INSTANCE;
+        int slices = ensureSplit(sku, storeId);
+        int start = ThreadLocalRandom.current().nextInt(slices);
+        // Un solo número por movimiento: los intentos que no actualizan nada no gastan secuencia
+        long changeSeq = changeSequence.next();
+        if (sale) {
+            for (int i = 0; i < slices; i++) {
+                if (sliceRepository.decrementSlice(sku, storeId, (start + i) % slices, quantity, changeSeq) == 1) return;
+            }
+            rebalanceAndTake(sku, storeId, quantity, changeSeq);
+        } else {
+            sliceRepository.incrementSlice(sku, storeId, start, quantity, changeSeq);
+        }
+    }
+
+    public Inventory setTotal(String sku, String storeId, int newStock) {
+        ensureSplit(sku, storeId);
+        distribute(sliceRepository.lockSlices(sku, storeId), newStock, changeSequence.next());
+        Inventory inventory = inventoryRepository.findBySkuAndStoreId(sku, storeId).orElseThrow();
+        return withQuantity(inventory, newStock);
+    }
+
+    // Reemplaza la quantity de las claves divididas por la suma de sus slices
+    public List<Inventory> withSliceTotals(List<Inventory> rows, String sku) {
+        Map<StockKey, Long> totals = sliceTotals(sku);
+        if (totals.isEmpty()) return rows;
+        List<Inventory> result = new ArrayList<>(rows.size());
+        for (Inventory row : rows) {
+            result.add(withSliceTotal(row, totals));
+        }
+        return result;
+    }
+
+    // Totales por clave dividida (solo claves calientes, por eso el mapa es chico); vacío si no hay ninguna
+    public Map<StockKey, Long> sliceTotals(String sku) {
+        if (!settings.isEnabled() || splitKeys.isEmpty()) return Map.of();
+        Map<StockKey, Long> totals = new HashMap<>();
+        for (SliceTotal total : sku == null ? sliceRepository.findTotals() : sliceRepository.findTotalsBySku(sku)) {
+            totals.put(new StockKey(total.sku(), total.storeId()), total.quantity());
+        }
+        return totals;
+    }
+
+    // Claves divididas cuyo stock cambió en (since, upTo]: sus ventas no tocan la fila de inventory
+    public List<SliceChange> changes(long since, long upTo, String storeId) {
+        if (!settings.isEnabled() || splitKeys.isEmpty()) return List.of();
+        return sliceRepository.findChanges(since, upTo, storeId);
+    }
+
+    public Inventory withSliceTotal(Inventory row, Map<StockKey, Long> totals) {
+        Long total = totals.get(new StockKey(row.getSku(), row.getStoreId()));
+        return total == null ? row : withQuantity(row, row.getQuantity() + total.intValue());
+    }
+
+    private int ensureSplit(String sku, String storeId) {
+        StockKey key = new StockKey(sku, storeId);
+        if (splitKeys.contains(key) || sliceRepository.existsBySkuAndStoreId(sku, storeId)) {
+            splitKeys.add(key);
+            return settings.getSlices();
+        }
+        Inventory inventory = inventoryRepository.findBySkuAndStoreId(sku, storeId)
+                .orElseGet(() -> Inventory.builder().sku(sku).storeId(storeId).quantity(0).build());
+        List<InventorySlice> slices = new ArrayList<>(settings.getSlices());
+        for (int i = 0; i < settings.getSlices(); i++) {
+            slices.add(InventorySlice.builder().sku(sku).storeId(storeId).slice(i).build());
+        }
+        long changeSeq = changeSequence.next();
+        distribute(slices, inventory.getQuantity(), changeSeq);
+        inventory.setQuantity(0);
+        inventory.setChangeSeq(changeSeq);
+        inventoryRepository.save(inventory);
+        inventoryRepository.flush();
+        splitKeys.add(key);
+        logger.info("Split hot key sku={} storeId={} into {} slices", sku, storeId, settings.getSlices());
+        return settings.getSlices();
+    }
+
+    private void rebalanceAndTake(String sku, String storeId, int quantity, long changeSeq) {
+        List<InventorySlice> slices = sliceRepository.lockSlices(sku, storeId);
+        int total = slices.stream().mapToInt(InventorySlice::getQuantity).sum();
+        if (total < quantity) throw InsufficientStockException.INSTANCE;
+        distribute(slices, total - quantity, changeSeq);
+    }
+
+    private void distribute(List<InventorySlice> slices, int total, long changeSeq) {
+        int share = total / slices.size();
+        int remainder = total % slices.size();
+        for (int i = 0; i < slices.size(); i++) {
+            slices.get(i).setQuantity(share + (i < remainder ? 1 : 0));
+            slices.get(i).setChangeSeq(changeSeq);
+        }
+        sliceRepository.saveAll(slices);
+    }
+
+    private static Inventory withQuantity(Inventory inventory, int quantity) {
+        return Inventory.builder()
+                .id(inventory.getId())
+                .sku(inventory.getSku())
+                .storeId(inventory.getStoreId())
+                .quantity(quantity)
+                .version(inventory.getVersion())
+                .changeSeq(inventory.getChangeSeq())
+                .build();
+    }
+}
@@ -0,0 +1,4 @@
+package com.mercadolibre.inventory_challenge.Service;
+
+public record StockKey(String sku, String storeId) {
+}
@@ -0,0 +1,26 @@
+package com.mercadolibre.inventory_challenge.bulk;
+
+import com.mercadolibre.inventory_challenge.exception.InventoryException;
+import org.springframework.http.MediaType;
+
+public enum BulkFormat {
+    CSV("text/csv"),
+    NDJSON("application/x-ndjson");
+
+    private final MediaType mediaType;
+
+    BulkFormat(String mediaType) {
+        this.mediaType = MediaType.parseMediaType(mediaType);
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    public static BulkFormat of(MediaType contentType) {
+        for (BulkFormat format : values()) {
+            if (format.mediaType.isCompatibleWith(contentType)) return format;
+        }
+        throw new InventoryException("Unsupported bulk content type: " + contentType);
+    }
+}
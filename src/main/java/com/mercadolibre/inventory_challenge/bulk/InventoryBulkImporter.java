@@ -0,0 +1,317 @@
+package com.mercadolibre.inventory_challenge.bulk;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.mercadolibre.inventory_challenge.Service.ChangeSequence;
+import com.mercadolibre.inventory_challenge.Service.InMemoryStockEngine;
+import com.mercadolibre.inventory_challenge.Service.InventoryCache;
+import com.mercadolibre.inventory_challenge.Service.SplitCounterService;
+import com.mercadolibre.inventory_challenge.Service.StockKey;
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import com.mercadolibre.inventory_challenge.dto.BulkImportResult;
+import com.mercadolibre.inventory_challenge.dto.BulkRowError;
+import com.mercadolibre.inventory_challenge.exception.InventoryException;
+import com.mercadolibre.inventory_challenge.journal.MovementJournal;
+import com.mercadolibre.inventory_challenge.metrics.InventoryMetrics;
+import com.mercadolibre.inventory_challenge.metrics.InventoryMetrics.Operation;
+import com.mercadolibre.inventory_challenge.reservation.ReservationHolds;
+import com.mercadolibre.inventory_challenge.shard.ShardRouter;
+import com.mercadolibre.inventory_challenge.stream.StockChangeBuffer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Carga masiva de inventario (stock absoluto por sku/tienda) desde CSV o NDJSON. El cuerpo se lee línea por
+ * línea y se aplica en lotes de {@code inventory.bulk.batch-size} filas, cada uno en su propia transacción con
+ * un único MERGE por lote JDBC: la memoria no depende del tamaño del archivo. Las filas inválidas se informan
+ * con su número de línea y no frenan la carga; si falla un lote entero, sus filas se informan como rechazadas.
+ * Con reservas activas se rechazan las filas que dejarían el stock por debajo de lo reservado; las claves cargadas
+ * se notifican al stream después de cada commit.
+ */
+@Component
+public class InventoryBulkImporter {
+    private static final Logger logger = LoggerFactory.getLogger(InventoryBulkImporter.class);
+    // Upsert en una sola sentencia: actualiza (versión + 1, para invalidar lecturas optimistas en curso) o inserta
+    private static final String MERGE_SQL = "MERGE INTO inventory t USING (VALUES (CAST(? AS VARCHAR(255)), "
+            + "CAST(? AS VARCHAR(255)), CAST(? AS INTEGER), CAST(? AS BIGINT))) AS s(sku, store_id, quantity, change_seq) "
+            + "ON t.sku = s.sku AND t.store_id = s.store_id "
+            + "WHEN MATCHED THEN UPDATE SET quantity = s.quantity, version = COALESCE(t.version, 0) + 1, change_seq = s.change_seq "
+            + "WHEN NOT MATCHED THEN INSERT (sku, store_id, quantity, version, change_seq) "
+            + "VALUES (s.sku, s.store_id, s.quantity, 0, s.change_seq)";
+    private static final String BELOW_RESERVED = "quantity is below the reserved units";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader jsonReader;
+    private final SplitCounterService splitCounters;
+    private final InventoryCache inventoryCache;
+    private final ChangeSequence changeSequence;
+    private final InventoryMetrics metrics;
+    private final InventoryProperties.Bulk settings;
+
+    // Con el motor en memoria activo la carga va a sus contadores, que son la fuente de verdad
+    @Autowired(required = false)
+    private InMemoryStockEngine memoryEngine;
+
+    @Autowired(required = false)
+    private MovementJournal journal;
+
+    // Con sharding cada lote se reparte por shard y cada parte se aplica en su propia transacción
+    @Autowired(required = false)
+    private ShardRouter shardRouter;
+
+    @Autowired(required = false)
+    private ReservationHolds reservationHolds;
+
+    @Autowired(required = false)
+    private StockChangeBuffer stockChanges;
+
+    public InventoryBulkImporter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper, SplitCounterService splitCounters, InventoryCache inventoryCache,
+                                 ChangeSequence changeSequence, InventoryMetrics metrics, InventoryProperties inventoryProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jsonReader = objectMapper.readerFor(JsonRow.class);
+        this.splitCounters = splitCounters;
+        this.inventoryCache = inventoryCache;
+        this.changeSequence = changeSequence;
+        this.metrics = metrics;
+        this.settings = inventoryProperties.getBulk();
+    }
+
+    public BulkImportResult importInventory(InputStream input, BulkFormat format) throws IOException {
+        long start = System.nanoTime();
+        try {
+            BulkImportResult result = read(input, format, start);
+            metrics.success(Operation.BULK_IMPORT, start);
+            return result;
+        } catch (RuntimeException ex) {
+            metrics.failure(Operation.BULK_IMPORT, start, ex);
+            throw ex;
+        }
+    }
+
+    private BulkImportResult read(InputStream input, BulkFormat format, long start) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), 1 << 16);
+        Report report = new Report(settings.getMaxReportedErrors());
+        List<Row> batch = new ArrayList<>(settings.getBatchSize());
+        long lineNumber = 0;
+        int[] columns = null;
+        if (format == BulkFormat.CSV) {
+            columns = csvColumns(reader.readLine());
+            lineNumber++;
+        }
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) continue;
+            report.rows++;
+            Row row;
+            try {
+                row = format == BulkFormat.CSV ? parseCsv(line, lineNumber, columns) : parseJson(line, lineNumber);
+            } catch (IllegalArgumentException ex) {
+                report.reject(lineNumber, null, null, ex.getMessage());
+                continue;
+            }
+            String error = validate(row);
+            if (error != null) {
+                report.reject(lineNumber, row.sku(), row.storeId(), error);
+                continue;
+            }
+            batch.add(row);
+            if (batch.size() == settings.getBatchSize()) {
+                apply(batch, report);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) apply(batch, report);
+        logger.info("Bulk import of {} rows finished in {} ms: {} applied, {} rejected",
+                report.rows, (System.nanoTime() - start) / 1_000_000, report.applied, report.rejected);
+        return report.toResult();
+    }
+
+    private void apply(List<Row> batch, Report report) {
+        if (shardRouter == null) {
+            applyChunk(batch, report);
+            return;
+        }
+        Map<String, List<Row>> rowsByShard = new LinkedHashMap<>();
+        for (Row row : batch) {
+            rowsByShard.computeIfAbsent(shardRouter.shardFor(row.storeId()), shard -> new ArrayList<>()).add(row);
+        }
+        rowsByShard.forEach((shard, rows) -> shardRouter.onShard(shard, () -> {
+            applyChunk(rows, report);
+            return null;
+        }));
+    }
+
+    private void applyChunk(List<Row> batch, Report report) {
+        List<Row> belowReserved = new ArrayList<>();
+        try {
+            List<Row> applied = transactionTemplate.execute(status -> {
+                List<Row> rows = reservationHolds == null ? batch : aboveReserved(batch, belowReserved);
+                if (memoryEngine != null) {
+                    for (Row row : rows) memoryEngine.upsertStock(row.sku(), row.storeId(), row.quantity());
+                } else if (!rows.isEmpty()) {
+                    merge(rows);
+                }
+                if (stockChanges != null) {
+                    stockChanges.recordAfterCommit(rows.stream().map(row -> new StockKey(row.sku(), row.storeId())).distinct().toList());
+                }
+                return rows;
+            });
+            report.applied += applied.size();
+            for (Row row : belowReserved) report.reject(row.line(), row.sku(), row.storeId(), BELOW_RESERVED);
+        } catch (RuntimeException ex) {
+            logger.warn("Bulk import batch of {} rows failed: {}", batch.size(), ex.getMessage());
+            for (Row row : batch) report.reject(row.line(), row.sku(), row.storeId(), "Batch failed: " + ex.getMessage());
+        }
+    }
+
+    // Bloquea las claves del lote frente a reservas hasta el commit y separa las filas que no cubren lo reservado
+    private List<Row> aboveReserved(List<Row> batch, List<Row> belowReserved) {
+        reservationHolds.lockUntilCompletion(batch.stream().map(row -> new StockKey(row.sku(), row.storeId())).toList());
+        List<Row> rows = new ArrayList<>(batch.size());
+        for (Row row : batch) {
+            (row.quantity() < reservationHolds.held(row.sku(), row.storeId()) ? belowReserved : rows).add(row);
+        }
+        return rows;
+    }
+
+    private void merge(List<Row> batch) {
+        // Las claves divididas guardan el stock en sus slices: su fila se deja en 0 y el total va a setTotal
+        boolean[] hot = new boolean[batch.size()];
+        for (int i = 0; i < batch.size(); i++) hot[i] = splitCounters.isHot(batch.get(i).sku(), batch.get(i).storeId());
+        long firstSeq = changeSequence.nextBlock(batch.size());
+        jdbcTemplate.batchUpdate(MERGE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Row row = batch.get(i);
+                ps.setString(1, row.sku());
+                ps.setString(2, row.storeId());
+                ps.setInt(3, hot[i] ? 0 : row.quantity());
+                ps.setLong(4, firstSeq + i);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return batch.size();
+            }
+        });
+        Set<String> skus = new HashSet<>();
+        for (int i = 0; i < batch.size(); i++) {
+            Row row = batch.get(i);
+            skus.add(row.sku());
+            if (hot[i]) splitCounters.setTotal(row.sku(), row.storeId(), row.quantity());
+            if (journal != null) journal.appendSetAfterCommit(row.sku(), row.storeId(), row.quantity());
+        }
+        inventoryCache.evictAfterCommit(skus);
+    }
+
+    // Índices de sku, storeId y quantity según el encabezado; las demás columnas se ignoran
+    private static int[] csvColumns(String header) {
+        if (header == null) throw new InventoryException("Empty bulk upload");
+        int[] columns = {-1, -1, -1};
+        List<String> names = Csv.parseLine(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        for (int i = 0; i < names.size(); i++) {
+            switch (names.get(i).trim().toLowerCase(Locale.ROOT)) {
+                case "sku" -> columns[0] = i;
+                case "storeid", "store_id" -> columns[1] = i;
+                case "quantity", "newstock" -> columns[2] = i;
+                default -> { }
+            }
+        }
+        if (columns[0] < 0 || columns[1] < 0 || columns[2] < 0) {
+            throw new InventoryException("CSV header must include sku, storeId and quantity columns");
+        }
+        return columns;
+    }
+
+    private static Row parseCsv(String line, long lineNumber, int[] columns) {
+        List<String> fields = Csv.parseLine(line);
+        int required = Math.max(columns[0], Math.max(columns[1], columns[2])) + 1;
+        if (fields.size() < required) throw new IllegalArgumentException("Expected at least " + required + " columns");
+        String quantity = fields.get(columns[2]).trim();
+        try {
+            return new Row(lineNumber, fields.get(columns[0]).trim(), fields.get(columns[1]).trim(),
+                    quantity.isEmpty() ? null : Integer.valueOf(quantity));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Invalid quantity: " + quantity);
+        }
+    }
+
+    private Row parseJson(String line, long lineNumber) {
+        try {
+            JsonRow json = jsonReader.readValue(line);
+            return new Row(lineNumber, json.sku(), json.storeId(), json.quantity() != null ? json.quantity() : json.newStock());
+        } catch (JsonProcessingException ex) {
+            throw new IllegalArgumentException("Invalid JSON: " + ex.getOriginalMessage());
+        }
+    }
+
+    private static String validate(Row row) {
+        if (row.sku() == null || row.sku().isEmpty() || row.storeId() == null || row.storeId().isEmpty() || row.quantity() == null) {
+            return "sku, storeId and quantity are required";
+        }
+        if (row.quantity() < 0) return "quantity must not be negative";
+        return null;
+    }
+
+    private record Row(long line, String sku, String storeId, Integer quantity) {
+    }
+
+    // Acepta tanto el formato de GET /inventory (quantity) como el de POST /inventory/update (newStock)
+    private record JsonRow(String sku, String storeId, Integer quantity, Integer newStock) {
+    }
+
+    private static final class Report {
+        private final int maxErrors;
+        private final List<BulkRowError> errors = new ArrayList<>();
+        private long rows;
+        private long applied;
+        private long rejected;
+
+        Report(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void reject(long line, String sku, String storeId, String error) {
+            rejected++;
+            if (errors.size() < maxErrors) {
+                errors.add(BulkRowError.builder().line(line).sku(sku).storeId(storeId).error(error).build());
+            }
+        }
+
+        BulkImportResult toResult() {
+            return BulkImportResult.builder()
+                    .rows(rows)
+                    .applied(applied)
+                    .rejected(rejected)
+                    .errors(errors)
+                    .errorsTruncated(rejected > errors.size())
+                    .build();
+        }
+    }
+}
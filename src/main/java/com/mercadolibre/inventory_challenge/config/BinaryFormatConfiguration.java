@@ -0,0 +1,33 @@
+package com.mercadolibre.inventory_challenge.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Codificaciones binarias para el tráfico tienda-central: con {@code Accept} o {@code Content-Type}
+ * {@code application/cbor} o {@code application/x-jackson-smile} los endpoints (incluidos los errores) hablan ese
+ * formato; sin ellos la respuesta sigue siendo JSON. Los mappers salen del mismo builder que el de JSON, así los
+ * tres serializan igual (fechas, nulos, módulos) y solo cambia la codificación.
+ */
+@Configuration
+public class BinaryFormatConfiguration {
+
+    // Reemplazan a los converters por defecto en su misma posición, detrás del de JSON
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    // Smile además referencia los valores repetidos (sku, storeId, type) en listas en lugar de reescribirlos
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        SmileFactory factory = SmileFactory.builder().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES).build();
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(factory).build());
+    }
+}
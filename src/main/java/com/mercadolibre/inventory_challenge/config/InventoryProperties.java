@@ -0,0 +1,201 @@
+package com.mercadolibre.inventory_challenge.config;
+
+import com.mercadolibre.inventory_challenge.Service.ExecutionMode;
+import com.mercadolibre.inventory_challenge.Service.MovementStrategy;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "inventory")
+public class InventoryProperties {
+    private Movement movement = new Movement();
+    private Engine engine = new Engine();
+    private HotKeys hotKeys = new HotKeys();
+    private Cache cache = new Cache();
+    private Async async = new Async();
+    private Execution execution = new Execution();
+    private Metrics metrics = new Metrics();
+    private Journal journal = new Journal();
+    private History history = new History();
+    private Idempotency idempotency = new Idempotency();
+    private Bulk bulk = new Bulk();
+    private Sharding sharding = new Sharding();
+    private Replica replica = new Replica();
+    private Reservations reservations = new Reservations();
+    private Stream stream = new Stream();
+
+    @Getter
+    @Setter
+    public static class Movement {
+        // OPTIMISTIC: lectura + @Version; ATOMIC: UPDATE condicional en una sola sentencia
+        private MovementStrategy strategy = MovementStrategy.OPTIMISTIC;
+    }
+
+    @Getter
+    @Setter
+    public static class Engine {
+        private Memory memory = new Memory();
+    }
+
+    @Getter
+    @Setter
+    public static class Memory {
+        // Contadores en memoria como fuente de verdad, persistidos en segundo plano (write-behind)
+        private boolean enabled = false;
+        private int shards = 64;
+        private Duration flushInterval = Duration.ofMillis(100);
+    }
+
+    @Getter
+    @Setter
+    public static class HotKeys {
+        // Divide el stock de las claves calientes en varios slices para repartir la contención
+        private boolean enabled = false;
+        private int slices = 8;
+        // SKUs que se tratan siempre como calientes (en todas las tiendas)
+        private Set<String> skus = new HashSet<>();
+        // Conflictos de versión dentro de la ventana a partir de los cuales una clave pasa a ser caliente
+        private int conflictThreshold = 5;
+        private Duration window = Duration.ofSeconds(10);
+    }
+
+    @Getter
+    @Setter
+    public static class Cache {
+        // Cache de lectura de GET /inventory/{sku}; se invalida al confirmar cada escritura
+        private boolean enabled = true;
+        // Peso máximo: cantidad total de filas de inventario cacheadas
+        private long maximumWeight = 100_000;
+        private Duration expireAfterWrite = Duration.ofMinutes(5);
+    }
+
+    @Getter
+    @Setter
+    public static class Async {
+        // Cola en proceso para POST /inventory/movement/async, particionada por (sku, storeId)
+        private int partitions = 4;
+        // Capacidad de cada partición; al llenarse el endpoint responde 429
+        private int capacity = 10_000;
+        // Máximo de movimientos aplicados en una misma transacción (group commit)
+        private int maxBatch = 256;
+        private int statusMaxEntries = 100_000;
+        private Duration statusRetention = Duration.ofHours(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Execution {
+        // DIRECT: cada request escribe en su propio hilo; ACTOR: escrituras serializadas por (sku, storeId)
+        private ExecutionMode mode = ExecutionMode.DIRECT;
+    }
+
+    @Getter
+    @Setter
+    public static class Metrics {
+        // Cantidad de claves (sku, storeId) más conflictivas que informa el endpoint /actuator/contention
+        private int topK = 20;
+        // Columnas del count-min sketch; potencia de 2. Más ancho = menos sobreestimación por colisiones
+        private int sketchWidth = 4096;
+    }
+
+    @Getter
+    @Setter
+    public static class Journal {
+        // Reemplaza el INSERT de StockMovement por un log binario mapeado en memoria
+        private boolean enabled = false;
+        private String directory = "data/journal";
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+        // fsync cada N registros (0 = solo por intervalo)
+        private int fsyncEvery = 256;
+        private Duration fsyncInterval = Duration.ofMillis(10);
+        private Duration snapshotInterval = Duration.ofMinutes(1);
+        private int snapshotsRetained = 2;
+    }
+
+    @Getter
+    @Setter
+    public static class History {
+        // Compacta los movimientos más viejos que la retención en agregados diarios por (sku, storeId, tipo)
+        private boolean rollupEnabled = true;
+        private int retentionDays = 30;
+        private Duration rollupInterval = Duration.ofHours(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Idempotency {
+        // Respuestas recordadas por Idempotency-Key en memoria; pasado el límite o la retención se consulta la base
+        private int maxEntries = 100_000;
+        private Duration retention = Duration.ofHours(24);
+        // Tasa de falsos positivos del filtro de Bloom que evita la lectura en base para claves nuevas
+        private double falsePositiveRate = 0.01;
+    }
+
+    @Getter
+    @Setter
+    public static class Bulk {
+        // Filas por transacción en POST /inventory/bulk (un MERGE por lote JDBC)
+        private int batchSize = 5_000;
+        // Errores por fila incluidos en la respuesta; el resto solo se cuenta
+        private int maxReportedErrors = 1_000;
+    }
+
+    @Getter
+    @Setter
+    public static class Sharding {
+        // Reparte inventario y movimientos por storeId entre varias bases; apagado usa spring.datasource
+        private boolean enabled = false;
+        // Una URL JDBC por shard: la posición define su nombre (shard-0, shard-1, ...), agregar al final no renombra
+        private List<String> urls = new ArrayList<>();
+        // Puntos de cada shard en el anillo de hashing consistente
+        private int virtualNodes = 128;
+        // Asignaciones fijas storeId -> shard que tienen prioridad sobre el anillo
+        private Map<String, String> stores = new HashMap<>();
+    }
+
+    @Getter
+    @Setter
+    public static class Replica {
+        // Réplica de lectura: las transacciones de solo lectura usan su pool; el primario sigue en spring.datasource
+        private boolean enabled = false;
+        private String url;
+        // Sin valor se usan los de spring.datasource
+        private String username;
+        private String password;
+        // El pool del primario se dimensiona con spring.datasource.hikari.maximum-pool-size
+        private int maximumPoolSize = 10;
+    }
+
+    @Getter
+    @Setter
+    public static class Reservations {
+        // Reservas de stock con vencimiento (POST /inventory/reservations); apagado las ventas no miran reservas
+        private boolean enabled = false;
+        // Resolución de la rueda de vencimientos: una reserva vence a lo sumo un tick después de su plazo
+        private Duration tick = Duration.ofMillis(100);
+        private Duration maxTtl = Duration.ofHours(1);
+    }
+
+    @Getter
+    @Setter
+    public static class Stream {
+        // Notificaciones de stock por Server-Sent Events (GET /inventory/stream)
+        private boolean enabled = false;
+        // Claves pendientes por suscriptor: uno lento recibe solo el último estado de cada clave y, lleno, pierde las más viejas
+        private int bufferSize = 256;
+        private int maxSubscribers = 50_000;
+        // Comentario periódico que mantiene abiertas las conexiones inactivas y detecta clientes caídos
+        private Duration heartbeat = Duration.ofSeconds(30);
+    }
+}
@@ -1,30 +1,165 @@
 package com.mercadolibre.inventory_challenge.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mercadolibre.inventory_challenge.Service.InventoryService;
+import com.mercadolibre.inventory_challenge.Service.KeyedExecutor;
+import com.mercadolibre.inventory_challenge.bulk.BulkFormat;
+import com.mercadolibre.inventory_challenge.bulk.Csv;
+import com.mercadolibre.inventory_challenge.bulk.InventoryBulkImporter;
+import com.mercadolibre.inventory_challenge.dto.BatchMovementResult;
+import com.mercadolibre.inventory_challenge.dto.BulkImportResult;
+import com.mercadolibre.inventory_challenge.dto.CacheStatsResponse;
+import com.mercadolibre.inventory_challenge.dto.ChangesResponse;
+import com.mercadolibre.inventory_challenge.dto.MovementHistoryResponse;
+import com.mercadolibre.inventory_challenge.dto.MovementStatus;
+import com.mercadolibre.inventory_challenge.dto.OrderRequest;
 import com.mercadolibre.inventory_challenge.dto.StockMovementRequest;
 import com.mercadolibre.inventory_challenge.dto.StockUpdateRequest;
+import com.mercadolibre.inventory_challenge.idempotency.IdempotencyStore;
 import com.mercadolibre.inventory_challenge.model.Inventory;
+import com.mercadolibre.inventory_challenge.exception.QueueFullException;
 import com.mercadolibre.inventory_challenge.model.StockMovement;
+import com.mercadolibre.inventory_challenge.queue.MovementQueue;
+import com.mercadolibre.inventory_challenge.queue.MovementStatusStore;
+import com.mercadolibre.inventory_challenge.queue.QueuedMovement;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 @RestController
 @RequestMapping("/inventory")
 public class InventoryController {
     private static final Logger logger = LoggerFactory.getLogger(InventoryController.class);
+    private static final String APPLICATION_NDJSON = "application/x-ndjson";
+    private static final String TEXT_CSV = "text/csv";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final int MAX_PAGE_SIZE = 1000;
 
     @Autowired
     private InventoryService inventoryService;
 
+    @Autowired
+    private KeyedExecutor keyedExecutor;
+
+    @Autowired
+    private MovementQueue movementQueue;
+
+    @Autowired
+    private MovementStatusStore movementStatusStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private InventoryBulkImporter bulkImporter;
+
     @GetMapping
-    public List<Inventory> getAllInventory() {
-        return inventoryService.getAllInventory();
+    public ResponseEntity<List<Inventory>> getAllInventory(@RequestParam(required = false) Long afterId,
+                                                           @RequestParam(required = false) String storeId,
+                                                           @RequestParam(required = false) String sku,
+                                                           @RequestParam(defaultValue = "500") int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        List<Inventory> page = inventoryService.getInventoryPage(afterId, storeId, sku, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == pageSize) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.get(page.size() - 1).getId()));
+        }
+        return response.body(page);
+    }
+
+    @GetMapping(produces = APPLICATION_NDJSON)
+    public ResponseEntity<StreamingResponseBody> streamInventory(@RequestParam(required = false) String storeId,
+                                                                 @RequestParam(required = false) String sku) {
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+                inventoryService.streamInventory(storeId, sku, inventory -> {
+                    try {
+                        generator.writeObject(inventory);
+                        generator.writeRaw('\n');
+                    } catch (IOException ex) {
+                        throw new UncheckedIOException(ex);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(APPLICATION_NDJSON)).body(body);
+    }
+
+    // Mismo formato que acepta POST /inventory/bulk
+    @GetMapping(produces = TEXT_CSV)
+    public ResponseEntity<StreamingResponseBody> exportInventoryCsv(@RequestParam(required = false) String storeId,
+                                                                    @RequestParam(required = false) String sku) {
+        StreamingResponseBody body = out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+            writer.write(Csv.HEADER);
+            writer.write('\n');
+            inventoryService.streamInventory(storeId, sku, inventory -> {
+                try {
+                    writer.write(Csv.escape(inventory.getSku()));
+                    writer.write(',');
+                    writer.write(Csv.escape(inventory.getStoreId()));
+                    writer.write(',');
+                    writer.write(String.valueOf(inventory.getQuantity()));
+                    writer.write('\n');
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+            writer.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(TEXT_CSV)).body(body);
+    }
+
+    @PostMapping(value = "/bulk", consumes = {TEXT_CSV, APPLICATION_NDJSON})
+    public BulkImportResult bulkImport(@RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType, InputStream body) throws IOException {
+        logger.info("Received bulk inventory upload ({})", contentType);
+        return bulkImporter.importInventory(body, BulkFormat.of(contentType));
+    }
+
+    @GetMapping("/changes")
+    public ChangesResponse getChanges(@RequestParam(required = false) String since,
+                                      @RequestParam(required = false) String storeId,
+                                      @RequestParam(defaultValue = "500") int limit) {
+        return inventoryService.getChanges(since, storeId, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
+    }
+
+    @GetMapping("/cache/stats")
+    public CacheStatsResponse getCacheStats() {
+        return inventoryService.getCacheStats();
+    }
+
+    @GetMapping("/movements")
+    public MovementHistoryResponse getMovementHistory(@RequestParam String sku,
+                                                      @RequestParam(required = false) String storeId,
+                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                                      @RequestParam(required = false) String cursor,
+                                                      @RequestParam(defaultValue = "500") int limit) {
+        return inventoryService.getMovementHistory(sku, storeId, from, to, cursor, Math.max(1, Math.min(limit, MAX_PAGE_SIZE)));
     }
 
     @GetMapping("/{sku}")
@@ -32,17 +167,59 @@ public class InventoryController {
         return inventoryService.getInventoryBySku(sku);
     }
 
+    // Un updateStock no deja registro durable: su clave solo se recuerda en memoria (el stock absoluto es repetible)
     @PostMapping("/update")
-    public ResponseEntity<Inventory> updateStock(@RequestBody @Valid StockUpdateRequest request) {
+    public ResponseEntity<Inventory> updateStock(@RequestBody @Valid StockUpdateRequest request,
+                                                 @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
         logger.info("Received stock update request: {}", request);
-        Inventory updated = inventoryService.updateStock(request.getSku(), request.getStoreId(), request.getNewStock());
-        return ResponseEntity.ok(updated);
+        return idempotencyStore.execute("update", idempotencyKey, () -> {
+            Inventory updated = keyedExecutor.execute(request.getSku(), request.getStoreId(),
+                    () -> inventoryService.updateStock(request.getSku(), request.getStoreId(), request.getNewStock()));
+            return ResponseEntity.ok(updated);
+        }, key -> Optional.empty());
     }
 
     @PostMapping("/movement")
-    public ResponseEntity<StockMovement> registerMovement(@RequestBody @Valid StockMovementRequest request) {
+    public ResponseEntity<StockMovement> registerMovement(@RequestBody @Valid StockMovementRequest request,
+                                                          @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
         logger.info("Received stock movement request: {}", request);
-        StockMovement movement = inventoryService.registerMovement(request.getSku(), request.getStoreId(), request.getType(), request.getQuantity());
-        return ResponseEntity.ok(movement);
+        return idempotencyStore.execute("movement", idempotencyKey, () -> {
+            StockMovement movement = keyedExecutor.execute(request.getSku(), request.getStoreId(),
+                    () -> inventoryService.registerMovement(request.getSku(), request.getStoreId(), request.getType(),
+                            request.getQuantity(), idempotencyKey));
+            return ResponseEntity.ok(movement);
+        }, key -> inventoryService.findMovementByIdempotencyKey(key).map(ResponseEntity::ok));
+    }
+
+    @PostMapping("/movement/async")
+    public ResponseEntity<MovementStatus> registerMovementAsync(@RequestBody @Valid StockMovementRequest request) {
+        String trackingId = UUID.randomUUID().toString();
+        if (!movementQueue.offer(new QueuedMovement(trackingId, request))) {
+            throw new QueueFullException("Movement queue is full, retry later");
+        }
+        logger.info("Queued stock movement request {}: {}", trackingId, request);
+        return ResponseEntity.accepted()
+                .location(URI.create("/inventory/movement/async/" + trackingId))
+                .body(MovementStatus.builder().trackingId(trackingId).status(MovementStatus.PENDING).build());
+    }
+
+    @GetMapping("/movement/async/{trackingId}")
+    public ResponseEntity<MovementStatus> getMovementStatus(@PathVariable String trackingId) {
+        return movementStatusStore.get(trackingId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/movements/batch")
+    public ResponseEntity<List<BatchMovementResult>> registerMovements(@RequestBody List<StockMovementRequest> requests) {
+        logger.info("Received stock movement batch with {} items", requests.size());
+        List<BatchMovementResult> results = inventoryService.registerMovements(requests);
+        return ResponseEntity.ok(results);
+    }
+
+    @PostMapping("/orders")
+    public ResponseEntity<List<StockMovement>> registerOrder(@RequestBody @Valid OrderRequest request) {
+        logger.info("Received order for store {} with {} lines", request.getStoreId(), request.getLines().size());
+        return ResponseEntity.ok(inventoryService.registerOrder(request.getStoreId(), request.getLines()));
     }
 }
\ No newline at end of file
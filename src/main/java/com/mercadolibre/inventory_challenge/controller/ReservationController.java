@@ -0,0 +1,53 @@
+package com.mercadolibre.inventory_challenge.controller;
+
+import com.mercadolibre.inventory_challenge.dto.ReservationRequest;
+import com.mercadolibre.inventory_challenge.dto.ReservationResponse;
+import com.mercadolibre.inventory_challenge.model.StockMovement;
+import com.mercadolibre.inventory_challenge.reservation.ReservationService;
+import jakarta.validation.Valid;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+
+@RestController
+@RequestMapping("/inventory/reservations")
+@ConditionalOnProperty(prefix = "inventory.reservations", name = "enabled", havingValue = "true")
+public class ReservationController {
+    private static final Logger logger = LoggerFactory.getLogger(ReservationController.class);
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @PostMapping
+    public ResponseEntity<ReservationResponse> reserve(@RequestBody @Valid ReservationRequest request) {
+        logger.info("Received stock reservation request: {}", request);
+        ReservationResponse reservation = reservationService.reserve(request.getSku(), request.getStoreId(),
+                request.getQuantity(), request.getTtlSeconds());
+        return ResponseEntity.created(URI.create("/inventory/reservations/" + reservation.getId())).body(reservation);
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<ReservationResponse> getReservation(@PathVariable long id) {
+        return reservationService.get(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @PostMapping("/{id}/confirm")
+    public ResponseEntity<StockMovement> confirm(@PathVariable long id) {
+        logger.info("Confirming stock reservation {}", id);
+        return ResponseEntity.ok(reservationService.confirm(id));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<Void> cancel(@PathVariable long id) {
+        logger.info("Cancelling stock reservation {}", id);
+        reservationService.cancel(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,55 @@
+package com.mercadolibre.inventory_challenge.controller;
+
+import com.mercadolibre.inventory_challenge.dto.StockStreamEvent;
+import com.mercadolibre.inventory_challenge.stream.StockStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/inventory/stream")
+@ConditionalOnProperty(prefix = "inventory.stream", name = "enabled", havingValue = "true")
+public class StockStreamController {
+    private static final Logger logger = LoggerFactory.getLogger(StockStreamController.class);
+
+    @Autowired
+    private StockStream stockStream;
+
+    // Sin timeout: una conexión inactiva se mantiene con heartbeats, que también detectan a los clientes caídos
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter stream(@RequestParam(required = false) String sku,
+                             @RequestParam(required = false) String storeId,
+                             @RequestParam(required = false) Integer threshold) {
+        SseEmitter emitter = new SseEmitter(0L);
+        StockStream.Subscription subscription = stockStream.subscribe(sku, storeId, threshold, new StockStream.Sink() {
+            @Override
+            public void send(StockStreamEvent event) throws IOException {
+                emitter.send(SseEmitter.event().name(event.getType()).data(event, MediaType.APPLICATION_JSON));
+            }
+
+            @Override
+            public void heartbeat() throws IOException {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+
+            @Override
+            public void close() {
+                emitter.complete();
+            }
+        });
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(ex -> subscription.close());
+        logger.debug("Stream subscription sku={} storeId={} threshold={}", sku, storeId, threshold);
+        return emitter;
+    }
+}
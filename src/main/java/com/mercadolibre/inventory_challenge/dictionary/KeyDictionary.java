@@ -0,0 +1,165 @@
+package com.mercadolibre.inventory_challenge.dictionary;
+
+import com.mercadolibre.inventory_challenge.model.Product;
+import com.mercadolibre.inventory_challenge.model.Store;
+import com.mercadolibre.inventory_challenge.replica.ReadRouting;
+import com.mercadolibre.inventory_challenge.repository.ProductRepository;
+import com.mercadolibre.inventory_challenge.repository.StoreRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Diccionario persistente que interna sku y storeId en ids enteros compactos (desde 1). Los skus se registran en
+ * {@link Product#getKeyId()} y las tiendas en la tabla {@code store}. Un id nuevo se asigna en memoria y queda
+ * pendiente hasta el próximo flush del motor en memoria, que lo persiste en su misma transacción: internar nunca
+ * pide una conexión, así que no compite por el pool con la transacción del llamador. Un id que se pierde en una
+ * caída no deja rastro, porque lo persistido (filas de inventory y movimientos) referencia sku y storeId por valor.
+ * <p>
+ * Las lecturas no toman locks; solo el alta de un valor nuevo se serializa.
+ */
+@Component
+@ConditionalOnProperty(prefix = "inventory.engine.memory", name = "enabled", havingValue = "true")
+public class KeyDictionary {
+    private static final Logger logger = LoggerFactory.getLogger(KeyDictionary.class);
+
+    private final ProductRepository productRepository;
+    private final StoreRepository storeRepository;
+    private final Namespace skus = new Namespace();
+    private final Namespace stores = new Namespace();
+
+    public KeyDictionary(ProductRepository productRepository, StoreRepository storeRepository) {
+        this.productRepository = productRepository;
+        this.storeRepository = storeRepository;
+    }
+
+    @PostConstruct
+    public void load() {
+        for (Product product : ReadRouting.onPrimary(productRepository::findByKeyIdNotNull)) {
+            skus.add(product.getSku(), product.getKeyId());
+        }
+        for (Store store : ReadRouting.onPrimary(storeRepository::findAll)) {
+            stores.add(store.getStoreId(), store.getId());
+        }
+        logger.info("Key dictionary loaded {} skus and {} stores", skus.ids.size(), stores.ids.size());
+    }
+
+    // Clave empaquetada (skuId << 32 | storeId), registrando los valores que falten
+    public long intern(String sku, String storeId) {
+        return LongObjectMap.pack(internSku(sku), internStore(storeId));
+    }
+
+    // -1 si alguno de los dos valores nunca se registró: la clave no puede existir en el índice
+    public long keyOf(String sku, String storeId) {
+        int skuId = skuIdOf(sku);
+        int storeKey = storeIdOf(storeId);
+        return skuId < 0 || storeKey < 0 ? -1 : LongObjectMap.pack(skuId, storeKey);
+    }
+
+    public int internSku(String sku) {
+        Integer id = skus.ids.get(sku);
+        return id != null ? id : skus.assign(sku);
+    }
+
+    public int internStore(String storeId) {
+        Integer id = stores.ids.get(storeId);
+        return id != null ? id : stores.assign(storeId);
+    }
+
+    // Valores internados desde la última llamada; el llamador los persiste con persist o los devuelve con restore
+    public Pending takePending() {
+        return new Pending(skus.takePending(), stores.takePending());
+    }
+
+    // Debe invocarse dentro de la transacción del flush
+    public void persist(Pending pending) {
+        for (String sku : pending.skus()) {
+            Product product = productRepository.findById(sku).orElseGet(() -> Product.builder().sku(sku).build());
+            product.setKeyId(skus.ids.get(sku));
+            productRepository.save(product);
+        }
+        for (String storeId : pending.stores()) {
+            storeRepository.save(Store.builder().id(stores.ids.get(storeId)).storeId(storeId).build());
+        }
+    }
+
+    // Un flush fallido devuelve sus altas para el próximo
+    public void restore(Pending pending) {
+        skus.restorePending(pending.skus());
+        stores.restorePending(pending.stores());
+    }
+
+    public int skuIdOf(String sku) {
+        return skus.ids.getOrDefault(sku, -1);
+    }
+
+    public int storeIdOf(String storeId) {
+        return stores.ids.getOrDefault(storeId, -1);
+    }
+
+    public String sku(int id) {
+        return skus.values[id];
+    }
+
+    public String storeId(int id) {
+        return stores.values[id];
+    }
+
+    public String sku(long key) {
+        return sku(LongObjectMap.high(key));
+    }
+
+    public String storeId(long key) {
+        return storeId(LongObjectMap.low(key));
+    }
+
+    public record Pending(List<String> skus, List<String> stores) {
+        public boolean isEmpty() {
+            return skus.isEmpty() && stores.isEmpty();
+        }
+    }
+
+    private static final class Namespace {
+        final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+        // Se reasigna después de cada alta: la escritura volátil publica el valor antes de que su id sea visible
+        volatile String[] values = new String[64];
+        int next = 1;
+        // Altas todavía no persistidas; protegido por this
+        List<String> pending = new ArrayList<>();
+
+        synchronized int assign(String value) {
+            Integer id = ids.get(value);
+            if (id != null) return id;
+            int assigned = next;
+            add(value, assigned);
+            pending.add(value);
+            return assigned;
+        }
+
+        synchronized List<String> takePending() {
+            List<String> taken = pending;
+            pending = new ArrayList<>();
+            return taken;
+        }
+
+        synchronized void restorePending(List<String> values) {
+            pending.addAll(0, values);
+        }
+
+        synchronized void add(String value, int id) {
+            String[] current = values;
+            if (id >= current.length) current = Arrays.copyOf(current, Math.max(id + 1, current.length << 1));
+            current[id] = value;
+            values = current;
+            ids.put(value, id);
+            next = Math.max(next, id + 1);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.mercadolibre.inventory_challenge.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchMovementResult {
+    public static final String APPLIED = "applied";
+    public static final String REJECTED = "rejected";
+
+    private int index;
+    private String sku;
+    private String storeId;
+    private String status;
+    private Long movementId;
+    private String error;
+    // No se aplicó porque la transacción de su shard se revirtió: reenviarlo no lo duplica
+    @JsonIgnore
+    private boolean retryable;
+}
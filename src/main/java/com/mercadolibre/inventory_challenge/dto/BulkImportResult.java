@@ -0,0 +1,21 @@
+package com.mercadolibre.inventory_challenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkImportResult {
+    private long rows;
+    private long applied;
+    private long rejected;
+    // Primeros errores por fila (inventory.bulk.max-reported-errors); errorsTruncated indica que hubo más
+    private List<BulkRowError> errors;
+    private boolean errorsTruncated;
+}
@@ -0,0 +1,18 @@
+package com.mercadolibre.inventory_challenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkRowError {
+    // Número de línea en el archivo subido (1 = primera línea, incluido el encabezado CSV)
+    private long line;
+    private String sku;
+    private String storeId;
+    private String error;
+}
@@ -0,0 +1,24 @@
+package com.mercadolibre.inventory_challenge.dto;
+
+import com.mercadolibre.inventory_challenge.model.Inventory;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangesResponse {
+    // Filas modificadas después del cursor recibido, en orden de cambio
+    private List<Inventory> changes;
+    // Cursor opaco para el próximo pedido
+    private String cursor;
+    // Hay más cambios: pedir de nuevo con el cursor sin esperar
+    private boolean hasMore;
+    // El cursor recibido no pertenece a esta secuencia (reinicio): descargar el inventario completo y seguir con este cursor
+    private boolean fullSyncRequired;
+}
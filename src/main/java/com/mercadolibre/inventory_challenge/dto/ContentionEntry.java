@@ -0,0 +1,17 @@
+package com.mercadolibre.inventory_challenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ContentionEntry {
+    private String sku;
+    private String storeId;
+    // Estimación del count-min sketch: puede sobreestimar por colisiones, nunca subestima
+    private long conflicts;
+}
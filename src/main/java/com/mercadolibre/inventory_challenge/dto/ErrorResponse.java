@@ -0,0 +1,29 @@
+package com.mercadolibre.inventory_challenge.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Value
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ErrorResponse {
+    private LocalDateTime timestamp;
+    private String error;
+    private int status;
+    // Errores de validación por campo
+    private List<String> errors;
+    private String details;
+
+    public static ErrorResponse of(String error, int status) {
+        return ErrorResponse.builder().timestamp(LocalDateTime.now()).error(error).status(status).build();
+    }
+
+    // Cuerpo sin timestamp para compartir entre requests; la hora de la respuesta ya viaja en el header Date
+    public static ErrorResponse shared(String error, int status) {
+        return ErrorResponse.builder().error(error).status(status).build();
+    }
+}
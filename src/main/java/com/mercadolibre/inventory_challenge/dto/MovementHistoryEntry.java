@@ -0,0 +1,59 @@
+package com.mercadolibre.inventory_challenge.dto;
+
+import com.mercadolibre.inventory_challenge.model.MovementRollup;
+import com.mercadolibre.inventory_challenge.model.StockMovement;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovementHistoryEntry {
+    public static final String MOVEMENT = "movement";
+    public static final String DAILY = "daily";
+
+    private String granularity; // "movement" (fila original) o "daily" (agregado compactado)
+    private Long id;
+    private String sku;
+    private String storeId;
+    private String type;
+    private long quantity;
+    // Movimientos representados: 1 para una fila original
+    private long movements;
+    // Para los agregados diarios, el inicio del día
+    private LocalDateTime timestamp;
+    private LocalDate day;
+
+    public static MovementHistoryEntry of(StockMovement movement) {
+        return MovementHistoryEntry.builder()
+                .granularity(MOVEMENT)
+                .id(movement.getId())
+                .sku(movement.getSku())
+                .storeId(movement.getStoreId())
+                .type(movement.getType())
+                .quantity(movement.getQuantity())
+                .movements(1)
+                .timestamp(movement.getTimestamp())
+                .build();
+    }
+
+    public static MovementHistoryEntry of(MovementRollup rollup) {
+        return MovementHistoryEntry.builder()
+                .granularity(DAILY)
+                .id(rollup.getId())
+                .sku(rollup.getSku())
+                .storeId(rollup.getStoreId())
+                .type(rollup.getType())
+                .quantity(rollup.getQuantity())
+                .movements(rollup.getMovements())
+                .timestamp(rollup.getDay().atStartOfDay())
+                .day(rollup.getDay())
+                .build();
+    }
+}
@@ -0,0 +1,19 @@
+package com.mercadolibre.inventory_challenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovementHistoryResponse {
+    // Agregados diarios (días ya compactados) seguidos de los movimientos originales, en orden cronológico
+    private List<MovementHistoryEntry> movements;
+    // Cursor opaco para la página siguiente; null en la última página
+    private String nextCursor;
+}
@@ -0,0 +1,19 @@
+package com.mercadolibre.inventory_challenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MovementStatus {
+    public static final String PENDING = "pending";
+
+    private String trackingId;
+    private String status; // "pending", "applied" o "rejected"
+    private Long movementId;
+    private String error;
+}
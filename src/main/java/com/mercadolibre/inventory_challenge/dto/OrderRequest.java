@@ -0,0 +1,23 @@
+package com.mercadolibre.inventory_challenge.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Pedido de una tienda: todas sus líneas son ventas y se aplican juntas o ninguna
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderRequest {
+    @NotNull(message = "Store ID cannot be null")
+    private String storeId;
+    @NotEmpty(message = "An order needs at least one line")
+    private List<@Valid @NotNull OrderLine> lines;
+}
@@ -0,0 +1,25 @@
+package com.mercadolibre.inventory_challenge.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReservationRequest {
+    @NotNull(message = "SKU cannot be null")
+    private String sku;
+    @NotNull(message = "Store ID cannot be null")
+    private String storeId;
+    @NotNull(message = "Quantity cannot be null")
+    @Positive(message = "Quantity must be positive")
+    private Integer quantity;
+    @NotNull(message = "TTL cannot be null")
+    @Positive(message = "TTL must be positive")
+    private Integer ttlSeconds;
+}
@@ -1,6 +1,7 @@
 package com.mercadolibre.inventory_challenge.dto;
 
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
 import lombok.Builder;
 import lombok.Data;
 
@@ -14,5 +15,6 @@ public class StockMovementRequest {
     @NotNull(message = "Type cannot be null")
     private String type;
     @NotNull(message = "Quantity cannot be null")
+    @Positive(message = "Quantity must be positive")
     private Integer quantity;
 }
\ No newline at end of file
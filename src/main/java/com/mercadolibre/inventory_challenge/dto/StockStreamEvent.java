@@ -0,0 +1,23 @@
+package com.mercadolibre.inventory_challenge.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Evento de GET /inventory/stream: type es también el nombre del evento SSE
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StockStreamEvent {
+    public static final String STOCK = "stock";
+    public static final String LOW_STOCK = "low-stock";
+    public static final String RESTOCKED = "restocked";
+
+    private String type;
+    private String sku;
+    private String storeId;
+    private int quantity;
+    private Integer threshold;
+}
@@ -1,70 +1,111 @@
 package com.mercadolibre.inventory_challenge.exception;
 
+import com.mercadolibre.inventory_challenge.dto.ErrorResponse;
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 
+import java.sql.SQLException;
 import java.time.LocalDateTime;
-import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.Optional;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
     private static final Logger logger = LoggerFactory.getLogger(GlobalExceptionHandler.class);
+    private static final String INVENTORY_KEY_CONSTRAINT = "uk_inventory_sku_store";
+    private static final String UNIQUE_VIOLATION_STATE = "23505";
+    // Los rechazos de instancia única tienen mensaje y código fijos: un solo cuerpo inmutable por tipo
+    private static final Map<Class<?>, ErrorResponse> SHARED_BODIES = Map.of(
+            InsufficientStockException.class,
+            ErrorResponse.shared(InsufficientStockException.MESSAGE, InsufficientStockException.INSTANCE.getStatus().value()),
+            UnsupportedMovementTypeException.class,
+            ErrorResponse.shared(UnsupportedMovementTypeException.MESSAGE, UnsupportedMovementTypeException.INSTANCE.getStatus().value()));
 
+    // Cada subtipo define su código: 409 sin stock, 422 tipo no soportado, 404 inexistente, 400 el resto
     @ExceptionHandler(InventoryException.class)
     public ResponseEntity<Object> handleInventoryException(InventoryException ex) {
-        logger.warn("Inventory error: {}", ex.getMessage());
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("error", ex.getMessage());
-        body.put("status", Optional.of(HttpStatus.BAD_REQUEST.value()));
-        return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
+        HttpStatus status = ex.getStatus();
+        if (ex instanceof InsufficientStockException) {
+            // Resultado normal bajo carga: no se registra en WARN
+            logger.debug("Inventory rejection: {}", ex.getMessage());
+        } else {
+            logger.warn("Inventory error: {}", ex.getMessage());
+        }
+        ErrorResponse body = SHARED_BODIES.get(ex.getClass());
+        return new ResponseEntity<>(body != null ? body : ErrorResponse.of(ex.getMessage(), status.value()), status);
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Object> handleValidationExceptions(MethodArgumentNotValidException ex) {
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("status", Optional.of(HttpStatus.BAD_REQUEST.value()));
-
         List<String> errors = ex.getBindingResult()
                 .getFieldErrors()
                 .stream()
                 .map(error -> error.getField() + ": " + error.getDefaultMessage())
                 .toList();
 
-        body.put("errors", errors);
         logger.warn("Validation error: {}", errors);
-
+        ErrorResponse body = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.BAD_REQUEST.value())
+                .errors(errors)
+                .build();
         return new ResponseEntity<>(body, HttpStatus.BAD_REQUEST);
     }
 
     @ExceptionHandler(OptimisticLockingFailureException.class)
     public ResponseEntity<Object> handleOptimisticLock(OptimisticLockingFailureException ex) {
         logger.warn("Concurrency error: {}", ex.getMessage());
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("error", "Concurrency conflict: Resource was modified by another transaction");
-        body.put("status", Optional.of(HttpStatus.CONFLICT.value()));
+        ErrorResponse body = ErrorResponse.of("Concurrency conflict: Resource was modified by another transaction", HttpStatus.CONFLICT.value());
+        return new ResponseEntity<>(body, HttpStatus.CONFLICT);
+    }
+
+    // Sólo la clave única (sku, store_id) indica que otra transacción creó la misma fila; el resto es un error
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Object> handleDataIntegrityViolation(DataIntegrityViolationException ex) {
+        if (!isDuplicateInventoryKey(ex)) return handleGeneralException(ex);
+        logger.warn("Integrity conflict: {}", ex.getMostSpecificCause().getMessage());
+        ErrorResponse body = ErrorResponse.of("Concurrency conflict: Resource was created by another transaction", HttpStatus.CONFLICT.value());
         return new ResponseEntity<>(body, HttpStatus.CONFLICT);
     }
 
+    private static boolean isDuplicateInventoryKey(DataIntegrityViolationException ex) {
+        for (Throwable cause = ex.getCause(); cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName().toLowerCase(Locale.ROOT).contains(INVENTORY_KEY_CONSTRAINT);
+            }
+            if (cause instanceof SQLException sql && UNIQUE_VIOLATION_STATE.equals(sql.getSQLState())) {
+                return sql.getMessage() != null && sql.getMessage().toLowerCase(Locale.ROOT).contains(INVENTORY_KEY_CONSTRAINT);
+            }
+        }
+        return false;
+    }
+
+    @ExceptionHandler(QueueFullException.class)
+    public ResponseEntity<Object> handleQueueFull(QueueFullException ex) {
+        logger.warn("Async queue rejected movement: {}", ex.getMessage());
+        ErrorResponse body = ErrorResponse.of(ex.getMessage(), HttpStatus.TOO_MANY_REQUESTS.value());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").body(body);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<Object> handleGeneralException(Exception ex) {
         logger.error("Unexpected error", ex);
-        Map<String, Object> body = new HashMap<>();
-        body.put("timestamp", LocalDateTime.now());
-        body.put("error", "Unexpected error occurred");
-        body.put("details", ex.getMessage());
-        body.put("status", Optional.of(HttpStatus.INTERNAL_SERVER_ERROR.value()));
+        ErrorResponse body = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .error("Unexpected error occurred")
+                .details(ex.getMessage())
+                .status(HttpStatus.INTERNAL_SERVER_ERROR.value())
+                .build();
         return new ResponseEntity<>(body, HttpStatus.INTERNAL_SERVER_ERROR);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,20 @@
+package com.mercadolibre.inventory_challenge.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Venta mayor al stock disponible. Sin stack trace ni estado por instancia, así que se comparte una sola.
+ */
+public class InsufficientStockException extends InventoryException {
+    public static final String MESSAGE = "No hay suficiente stock";
+    public static final InsufficientStockException INSTANCE = new InsufficientStockException();
+
+    private InsufficientStockException() {
+        super(MESSAGE, false);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.CONFLICT;
+    }
+}
@@ -1,7 +1,18 @@
 package com.mercadolibre.inventory_challenge.exception;
 
+import org.springframework.http.HttpStatus;
+
 public class InventoryException extends RuntimeException {
     public InventoryException(String message) {
         super(message);
     }
+
+    // Rechazos de negocio esperables bajo carga: sin stack trace ni supresión, crearlos cuesta casi nada
+    protected InventoryException(String message, boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+    }
+
+    public HttpStatus getStatus() {
+        return HttpStatus.BAD_REQUEST;
+    }
 }
@@ -0,0 +1,14 @@
+package com.mercadolibre.inventory_challenge.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class InventoryNotFoundException extends InventoryException {
+    public InventoryNotFoundException(String sku, String storeId) {
+        super("Inventory not found for SKU: " + sku + " and Store ID: " + storeId, false);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.NOT_FOUND;
+    }
+}
@@ -0,0 +1,7 @@
+package com.mercadolibre.inventory_challenge.exception;
+
+public class QueueFullException extends RuntimeException {
+    public QueueFullException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.mercadolibre.inventory_challenge.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Reserva inexistente, ya confirmada, cancelada o vencida.
+ */
+public class ReservationNotFoundException extends InventoryException {
+    public ReservationNotFoundException(long id) {
+        super("Reservation not found or expired: " + id, false);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.NOT_FOUND;
+    }
+}
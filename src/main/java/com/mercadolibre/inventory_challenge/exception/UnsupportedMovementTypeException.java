@@ -0,0 +1,20 @@
+package com.mercadolibre.inventory_challenge.exception;
+
+import org.springframework.http.HttpStatus;
+
+/**
+ * Tipo de movimiento distinto de "sale" o "restock". Sin stack trace ni estado por instancia, así que se comparte una sola.
+ */
+public class UnsupportedMovementTypeException extends InventoryException {
+    public static final String MESSAGE = "Tipo de movimiento no soportado";
+    public static final UnsupportedMovementTypeException INSTANCE = new UnsupportedMovementTypeException();
+
+    private UnsupportedMovementTypeException() {
+        super(MESSAGE, false);
+    }
+
+    @Override
+    public HttpStatus getStatus() {
+        return HttpStatus.UNPROCESSABLE_ENTITY;
+    }
+}
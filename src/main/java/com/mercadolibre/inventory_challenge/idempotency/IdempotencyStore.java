@@ -0,0 +1,137 @@
+package com.mercadolibre.inventory_challenge.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import com.mercadolibre.inventory_challenge.exception.InventoryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicación por Idempotency-Key. La respuesta de cada clave queda en un mapa acotado y con vencimiento;
+ * un reintento recibe la misma respuesta sin volver a ejecutar la operación, y uno concurrente espera a la original.
+ * <p>
+ * Si la clave ya no está en el mapa (vencida, desalojada o tras un reinicio), la respuesta se reconstruye desde
+ * la base. Un filtro de Bloom evita esa lectura para las claves nunca vistas: el camino normal no toca la base.
+ * El filtro no admite borrados, así que se usan dos generaciones que rotan cada retención.
+ */
+@Component
+public class IdempotencyStore {
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyStore.class);
+    public static final String HEADER = "Idempotency-Key";
+    // Largo de la columna idempotency_key
+    public static final int MAX_KEY_LENGTH = 255;
+
+    private final ConcurrentMap<String, CompletableFuture<ResponseEntity<?>>> responses;
+    private final InventoryProperties.Idempotency settings;
+    private final long rotationNanos;
+    private volatile BloomFilter current;
+    private volatile BloomFilter previous;
+    private volatile long rotateAt;
+
+    public IdempotencyStore(InventoryProperties inventoryProperties) {
+        this.settings = inventoryProperties.getIdempotency();
+        Cache<String, CompletableFuture<ResponseEntity<?>>> cache = Caffeine.newBuilder()
+                .maximumSize(settings.getMaxEntries())
+                .expireAfterWrite(settings.getRetention())
+                .build();
+        this.responses = cache.asMap();
+        this.rotationNanos = settings.getRetention().toNanos();
+        this.current = newFilter();
+        this.previous = newFilter();
+        this.rotateAt = System.nanoTime() + rotationNanos;
+    }
+
+    /**
+     * Ejecuta la operación una sola vez por clave. {@code scope} separa las claves de cada endpoint;
+     * {@code recover} busca en la base el resultado de una clave ya aplicada (vacío si no hay registro durable).
+     * Si la operación falla no se recuerda nada: un reintento la vuelve a ejecutar.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> execute(String scope, String key, Supplier<ResponseEntity<T>> action,
+                                         Function<String, Optional<ResponseEntity<T>>> recover) {
+        if (key == null) return action.get();
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InventoryException(HEADER + " must have between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+        String scopedKey = scope + ':' + key;
+        CompletableFuture<ResponseEntity<?>> mine = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<?>> existing = responses.putIfAbsent(scopedKey, mine);
+        if (existing != null) {
+            logger.info("Replaying response for {} {}", HEADER, scopedKey);
+            return (ResponseEntity<T>) await(existing);
+        }
+        try {
+            if (mightContain(scopedKey)) {
+                Optional<ResponseEntity<T>> recovered = recover.apply(key);
+                if (recovered.isPresent()) {
+                    logger.info("Recovered stored response for {} {}", HEADER, scopedKey);
+                    mine.complete(recovered.get());
+                    return recovered.get();
+                }
+            }
+            put(scopedKey);
+            ResponseEntity<T> response = action.get();
+            mine.complete(response);
+            return response;
+        } catch (DataIntegrityViolationException ex) {
+            // La clave ya estaba en la base (p. ej. aplicada antes de un reinicio): la transacción se revirtió entera
+            Optional<ResponseEntity<T>> recovered = recover.apply(key);
+            if (recovered.isPresent()) {
+                mine.complete(recovered.get());
+                return recovered.get();
+            }
+            forget(scopedKey, mine, ex);
+            throw ex;
+        } catch (RuntimeException ex) {
+            forget(scopedKey, mine, ex);
+            throw ex;
+        }
+    }
+
+    private void forget(String scopedKey, CompletableFuture<ResponseEntity<?>> mine, RuntimeException ex) {
+        responses.remove(scopedKey, mine);
+        mine.completeExceptionally(ex);
+    }
+
+    private static ResponseEntity<?> await(CompletableFuture<ResponseEntity<?>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) throw cause;
+            throw ex;
+        }
+    }
+
+    private boolean mightContain(String key) {
+        return current.mightContain(key) || previous.mightContain(key);
+    }
+
+    private void put(String key) {
+        long now = System.nanoTime();
+        if (now - rotateAt >= 0) rotate(now);
+        current.put(key);
+    }
+
+    // La generación anterior cubre las claves de la última retención; las más viejas ya vencieron del mapa
+    private synchronized void rotate(long now) {
+        if (now - rotateAt < 0) return;
+        previous = current;
+        current = newFilter();
+        rotateAt = now + rotationNanos;
+    }
+
+    private BloomFilter newFilter() {
+        return new BloomFilter(settings.getMaxEntries(), settings.getFalsePositiveRate());
+    }
+}
@@ -0,0 +1,75 @@
+package com.mercadolibre.inventory_challenge.journal;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Diccionario persistente String -> int para sku y storeId. Cada valor nuevo se agrega al archivo y se sincroniza
+ * antes de devolver su id, así ningún registro del journal referencia un id que no sobreviva a una caída.
+ */
+class IdDictionary implements Closeable {
+    private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<>();
+    private final List<String> values = new ArrayList<>();
+    private final FileOutputStream file;
+    private final DataOutputStream out;
+
+    IdDictionary(Path path) throws IOException {
+        if (Files.exists(path)) load(path);
+        file = new FileOutputStream(path.toFile(), true);
+        out = new DataOutputStream(new BufferedOutputStream(file));
+    }
+
+    // Llamado bajo el lock del journal: un solo escritor
+    int intern(String value) throws IOException {
+        Integer id = ids.get(value);
+        if (id != null) return id;
+        out.writeUTF(value);
+        out.flush();
+        file.getChannel().force(false);
+        synchronized (values) {
+            values.add(value);
+            id = values.size() - 1;
+        }
+        ids.put(value, id);
+        return id;
+    }
+
+    // -1 si el valor nunca se registró
+    int idOf(String value) {
+        return ids.getOrDefault(value, -1);
+    }
+
+    String valueOf(int id) {
+        synchronized (values) {
+            return values.get(id);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void load(Path path) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        int position = 0;
+        // Cada entrada es writeUTF: largo (2 bytes) + contenido. Una última entrada truncada por una caída se descarta
+        while (position + 2 <= bytes.length) {
+            int length = ((bytes[position] & 0xFF) << 8) | (bytes[position + 1] & 0xFF);
+            if (position + 2 + length > bytes.length) break;
+            String value = new DataInputStream(new ByteArrayInputStream(bytes, position, 2 + length)).readUTF();
+            ids.put(value, values.size());
+            values.add(value);
+            position += 2 + length;
+        }
+        if (position < bytes.length) {
+            try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+                file.setLength(position);
+            }
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.mercadolibre.inventory_challenge.journal;
+
+import com.mercadolibre.inventory_challenge.Service.SplitCounterService;
+import com.mercadolibre.inventory_challenge.Service.StockKey;
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import com.mercadolibre.inventory_challenge.model.Inventory;
+import com.mercadolibre.inventory_challenge.replica.ReadRouting;
+import com.mercadolibre.inventory_challenge.repository.InventoryRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Instantáneas del stock por (sku, storeId) asociadas a un id del journal. Al arrancar se carga la última,
+ * se reaplican los registros posteriores y con el resultado se recrean las filas que faltan en la tabla inventory
+ * (una base en memoria que se perdió al reiniciar); las filas que la base conserva mandan y no se tocan, porque
+ * el log se escribe después del commit y puede ir detrás. Las instantáneas periódicas se calculan solo a partir
+ * de la anterior y del log, así reflejan exactamente un prefijo del journal. El stock de una clave dividida es
+ * su fila más sus slices ({@link SplitCounterService}): la instantánea guarda ese total, y una fila recreada
+ * recibe el total menos lo que sus slices conserven.
+ */
+@Component
+@ConditionalOnProperty(prefix = "inventory.journal", name = "enabled", havingValue = "true")
+public class JournalCheckpointer {
+    private static final Logger logger = LoggerFactory.getLogger(JournalCheckpointer.class);
+    private static final int MAGIC = 0x494E5653;
+    private static final String PREFIX = "snapshot-";
+    private static final String SUFFIX = ".bin";
+
+    private final MovementJournal journal;
+    private final InventoryRepository inventoryRepository;
+    private final SplitCounterService splitCounters;
+    private final TransactionTemplate transactionTemplate;
+    private final InventoryProperties.Journal settings;
+    private final Path directory;
+    private ScheduledExecutorService scheduler;
+
+    public JournalCheckpointer(MovementJournal journal, InventoryRepository inventoryRepository, SplitCounterService splitCounters,
+                               PlatformTransactionManager transactionManager, InventoryProperties inventoryProperties) {
+        this.journal = journal;
+        this.inventoryRepository = inventoryRepository;
+        this.splitCounters = splitCounters;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.settings = inventoryProperties.getJournal();
+        this.directory = Path.of(settings.getDirectory());
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        Snapshot latest = loadLatest();
+        Map<StockKey, Integer> state = latest.quantities();
+        long replayed = journal.lastId() - latest.lastId();
+        journal.forEach(latest.lastId(), journal.lastId(), record -> apply(state, record));
+        int restored = state.isEmpty() ? 0 : restore(state);
+        logger.info("Restored {} missing inventory rows from snapshot {} and {} journal records", restored, latest.lastId(), replayed);
+
+        // Instantánea inicial desde la base: incluye filas que nunca pasaron por el journal y el stock de los slices
+        Map<StockKey, Long> sliceTotals = ReadRouting.onPrimary(() -> splitCounters.sliceTotals(null));
+        Map<StockKey, Integer> current = new HashMap<>();
+        for (Inventory inventory : ReadRouting.onPrimary(inventoryRepository::findAll)) {
+            StockKey key = new StockKey(inventory.getSku(), inventory.getStoreId());
+            current.put(key, inventory.getQuantity() + sliceTotals.getOrDefault(key, 0L).intValue());
+        }
+        write(new Snapshot(journal.lastId(), current));
+
+        long interval = settings.getSnapshotInterval().toMillis();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::checkpointQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (scheduler != null) scheduler.shutdown();
+        checkpoint();
+    }
+
+    public synchronized void checkpoint() throws IOException {
+        Snapshot latest = loadLatest();
+        long upTo = journal.lastId();
+        if (upTo == latest.lastId()) return;
+        Map<StockKey, Integer> state = latest.quantities();
+        journal.forEach(latest.lastId(), upTo, record -> apply(state, record));
+        write(new Snapshot(upTo, state));
+        prune();
+    }
+
+    private void apply(Map<StockKey, Integer> state, JournalRecord record) {
+        StockKey key = new StockKey(journal.valueOf(record.skuId()), journal.valueOf(record.storeId()));
+        state.put(key, record.applyTo(state.getOrDefault(key, 0)));
+    }
+
+    // Solo inserta las claves que la base no tiene; devuelve cuántas
+    private int restore(Map<StockKey, Integer> state) {
+        Integer restored = transactionTemplate.execute(status -> {
+            Set<StockKey> existing = new HashSet<>();
+            for (Inventory inventory : inventoryRepository.findAll()) {
+                existing.add(new StockKey(inventory.getSku(), inventory.getStoreId()));
+            }
+            Map<StockKey, Long> sliceTotals = splitCounters.sliceTotals(null);
+            List<Inventory> rows = new ArrayList<>();
+            state.forEach((key, quantity) -> {
+                if (existing.contains(key)) return;
+                int inSlices = sliceTotals.getOrDefault(key, 0L).intValue();
+                rows.add(Inventory.builder().sku(key.sku()).storeId(key.storeId()).quantity(quantity - inSlices).build());
+            });
+            if (!rows.isEmpty()) inventoryRepository.saveAll(rows);
+            return rows.size();
+        });
+        return restored == null ? 0 : restored;
+    }
+
+    private void write(Snapshot snapshot) throws IOException {
+        Path target = directory.resolve(String.format("%s%020d%s", PREFIX, snapshot.lastId(), SUFFIX));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+        try (FileOutputStream file = new FileOutputStream(temp.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+            out.writeInt(MAGIC);
+            out.writeLong(snapshot.lastId());
+            out.writeInt(snapshot.quantities().size());
+            for (Map.Entry<StockKey, Integer> entry : snapshot.quantities().entrySet()) {
+                out.writeUTF(entry.getKey().sku());
+                out.writeUTF(entry.getKey().storeId());
+                out.writeInt(entry.getValue());
+            }
+            out.flush();
+            file.getChannel().force(true);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Snapshot loadLatest() throws IOException {
+        for (Path path : snapshotsNewestFirst()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+                if (in.readInt() != MAGIC) continue;
+                long lastId = in.readLong();
+                int size = in.readInt();
+                Map<StockKey, Integer> quantities = new HashMap<>(size * 2);
+                for (int i = 0; i < size; i++) {
+                    quantities.put(new StockKey(in.readUTF(), in.readUTF()), in.readInt());
+                }
+                return new Snapshot(lastId, quantities);
+            } catch (EOFException ex) {
+                logger.warn("Skipping truncated snapshot {}", path);
+            }
+        }
+        return new Snapshot(0, new HashMap<>());
+    }
+
+    private void prune() throws IOException {
+        List<Path> snapshots = snapshotsNewestFirst();
+        for (int i = Math.max(1, settings.getSnapshotsRetained()); i < snapshots.size(); i++) {
+            Files.deleteIfExists(snapshots.get(i));
+        }
+    }
+
+    private List<Path> snapshotsNewestFirst() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+                    })
+                    .sorted(Comparator.comparing(Path::getFileName).reversed())
+                    .toList();
+        }
+    }
+
+    private void checkpointQuietly() {
+        try {
+            checkpoint();
+        } catch (IOException | RuntimeException ex) {
+            logger.error("Journal snapshot failed", ex);
+        }
+    }
+
+    private record Snapshot(long lastId, Map<StockKey, Integer> quantities) {
+    }
+}
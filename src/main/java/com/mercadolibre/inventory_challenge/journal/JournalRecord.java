@@ -0,0 +1,62 @@
+package com.mercadolibre.inventory_challenge.journal;
+
+import com.mercadolibre.inventory_challenge.exception.UnsupportedMovementTypeException;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Registro de ancho fijo del journal. Layout (32 bytes): id, epochNanos, skuId, storeId, quantity, type, 2 bytes
+ * de relleno y un marcador que se escribe al final: un registro sin marcador quedó a medio escribir y se ignora.
+ */
+public record JournalRecord(long id, long epochNanos, int skuId, int storeId, int quantity, byte type) {
+    public static final int SIZE = 32;
+    public static final byte SALE = 1;
+    public static final byte RESTOCK = 2;
+    // Stock absoluto (updateStock); no es un movimiento y no aparece en el historial
+    public static final byte SET = 3;
+
+    private static final int MARKER_OFFSET = SIZE - 1;
+    private static final byte WRITTEN = 1;
+
+    static void write(ByteBuffer buffer, int offset, long id, long epochNanos, int skuId, int storeId, int quantity, byte type) {
+        buffer.putLong(offset, id);
+        buffer.putLong(offset + 8, epochNanos);
+        buffer.putInt(offset + 16, skuId);
+        buffer.putInt(offset + 20, storeId);
+        buffer.putInt(offset + 24, quantity);
+        buffer.put(offset + 28, type);
+        buffer.put(offset + MARKER_OFFSET, WRITTEN);
+    }
+
+    static boolean isWritten(ByteBuffer buffer, int offset) {
+        return buffer.get(offset + MARKER_OFFSET) == WRITTEN;
+    }
+
+    static JournalRecord read(ByteBuffer buffer, int offset) {
+        return new JournalRecord(buffer.getLong(offset), buffer.getLong(offset + 8), buffer.getInt(offset + 16),
+                buffer.getInt(offset + 20), buffer.getInt(offset + 24), buffer.get(offset + 28));
+    }
+
+    static byte typeOf(String movementType) {
+        if ("sale".equalsIgnoreCase(movementType)) return SALE;
+        if ("restock".equalsIgnoreCase(movementType)) return RESTOCK;
+        throw UnsupportedMovementTypeException.INSTANCE;
+    }
+
+    public String movementType() {
+        return switch (type) {
+            case SALE -> "sale";
+            case RESTOCK -> "restock";
+            default -> "set";
+        };
+    }
+
+    // Nuevo stock de la clave a partir del actual
+    public int applyTo(int current) {
+        return switch (type) {
+            case SALE -> current - quantity;
+            case RESTOCK -> current + quantity;
+            default -> quantity;
+        };
+    }
+}
@@ -0,0 +1,322 @@
+package com.mercadolibre.inventory_challenge.journal;
+
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import com.mercadolibre.inventory_challenge.model.StockMovement;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Log de movimientos append-only en segmentos mapeados en memoria, con registros de ancho fijo
+ * ({@link JournalRecord}). Reemplaza el INSERT de StockMovement: el id del movimiento es su posición en el log.
+ * El fsync se agrupa cada {@code fsync-every} registros o cada {@code fsync-interval}. Un índice por SKU
+ * (ids de sus registros) sirve el historial sin recorrer el log.
+ */
+@Component
+@ConditionalOnProperty(prefix = "inventory.journal", name = "enabled", havingValue = "true")
+public class MovementJournal {
+    private static final Logger logger = LoggerFactory.getLogger(MovementJournal.class);
+
+    private final InventoryProperties.Journal settings;
+    private final Path directory;
+    private final List<MappedByteBuffer> segments = new CopyOnWriteArrayList<>();
+    private final List<FileChannel> channels = new ArrayList<>();
+    // skuId -> ids de sus movimientos, en orden; protegido por this
+    private final Map<Integer, IdList> skuIndex = new HashMap<>();
+    private int recordsPerSegment;
+    private IdDictionary dictionary;
+    private volatile long lastId;
+    private long syncedId;
+    private ScheduledExecutorService syncer;
+
+    public MovementJournal(InventoryProperties inventoryProperties) {
+        this.settings = inventoryProperties.getJournal();
+        this.directory = Path.of(settings.getDirectory());
+        this.recordsPerSegment = (int) Math.min(Integer.MAX_VALUE / JournalRecord.SIZE,
+                settings.getSegmentSize().toBytes() / JournalRecord.SIZE);
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        Files.createDirectories(directory);
+        dictionary = new IdDictionary(directory.resolve("dictionary.dat"));
+        if (Files.exists(segmentPath(0))) {
+            // El tamaño de los segmentos existentes manda sobre la configuración actual
+            recordsPerSegment = (int) (Files.size(segmentPath(0)) / JournalRecord.SIZE);
+        }
+        for (int segment = 0; Files.exists(segmentPath(segment)); segment++) {
+            openSegment(segment);
+        }
+        lastId = syncedId = scan();
+
+        long interval = settings.getFsyncInterval().toMillis();
+        syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "journal-fsync");
+            thread.setDaemon(true);
+            return thread;
+        });
+        syncer.scheduleWithFixedDelay(this::syncQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        logger.info("Movement journal opened at {} with {} records", directory.toAbsolutePath(), lastId);
+    }
+
+    @PreDestroy
+    public void stop() throws IOException {
+        if (syncer != null) syncer.shutdown();
+        sync();
+        dictionary.close();
+        for (FileChannel channel : channels) channel.close();
+    }
+
+    public synchronized StockMovement append(String sku, String storeId, String type, int quantity) {
+        byte recordType = JournalRecord.typeOf(type);
+        long epochNanos = nowNanos();
+        long id = write(sku, storeId, quantity, recordType, epochNanos);
+        return StockMovement.builder()
+                .id(id)
+                .sku(sku)
+                .storeId(storeId)
+                .type(type)
+                .quantity(quantity)
+                .timestamp(toLocalDateTime(epochNanos))
+                .build();
+    }
+
+    // Completa id y timestamp de cada movimiento con su registro en el log
+    public synchronized List<StockMovement> appendAll(List<StockMovement> movements) {
+        for (StockMovement movement : movements) {
+            long epochNanos = nowNanos();
+            movement.setId(write(movement.getSku(), movement.getStoreId(), movement.getQuantity(),
+                    JournalRecord.typeOf(movement.getType()), epochNanos));
+            movement.setTimestamp(toLocalDateTime(epochNanos));
+        }
+        return movements;
+    }
+
+    public synchronized void appendSet(String sku, String storeId, int newStock) {
+        write(sku, storeId, newStock, JournalRecord.SET, nowNanos());
+    }
+
+    /**
+     * Como {@link #appendAll}, pero al confirmar la transacción actual (sin transacción, en el momento): un rollback
+     * no deja registros en el log. Id y timestamp se completan recién entonces, antes de que vuelva el método
+     * transaccional; {@code onAppended} corre después para copiar los ids a la respuesta. La base es la fuente de
+     * verdad del stock: si el append falla la escritura ya está confirmada, así que el error se registra y no se
+     * propaga (un reintento del llamador la aplicaría dos veces).
+     */
+    public List<StockMovement> appendAllAfterCommit(List<StockMovement> movements, Runnable onAppended) {
+        afterCommit(() -> {
+            appendAll(movements);
+            onAppended.run();
+        });
+        return movements;
+    }
+
+    public List<StockMovement> appendAllAfterCommit(List<StockMovement> movements) {
+        return appendAllAfterCommit(movements, () -> { });
+    }
+
+    public StockMovement appendAfterCommit(String sku, String storeId, String type, int quantity) {
+        StockMovement movement = StockMovement.builder().sku(sku).storeId(storeId).type(type).quantity(quantity).build();
+        appendAllAfterCommit(List.of(movement));
+        return movement;
+    }
+
+    public void appendSetAfterCommit(String sku, String storeId, int newStock) {
+        afterCommit(() -> appendSet(sku, storeId, newStock));
+    }
+
+    private void afterCommit(Runnable append) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            appendQuietly(append);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                appendQuietly(append);
+            }
+        });
+    }
+
+    private void appendQuietly(Runnable append) {
+        try {
+            append.run();
+        } catch (RuntimeException ex) {
+            logger.error("Movement journal append failed after commit; the record is missing from the log", ex);
+        }
+    }
+
+    public List<StockMovement> findBySku(String sku) {
+        int skuId = dictionary.idOf(sku);
+        if (skuId < 0) return List.of();
+        long[] ids;
+        synchronized (this) {
+            IdList list = skuIndex.get(skuId);
+            if (list == null) return List.of();
+            ids = list.toArray();
+        }
+        List<StockMovement> movements = new ArrayList<>(ids.length);
+        for (long id : ids) movements.add(toMovement(read(id)));
+        return movements;
+    }
+
+    // Recorre los registros con id en (afterId, upToId]
+    public void forEach(long afterId, long upToId, Consumer<JournalRecord> consumer) {
+        long last = Math.min(upToId, lastId);
+        for (long id = afterId + 1; id <= last; id++) consumer.accept(read(id));
+    }
+
+    public long lastId() {
+        return lastId;
+    }
+
+    public String valueOf(int dictionaryId) {
+        return dictionary.valueOf(dictionaryId);
+    }
+
+    public void sync() {
+        long from;
+        long to;
+        synchronized (this) {
+            from = syncedId + 1;
+            to = lastId;
+        }
+        if (from > to) return;
+        int firstSegment = segmentOf(from);
+        int lastSegment = segmentOf(to);
+        for (int segment = firstSegment; segment <= lastSegment; segment++) {
+            int start = segment == firstSegment ? offsetOf(from) : 0;
+            int end = segment == lastSegment ? offsetOf(to) + JournalRecord.SIZE : recordsPerSegment * JournalRecord.SIZE;
+            segments.get(segment).force(start, end - start);
+        }
+        synchronized (this) {
+            syncedId = Math.max(syncedId, to);
+        }
+    }
+
+    private long write(String sku, String storeId, int quantity, byte type, long epochNanos) {
+        try {
+            int skuId = dictionary.intern(sku);
+            int storeKey = dictionary.intern(storeId);
+            long id = lastId + 1;
+            int segment = segmentOf(id);
+            if (segment == segments.size()) openSegment(segment);
+            JournalRecord.write(segments.get(segment), offsetOf(id), id, epochNanos, skuId, storeKey, quantity, type);
+            lastId = id;
+            if (type != JournalRecord.SET) index(skuId, id);
+            if (settings.getFsyncEvery() > 0 && id - syncedId >= settings.getFsyncEvery()) sync();
+            return id;
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not append to movement journal", ex);
+        }
+    }
+
+    private long scan() {
+        long id = 0;
+        for (MappedByteBuffer segment : segments) {
+            for (int record = 0; record < recordsPerSegment; record++) {
+                int offset = record * JournalRecord.SIZE;
+                // El primer registro sin marcador es el final del log; lo que sigue se sobrescribe
+                if (!JournalRecord.isWritten(segment, offset)) return id;
+                id++;
+                if (segment.get(offset + 28) != JournalRecord.SET) index(segment.getInt(offset + 16), id);
+            }
+        }
+        return id;
+    }
+
+    private JournalRecord read(long id) {
+        return JournalRecord.read(segments.get(segmentOf(id)), offsetOf(id));
+    }
+
+    private void index(int skuId, long id) {
+        skuIndex.computeIfAbsent(skuId, key -> new IdList()).add(id);
+    }
+
+    private void openSegment(int segment) throws IOException {
+        FileChannel channel = FileChannel.open(segmentPath(segment),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        channels.add(channel);
+        segments.add(channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) recordsPerSegment * JournalRecord.SIZE));
+    }
+
+    private Path segmentPath(int segment) {
+        return directory.resolve(String.format("segment-%08d.log", segment));
+    }
+
+    private int segmentOf(long id) {
+        return (int) ((id - 1) / recordsPerSegment);
+    }
+
+    private int offsetOf(long id) {
+        return (int) ((id - 1) % recordsPerSegment) * JournalRecord.SIZE;
+    }
+
+    private StockMovement toMovement(JournalRecord record) {
+        return StockMovement.builder()
+                .id(record.id())
+                .sku(dictionary.valueOf(record.skuId()))
+                .storeId(dictionary.valueOf(record.storeId()))
+                .type(record.movementType())
+                .quantity(record.quantity())
+                .timestamp(toLocalDateTime(record.epochNanos()))
+                .build();
+    }
+
+    private void syncQuietly() {
+        try {
+            sync();
+        } catch (RuntimeException ex) {
+            logger.error("Movement journal fsync failed", ex);
+        }
+    }
+
+    private static long nowNanos() {
+        Instant now = Instant.now();
+        return now.getEpochSecond() * 1_000_000_000L + now.getNano();
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochNanos) {
+        return LocalDateTime.ofInstant(Instant.ofEpochSecond(0, epochNanos), ZoneId.systemDefault());
+    }
+
+    private static final class IdList {
+        private long[] ids = new long[8];
+        private int size;
+
+        void add(long id) {
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = id;
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(ids, size);
+        }
+    }
+}
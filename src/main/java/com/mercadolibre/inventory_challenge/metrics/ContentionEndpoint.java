@@ -0,0 +1,32 @@
+package com.mercadolibre.inventory_challenge.metrics;
+
+import com.mercadolibre.inventory_challenge.dto.ContentionEntry;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code GET /actuator/contention}: claves (sku, storeId) con más conflictos desde el arranque o el último reset.
+ */
+@Component
+@Endpoint(id = "contention")
+public class ContentionEndpoint {
+    private final InventoryMetrics inventoryMetrics;
+
+    public ContentionEndpoint(InventoryMetrics inventoryMetrics) {
+        this.inventoryMetrics = inventoryMetrics;
+    }
+
+    @ReadOperation
+    public List<ContentionEntry> topKeys() {
+        return inventoryMetrics.contention().topK();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        inventoryMetrics.contention().reset();
+    }
+}
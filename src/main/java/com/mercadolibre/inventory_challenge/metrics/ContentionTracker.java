@@ -0,0 +1,107 @@
+package com.mercadolibre.inventory_challenge.metrics;
+
+import com.mercadolibre.inventory_challenge.dto.ContentionEntry;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Top-K aproximado de las claves (sku, storeId) con más conflictos. Cada registro incrementa un count-min sketch
+ * de tamaño fijo sin reservar memoria; solo si la estimación supera al mínimo del top-K se toma el lock para
+ * actualizar la tabla de candidatos, que guarda referencias a los Strings recibidos.
+ */
+public class ContentionTracker {
+    private static final int DEPTH = 4;
+    private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+    private final int capacity;
+    private final int mask;
+    private final int width;
+    private final AtomicLongArray sketch;
+
+    // Protegidos por this
+    private final String[] skus;
+    private final String[] stores;
+    private final long[] counts;
+    private int size;
+
+    // Mínimo del top-K cuando está lleno; debajo de ese valor no hace falta tomar el lock
+    private volatile long admissionThreshold;
+
+    public ContentionTracker(int capacity, int sketchWidth) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+        if (Integer.bitCount(sketchWidth) != 1) throw new IllegalArgumentException("sketchWidth must be a power of 2");
+        this.capacity = capacity;
+        this.width = sketchWidth;
+        this.mask = sketchWidth - 1;
+        this.sketch = new AtomicLongArray(DEPTH * sketchWidth);
+        this.skus = new String[capacity];
+        this.stores = new String[capacity];
+        this.counts = new long[capacity];
+    }
+
+    public void record(String sku, String storeId) {
+        int hash = sku.hashCode() * 31 + storeId.hashCode();
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            int mixed = hash * SEEDS[row];
+            mixed ^= mixed >>> 16;
+            estimate = Math.min(estimate, sketch.incrementAndGet(row * width + (mixed & mask)));
+        }
+        if (estimate > admissionThreshold) {
+            offer(sku, storeId, estimate);
+        }
+    }
+
+    public synchronized List<ContentionEntry> topK() {
+        List<ContentionEntry> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            entries.add(ContentionEntry.builder().sku(skus[i]).storeId(stores[i]).conflicts(counts[i]).build());
+        }
+        entries.sort(Comparator.comparingLong(ContentionEntry::getConflicts).reversed());
+        return entries;
+    }
+
+    public synchronized void reset() {
+        for (int i = 0; i < sketch.length(); i++) sketch.set(i, 0);
+        for (int i = 0; i < size; i++) {
+            skus[i] = null;
+            stores[i] = null;
+            counts[i] = 0;
+        }
+        size = 0;
+        admissionThreshold = 0;
+    }
+
+    private synchronized void offer(String sku, String storeId, long estimate) {
+        int slot = -1;
+        for (int i = 0; i < size; i++) {
+            if (skus[i].equals(sku) && stores[i].equals(storeId)) {
+                slot = i;
+                break;
+            }
+        }
+        if (slot < 0) {
+            if (size < capacity) {
+                slot = size++;
+            } else {
+                slot = minSlot();
+                if (counts[slot] >= estimate) return;
+            }
+            skus[slot] = sku;
+            stores[slot] = storeId;
+        }
+        counts[slot] = Math.max(counts[slot], estimate);
+        admissionThreshold = size < capacity ? 0 : counts[minSlot()];
+    }
+
+    private int minSlot() {
+        int min = 0;
+        for (int i = 1; i < size; i++) {
+            if (counts[i] < counts[min]) min = i;
+        }
+        return min;
+    }
+}
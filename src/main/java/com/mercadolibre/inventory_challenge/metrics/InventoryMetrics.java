@@ -0,0 +1,88 @@
+package com.mercadolibre.inventory_challenge.metrics;
+
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import com.mercadolibre.inventory_challenge.exception.InsufficientStockException;
+import com.mercadolibre.inventory_challenge.exception.InventoryException;
+import com.mercadolibre.inventory_challenge.exception.InventoryNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métricas de las operaciones de InventoryService y de la carga masiva. Los timers de cada (operación, resultado) se registran al
+ * arrancar, así medir una llamada es un acceso a un arreglo y un {@code record} sin reservar memoria.
+ * El conteo de cada timer es el contador de ese resultado (conflictos, falta de stock, no encontrado, ...).
+ */
+@Component
+public class InventoryMetrics {
+    public static final String OPERATION_TIMER = "inventory.operation";
+
+    public enum Operation {
+        GET_ALL_INVENTORY, GET_INVENTORY_BY_SKU, UPDATE_STOCK, REGISTER_MOVEMENT, REGISTER_MOVEMENTS, REGISTER_ORDER, BULK_IMPORT
+    }
+
+    public enum Outcome {
+        SUCCESS, CONFLICT, INSUFFICIENT_STOCK, NOT_FOUND, INVALID, ERROR
+    }
+
+    private final Timer[][] timers;
+    private final ContentionTracker contention;
+
+    public InventoryMetrics(MeterRegistry registry, InventoryProperties inventoryProperties) {
+        Operation[] operations = Operation.values();
+        Outcome[] outcomes = Outcome.values();
+        timers = new Timer[operations.length][outcomes.length];
+        for (Operation operation : operations) {
+            for (Outcome outcome : outcomes) {
+                timers[operation.ordinal()][outcome.ordinal()] = Timer.builder(OPERATION_TIMER)
+                        .tag("operation", tagValue(operation))
+                        .tag("outcome", tagValue(outcome))
+                        .publishPercentiles(0.5, 0.95, 0.99)
+                        .publishPercentileHistogram()
+                        .register(registry);
+            }
+        }
+        InventoryProperties.Metrics settings = inventoryProperties.getMetrics();
+        contention = new ContentionTracker(settings.getTopK(), settings.getSketchWidth());
+    }
+
+    public void success(Operation operation, long startNanos) {
+        record(operation, Outcome.SUCCESS, startNanos);
+    }
+
+    public void failure(Operation operation, long startNanos, RuntimeException ex) {
+        record(operation, classify(ex), startNanos);
+    }
+
+    public void record(Operation operation, Outcome outcome, long startNanos) {
+        timers[operation.ordinal()][outcome.ordinal()].record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    // Conflicto de versión (o reintento por cambio concurrente) sobre una clave
+    public void recordContention(String sku, String storeId) {
+        contention.record(sku, storeId);
+    }
+
+    public ContentionTracker contention() {
+        return contention;
+    }
+
+    static Outcome classify(RuntimeException ex) {
+        if (ex instanceof OptimisticLockingFailureException || ex instanceof DataIntegrityViolationException) {
+            return Outcome.CONFLICT;
+        }
+        if (ex instanceof InsufficientStockException) return Outcome.INSUFFICIENT_STOCK;
+        if (ex instanceof InventoryNotFoundException) return Outcome.NOT_FOUND;
+        if (ex instanceof InventoryException || ex instanceof IllegalArgumentException) return Outcome.INVALID;
+        return Outcome.ERROR;
+    }
+
+    private static String tagValue(Enum<?> value) {
+        return value.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,24 @@
+package com.mercadolibre.inventory_challenge.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Época de la secuencia de cambios, en una única fila. Vive en la misma base que los change_seq: si la base se
+ * recrea, la fila desaparece con ellos y la nueva época invalida los cursores anteriores.
+ */
+@Entity
+@Table(name = "change_sequence_epoch")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChangeSequenceEpoch {
+    public static final int SINGLETON_ID = 1;
+
+    @Id
+    private Integer id;
+    @Column(nullable = false)
+    private Long epoch;
+}
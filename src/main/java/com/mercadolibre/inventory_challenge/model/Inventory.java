@@ -2,8 +2,16 @@ package com.mercadolibre.inventory_challenge.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
+@Table(name = "inventory",
+        uniqueConstraints = @UniqueConstraint(name = "uk_inventory_sku_store", columnNames = {"sku", "store_id"}),
+        indexes = {
+                @Index(name = "idx_inventory_store", columnList = "store_id, id"),
+                @Index(name = "idx_inventory_change_seq", columnList = "change_seq"),
+                @Index(name = "idx_inventory_store_change_seq", columnList = "store_id, change_seq")
+        })
 @Getter
 @Setter
 @NoArgsConstructor
@@ -13,9 +21,16 @@ public class Inventory {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
+    @Column(nullable = false)
     private String sku;
+    @Column(nullable = false)
     private String storeId;
     private Integer quantity;
     @Version
     private Long version;
-}
\ No newline at end of file
+    // Número de cambio asignado en cada escritura (ChangeSequence); 0 = fila nunca modificada por la API, también
+    // como default de la columna para los INSERT que no pasan por JPA
+    @Column(name = "change_seq", nullable = false)
+    @ColumnDefault("0")
+    private long changeSeq;
+}
@@ -0,0 +1,32 @@
+package com.mercadolibre.inventory_challenge.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+
+/**
+ * Porción del stock de un (sku, storeId) caliente. El stock real de la clave es la suma de sus slices.
+ */
+@Entity
+@Table(name = "inventory_slice",
+        uniqueConstraints = @UniqueConstraint(name = "uk_inventory_slice", columnNames = {"sku", "store_id", "slice"}),
+        indexes = @Index(name = "idx_inventory_slice_change_seq", columnList = "change_seq"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class InventorySlice {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(nullable = false)
+    private String sku;
+    @Column(nullable = false)
+    private String storeId;
+    private int slice;
+    private int quantity;
+    @Column(name = "change_seq", nullable = false)
+    @ColumnDefault("0")
+    private long changeSeq;
+}
@@ -0,0 +1,41 @@
+package com.mercadolibre.inventory_challenge.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Agregado diario de movimientos por (sku, storeId, tipo). Reemplaza a los movimientos más viejos que la retención.
+ */
+@Entity
+@Table(name = "movement_rollup",
+        uniqueConstraints = @UniqueConstraint(name = "uk_movement_rollup", columnNames = {"sku", "store_id", "bucket_day", "type"}),
+        indexes = @Index(name = "idx_rollup_sku_store_day", columnList = "sku, store_id, bucket_day, id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MovementRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String sku;
+    private String storeId;
+    // DAY es palabra reservada en H2
+    @Column(name = "bucket_day", nullable = false)
+    private LocalDate day;
+    private String type;
+    // Suma de las cantidades y cantidad de movimientos compactados
+    private long quantity;
+    private long movements;
+}
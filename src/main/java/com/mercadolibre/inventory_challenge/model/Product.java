@@ -1,5 +1,6 @@
 package com.mercadolibre.inventory_challenge.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import lombok.*;
@@ -15,4 +16,7 @@ public class Product {
     private String sku;
     private String name;
     private String description;
-}
\ No newline at end of file
+    // Id compacto asignado por el diccionario de claves; null hasta que el sku se usa en el índice en memoria
+    @Column(unique = true)
+    private Integer keyId;
+}
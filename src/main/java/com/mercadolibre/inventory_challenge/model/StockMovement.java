@@ -1,14 +1,23 @@
 package com.mercadolibre.inventory_challenge.model;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import lombok.*;
 
 import java.time.LocalDateTime;
 
 @Entity
+// Historial por sku/tienda en rango de tiempo; el id desempata la paginación por keyset y el rollup borra por rango de timestamp
+@Table(indexes = {
+        @Index(name = "idx_movement_sku_store_ts", columnList = "sku, store_id, timestamp, id"),
+        @Index(name = "idx_movement_ts", columnList = "timestamp")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -16,7 +25,9 @@ import java.time.LocalDateTime;
 @Builder
 public class StockMovement {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Secuencia con allocationSize > 1: permite agrupar los INSERT en lotes JDBC (IDENTITY lo impide)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stock_movement_seq")
+    @SequenceGenerator(name = "stock_movement_seq", sequenceName = "stock_movement_seq", allocationSize = 50)
     private Long id;
 
     private String sku;
@@ -24,4 +35,7 @@ public class StockMovement {
     private String type; // "sale" o "restock"
     private int quantity;
     private LocalDateTime timestamp;
+    // Idempotency-Key del request que lo creó; única para que un reintento posterior a un reinicio no se aplique dos veces
+    @Column(unique = true)
+    private String idempotencyKey;
 }
\ No newline at end of file
@@ -0,0 +1,29 @@
+package com.mercadolibre.inventory_challenge.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Reserva activa de stock. Es la forma persistida mínima para reconstruir las reservas al arrancar:
+ * la fila se borra al confirmar, cancelar o vencer.
+ */
+@Entity
+@Table(name = "stock_reservation")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @Column(nullable = false)
+    private String sku;
+    @Column(nullable = false)
+    private String storeId;
+    private int quantity;
+    // Epoch en milisegundos
+    @Column(name = "expires_at", nullable = false)
+    private long expiresAt;
+}
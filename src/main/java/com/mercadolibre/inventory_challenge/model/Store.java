@@ -0,0 +1,21 @@
+package com.mercadolibre.inventory_challenge.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Tienda registrada en el diccionario de claves. El id es compacto y lo asigna el diccionario, no la base.
+ */
+@Entity
+@Table(name = "store", uniqueConstraints = @UniqueConstraint(name = "uk_store_store_id", columnNames = "store_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Store {
+    @Id
+    private Integer id;
+    @Column(nullable = false)
+    private String storeId;
+}
@@ -0,0 +1,142 @@
+package com.mercadolibre.inventory_challenge.queue;
+
+import com.mercadolibre.inventory_challenge.Service.InventoryService;
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import com.mercadolibre.inventory_challenge.dto.BatchMovementResult;
+import com.mercadolibre.inventory_challenge.dto.MovementStatus;
+import com.mercadolibre.inventory_challenge.dto.StockMovementRequest;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cola acotada en proceso, particionada por hash de (sku, storeId). Cada partición tiene un único consumidor,
+ * así los movimientos de una misma clave se aplican en orden y sin competir entre sí. El consumidor junta
+ * hasta max-batch movimientos y los aplica en una sola transacción con registerMovements (group commit).
+ * Los movimientos encolados y no aplicados se pierden si el proceso cae.
+ */
+@Component
+public class InProcessMovementQueue implements MovementQueue {
+    private static final Logger logger = LoggerFactory.getLogger(InProcessMovementQueue.class);
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final InventoryService inventoryService;
+    private final MovementStatusStore statusStore;
+    private final InventoryProperties.Async settings;
+    private final List<BlockingQueue<QueuedMovement>> partitions = new ArrayList<>();
+    private final List<Thread> consumers = new ArrayList<>();
+    private volatile boolean running;
+
+    public InProcessMovementQueue(InventoryService inventoryService, MovementStatusStore statusStore,
+                                  InventoryProperties inventoryProperties) {
+        this.inventoryService = inventoryService;
+        this.statusStore = statusStore;
+        this.settings = inventoryProperties.getAsync();
+        for (int i = 0; i < settings.getPartitions(); i++) {
+            partitions.add(new ArrayBlockingQueue<>(settings.getCapacity()));
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (int i = 0; i < partitions.size(); i++) {
+            BlockingQueue<QueuedMovement> partition = partitions.get(i);
+            Thread consumer = new Thread(() -> consume(partition), "movement-queue-" + i);
+            consumer.setDaemon(true);
+            consumer.start();
+            consumers.add(consumer);
+        }
+    }
+
+    // Deja de aceptar movimientos y espera a que los consumidores vacíen sus particiones
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        for (Thread consumer : consumers) {
+            consumer.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    @Override
+    public boolean offer(QueuedMovement movement) {
+        if (!running) return false;
+        StockMovementRequest request = movement.request();
+        int partition = Math.floorMod(Objects.hash(request.getSku(), request.getStoreId()), partitions.size());
+        // El estado pendiente se registra antes de encolar para que el consumidor no lo pise
+        statusStore.put(MovementStatus.builder().trackingId(movement.trackingId()).status(MovementStatus.PENDING).build());
+        if (partitions.get(partition).offer(movement)) return true;
+        statusStore.remove(movement.trackingId());
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return partitions.stream().mapToInt(BlockingQueue::size).sum();
+    }
+
+    private void consume(BlockingQueue<QueuedMovement> partition) {
+        List<QueuedMovement> batch = new ArrayList<>(settings.getMaxBatch());
+        while (running || !partition.isEmpty()) {
+            try {
+                QueuedMovement first = partition.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                partition.drainTo(batch, settings.getMaxBatch() - 1);
+                apply(batch);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    // Cada intento reenvía sólo los movimientos sin resultado: una excepción de registerMovements implica que nada
+    // se confirmó, y los ítems de un shard que se revirtió vuelven como retryable; lo aplicado nunca se reenvía
+    private void apply(List<QueuedMovement> batch) {
+        List<QueuedMovement> pending = batch;
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                List<StockMovementRequest> requests = pending.stream().map(QueuedMovement::request).toList();
+                List<BatchMovementResult> results = inventoryService.registerMovements(requests);
+                List<QueuedMovement> unresolved = new ArrayList<>();
+                for (int i = 0; i < pending.size(); i++) {
+                    BatchMovementResult result = results.get(i);
+                    if (result.isRetryable()) {
+                        unresolved.add(pending.get(i));
+                        continue;
+                    }
+                    statusStore.put(MovementStatus.builder()
+                            .trackingId(pending.get(i).trackingId())
+                            .status(result.getStatus())
+                            .movementId(result.getMovementId())
+                            .error(result.getError())
+                            .build());
+                }
+                if (unresolved.isEmpty()) return;
+                logger.warn("{} of {} async movements were not applied (attempt {}/{})", unresolved.size(), pending.size(), attempt, MAX_ATTEMPTS);
+                pending = unresolved;
+            } catch (RuntimeException ex) {
+                logger.warn("Async movement batch of {} failed (attempt {}/{}): {}", pending.size(), attempt, MAX_ATTEMPTS, ex.getMessage());
+            }
+        }
+        for (QueuedMovement movement : pending) {
+            statusStore.put(MovementStatus.builder()
+                    .trackingId(movement.trackingId())
+                    .status(BatchMovementResult.REJECTED)
+                    .error("Movement could not be applied after " + MAX_ATTEMPTS + " attempts")
+                    .build());
+        }
+    }
+}
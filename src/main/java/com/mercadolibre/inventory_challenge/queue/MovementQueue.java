@@ -0,0 +1,14 @@
+package com.mercadolibre.inventory_challenge.queue;
+
+/**
+ * Cola de movimientos asincrónicos. La implementación en proceso puede reemplazarse por un broker
+ * (o un stand-in local) sin cambiar el controller.
+ */
+public interface MovementQueue {
+    /**
+     * Encola el movimiento sin bloquear. Devuelve false si la cola está llena.
+     */
+    boolean offer(QueuedMovement movement);
+
+    int size();
+}
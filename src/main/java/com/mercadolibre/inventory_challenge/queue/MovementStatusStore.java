@@ -0,0 +1,37 @@
+package com.mercadolibre.inventory_challenge.queue;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import com.mercadolibre.inventory_challenge.dto.MovementStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Resultado de cada movimiento asincrónico por tracking id. Acotado en tamaño y con vencimiento.
+ */
+@Component
+public class MovementStatusStore {
+    private final Cache<String, MovementStatus> statuses;
+
+    public MovementStatusStore(InventoryProperties inventoryProperties) {
+        InventoryProperties.Async settings = inventoryProperties.getAsync();
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(settings.getStatusMaxEntries())
+                .expireAfterWrite(settings.getStatusRetention())
+                .build();
+    }
+
+    public void put(MovementStatus status) {
+        statuses.put(status.getTrackingId(), status);
+    }
+
+    public void remove(String trackingId) {
+        statuses.invalidate(trackingId);
+    }
+
+    public Optional<MovementStatus> get(String trackingId) {
+        return Optional.ofNullable(statuses.getIfPresent(trackingId));
+    }
+}
@@ -0,0 +1,6 @@
+package com.mercadolibre.inventory_challenge.queue;
+
+import com.mercadolibre.inventory_challenge.dto.StockMovementRequest;
+
+public record QueuedMovement(String trackingId, StockMovementRequest request) {
+}
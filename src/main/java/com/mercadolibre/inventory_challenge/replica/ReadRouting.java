@@ -0,0 +1,43 @@
+package com.mercadolibre.inventory_challenge.replica;
+
+import java.util.function.Supplier;
+
+/**
+ * Marca el hilo para que sus transacciones de solo lectura usen el primario en lugar de la réplica:
+ * lecturas que deben ver lo recién confirmado (read-your-writes, feed de cambios, carga de la cache y del
+ * estado al arrancar). Sin réplica configurada no tiene efecto.
+ */
+public final class ReadRouting {
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    public static <T> T onPrimary(Supplier<T> action) {
+        Boolean previous = requirePrimary();
+        try {
+            return action.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    // Devuelve la marca anterior, para restaurarla con restore
+    static Boolean requirePrimary() {
+        Boolean previous = PRIMARY.get();
+        PRIMARY.set(Boolean.TRUE);
+        return previous;
+    }
+
+    static void restore(Boolean previous) {
+        if (previous == null) {
+            PRIMARY.remove();
+        } else {
+            PRIMARY.set(previous);
+        }
+    }
+
+    static boolean primaryRequired() {
+        return PRIMARY.get() != null;
+    }
+}
@@ -0,0 +1,76 @@
+package com.mercadolibre.inventory_challenge.replica;
+
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Con {@code inventory.replica.enabled=true} el DataSource de la aplicación separa dos pools: el primario
+ * (spring.datasource, para escrituras) y la réplica ({@code inventory.replica.*}, para transacciones de solo
+ * lectura). Así las lecturas pesadas de las tiendas no compiten por conexiones con las ventas. Requiere
+ * {@code spring.jpa.open-in-view=false}: con open-in-view Hibernate conserva durante todo el request la conexión
+ * que tomó primero, y una escritura posterior a una lectura podría ir a la réplica.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "inventory.replica", name = "enabled", havingValue = "true")
+public class ReplicaConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties, InventoryProperties inventoryProperties,
+                                              @Value("${spring.jpa.open-in-view:true}") boolean openInView) {
+        if (inventoryProperties.getSharding().isEnabled()) {
+            throw new IllegalStateException("Read replicas cannot be combined with sharding");
+        }
+        if (openInView) {
+            throw new IllegalStateException("Read replicas require spring.jpa.open-in-view=false");
+        }
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primary.setPoolName("primary");
+        return primary;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(DataSourceProperties dataSourceProperties, InventoryProperties inventoryProperties) {
+        InventoryProperties.Replica settings = inventoryProperties.getReplica();
+        if (settings.getUrl() == null || settings.getUrl().isBlank()) {
+            throw new IllegalStateException("inventory.replica.url is required when inventory.replica.enabled=true");
+        }
+        HikariDataSource replica = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(settings.getUrl())
+                .username(settings.getUsername() != null ? settings.getUsername() : dataSourceProperties.determineUsername())
+                .password(settings.getPassword() != null ? settings.getPassword() : dataSourceProperties.determinePassword())
+                .build();
+        replica.setPoolName("replica");
+        replica.setMaximumPoolSize(settings.getMaximumPoolSize());
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary, @Qualifier("replicaDataSource") DataSource replica) {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource();
+        routing.setTargetDataSources(Map.of(ReplicaRoutingDataSource.PRIMARY, primary, ReplicaRoutingDataSource.REPLICA, replica));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter() {
+        return new ReadYourWritesFilter();
+    }
+}
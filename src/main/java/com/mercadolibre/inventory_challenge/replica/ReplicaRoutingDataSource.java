@@ -0,0 +1,19 @@
+package com.mercadolibre.inventory_challenge.replica;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Transacciones de solo lectura a la réplica, el resto al primario. Va detrás de un LazyConnectionDataSourceProxy:
+ * la conexión física se pide en la primera sentencia, cuando el flag de solo lectura de la transacción ya está.
+ */
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    static final String PRIMARY = "primary";
+    static final String REPLICA = "replica";
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && !ReadRouting.primaryRequired()
+                ? REPLICA : PRIMARY;
+    }
+}
@@ -0,0 +1,7 @@
+package com.mercadolibre.inventory_challenge.repository;
+
+import com.mercadolibre.inventory_challenge.model.ChangeSequenceEpoch;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ChangeSequenceEpochRepository extends JpaRepository<ChangeSequenceEpoch, Integer> {
+}
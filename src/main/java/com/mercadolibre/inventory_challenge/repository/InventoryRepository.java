@@ -1,13 +1,78 @@
 package com.mercadolibre.inventory_challenge.repository;
 
 import com.mercadolibre.inventory_challenge.model.Inventory;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface InventoryRepository extends JpaRepository<Inventory, Long> {
     List<Inventory> findBySku(String sku);
     List<Inventory> findByStoreId(String storeId);
     Optional<Inventory> findBySkuAndStoreId(String sku, String storeId);
-}
\ No newline at end of file
+    List<Inventory> findByStoreIdAndSkuIn(String storeId, Collection<String> skus);
+
+    // Paginación por keyset sobre id: cada página arranca después del último id de la anterior
+    List<Inventory> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+    List<Inventory> findByStoreIdAndIdGreaterThanOrderByIdAsc(String storeId, Long afterId, Limit limit);
+    List<Inventory> findBySkuAndIdGreaterThanOrderByIdAsc(String sku, Long afterId, Limit limit);
+    List<Inventory> findBySkuAndStoreIdAndIdGreaterThanOrderByIdAsc(String sku, String storeId, Long afterId, Limit limit);
+
+    // Cambios en (since, upTo] en orden de número de cambio; cubiertos por idx_inventory_change_seq / idx_inventory_store_change_seq
+    List<Inventory> findByChangeSeqGreaterThanAndChangeSeqLessThanEqualOrderByChangeSeqAsc(long since, long upTo, Limit limit);
+    List<Inventory> findByStoreIdAndChangeSeqGreaterThanAndChangeSeqLessThanEqualOrderByChangeSeqAsc(String storeId, long since, long upTo, Limit limit);
+
+    // Bloquea las filas de un pedido con un único SELECT ... FOR UPDATE, en orden de sku para que dos pedidos no se crucen
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT i FROM Inventory i WHERE i.storeId = :storeId AND i.sku IN :skus ORDER BY i.sku")
+    List<Inventory> lockForOrder(@Param("storeId") String storeId, @Param("skus") Collection<String> skus);
+
+    @Query("SELECT COALESCE(MAX(i.changeSeq), 0) FROM Inventory i")
+    long maxChangeSeq();
+
+    // Cursor de solo lectura con fetch size acotado; debe consumirse dentro de una transacción
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT i FROM Inventory i WHERE (:storeId IS NULL OR i.storeId = :storeId) " +
+            "AND (:sku IS NULL OR i.sku = :sku) ORDER BY i.id")
+    Stream<Inventory> streamAll(@Param("storeId") String storeId, @Param("sku") String sku);
+
+    // Actualizaciones atómicas: el resultado es la cantidad de filas afectadas (0 = sin stock o inexistente)
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.quantity = i.quantity - :quantity, i.version = i.version + 1, i.changeSeq = :changeSeq " +
+            "WHERE i.sku = :sku AND i.storeId = :storeId AND i.quantity >= :quantity")
+    int decrementStock(@Param("sku") String sku, @Param("storeId") String storeId, @Param("quantity") int quantity,
+                       @Param("changeSeq") long changeSeq);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.quantity = i.quantity + :quantity, i.version = i.version + 1, i.changeSeq = :changeSeq " +
+            "WHERE i.sku = :sku AND i.storeId = :storeId")
+    int incrementStock(@Param("sku") String sku, @Param("storeId") String storeId, @Param("quantity") int quantity,
+                       @Param("changeSeq") long changeSeq);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.quantity = :quantity, i.version = i.version + 1, i.changeSeq = :changeSeq " +
+            "WHERE i.sku = :sku AND i.storeId = :storeId")
+    int setStock(@Param("sku") String sku, @Param("storeId") String storeId, @Param("quantity") int quantity,
+                 @Param("changeSeq") long changeSeq);
+
+    // Aplica un delta neto (positivo o negativo) sin dejar el stock por debajo de cero
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Inventory i SET i.quantity = i.quantity + :delta, i.version = i.version + 1, i.changeSeq = :changeSeq " +
+            "WHERE i.sku = :sku AND i.storeId = :storeId AND i.quantity + :delta >= 0")
+    int applyDelta(@Param("sku") String sku, @Param("storeId") String storeId, @Param("delta") int delta,
+                   @Param("changeSeq") long changeSeq);
+}
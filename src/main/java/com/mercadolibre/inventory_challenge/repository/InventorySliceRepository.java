@@ -0,0 +1,48 @@
+package com.mercadolibre.inventory_challenge.repository;
+
+import com.mercadolibre.inventory_challenge.model.InventorySlice;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface InventorySliceRepository extends JpaRepository<InventorySlice, Long> {
+    boolean existsBySkuAndStoreId(String sku, String storeId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM InventorySlice s WHERE s.sku = :sku AND s.storeId = :storeId ORDER BY s.slice")
+    List<InventorySlice> lockSlices(@Param("sku") String sku, @Param("storeId") String storeId);
+
+    @Query("SELECT new com.mercadolibre.inventory_challenge.repository.SliceTotal(s.sku, s.storeId, SUM(s.quantity)) " +
+            "FROM InventorySlice s GROUP BY s.sku, s.storeId")
+    List<SliceTotal> findTotals();
+
+    @Query("SELECT new com.mercadolibre.inventory_challenge.repository.SliceTotal(s.sku, s.storeId, SUM(s.quantity)) " +
+            "FROM InventorySlice s WHERE s.sku = :sku GROUP BY s.sku, s.storeId")
+    List<SliceTotal> findTotalsBySku(@Param("sku") String sku);
+
+    // Claves divididas con algún slice modificado en (since, upTo]; son pocas, no hace falta paginar
+    @Query("SELECT new com.mercadolibre.inventory_challenge.repository.SliceChange(s.sku, s.storeId, MAX(s.changeSeq)) " +
+            "FROM InventorySlice s WHERE s.changeSeq > :since AND s.changeSeq <= :upTo " +
+            "AND (:storeId IS NULL OR s.storeId = :storeId) GROUP BY s.sku, s.storeId")
+    List<SliceChange> findChanges(@Param("since") long since, @Param("upTo") long upTo, @Param("storeId") String storeId);
+
+    @Query("SELECT COALESCE(MAX(s.changeSeq), 0) FROM InventorySlice s")
+    long maxChangeSeq();
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE InventorySlice s SET s.quantity = s.quantity - :quantity, s.changeSeq = :changeSeq " +
+            "WHERE s.sku = :sku AND s.storeId = :storeId AND s.slice = :slice AND s.quantity >= :quantity")
+    int decrementSlice(@Param("sku") String sku, @Param("storeId") String storeId,
+                       @Param("slice") int slice, @Param("quantity") int quantity, @Param("changeSeq") long changeSeq);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE InventorySlice s SET s.quantity = s.quantity + :quantity, s.changeSeq = :changeSeq " +
+            "WHERE s.sku = :sku AND s.storeId = :storeId AND s.slice = :slice")
+    int incrementSlice(@Param("sku") String sku, @Param("storeId") String storeId,
+                       @Param("slice") int slice, @Param("quantity") int quantity, @Param("changeSeq") long changeSeq);
+}
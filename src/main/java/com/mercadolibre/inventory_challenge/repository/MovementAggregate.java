@@ -0,0 +1,4 @@
+package com.mercadolibre.inventory_challenge.repository;
+
+public record MovementAggregate(String sku, String storeId, String type, Long quantity, Long movements) {
+}
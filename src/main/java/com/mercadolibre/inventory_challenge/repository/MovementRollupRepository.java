@@ -0,0 +1,23 @@
+package com.mercadolibre.inventory_challenge.repository;
+
+import com.mercadolibre.inventory_challenge.model.MovementRollup;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+public interface MovementRollupRepository extends JpaRepository<MovementRollup, Long> {
+    Optional<MovementRollup> findBySkuAndStoreIdAndDayAndType(String sku, String storeId, LocalDate day, String type);
+
+    // Keyset sobre (día, id) dentro de [fromDay, toDay)
+    @Query("SELECT r FROM MovementRollup r WHERE r.sku = :sku AND (:storeId IS NULL OR r.storeId = :storeId) " +
+            "AND r.day >= :fromDay AND r.day < :toDay " +
+            "AND (r.day > :afterDay OR (r.day = :afterDay AND r.id > :afterId)) ORDER BY r.day, r.id")
+    List<MovementRollup> findHistory(@Param("sku") String sku, @Param("storeId") String storeId,
+                                     @Param("fromDay") LocalDate fromDay, @Param("toDay") LocalDate toDay,
+                                     @Param("afterDay") LocalDate afterDay, @Param("afterId") long afterId, Limit limit);
+}
@@ -0,0 +1,10 @@
+package com.mercadolibre.inventory_challenge.repository;
+
+import com.mercadolibre.inventory_challenge.model.Product;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface ProductRepository extends JpaRepository<Product, String> {
+    List<Product> findByKeyIdNotNull();
+}
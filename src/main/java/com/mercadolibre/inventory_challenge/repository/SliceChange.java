@@ -0,0 +1,4 @@
+package com.mercadolibre.inventory_challenge.repository;
+
+public record SliceChange(String sku, String storeId, Long changeSeq) {
+}
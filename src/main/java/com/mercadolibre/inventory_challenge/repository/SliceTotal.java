@@ -0,0 +1,4 @@
+package com.mercadolibre.inventory_challenge.repository;
+
+public record SliceTotal(String sku, String storeId, Long quantity) {
+}
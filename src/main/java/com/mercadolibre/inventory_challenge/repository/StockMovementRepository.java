@@ -1,10 +1,39 @@
 package com.mercadolibre.inventory_challenge.repository;
 
 import com.mercadolibre.inventory_challenge.model.StockMovement;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 public interface StockMovementRepository extends JpaRepository<StockMovement, Long> {
     List<StockMovement> findBySku(String sku);
-}
\ No newline at end of file
+
+    Optional<StockMovement> findByIdempotencyKey(String idempotencyKey);
+
+    // Keyset sobre (timestamp, id) usando el índice (sku, store_id, timestamp, id)
+    @Query("SELECT m FROM StockMovement m WHERE m.sku = :sku AND (:storeId IS NULL OR m.storeId = :storeId) " +
+            "AND m.timestamp >= :from AND m.timestamp < :to " +
+            "AND (m.timestamp > :afterTimestamp OR (m.timestamp = :afterTimestamp AND m.id > :afterId)) " +
+            "ORDER BY m.timestamp, m.id")
+    List<StockMovement> findHistory(@Param("sku") String sku, @Param("storeId") String storeId,
+                                    @Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                    @Param("afterTimestamp") LocalDateTime afterTimestamp, @Param("afterId") long afterId,
+                                    Limit limit);
+
+    @Query("SELECT MIN(m.timestamp) FROM StockMovement m")
+    LocalDateTime findOldestTimestamp();
+
+    @Query("SELECT new com.mercadolibre.inventory_challenge.repository.MovementAggregate(m.sku, m.storeId, m.type, SUM(m.quantity), COUNT(m)) " +
+            "FROM StockMovement m WHERE m.timestamp >= :from AND m.timestamp < :to GROUP BY m.sku, m.storeId, m.type")
+    List<MovementAggregate> aggregate(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM StockMovement m WHERE m.timestamp >= :from AND m.timestamp < :to")
+    int deleteByTimestampRange(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+}
@@ -0,0 +1,84 @@
+package com.mercadolibre.inventory_challenge.reservation;
+
+import com.mercadolibre.inventory_challenge.Service.StockKey;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Unidades reservadas por (sku, storeId) y locks por clave que ordenan reservas y ventas. Una venta toma el lock de
+ * su clave hasta el fin de su transacción, así una reserva nunca lee un stock que una venta en curso va a bajar.
+ * Las ventas no pueden dejar el stock por debajo de lo reservado.
+ * <p>
+ * Separado de {@link ReservationService} para que {@code InventoryService} lo use sin dependencia circular.
+ */
+@Component
+@ConditionalOnProperty(prefix = "inventory.reservations", name = "enabled", havingValue = "true")
+public class ReservationHolds {
+    private static final int STRIPES = 1024;
+
+    private final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+    private final ConcurrentHashMap<StockKey, Integer> held = new ConcurrentHashMap<>();
+
+    public ReservationHolds() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    public int held(String sku, String storeId) {
+        return held.getOrDefault(new StockKey(sku, storeId), 0);
+    }
+
+    /**
+     * Toma los locks de las claves hasta que termine la transacción actual (después del commit y de la invalidación
+     * de la cache). Se toman en orden de stripe para que dos lotes con claves en común no se bloqueen entre sí.
+     */
+    public void lockUntilCompletion(Collection<StockKey> keys) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Reservation locks require an active transaction");
+        }
+        TreeSet<Integer> stripes = new TreeSet<>();
+        for (StockKey key : keys) stripes.add(stripe(key));
+        for (int stripe : stripes) {
+            ReentrantLock lock = locks[stripe];
+            lock.lock();
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lock.unlock();
+                }
+            });
+        }
+    }
+
+    <T> T withLock(StockKey key, Supplier<T> action) {
+        ReentrantLock lock = locks[stripe(key)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void add(StockKey key, int quantity) {
+        held.merge(key, quantity, Integer::sum);
+    }
+
+    void release(StockKey key, int quantity) {
+        held.computeIfPresent(key, (k, current) -> current > quantity ? current - quantity : null);
+    }
+
+    private static int stripe(StockKey key) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+}
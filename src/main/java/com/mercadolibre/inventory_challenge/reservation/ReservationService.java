@@ -0,0 +1,220 @@
+package com.mercadolibre.inventory_challenge.reservation;
+
+import com.mercadolibre.inventory_challenge.Service.InventoryService;
+import com.mercadolibre.inventory_challenge.Service.StockKey;
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import com.mercadolibre.inventory_challenge.dto.ReservationResponse;
+import com.mercadolibre.inventory_challenge.exception.InsufficientStockException;
+import com.mercadolibre.inventory_challenge.exception.InventoryException;
+import com.mercadolibre.inventory_challenge.exception.InventoryNotFoundException;
+import com.mercadolibre.inventory_challenge.exception.ReservationNotFoundException;
+import com.mercadolibre.inventory_challenge.model.StockMovement;
+import com.mercadolibre.inventory_challenge.model.StockReservation;
+import com.mercadolibre.inventory_challenge.replica.ReadRouting;
+import com.mercadolibre.inventory_challenge.repository.StockReservationRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reservas de stock con vencimiento. El stock disponible de una clave es su cantidad menos lo reservado; las reservas
+ * activas viven en memoria y vencen por una {@link TimingWheel} que avanza cada {@code inventory.reservations.tick},
+ * sin consultar la base. Cada reserva se persiste como una fila de {@code stock_reservation} que se borra al
+ * confirmar, cancelar o vencer, y al arrancar se recargan las filas no vencidas.
+ * <p>
+ * Confirmar convierte la reserva en un movimiento {@code sale} en la misma transacción que borra la fila.
+ */
+@Service
+@ConditionalOnProperty(prefix = "inventory.reservations", name = "enabled", havingValue = "true")
+public class ReservationService {
+    private static final Logger logger = LoggerFactory.getLogger(ReservationService.class);
+    // Clave de idempotencia del movimiento de venta: una reserva no puede confirmarse dos veces
+    private static final String IDEMPOTENCY_PREFIX = "reservation-";
+
+    private final InventoryService inventoryService;
+    private final StockReservationRepository reservationRepository;
+    private final ReservationHolds holds;
+    private final InventoryProperties.Reservations settings;
+    private final ConcurrentHashMap<Long, Hold> active = new ConcurrentHashMap<>();
+    private final TimingWheel<Hold> wheel;
+    private ScheduledExecutorService ticker;
+
+    public ReservationService(InventoryService inventoryService, StockReservationRepository reservationRepository,
+                              ReservationHolds holds, InventoryProperties inventoryProperties) {
+        if (inventoryProperties.getSharding().isEnabled()) {
+            throw new IllegalStateException("Stock reservations cannot be combined with sharding");
+        }
+        this.inventoryService = inventoryService;
+        this.reservationRepository = reservationRepository;
+        this.holds = holds;
+        this.settings = inventoryProperties.getReservations();
+        long tick = settings.getTick().toMillis();
+        this.wheel = new TimingWheel<>(tick, TimingWheel.levelsFor(tick, settings.getMaxTtl().toMillis()),
+                System.currentTimeMillis());
+    }
+
+    @PostConstruct
+    public void start() {
+        load();
+        long interval = settings.getTick().toMillis();
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "reservation-expiry");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::expireSafely, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        ticker.shutdown();
+        ticker.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    // Las reservas vencidas mientras el proceso estaba caído se borran; el resto vuelve a la rueda
+    private void load() {
+        long now = System.currentTimeMillis();
+        List<Long> expired = new ArrayList<>();
+        for (StockReservation reservation : ReadRouting.onPrimary(reservationRepository::findAll)) {
+            if (reservation.getExpiresAt() <= now) {
+                expired.add(reservation.getId());
+            } else {
+                register(new Hold(reservation.getId(), new StockKey(reservation.getSku(), reservation.getStoreId()),
+                        reservation.getQuantity(), reservation.getExpiresAt()));
+            }
+        }
+        if (!expired.isEmpty()) reservationRepository.deleteAllByIdInBatch(expired);
+        logger.info("Restored {} stock reservations, dropped {} expired", active.size(), expired.size());
+    }
+
+    public ReservationResponse reserve(String sku, String storeId, int quantity, int ttlSeconds) {
+        if (ttlSeconds * 1000L > settings.getMaxTtl().toMillis()) {
+            throw new InventoryException("ttlSeconds must be at most " + settings.getMaxTtl().toSeconds());
+        }
+        StockKey key = new StockKey(sku, storeId);
+        return holds.withLock(key, () -> {
+            // Bajo el lock de la clave ninguna venta está en curso: el stock leído ya incluye todas las confirmadas
+            int stock = ReadRouting.onPrimary(() -> inventoryService.getCurrentQuantity(sku, storeId))
+                    .orElseThrow(() -> new InventoryNotFoundException(sku, storeId));
+            if (stock - holds.held(sku, storeId) < quantity) throw InsufficientStockException.INSTANCE;
+            long expiresAt = System.currentTimeMillis() + ttlSeconds * 1000L;
+            StockReservation saved = reservationRepository.save(StockReservation.builder()
+                    .sku(sku).storeId(storeId).quantity(quantity).expiresAt(expiresAt).build());
+            Hold hold = new Hold(saved.getId(), key, quantity, expiresAt);
+            register(hold);
+            return hold.toResponse();
+        });
+    }
+
+    public Optional<ReservationResponse> get(long id) {
+        return Optional.ofNullable(active.get(id)).map(Hold::toResponse);
+    }
+
+    /**
+     * Libera lo reservado y registra la venta en la misma transacción. Si la venta falla (por ejemplo, un
+     * {@code /inventory/update} bajó el stock por debajo de lo reservado) la reserva vuelve a quedar activa.
+     */
+    @Transactional
+    public StockMovement confirm(long id) {
+        Hold hold = take(id);
+        reservationRepository.deleteById(id);
+        StockKey key = hold.key;
+        return inventoryService.registerMovement(key.sku(), key.storeId(), "sale", hold.quantity, IDEMPOTENCY_PREFIX + id);
+    }
+
+    @Transactional
+    public void cancel(long id) {
+        take(id);
+        reservationRepository.deleteById(id);
+    }
+
+    public int activeCount() {
+        return active.size();
+    }
+
+    // Saca la reserva de memoria bajo el lock de su clave; se restaura si la transacción no confirma
+    private Hold take(long id) {
+        Hold hold = active.get(id);
+        if (hold == null) throw new ReservationNotFoundException(id);
+        holds.lockUntilCompletion(List.of(hold.key));
+        if (!active.remove(id, hold)) throw new ReservationNotFoundException(id);
+        wheel.cancel(hold);
+        holds.release(hold.key, hold.quantity);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) register(hold);
+            }
+        });
+        return hold;
+    }
+
+    private void register(Hold hold) {
+        holds.add(hold.key, hold.quantity);
+        active.put(hold.id, hold);
+        wheel.schedule(hold);
+    }
+
+    private void expireSafely() {
+        try {
+            expire();
+        } catch (RuntimeException ex) {
+            logger.error("Reservation expiry failed, will retry on next tick", ex);
+        }
+    }
+
+    // Cada tick solo toca las reservas que vencen en él; las filas se borran en un único DELETE
+    void expire() {
+        List<Long> expired = new ArrayList<>();
+        for (Hold hold : wheel.advance(System.currentTimeMillis())) {
+            if (active.remove(hold.id, hold)) {
+                holds.release(hold.key, hold.quantity);
+                expired.add(hold.id);
+            }
+        }
+        if (!expired.isEmpty()) {
+            reservationRepository.deleteAllByIdInBatch(expired);
+            logger.debug("Expired {} stock reservations", expired.size());
+        }
+    }
+
+    private static final class Hold extends TimingWheel.Timeout {
+        final long id;
+        final StockKey key;
+        final int quantity;
+
+        Hold(long id, StockKey key, int quantity, long expiresAt) {
+            super(expiresAt);
+            this.id = id;
+            this.key = key;
+            this.quantity = quantity;
+        }
+
+        ReservationResponse toResponse() {
+            return ReservationResponse.builder()
+                    .id(id)
+                    .sku(key.sku())
+                    .storeId(key.storeId())
+                    .quantity(quantity)
+                    .expiresAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(deadline), ZoneId.systemDefault()))
+                    .build();
+        }
+    }
+}
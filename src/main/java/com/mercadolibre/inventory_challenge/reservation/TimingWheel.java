@@ -0,0 +1,154 @@
+package com.mercadolibre.inventory_challenge.reservation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Rueda de tiempo jerárquica: {@code levels} niveles de 64 slots, el nivel l con ticks de 64^l ticks base.
+ * Cada slot es una lista doblemente enlazada intrusiva, así agregar y cancelar cuestan O(1) y avanzar un tick
+ * solo toca los timeouts de ese slot (más, cada 64^l ticks, el slot del nivel l que baja a los niveles inferiores).
+ * Plazos más allá del alcance de la rueda se reubican al llegar al último nivel.
+ * <p>
+ * Los métodos son sincronizados: el hilo que avanza y los que agregan o cancelan comparten la rueda.
+ */
+class TimingWheel<T extends TimingWheel.Timeout> {
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+
+    /**
+     * Nodo de la rueda. Las reservas lo extienden para no pagar un objeto extra por timeout.
+     */
+    static class Timeout {
+        final long deadline;
+        Timeout prev;
+        Timeout next;
+        // Slot (nivel * 64 + índice) donde está enlazado; -1 fuera de la rueda
+        int bucket = -1;
+
+        Timeout(long deadline) {
+            this.deadline = deadline;
+        }
+    }
+
+    private final long tickMillis;
+    private final int levels;
+    private final Timeout[] heads;
+    private final long maxTicks;
+    private long currentTick;
+    private int size;
+
+    TimingWheel(long tickMillis, int levels, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.levels = levels;
+        this.heads = new Timeout[levels * SLOTS];
+        this.maxTicks = (1L << (SLOT_BITS * levels)) - 1;
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    // Niveles necesarios para cubrir `span` sin reubicar
+    static int levelsFor(long tickMillis, long spanMillis) {
+        long ticks = Math.max(1, spanMillis / tickMillis);
+        int levels = 1;
+        while (levels < 10 && (1L << (SLOT_BITS * levels)) <= ticks) levels++;
+        return levels;
+    }
+
+    synchronized void schedule(T timeout) {
+        place(timeout, currentTick + 1);
+        size++;
+    }
+
+    // false si ya venció (lo devolvió advance) o nunca se agregó
+    synchronized boolean cancel(T timeout) {
+        if (timeout.bucket < 0) return false;
+        unlink(timeout);
+        size--;
+        return true;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Procesa los ticks hasta {@code nowMillis} y devuelve los timeouts vencidos, que quedan fuera de la rueda.
+     */
+    @SuppressWarnings("unchecked")
+    synchronized List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        long target = nowMillis / tickMillis;
+        while (currentTick < target) {
+            long tick = currentTick + 1;
+            // Primero bajan los niveles superiores cuyo slot empieza en este tick
+            for (int level = levels - 1; level > 0; level--) {
+                if ((tick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    Timeout cascaded = detach(level, slot(tick, level));
+                    while (cascaded != null) {
+                        Timeout next = cascaded.next;
+                        place(cascaded, tick);
+                        cascaded = next;
+                    }
+                }
+            }
+            Timeout due = detach(0, slot(tick, 0));
+            currentTick = tick;
+            while (due != null) {
+                Timeout next = due.next;
+                if (tickOf(due.deadline) > tick) {
+                    // Plazo más allá del alcance: se reubica desde el próximo tick
+                    place(due, tick + 1);
+                } else {
+                    due.bucket = -1;
+                    due.prev = due.next = null;
+                    size--;
+                    expired.add((T) due);
+                }
+                due = next;
+            }
+        }
+        return expired;
+    }
+
+    // `base` es el próximo tick a procesar: el nivel sale de la distancia a él, así el slot elegido se procesa
+    // (o baja de nivel) antes de que el índice vuelva a repetirse
+    private void place(Timeout timeout, long base) {
+        long delta = Math.min(Math.max(0, tickOf(timeout.deadline) - base), maxTicks);
+        long tick = base + delta;
+        int level = 0;
+        while (level < levels - 1 && delta >= (1L << (SLOT_BITS * (level + 1)))) level++;
+        int bucket = level * SLOTS + slot(tick, level);
+        Timeout head = heads[bucket];
+        timeout.bucket = bucket;
+        timeout.prev = null;
+        timeout.next = head;
+        if (head != null) head.prev = timeout;
+        heads[bucket] = timeout;
+    }
+
+    private void unlink(Timeout timeout) {
+        if (timeout.prev != null) {
+            timeout.prev.next = timeout.next;
+        } else {
+            heads[timeout.bucket] = timeout.next;
+        }
+        if (timeout.next != null) timeout.next.prev = timeout.prev;
+        timeout.prev = timeout.next = null;
+        timeout.bucket = -1;
+    }
+
+    private Timeout detach(int level, int slot) {
+        int bucket = level * SLOTS + slot;
+        Timeout head = heads[bucket];
+        heads[bucket] = null;
+        return head;
+    }
+
+    // Redondeo hacia arriba: un timeout nunca vence antes de su plazo
+    private long tickOf(long millis) {
+        return (millis + tickMillis - 1) / tickMillis;
+    }
+
+    private static int slot(long tick, int level) {
+        return (int) (tick >>> (SLOT_BITS * level)) & (SLOTS - 1);
+    }
+}
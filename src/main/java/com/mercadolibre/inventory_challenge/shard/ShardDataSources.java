@@ -0,0 +1,38 @@
+package com.mercadolibre.inventory_challenge.shard;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pools de conexiones de los shards, en el orden configurado. Se cierran con el contexto.
+ */
+public class ShardDataSources implements AutoCloseable {
+    private final Map<String, HikariDataSource> pools;
+
+    ShardDataSources(Map<String, HikariDataSource> pools) {
+        this.pools = Collections.unmodifiableMap(new LinkedHashMap<>(pools));
+    }
+
+    public List<String> names() {
+        return List.copyOf(pools.keySet());
+    }
+
+    public HikariDataSource get(String shard) {
+        HikariDataSource pool = pools.get(shard);
+        if (pool == null) throw new IllegalArgumentException("Unknown shard: " + shard);
+        return pool;
+    }
+
+    Map<String, HikariDataSource> asMap() {
+        return pools;
+    }
+
+    @Override
+    public void close() {
+        pools.values().forEach(HikariDataSource::close);
+    }
+}
@@ -0,0 +1,152 @@
+package com.mercadolibre.inventory_challenge.shard;
+
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+
+/**
+ * Decide en qué shard vive cada tienda y ejecuta código contra él. Una tienda va al shard fijado en
+ * {@code inventory.sharding.stores} o, si no tiene, al que indica el anillo de hashing consistente.
+ * Las lecturas que cruzan tiendas se reparten en paralelo (un hilo virtual por shard) y el llamador combina.
+ * Una transacción queda en un único shard: lo que toca varios se parte en una transacción por shard.
+ */
+public class ShardRouter {
+    private static final Logger logger = LoggerFactory.getLogger(ShardRouter.class);
+    // Los ids autoincrementales de cada shard arrancan en índice << ID_SHARD_SHIFT: quedan únicos entre shards
+    static final int ID_SHARD_SHIFT = 48;
+    private static final List<String> IDENTITY_TABLES = List.of("inventory", "inventory_slice", "movement_rollup");
+    private static final String MOVEMENT_SEQUENCE = "stock_movement_seq";
+
+    private final ShardDataSources dataSources;
+    private final List<String> shards;
+    private final ConsistentHashRing ring;
+    private final Map<String, String> pinnedStores;
+    private final SessionFactory sessionFactory;
+    private final TransactionTemplate shardTransaction;
+    private final ExecutorService fanOutExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ShardRouter(ShardDataSources dataSources, EntityManagerFactory entityManagerFactory,
+                       PlatformTransactionManager transactionManager, InventoryProperties inventoryProperties) {
+        InventoryProperties.Sharding settings = inventoryProperties.getSharding();
+        this.dataSources = dataSources;
+        this.shards = dataSources.names();
+        this.ring = new ConsistentHashRing(shards, settings.getVirtualNodes());
+        this.pinnedStores = Map.copyOf(settings.getStores());
+        pinnedStores.forEach((store, shard) -> {
+            if (!shards.contains(shard)) throw new IllegalStateException("Store " + store + " is pinned to unknown shard " + shard);
+        });
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.shardTransaction = new TransactionTemplate(transactionManager);
+        this.shardTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * El esquema del primer shard lo crea Hibernate (ddl-auto); en los demás se exporta acá si todavía no existe,
+     * con los ids desplazados por shard para que los cursores por id sigan siendo válidos al combinar resultados.
+     */
+    @PostConstruct
+    public void initializeSchemas() {
+        for (int i = 0; i < shards.size(); i++) {
+            String shard = shards.get(i);
+            JdbcTemplate jdbc = new JdbcTemplate(dataSources.get(shard));
+            Integer existing = jdbc.queryForObject("SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE UPPER(TABLE_NAME) = 'INVENTORY'",
+                    Integer.class);
+            if (existing != null && existing > 0) continue;
+            onShard(shard, () -> {
+                sessionFactory.getSchemaManager().exportMappedObjects(true);
+                return null;
+            });
+            long firstId = ((long) i << ID_SHARD_SHIFT) + 1;
+            for (String table : IDENTITY_TABLES) {
+                jdbc.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + firstId);
+            }
+            jdbc.execute("ALTER SEQUENCE " + MOVEMENT_SEQUENCE + " RESTART WITH " + firstId);
+            logger.info("Created schema on {} with ids starting at {}", shard, firstId);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        fanOutExecutor.shutdown();
+    }
+
+    public List<String> shards() {
+        return shards;
+    }
+
+    public String shardFor(String storeId) {
+        String pinned = pinnedStores.get(storeId);
+        return pinned != null ? pinned : ring.nodeFor(storeId);
+    }
+
+    public <T> T onStore(String storeId, Supplier<T> action) {
+        return onShard(shardFor(storeId), action);
+    }
+
+    /**
+     * Ejecuta {@code action} con el shard asociado al hilo. Debe llamarse antes de la primera sentencia de la
+     * transacción: una vez tomada la conexión, el shard no puede cambiar hasta el commit.
+     */
+    public <T> T onShard(String shard, Supplier<T> action) {
+        String previous = ShardRoutingDataSource.current();
+        if (previous != null && !previous.equals(shard)) {
+            throw new IllegalStateException("Thread is bound to " + previous + ", cannot switch to " + shard);
+        }
+        ShardRoutingDataSource.bind(shard);
+        try {
+            return action.get();
+        } finally {
+            ShardRoutingDataSource.bind(previous);
+        }
+    }
+
+    // Transacción nueva en el shard indicado; suspende la del llamador, que no debe haber tocado la base todavía
+    public <T> T inTransaction(String shard, Supplier<T> action) {
+        return onShard(shard, () -> shardTransaction.execute(status -> action.get()));
+    }
+
+    /**
+     * Ejecuta {@code action} en todos los shards a la vez y devuelve los resultados en el orden de los shards.
+     */
+    public <T> List<T> fanOut(Supplier<T> action) {
+        List<Future<T>> pending = new ArrayList<>(shards.size());
+        for (String shard : shards) {
+            pending.add(fanOutExecutor.submit(() -> onShard(shard, action)));
+        }
+        List<T> results = new ArrayList<>(shards.size());
+        for (Future<T> future : pending) {
+            results.add(join(future));
+        }
+        return results;
+    }
+
+    private static <T> T join(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for shard results", ex);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) throw runtime;
+            if (ex.getCause() instanceof Error error) throw error;
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.mercadolibre.inventory_challenge.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Elige el pool del shard asociado al hilo actual (ver {@link ShardRouter#onShard}); sin shard usa el primero.
+ * Se consulta al obtener la conexión física: detrás de un LazyConnectionDataSourceProxy eso pasa en la primera
+ * sentencia de la transacción, no al abrirla, así el servicio puede elegir el shard dentro de un método @Transactional.
+ */
+class ShardRoutingDataSource extends AbstractRoutingDataSource {
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    static String current() {
+        return CURRENT.get();
+    }
+
+    static void bind(String shard) {
+        if (shard == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(shard);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return CURRENT.get();
+    }
+}
@@ -0,0 +1,65 @@
+package com.mercadolibre.inventory_challenge.shard;
+
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Con {@code inventory.sharding.enabled=true} reemplaza el DataSource de spring.datasource por uno que enruta
+ * cada conexión al shard de la tienda en curso. Usuario, contraseña y driver se toman de spring.datasource.
+ * Repositorios, EntityManager y transacciones siguen siendo los mismos: solo cambia a qué base va cada conexión.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "inventory.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfiguration {
+
+    @Bean
+    public ShardDataSources shardDataSources(DataSourceProperties dataSourceProperties, InventoryProperties inventoryProperties) {
+        List<String> urls = inventoryProperties.getSharding().getUrls();
+        if (urls.isEmpty()) throw new IllegalStateException("inventory.sharding.urls must list at least one database");
+        // El motor en memoria y el journal cargan y vuelcan todo el inventario en una sola transacción
+        if (inventoryProperties.getEngine().getMemory().isEnabled() || inventoryProperties.getJournal().isEnabled()) {
+            throw new IllegalStateException("Sharding cannot be combined with the in-memory engine or the movement journal");
+        }
+        Map<String, HikariDataSource> pools = new LinkedHashMap<>();
+        for (int i = 0; i < urls.size(); i++) {
+            String name = "shard-" + i;
+            HikariDataSource pool = dataSourceProperties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(urls.get(i))
+                    .build();
+            pool.setPoolName(name);
+            pools.put(name, pool);
+        }
+        return new ShardDataSources(pools);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardDataSources shardDataSources) {
+        ShardRoutingDataSource routing = new ShardRoutingDataSource();
+        routing.setTargetDataSources(new LinkedHashMap<>(shardDataSources.asMap()));
+        routing.setDefaultTargetDataSource(shardDataSources.get(shardDataSources.names().get(0)));
+        routing.setLenientFallback(false);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public ShardRouter shardRouter(ShardDataSources shardDataSources, EntityManagerFactory entityManagerFactory,
+                                   PlatformTransactionManager transactionManager, InventoryProperties inventoryProperties) {
+        return new ShardRouter(shardDataSources, entityManagerFactory, transactionManager, inventoryProperties);
+    }
+}
@@ -0,0 +1,72 @@
+package com.mercadolibre.inventory_challenge.stream;
+
+import com.mercadolibre.inventory_challenge.Service.StockKey;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Claves (sku, storeId) cambiadas desde la última pasada de {@link StockStream}. Las escrituras las registran
+ * después del commit (una transacción revertida no avisa nada) y varios cambios de una clave entre dos pasadas
+ * quedan en una sola entrada. Sin suscriptores no se registra nada.
+ * <p>
+ * Separado de {@link StockStream} para que {@code InventoryService} lo use sin dependencia circular.
+ */
+@Component
+@ConditionalOnProperty(prefix = "inventory.stream", name = "enabled", havingValue = "true")
+public class StockChangeBuffer {
+    private final Set<StockKey> pending = ConcurrentHashMap.newKeySet();
+    private final Semaphore signal = new Semaphore(0);
+    private volatile boolean listening;
+
+    public void recordAfterCommit(Collection<StockKey> keys) {
+        if (!listening || keys.isEmpty()) return;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            record(keys);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                record(keys);
+            }
+        });
+    }
+
+    void record(Collection<StockKey> keys) {
+        pending.addAll(keys);
+        // Un permiso alcanza para despertar al despachador: las claves agregadas antes de que vacíe se leen en esa pasada
+        if (signal.availablePermits() == 0) signal.release();
+    }
+
+    // Claves de una pasada fallida: vuelven sin despertar al despachador y salen con el próximo cambio
+    void requeue(Collection<StockKey> keys) {
+        pending.addAll(keys);
+    }
+
+    // Espera hasta que haya cambios o pase el tiempo, y devuelve y vacía las claves pendientes
+    List<StockKey> await(long timeoutMillis) throws InterruptedException {
+        signal.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS);
+        signal.drainPermits();
+        List<StockKey> keys = new ArrayList<>();
+        for (Iterator<StockKey> it = pending.iterator(); it.hasNext(); ) {
+            keys.add(it.next());
+            it.remove();
+        }
+        return keys;
+    }
+
+    void setListening(boolean listening) {
+        this.listening = listening;
+    }
+}
@@ -0,0 +1,296 @@
+package com.mercadolibre.inventory_challenge.stream;
+
+import com.mercadolibre.inventory_challenge.Service.InventoryService;
+import com.mercadolibre.inventory_challenge.Service.StockKey;
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import com.mercadolibre.inventory_challenge.dto.StockStreamEvent;
+import com.mercadolibre.inventory_challenge.exception.InventoryException;
+import com.mercadolibre.inventory_challenge.exception.QueueFullException;
+import com.mercadolibre.inventory_challenge.replica.ReadRouting;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Notificaciones de stock para GET /inventory/stream. Un hilo despachador toma las claves que cambiaron desde su
+ * última pasada ({@link StockChangeBuffer}), lee su stock del primario con una consulta por tienda y entrega cada
+ * cambio solo a los suscriptores de ese sku o de esa tienda, que se buscan por índice: nunca se recorren todas las
+ * suscripciones por un cambio.
+ * <p>
+ * Sin umbral el suscriptor recibe un evento {@code stock} por cambio. Con umbral recibe solo los cruces:
+ * {@code low-stock} cuando la clave baja a {@code threshold} o menos y {@code restocked} cuando vuelve a superarlo,
+ * comparando con la última cantidad despachada de la clave.
+ * <p>
+ * El despachador nunca escribe en un socket: deja el evento en el buffer del suscriptor (una entrada por clave, así
+ * un estado nuevo reemplaza al que todavía no salió) y un hilo virtual lo envía mientras haya pendientes. Un cliente
+ * lento solo se atrasa a sí mismo y, con el buffer lleno, pierde las claves más viejas. Un suscriptor inactivo no
+ * tiene hilo: cuesta su entrada en los índices y su conexión.
+ */
+@Service
+@ConditionalOnProperty(prefix = "inventory.stream", name = "enabled", havingValue = "true")
+public class StockStream {
+    private static final Logger logger = LoggerFactory.getLogger(StockStream.class);
+    // Espera máxima del despachador entre pasadas sin cambios (acota la demora de los heartbeats y del apagado)
+    private static final long WAIT_MILLIS = 200;
+
+    private final InventoryService inventoryService;
+    private final StockChangeBuffer changes;
+    private final InventoryProperties.Stream settings;
+    // Suscripciones por sku (incluye las de sku y tienda) y por tienda (solo las de tienda sin sku)
+    private final Map<String, Set<Subscription>> bySku = new ConcurrentHashMap<>();
+    private final Map<String, Set<Subscription>> byStore = new ConcurrentHashMap<>();
+    private final Set<Subscription> all = ConcurrentHashMap.newKeySet();
+    // Solo lo usa el despachador: última cantidad despachada por clave con suscriptores, para detectar cruces
+    private final Map<StockKey, Integer> lastQuantities = new HashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private ScheduledExecutorService dispatcher;
+    private long nextHeartbeat;
+
+    public StockStream(InventoryService inventoryService, StockChangeBuffer changes, InventoryProperties inventoryProperties) {
+        this.inventoryService = inventoryService;
+        this.changes = changes;
+        this.settings = inventoryProperties.getStream();
+    }
+
+    /**
+     * Destino de los eventos de una suscripción. Lo llama un único hilo por vez; una excepción da la conexión por
+     * perdida y cancela la suscripción.
+     */
+    public interface Sink {
+        void send(StockStreamEvent event) throws IOException;
+
+        void heartbeat() throws IOException;
+
+        // Cierre del lado del servidor (apagado)
+        default void close() {
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        nextHeartbeat = System.nanoTime() + settings.getHeartbeat().toNanos();
+        dispatcher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "stock-stream");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dispatcher.scheduleWithFixedDelay(this::dispatchSafely, 0, 1, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        dispatcher.shutdownNow();
+        dispatcher.awaitTermination(10, TimeUnit.SECONDS);
+        for (Subscription subscription : all) {
+            subscription.close();
+            subscription.sink.close();
+        }
+        senders.shutdown();
+    }
+
+    /**
+     * Suscribe a los cambios de un sku, de una tienda o de una clave (sku y tienda). Con {@code threshold} solo
+     * llegan los cruces de ese umbral.
+     */
+    public Subscription subscribe(String sku, String storeId, Integer threshold, Sink sink) {
+        if (sku == null && storeId == null) throw new InventoryException("sku or storeId is required");
+        if (threshold != null && threshold < 0) throw new InventoryException("threshold must not be negative");
+        if (all.size() >= settings.getMaxSubscribers()) {
+            throw new QueueFullException("Too many stream subscribers, retry later");
+        }
+        Subscription subscription = new Subscription(sku, storeId, threshold, sink);
+        all.add(subscription);
+        index(sku != null ? bySku : byStore, sku != null ? sku : storeId, subscription, true);
+        changes.setListening(true);
+        return subscription;
+    }
+
+    public int subscriberCount() {
+        return all.size();
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        if (!all.remove(subscription)) return;
+        index(subscription.sku != null ? bySku : byStore,
+                subscription.sku != null ? subscription.sku : subscription.storeId, subscription, false);
+        if (all.isEmpty()) changes.setListening(false);
+    }
+
+    private static void index(Map<String, Set<Subscription>> index, String value, Subscription subscription, boolean add) {
+        index.compute(value, (key, subscriptions) -> {
+            if (add) {
+                if (subscriptions == null) subscriptions = ConcurrentHashMap.newKeySet();
+                subscriptions.add(subscription);
+                return subscriptions;
+            }
+            if (subscriptions == null) return null;
+            subscriptions.remove(subscription);
+            return subscriptions.isEmpty() ? null : subscriptions;
+        });
+    }
+
+    private void dispatchSafely() {
+        List<StockKey> keys = List.of();
+        try {
+            keys = changes.await(WAIT_MILLIS);
+            if (!keys.isEmpty()) dispatch(keys);
+            long now = System.nanoTime();
+            if (now >= nextHeartbeat) {
+                all.forEach(Subscription::heartbeat);
+                nextHeartbeat = now + settings.getHeartbeat().toNanos();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException ex) {
+            changes.requeue(keys);
+            logger.error("Stock stream dispatch failed, will retry with the next change", ex);
+        }
+    }
+
+    void dispatch(List<StockKey> keys) {
+        Map<String, List<String>> skusByStore = new HashMap<>();
+        for (StockKey key : keys) {
+            if (bySku.containsKey(key.sku()) || byStore.containsKey(key.storeId())) {
+                skusByStore.computeIfAbsent(key.storeId(), store -> new ArrayList<>()).add(key.sku());
+            } else {
+                lastQuantities.remove(key);
+            }
+        }
+        for (Map.Entry<String, List<String>> store : skusByStore.entrySet()) {
+            String storeId = store.getKey();
+            Map<String, Integer> quantities = ReadRouting.onPrimary(() ->
+                    inventoryService.getCurrentQuantities(storeId, store.getValue()));
+            quantities.forEach((sku, quantity) -> {
+                StockKey key = new StockKey(sku, storeId);
+                publish(key, lastQuantities.put(key, quantity), quantity);
+            });
+        }
+    }
+
+    private void publish(StockKey key, Integer previous, int quantity) {
+        Set<Subscription> forSku = bySku.get(key.sku());
+        if (forSku != null) {
+            for (Subscription subscription : forSku) {
+                if (subscription.storeId == null || subscription.storeId.equals(key.storeId())) {
+                    subscription.offer(key, previous, quantity);
+                }
+            }
+        }
+        Set<Subscription> forStore = byStore.get(key.storeId());
+        if (forStore != null) {
+            for (Subscription subscription : forStore) {
+                subscription.offer(key, previous, quantity);
+            }
+        }
+    }
+
+    // Tipo de evento para un suscriptor, o null si el cambio no cruza su umbral
+    static String eventType(Integer threshold, Integer previous, int quantity) {
+        if (threshold == null) return StockStreamEvent.STOCK;
+        if (quantity <= threshold && (previous == null || previous > threshold)) return StockStreamEvent.LOW_STOCK;
+        if (quantity > threshold && previous != null && previous <= threshold) return StockStreamEvent.RESTOCKED;
+        return null;
+    }
+
+    public final class Subscription {
+        private final String sku;
+        private final String storeId;
+        private final Integer threshold;
+        private final Sink sink;
+        // Eventos sin enviar, uno por clave, del más viejo al más nuevo
+        private final LinkedHashMap<StockKey, StockStreamEvent> pending = new LinkedHashMap<>();
+        private boolean heartbeatPending;
+        private boolean sending;
+        private long dropped;
+
+        private Subscription(String sku, String storeId, Integer threshold, Sink sink) {
+            this.sku = sku;
+            this.storeId = storeId;
+            this.threshold = threshold;
+            this.sink = sink;
+        }
+
+        // Idempotente: la llama el controller al cerrarse la conexión
+        public void close() {
+            unsubscribe(this);
+        }
+
+        // Eventos descartados por buffer lleno
+        public synchronized long dropped() {
+            return dropped;
+        }
+
+        private void offer(StockKey key, Integer previous, int quantity) {
+            String type = eventType(threshold, previous, quantity);
+            if (type == null) return;
+            StockStreamEvent event = StockStreamEvent.builder()
+                    .type(type).sku(key.sku()).storeId(key.storeId()).quantity(quantity).threshold(threshold).build();
+            synchronized (this) {
+                // Se reinserta para que el orden sea el del último cambio: con el buffer lleno sale la clave más vieja
+                pending.remove(key);
+                pending.put(key, event);
+                if (pending.size() > settings.getBufferSize()) {
+                    pending.pollFirstEntry();
+                    dropped++;
+                }
+                scheduleSend();
+            }
+        }
+
+        private synchronized void heartbeat() {
+            heartbeatPending = true;
+            scheduleSend();
+        }
+
+        // Con el lock tomado
+        private void scheduleSend() {
+            if (sending) return;
+            sending = true;
+            senders.execute(this::send);
+        }
+
+        private void send() {
+            while (true) {
+                List<StockStreamEvent> events;
+                boolean heartbeat;
+                synchronized (this) {
+                    if ((pending.isEmpty() && !heartbeatPending) || !all.contains(this)) {
+                        sending = false;
+                        return;
+                    }
+                    events = new ArrayList<>(pending.values());
+                    pending.clear();
+                    heartbeat = heartbeatPending && events.isEmpty();
+                    heartbeatPending = false;
+                }
+                try {
+                    for (StockStreamEvent event : events) sink.send(event);
+                    if (heartbeat) sink.heartbeat();
+                } catch (IOException | RuntimeException ex) {
+                    logger.debug("Stream subscriber disconnected: {}", ex.getMessage());
+                    close();
+                    synchronized (this) {
+                        sending = false;
+                    }
+                    return;
+                }
+            }
+        }
+    }
+}
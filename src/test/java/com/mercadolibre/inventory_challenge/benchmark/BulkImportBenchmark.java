@@ -0,0 +1,80 @@
+package com.mercadolibre.inventory_challenge.benchmark;
+
+import com.mercadolibre.inventory_challenge.bulk.BulkFormat;
+import com.mercadolibre.inventory_challenge.bulk.Csv;
+import com.mercadolibre.inventory_challenge.bulk.InventoryBulkImporter;
+import com.mercadolibre.inventory_challenge.dto.BulkImportResult;
+import com.mercadolibre.inventory_challenge.repository.InventoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Carga masiva de un CSV generado al vuelo (nunca está entero en memoria) con POST /inventory/bulk.
+ * Cantidad de filas configurable: ./mvnw test -Pbenchmark -Dtest=BulkImportBenchmark -Dbulk.rows=10000000
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class BulkImportBenchmark {
+    private static final int ROWS = Integer.getInteger("bulk.rows", 1_000_000);
+    private static final int STORES = 100;
+
+    @Autowired
+    private InventoryBulkImporter importer;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @AfterEach
+    void cleanUp() {
+        inventoryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void importCsv() throws Exception {
+        StringBuilder report = new StringBuilder(String.format("%-8s %12s %10s %12s %14s%n", "pass", "rows", "seconds", "rows/s", "heap used(MB)"));
+        // Primera pasada: todo son inserts; segunda: las mismas claves, todo son updates
+        for (String pass : new String[]{"insert", "update"}) {
+            System.gc();
+            long begin = System.nanoTime();
+            BulkImportResult result = importer.importInventory(new GeneratedCsv(ROWS), BulkFormat.CSV);
+            double seconds = (System.nanoTime() - begin) / 1e9;
+            Runtime runtime = Runtime.getRuntime();
+            assertEquals(ROWS, result.getApplied());
+            report.append(String.format("%-8s %12d %10.1f %12.0f %14d%n", pass, ROWS, seconds, ROWS / seconds,
+                    (runtime.totalMemory() - runtime.freeMemory()) >> 20));
+        }
+        assertEquals(ROWS, inventoryRepository.count());
+        LatencyStats.writeReport("bulk-import.txt", report.toString());
+    }
+
+    // Genera "SKU{i / STORES},Tienda{i % STORES},{i % 1000}" línea por línea
+    private static final class GeneratedCsv extends InputStream {
+        private final int rows;
+        private int next;
+        private byte[] line = (Csv.HEADER + "\n").getBytes(StandardCharsets.UTF_8);
+        private int position;
+
+        GeneratedCsv(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int read() {
+            if (position == line.length) {
+                if (next == rows) return -1;
+                line = ("SKU" + next / STORES + ",Tienda" + next % STORES + "," + next % 1000 + "\n").getBytes(StandardCharsets.UTF_8);
+                position = 0;
+                next++;
+            }
+            return line[position++];
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.mercadolibre.inventory_challenge.benchmark;
+
+import com.mercadolibre.inventory_challenge.Service.ExecutionMode;
+import com.mercadolibre.inventory_challenge.Service.InventoryService;
+import com.mercadolibre.inventory_challenge.Service.KeyedExecutor;
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import com.mercadolibre.inventory_challenge.model.Inventory;
+import com.mercadolibre.inventory_challenge.repository.InventoryRepository;
+import com.mercadolibre.inventory_challenge.repository.StockMovementRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compara el modo DIRECT (cada request escribe en su hilo) contra ACTOR (buzón serial por clave)
+ * con la estrategia OPTIMISTIC y muchos requests concurrentes sobre pocas claves calientes.
+ * Ejecutar con: ./mvnw test -Pbenchmark -Dtest=ExecutionModeBenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class ExecutionModeBenchmark {
+    private static final int CLIENTS = 64;
+    private static final int OPS_PER_CLIENT = 200;
+    private static final int HOT_KEYS = 4;
+    private static final int INITIAL_STOCK = 1_000_000;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private KeyedExecutor keyedExecutor;
+
+    @Autowired
+    private InventoryProperties inventoryProperties;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @AfterEach
+    void cleanUp() {
+        inventoryProperties.getExecution().setMode(ExecutionMode.DIRECT);
+        stockMovementRepository.deleteAllInBatch();
+        inventoryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void hotKeysUnderOptimisticStrategy() throws Exception {
+        StringBuilder report = new StringBuilder(String.format("%-8s %12s %10s %10s %10s %10s%n",
+                "mode", "ops/s", "ok", "conflicts", "409 rate", "p99(us)"));
+        for (ExecutionMode mode : ExecutionMode.values()) {
+            report.append(run(mode));
+        }
+        LatencyStats.writeReport("execution-mode.txt", report.toString());
+    }
+
+    private String run(ExecutionMode mode) throws Exception {
+        stockMovementRepository.deleteAllInBatch();
+        inventoryRepository.deleteAllInBatch();
+        for (int k = 0; k < HOT_KEYS; k++) {
+            inventoryRepository.save(Inventory.builder().sku("HOT" + k).storeId("Tienda1").quantity(INITIAL_STOCK).build());
+        }
+        inventoryProperties.getExecution().setMode(mode);
+
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong conflicts = new AtomicLong();
+        LatencyStats all = new LatencyStats(CLIENTS * OPS_PER_CLIENT);
+        CountDownLatch start = new CountDownLatch(1);
+        // Un hilo virtual por cliente, como con spring.threads.virtual.enabled
+        ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+        for (int c = 0; c < CLIENTS; c++) {
+            String sku = "HOT" + (c % HOT_KEYS);
+            clients.submit(() -> {
+                start.await();
+                for (int i = 0; i < OPS_PER_CLIENT; i++) {
+                    long begin = System.nanoTime();
+                    try {
+                        keyedExecutor.execute(sku, "Tienda1", () -> inventoryService.registerMovement(sku, "Tienda1", "sale", 1));
+                        succeeded.incrementAndGet();
+                    } catch (OptimisticLockingFailureException ex) {
+                        conflicts.incrementAndGet();
+                    }
+                    long elapsed = System.nanoTime() - begin;
+                    synchronized (all) {
+                        all.record(elapsed);
+                    }
+                }
+                return null;
+            });
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        clients.shutdown();
+        clients.awaitTermination(10, TimeUnit.MINUTES);
+        double seconds = (System.nanoTime() - begin) / 1e9;
+
+        long remaining = inventoryRepository.findAll().stream().mapToLong(Inventory::getQuantity).sum();
+        assertEquals((long) HOT_KEYS * INITIAL_STOCK - succeeded.get(), remaining, "Lost update in mode " + mode);
+
+        int total = CLIENTS * OPS_PER_CLIENT;
+        return String.format("%-8s %12.0f %10d %10d %9.1f%% %10.1f%n", mode, total / seconds, succeeded.get(),
+                conflicts.get(), 100.0 * conflicts.get() / total, all.percentileMicros(99));
+    }
+}
@@ -0,0 +1,112 @@
+package com.mercadolibre.inventory_challenge.benchmark;
+
+import com.mercadolibre.inventory_challenge.Service.InventoryService;
+import com.mercadolibre.inventory_challenge.Service.MovementStrategy;
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import com.mercadolibre.inventory_challenge.model.Inventory;
+import com.mercadolibre.inventory_challenge.repository.InventoryRepository;
+import com.mercadolibre.inventory_challenge.repository.InventorySliceRepository;
+import com.mercadolibre.inventory_challenge.repository.StockMovementRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Throughput de ventas sobre un único SKU con 1..N hilos: fila única (estrategia ATOMIC) contra contadores divididos.
+ * Ejecutar con: ./mvnw test -Pbenchmark -Dtest=HotKeyContentionBenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {"inventory.hot-keys.enabled=true", "inventory.hot-keys.skus=PROMO", "inventory.hot-keys.slices=16"})
+class HotKeyContentionBenchmark {
+    private static final int[] THREADS = {1, 2, 4, 8, 16};
+    private static final int OPS_PER_THREAD = 400;
+    private static final int INITIAL_STOCK = 1_000_000;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryProperties inventoryProperties;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private InventorySliceRepository sliceRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @AfterEach
+    void cleanUp() {
+        inventoryProperties.getMovement().setStrategy(MovementStrategy.OPTIMISTIC);
+        stockMovementRepository.deleteAllInBatch();
+        sliceRepository.deleteAllInBatch();
+        inventoryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void singleSkuThroughputByThreads() throws Exception {
+        inventoryProperties.getMovement().setStrategy(MovementStrategy.ATOMIC);
+        inventoryRepository.save(Inventory.builder().sku("HOT").storeId("Tienda1").quantity(INITIAL_STOCK).build());
+        inventoryRepository.save(Inventory.builder().sku("PROMO").storeId("Tienda1").quantity(INITIAL_STOCK).build());
+
+        StringBuilder report = new StringBuilder(String.format("cores=%d%n%-8s %14s %14s%n",
+                Runtime.getRuntime().availableProcessors(), "threads", "single(ops/s)", "split(ops/s)"));
+        long soldHot = 0;
+        long soldPromo = 0;
+        for (int threads : THREADS) {
+            AtomicLong hot = new AtomicLong();
+            AtomicLong promo = new AtomicLong();
+            double single = run("HOT", threads, hot);
+            double split = run("PROMO", threads, promo);
+            soldHot += hot.get();
+            soldPromo += promo.get();
+            report.append(String.format("%-8d %14.0f %14.0f%n", threads, single, split));
+        }
+        LatencyStats.writeReport("hot-key-contention.txt", report.toString());
+
+        assertEquals(INITIAL_STOCK - soldHot, total("HOT"));
+        assertEquals(INITIAL_STOCK - soldPromo, total("PROMO"));
+    }
+
+    private double run(String sku, int threads, AtomicLong sold) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < OPS_PER_THREAD; i++) {
+                    try {
+                        inventoryService.registerMovement(sku, "Tienda1", "sale", 1);
+                        sold.incrementAndGet();
+                    } catch (ConcurrencyFailureException ignored) {
+                        // timeout de lock: se cuenta como operación no aplicada
+                    }
+                }
+                return null;
+            });
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.MINUTES);
+        return threads * OPS_PER_THREAD / ((System.nanoTime() - begin) / 1e9);
+    }
+
+    private int total(String sku) {
+        return inventoryService.getInventoryBySku(sku).stream().mapToInt(Inventory::getQuantity).sum();
+    }
+}
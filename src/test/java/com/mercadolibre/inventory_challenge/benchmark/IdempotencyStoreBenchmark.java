@@ -0,0 +1,58 @@
+package com.mercadolibre.inventory_challenge.benchmark;
+
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import com.mercadolibre.inventory_challenge.idempotency.IdempotencyStore;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sobrecosto de la deduplicación por Idempotency-Key sobre una operación vacía: sin clave, clave nueva
+ * (filtro de Bloom negativo, sin lectura en base) y reintento servido desde el mapa.
+ * Ejecutar con: ./mvnw test -Pbenchmark -Dtest=IdempotencyStoreBenchmark
+ */
+@Tag("benchmark")
+class IdempotencyStoreBenchmark {
+    private static final int OPS = 200_000;
+
+    @Test
+    void dedupOverhead() throws Exception {
+        InventoryProperties properties = new InventoryProperties();
+        properties.getIdempotency().setMaxEntries(OPS * 2);
+        IdempotencyStore store = new IdempotencyStore(properties);
+        AtomicInteger recoveries = new AtomicInteger();
+        ResponseEntity<String> ok = ResponseEntity.ok("ok");
+        StringBuilder report = new StringBuilder(String.format("%-16s %12s %10s %10s%n", "path", "ops/s", "p50(us)", "p99(us)"));
+
+        report.append(measure("no key", i -> store.execute("movement", null, () -> ok, k -> Optional.empty())));
+        report.append(measure("new key", i -> store.execute("movement", "key-" + i, () -> ok, k -> {
+            recoveries.incrementAndGet();
+            return Optional.empty();
+        })));
+        report.append(measure("replay", i -> store.execute("movement", "key-" + i, () -> ok, k -> Optional.empty())));
+
+        // Con 1% de falsos positivos casi ninguna clave nueva consulta la base
+        assertTrue(recoveries.get() < (OPS + OPS / 10) / 20, "durable lookups: " + recoveries.get());
+        report.append(String.format("durable lookups for new keys: %d of %d%n", recoveries.get(), OPS + OPS / 10));
+        LatencyStats.writeReport("idempotency-store.txt", report.toString());
+    }
+
+    private String measure(String name, IntConsumer operation) {
+        for (int i = 0; i < OPS / 10; i++) operation.accept(OPS + i);
+        LatencyStats stats = new LatencyStats(OPS);
+        long begin = System.nanoTime();
+        for (int i = 0; i < OPS; i++) {
+            long start = System.nanoTime();
+            operation.accept(i);
+            stats.record(System.nanoTime() - start);
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        return String.format("%-16s %12.0f %10.2f %10.2f%n", name, OPS / seconds, stats.percentileMicros(50), stats.percentileMicros(99));
+    }
+}
@@ -0,0 +1,103 @@
+package com.mercadolibre.inventory_challenge.benchmark;
+
+import com.mercadolibre.inventory_challenge.InventoryChallengeApplication;
+import com.mercadolibre.inventory_challenge.Service.InventoryService;
+import com.mercadolibre.inventory_challenge.model.Inventory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks JMH de los caminos calientes de {@link InventoryService} contra H2 en memoria.
+ * Cada fork levanta el contexto de Spring sin web y carga {@code tableSize} filas; las claves se eligen
+ * con distribución uniforme o Zipf. Se ejecuta a través de {@link JmhBenchmarkRunner}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class InventoryServiceJmhBenchmark {
+    private static final int STORES = 10;
+    private static final int INITIAL_STOCK = 1_000_000_000;
+    private static final int INSERT_BATCH = 5_000;
+
+    @Param({"1000", "100000"})
+    public int tableSize;
+
+    @Param({"uniform", "zipf"})
+    public String skew;
+
+    private ConfigurableApplicationContext context;
+    private InventoryService inventoryService;
+    private KeySampler keys;
+    private KeySampler skus;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(InventoryChallengeApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--logging.level.root=WARN");
+        inventoryService = context.getBean(InventoryService.class);
+        seed(context.getBean(JdbcTemplate.class));
+        keys = KeySampler.of(skew, tableSize);
+        skus = KeySampler.of(skew, tableSize / STORES);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object registerMovement() {
+        int key = keys.next();
+        try {
+            return inventoryService.registerMovement(sku(key / STORES), store(key % STORES), "sale", 1);
+        } catch (OptimisticLockingFailureException ex) {
+            // Bajo Zipf y varios hilos los conflictos son parte de lo que se mide
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public Object updateStock() {
+        int key = keys.next();
+        try {
+            return inventoryService.updateStock(sku(key / STORES), store(key % STORES),
+                    ThreadLocalRandom.current().nextInt(1, INITIAL_STOCK));
+        } catch (OptimisticLockingFailureException ex) {
+            return ex;
+        }
+    }
+
+    @Benchmark
+    public List<Inventory> getInventoryBySku() {
+        return inventoryService.getInventoryBySku(sku(skus.next()));
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        List<Object[]> rows = new ArrayList<>(INSERT_BATCH);
+        for (int key = 0; key < tableSize; key++) {
+            rows.add(new Object[]{sku(key / STORES), store(key % STORES), INITIAL_STOCK});
+            if (rows.size() == INSERT_BATCH || key == tableSize - 1) {
+                jdbcTemplate.batchUpdate("INSERT INTO inventory (sku, store_id, quantity, version) VALUES (?, ?, ?, 0)", rows);
+                rows.clear();
+            }
+        }
+    }
+
+    private static String sku(int index) {
+        return "SKU" + index;
+    }
+
+    private static String store(int index) {
+        return "Tienda" + index;
+    }
+}
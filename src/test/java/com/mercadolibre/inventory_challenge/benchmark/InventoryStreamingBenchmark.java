@@ -0,0 +1,85 @@
+package com.mercadolibre.inventory_challenge.benchmark;
+
+import com.mercadolibre.inventory_challenge.Service.InventoryService;
+import com.mercadolibre.inventory_challenge.repository.InventoryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Recorre el inventario con streamInventory para distintos tamaños de tabla y registra el pico de heap usado.
+ * Ejecutar con: ./mvnw test -Pbenchmark -Dtest=InventoryStreamingBenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class InventoryStreamingBenchmark {
+    private static final int[] TABLE_SIZES = {100_000, 500_000, 1_000_000};
+    private static final int SEED_BATCH = 10_000;
+    private static final int SAMPLE_EVERY = 100_000;
+    private static final double MAX_RETAINED_GROWTH_MB = 16;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        inventoryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void heapStaysFlatWhileStreaming() throws Exception {
+        StringBuilder report = new StringBuilder(String.format("%-10s %12s %22s%n", "rows", "time(ms)", "retainedHeapGrowth(MB)"));
+        int seeded = 0;
+        for (int size : TABLE_SIZES) {
+            seed(seeded, size);
+            seeded = size;
+
+            Runtime runtime = Runtime.getRuntime();
+            System.gc();
+            long baseline = runtime.totalMemory() - runtime.freeMemory();
+            AtomicLong peak = new AtomicLong(baseline);
+            AtomicLong rows = new AtomicLong();
+            long begin = System.nanoTime();
+            inventoryService.streamInventory(null, null, inventory -> {
+                if (rows.incrementAndGet() % SAMPLE_EVERY == 0) {
+                    // GC antes de medir: interesa el heap retenido, no la basura pendiente de recolectar
+                    System.gc();
+                    peak.accumulateAndGet(runtime.totalMemory() - runtime.freeMemory(), Math::max);
+                }
+            });
+            long millis = (System.nanoTime() - begin) / 1_000_000;
+
+            assertEquals(size, rows.get());
+            double growth = (peak.get() - baseline) / 1024.0 / 1024.0;
+            assertTrue(growth < MAX_RETAINED_GROWTH_MB, "Streaming retained " + growth + " MB for " + size + " rows");
+            report.append(String.format("%-10d %12d %22.1f%n", size, millis, growth));
+        }
+        LatencyStats.writeReport("inventory-streaming.txt", report.toString());
+    }
+
+    private void seed(int from, int to) {
+        for (int start = from; start < to; start += SEED_BATCH) {
+            List<Object[]> rows = new ArrayList<>(SEED_BATCH);
+            for (int row = start; row < Math.min(start + SEED_BATCH, to); row++) {
+                rows.add(new Object[]{"SKU" + row, "Tienda" + (row % 50), 100});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO inventory (sku, store_id, quantity, version) VALUES (?, ?, ?, 0)", rows);
+        }
+    }
+}
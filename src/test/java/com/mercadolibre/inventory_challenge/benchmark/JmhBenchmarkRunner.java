@@ -0,0 +1,55 @@
+package com.mercadolibre.inventory_challenge.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Corre los benchmarks JMH una vez por cantidad de hilos y junta los resultados en
+ * {@code target/benchmarks/jmh-results.json} (throughput, percentiles de SampleTime y tasa de asignación del GCProfiler).
+ * Ejecutar con: ./mvnw clean test -Pbenchmark -Dtest=JmhBenchmarkRunner
+ * Parámetros opcionales: -Djmh.include, -Djmh.threads=1,4,16, -Djmh.tableSize=1000,100000, -Djmh.skew=uniform,zipf,
+ * -Djmh.warmup=3, -Djmh.iterations=5, -Djmh.forks=1
+ */
+@Tag("benchmark")
+class JmhBenchmarkRunner {
+
+    @Test
+    void run() throws Exception {
+        Path dir = Path.of("target", "benchmarks");
+        Files.createDirectories(dir);
+        ObjectMapper objectMapper = new ObjectMapper();
+        ArrayNode merged = objectMapper.createArrayNode();
+
+        for (String threads : System.getProperty("jmh.threads", "1,4,16").split(",")) {
+            Path partial = dir.resolve("jmh-threads-" + threads.trim() + ".json");
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                    .include(System.getProperty("jmh.include", InventoryServiceJmhBenchmark.class.getSimpleName()))
+                    .threads(Integer.parseInt(threads.trim()))
+                    .param("tableSize", System.getProperty("jmh.tableSize", "1000,100000").split(","))
+                    .param("skew", System.getProperty("jmh.skew", "uniform,zipf").split(","))
+                    .warmupIterations(Integer.getInteger("jmh.warmup", 3))
+                    .warmupTime(TimeValue.seconds(1))
+                    .measurementIterations(Integer.getInteger("jmh.iterations", 5))
+                    .measurementTime(TimeValue.seconds(2))
+                    .forks(Integer.getInteger("jmh.forks", 1))
+                    .addProfiler(GCProfiler.class)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(partial.toString());
+            new Runner(options.build()).run();
+            merged.addAll((ArrayNode) objectMapper.readTree(partial.toFile()));
+        }
+
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(dir.resolve("jmh-results.json").toFile(), merged);
+    }
+}
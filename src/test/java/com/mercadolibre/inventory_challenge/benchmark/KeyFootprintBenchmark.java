@@ -0,0 +1,98 @@
+package com.mercadolibre.inventory_challenge.benchmark;
+
+import com.mercadolibre.inventory_challenge.Service.StockKey;
+import com.mercadolibre.inventory_challenge.dictionary.KeyDictionary;
+import com.mercadolibre.inventory_challenge.dictionary.LongObjectMap;
+import com.mercadolibre.inventory_challenge.repository.ProductRepository;
+import com.mercadolibre.inventory_challenge.repository.StoreRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Compara heap retenido por par (sku, storeId) y latencia de búsqueda entre el índice con
+ * {@code HashMap<StockKey, ...>} (strings propios por fila, como los materializa JPA) y el índice con claves
+ * empaquetadas del {@link KeyDictionary} sobre {@link LongObjectMap}. El valor es el mismo objeto en ambos casos,
+ * así se mide solo el costo de la clave y del índice.
+ * Ejecutar con: ./mvnw test -Pbenchmark -Dtest=KeyFootprintBenchmark
+ */
+@Tag("benchmark")
+class KeyFootprintBenchmark {
+    private static final int SKUS = 20_000;
+    private static final int STORES = 50;
+    private static final int PAIRS = SKUS * STORES;
+    private static final int LOOKUPS = 5_000_000;
+    private static final Object VALUE = new Object();
+
+    @Test
+    void heapPerPairAndLookupLatency() throws IOException {
+        long base = usedHeap();
+        Map<StockKey, Object> strings = new HashMap<>();
+        for (int s = 0; s < SKUS; s++) {
+            for (int t = 0; t < STORES; t++) {
+                strings.put(new StockKey(new String("SKU" + s), new String("Tienda" + t)), VALUE);
+            }
+        }
+        long stringBytes = usedHeap() - base;
+        double stringNanos = lookupNanos(strings::get, (sku, store) -> new StockKey(sku, store));
+        strings = null;
+
+        base = usedHeap();
+        KeyDictionary dictionary = new KeyDictionary(mock(ProductRepository.class), mock(StoreRepository.class));
+        LongObjectMap<Object> packed = new LongObjectMap<>();
+        for (int s = 0; s < SKUS; s++) {
+            for (int t = 0; t < STORES; t++) {
+                packed.put(dictionary.intern("SKU" + s, "Tienda" + t), VALUE);
+            }
+        }
+        long packedBytes = usedHeap() - base;
+        double packedNanos = lookupNanos(key -> packed.get((Long) key), dictionary::keyOf);
+        assertNotNull(dictionary.sku(1));
+
+        double stringPerPair = (double) stringBytes / PAIRS;
+        double packedPerPair = (double) packedBytes / PAIRS;
+        assertTrue(packedPerPair < stringPerPair, "packed " + packedPerPair + " vs strings " + stringPerPair);
+        LatencyStats.writeReport("key-footprint.txt", String.format(
+                "pairs=%d hashmap bytes/pair=%.1f packed bytes/pair=%.1f ratio=%.1fx "
+                        + "hashmap lookup(ns)=%.1f packed lookup(ns)=%.1f%n",
+                PAIRS, stringPerPair, packedPerPair, stringPerPair / packedPerPair, stringNanos, packedNanos));
+    }
+
+    // Busca por strings recibidos de afuera: incluye armar la clave (o resolverla en el diccionario)
+    private static double lookupNanos(Function<Object, Object> index, BiFunction<String, String, Object> keyOf) {
+        String[] skus = new String[SKUS];
+        String[] stores = new String[STORES];
+        for (int s = 0; s < SKUS; s++) skus[s] = "SKU" + s;
+        for (int t = 0; t < STORES; t++) stores[t] = "Tienda" + t;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long hits = 0;
+        long elapsed = 0;
+        for (int round = 0; round < 2; round++) {
+            long begin = System.nanoTime();
+            for (int i = 0; i < LOOKUPS; i++) {
+                if (index.apply(keyOf.apply(skus[random.nextInt(SKUS)], stores[random.nextInt(STORES)])) != null) hits++;
+            }
+            // La primera vuelta es de calentamiento
+            elapsed = System.nanoTime() - begin;
+        }
+        assertEquals(2L * LOOKUPS, hits);
+        return (double) elapsed / LOOKUPS;
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
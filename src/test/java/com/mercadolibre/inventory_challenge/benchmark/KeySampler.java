@@ -0,0 +1,48 @@
+package com.mercadolibre.inventory_challenge.benchmark;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Elige índices de clave en [0, size) con distribución uniforme o Zipf (pocas claves concentran la mayoría de los accesos).
+ */
+final class KeySampler {
+    private final int size;
+    // CDF acumulada de Zipf; null para uniforme
+    private final double[] cdf;
+
+    private KeySampler(int size, double[] cdf) {
+        this.size = size;
+        this.cdf = cdf;
+    }
+
+    static KeySampler uniform(int size) {
+        return new KeySampler(size, null);
+    }
+
+    static KeySampler zipf(int size, double exponent) {
+        double[] cdf = new double[size];
+        double sum = 0;
+        for (int rank = 0; rank < size; rank++) {
+            sum += 1.0 / Math.pow(rank + 1, exponent);
+            cdf[rank] = sum;
+        }
+        for (int rank = 0; rank < size; rank++) cdf[rank] /= sum;
+        return new KeySampler(size, cdf);
+    }
+
+    static KeySampler of(String skew, int size) {
+        return switch (skew) {
+            case "uniform" -> uniform(size);
+            case "zipf" -> zipf(size, 1.0);
+            default -> throw new IllegalArgumentException("Unknown key skew: " + skew);
+        };
+    }
+
+    int next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (cdf == null) return random.nextInt(size);
+        int index = Arrays.binarySearch(cdf, random.nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, size - 1);
+    }
+}
@@ -0,0 +1,54 @@
+package com.mercadolibre.inventory_challenge.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Acumula latencias en nanosegundos y calcula percentiles para los benchmarks.
+ */
+class LatencyStats {
+    private final long[] samples;
+    private int count;
+
+    LatencyStats(int capacity) {
+        this.samples = new long[capacity];
+    }
+
+    void record(long nanos) {
+        if (count < samples.length) {
+            samples[count++] = nanos;
+        }
+    }
+
+    int count() {
+        return count;
+    }
+
+    long sample(int index) {
+        return samples[index];
+    }
+
+    double percentileMicros(double percentile) {
+        if (count == 0) return 0;
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int index = (int) Math.min(count - 1, Math.ceil(percentile / 100.0 * count) - 1);
+        return sorted[Math.max(index, 0)] / 1_000.0;
+    }
+
+    double meanMicros() {
+        if (count == 0) return 0;
+        long total = 0;
+        for (int i = 0; i < count; i++) total += samples[i];
+        return total / (double) count / 1_000.0;
+    }
+
+    static void writeReport(String name, String content) throws IOException {
+        Path dir = Path.of("target", "benchmarks");
+        Files.createDirectories(dir);
+        Files.writeString(dir.resolve(name), content);
+        System.out.println(content);
+    }
+}
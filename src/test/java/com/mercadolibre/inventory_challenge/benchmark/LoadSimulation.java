@@ -0,0 +1,202 @@
+package com.mercadolibre.inventory_challenge.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Clientes HTTP concurrentes contra la app levantada: cada uno ejecuta una mezcla de ventas, reposiciones,
+ * actualizaciones absolutas y lecturas sobre claves elegidas con {@link KeySampler}. Un 409 por conflicto de
+ * concurrencia se reintenta (como haría un cliente real) hasta {@code maxRetries}; uno por falta de stock es un
+ * rechazo definitivo. La latencia de cada operación incluye sus reintentos.
+ * <p>
+ * Lleva la suma de los movimientos aceptados por clave para verificar al final que no se perdió ni se duplicó
+ * ninguno. Las actualizaciones fijan stock absoluto y rompen esa suma, así que solo van a las claves
+ * {@link #isUpdateKey(int)}, que se verifican aparte.
+ */
+final class LoadSimulation {
+    static final String STORE_PREFIX = "Tienda";
+    static final int STORES = 4;
+
+    enum Operation { SALE, RESTOCK, UPDATE, READ }
+
+    /**
+     * Mezcla de operaciones en pesos relativos, p. ej. {@code sale=60,restock=15,update=5,read=20}.
+     */
+    record Mix(Map<Operation, Integer> weights) {
+        static Mix parse(String value) {
+            Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+            for (String part : value.split(",")) {
+                String[] entry = part.trim().split("=");
+                weights.put(Operation.valueOf(entry[0].trim().toUpperCase()), Integer.parseInt(entry[1].trim()));
+            }
+            return new Mix(weights);
+        }
+
+        Operation next() {
+            int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+            int pick = ThreadLocalRandom.current().nextInt(total);
+            for (Map.Entry<Operation, Integer> weight : weights.entrySet()) {
+                pick -= weight.getValue();
+                if (pick < 0) return weight.getKey();
+            }
+            throw new IllegalStateException("Empty operation mix");
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder text = new StringBuilder();
+            weights.forEach((operation, weight) ->
+                    text.append(text.isEmpty() ? "" : ",").append(operation.name().toLowerCase()).append('=').append(weight));
+            return text.toString();
+        }
+    }
+
+    record Config(int clients, int opsPerClient, int keys, String distribution, Mix mix, int initialStock, int maxRetries) {
+    }
+
+    // Resultado de una corrida: latencias por operación y contadores de respuestas
+    static final class Result {
+        final Map<Operation, LatencyStats> latencies = new EnumMap<>(Operation.class);
+        final AtomicLong attempts = new AtomicLong();
+        final AtomicLong conflicts = new AtomicLong();
+        final AtomicLong retried = new AtomicLong();
+        final AtomicLong gaveUp = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+        // Suma de movimientos aceptados por clave (restock positivo, sale negativo)
+        final AtomicLongArray applied;
+        double seconds;
+
+        Result(int keys) {
+            this.applied = new AtomicLongArray(keys);
+        }
+
+        long operations() {
+            return latencies.values().stream().mapToLong(LatencyStats::count).sum();
+        }
+    }
+
+    private final HttpClient http;
+    private final String baseUrl;
+
+    LoadSimulation(int port) {
+        this.http = HttpClient.newHttpClient();
+        this.baseUrl = "http://localhost:" + port + "/inventory";
+    }
+
+    static String sku(int key) {
+        return "LOAD" + key;
+    }
+
+    static String storeId(int key) {
+        return STORE_PREFIX + (key % STORES + 1);
+    }
+
+    static boolean isUpdateKey(int key) {
+        return key % 10 == 9;
+    }
+
+    // Requiere al menos 10 claves
+    static int updateKey(int key, int keys) {
+        int updateKey = key - key % 10 + 9;
+        return updateKey < keys ? updateKey : updateKey - 10;
+    }
+
+    Result run(Config config) throws Exception {
+        KeySampler sampler = KeySampler.of(config.distribution(), config.keys());
+        Result result = new Result(config.keys());
+        List<Map<Operation, LatencyStats>> perClient = new ArrayList<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> clients = new ArrayList<>();
+        try (ExecutorService pool = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < config.clients(); c++) {
+                Map<Operation, LatencyStats> own = new EnumMap<>(Operation.class);
+                for (Operation operation : Operation.values()) own.put(operation, new LatencyStats(config.opsPerClient()));
+                perClient.add(own);
+                clients.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < config.opsPerClient(); i++) {
+                        Operation operation = config.mix().next();
+                        int key = sampler.next();
+                        // Las actualizaciones van a la clave de actualización del mismo bloque de 10
+                        if (operation == Operation.UPDATE) key = updateKey(key, config.keys());
+                        long begin = System.nanoTime();
+                        execute(operation, key, config, result);
+                        own.get(operation).record(System.nanoTime() - begin);
+                    }
+                    return null;
+                }));
+            }
+            long begin = System.nanoTime();
+            start.countDown();
+            for (Future<?> client : clients) client.get();
+            result.seconds = (System.nanoTime() - begin) / 1e9;
+        }
+        for (Operation operation : Operation.values()) {
+            LatencyStats merged = new LatencyStats(config.clients() * config.opsPerClient());
+            for (Map<Operation, LatencyStats> own : perClient) {
+                LatencyStats stats = own.get(operation);
+                for (int i = 0; i < stats.count(); i++) merged.record(stats.sample(i));
+            }
+            result.latencies.put(operation, merged);
+        }
+        return result;
+    }
+
+    private void execute(Operation operation, int key, Config config, Result result) throws Exception {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int quantity = operation == Operation.SALE ? random.nextInt(1, 4) : random.nextInt(1, 6);
+        HttpRequest request = switch (operation) {
+            case READ -> HttpRequest.newBuilder(URI.create(baseUrl + "/" + sku(key))).GET().build();
+            case UPDATE -> post("/update", String.format("{\"sku\":\"%s\",\"storeId\":\"%s\",\"newStock\":%d}",
+                    sku(key), storeId(key), random.nextInt(config.initialStock() + 1)));
+            case SALE, RESTOCK -> post("/movement", String.format("{\"sku\":\"%s\",\"storeId\":\"%s\",\"type\":\"%s\",\"quantity\":%d}",
+                    sku(key), storeId(key), operation.name().toLowerCase(), quantity));
+        };
+        for (int attempt = 0; ; attempt++) {
+            result.attempts.incrementAndGet();
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() == 200) {
+                if (operation == Operation.SALE) result.applied.addAndGet(key, -quantity);
+                if (operation == Operation.RESTOCK) result.applied.addAndGet(key, quantity);
+                return;
+            }
+            if (response.statusCode() != 409) {
+                result.errors.incrementAndGet();
+                return;
+            }
+            if (!response.body().contains("Concurrency conflict")) {
+                result.rejected.incrementAndGet();
+                return;
+            }
+            result.conflicts.incrementAndGet();
+            if (attempt == 0) result.retried.incrementAndGet();
+            if (attempt == config.maxRetries()) {
+                result.gaveUp.incrementAndGet();
+                return;
+            }
+            // Backoff corto con jitter para no reintentar en fase con el resto
+            Thread.sleep(random.nextLong(1, 2L << Math.min(attempt, 5)));
+        }
+    }
+
+    private HttpRequest post(String path, String json) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+}
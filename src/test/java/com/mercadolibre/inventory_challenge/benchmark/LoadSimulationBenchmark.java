@@ -0,0 +1,140 @@
+package com.mercadolibre.inventory_challenge.benchmark;
+
+import com.mercadolibre.inventory_challenge.Service.InventoryService;
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import com.mercadolibre.inventory_challenge.model.Inventory;
+import com.mercadolibre.inventory_challenge.model.StockMovement;
+import com.mercadolibre.inventory_challenge.repository.InventoryRepository;
+import com.mercadolibre.inventory_challenge.repository.StockMovementRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Simulación de carga sobre la app real (HTTP contra H2): {@code load.clients} clientes concurrentes ejecutan
+ * {@code load.ops} operaciones cada uno con la mezcla {@code load.mix} sobre {@code load.keys} claves, una corrida
+ * por distribución de {@code load.distributions} (uniform, zipf). Al final verifica que ningún stock quedó negativo,
+ * que ninguna respuesta fue un error inesperado y que el stock de cada clave sin actualizaciones absolutas es el
+ * inicial más la suma de sus movimientos, tanto los aceptados por los clientes como los guardados en la base.
+ * <p>
+ * El reporte (throughput, p50/p99/p999 por operación, tasas de 409 y reintentos) queda en
+ * target/benchmarks/load-simulation.txt para comparar entre commits. Cualquier propiedad de la app se puede cambiar
+ * igual que las de la simulación, p. ej. {@code -Dinventory.movement.strategy=ATOMIC}.
+ * Ejecutar con: ./mvnw test -Pbenchmark -Dtest=LoadSimulationBenchmark -Dload.clients=200 -Dload.mix=sale=70,read=30
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.datasource.url=jdbc:h2:mem:load-simulation;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "inventory.history.rollup-enabled=false",
+        "logging.level.com.mercadolibre.inventory_challenge=ERROR"
+})
+class LoadSimulationBenchmark {
+    private static final double[] PERCENTILES = {50, 99, 99.9};
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryProperties inventoryProperties;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @AfterEach
+    void cleanUp() {
+        stockMovementRepository.deleteAllInBatch();
+        inventoryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void concurrentClientsKeepStockConsistent() throws Exception {
+        LoadSimulation.Mix mix = LoadSimulation.Mix.parse(System.getProperty("load.mix", "sale=60,restock=15,update=5,read=20"));
+        int clients = Integer.getInteger("load.clients", 200);
+        int ops = Integer.getInteger("load.ops", 100);
+        int keys = Integer.getInteger("load.keys", 1_000);
+        int initialStock = Integer.getInteger("load.initial-stock", 20);
+        int maxRetries = Integer.getInteger("load.max-retries", 5);
+
+        StringBuilder report = new StringBuilder(String.format(
+                "cores=%d strategy=%s execution=%s clients=%d ops/client=%d keys=%d initial-stock=%d max-retries=%d mix=%s%n",
+                Runtime.getRuntime().availableProcessors(), inventoryProperties.getMovement().getStrategy(),
+                inventoryProperties.getExecution().getMode(), clients, ops, keys, initialStock, maxRetries, mix));
+        LoadSimulation simulation = new LoadSimulation(port);
+        for (String distribution : System.getProperty("load.distributions", "uniform,zipf").split(",")) {
+            seed(keys, initialStock);
+            LoadSimulation.Config config = new LoadSimulation.Config(
+                    clients, ops, keys, distribution.trim(), mix, initialStock, maxRetries);
+            LoadSimulation.Result result = simulation.run(config);
+            report.append(describe(config, result));
+            verify(config, result);
+            cleanUp();
+        }
+        LatencyStats.writeReport("load-simulation.txt", report.toString());
+    }
+
+    private void seed(int keys, int initialStock) {
+        List<Inventory> rows = new ArrayList<>(keys);
+        for (int key = 0; key < keys; key++) {
+            rows.add(Inventory.builder().sku(LoadSimulation.sku(key)).storeId(LoadSimulation.storeId(key)).quantity(initialStock).build());
+        }
+        inventoryRepository.saveAll(rows);
+    }
+
+    private String describe(LoadSimulation.Config config, LoadSimulation.Result result) {
+        long operations = result.operations();
+        StringBuilder text = new StringBuilder(String.format(
+                "%n[%s] ops=%d seconds=%.2f throughput(ops/s)=%.0f%n"
+                        + "attempts=%d conflict-409=%d (%.2f%% of attempts) retried-ops=%d (%.2f%%) gave-up=%d "
+                        + "rejected-409=%d (%.2f%%) errors=%d%n",
+                config.distribution(), operations, result.seconds, operations / result.seconds,
+                result.attempts.get(), result.conflicts.get(), 100.0 * result.conflicts.get() / result.attempts.get(),
+                result.retried.get(), 100.0 * result.retried.get() / operations, result.gaveUp.get(),
+                result.rejected.get(), 100.0 * result.rejected.get() / operations, result.errors.get()));
+        text.append(String.format("%-8s %8s %10s %10s %10s%n", "op", "count", "p50(us)", "p99(us)", "p999(us)"));
+        result.latencies.forEach((operation, stats) -> {
+            if (stats.count() == 0) return;
+            text.append(String.format("%-8s %8d", operation.name().toLowerCase(), stats.count()));
+            for (double percentile : PERCENTILES) text.append(String.format(" %10.0f", stats.percentileMicros(percentile)));
+            text.append(System.lineSeparator());
+        });
+        return text.toString();
+    }
+
+    private void verify(LoadSimulation.Config config, LoadSimulation.Result result) {
+        assertEquals(0, result.errors.get(), "unexpected responses in " + config.distribution());
+        Map<String, Long> persisted = new HashMap<>();
+        for (StockMovement movement : stockMovementRepository.findAll()) {
+            long signed = "sale".equalsIgnoreCase(movement.getType()) ? -movement.getQuantity() : movement.getQuantity();
+            persisted.merge(movement.getSku() + "@" + movement.getStoreId(), signed, Long::sum);
+        }
+        for (int key = 0; key < config.keys(); key++) {
+            String sku = LoadSimulation.sku(key);
+            String storeId = LoadSimulation.storeId(key);
+            int quantity = inventoryService.getCurrentQuantities(storeId, List.of(sku)).get(sku);
+            assertTrue(quantity >= 0, "negative stock for " + sku + " in " + config.distribution());
+            if (LoadSimulation.isUpdateKey(key)) continue;
+            assertEquals(config.initialStock() + result.applied.get(key), quantity,
+                    "stock does not match accepted movements for " + sku + " in " + config.distribution());
+            assertEquals(config.initialStock() + persisted.getOrDefault(sku + "@" + storeId, 0L), quantity,
+                    "stock does not match persisted movements for " + sku + " in " + config.distribution());
+        }
+    }
+}
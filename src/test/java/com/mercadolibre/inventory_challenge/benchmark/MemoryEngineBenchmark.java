@@ -0,0 +1,89 @@
+package com.mercadolibre.inventory_challenge.benchmark;
+
+import com.mercadolibre.inventory_challenge.Service.InMemoryStockEngine;
+import com.mercadolibre.inventory_challenge.Service.InventoryService;
+import com.mercadolibre.inventory_challenge.repository.InventoryRepository;
+import com.mercadolibre.inventory_challenge.repository.StockMovementRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Mide latencia y throughput de registerMovement con el motor en memoria habilitado.
+ * Ejecutar con: ./mvnw test -Pbenchmark -Dtest=MemoryEngineBenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = {"inventory.engine.memory.enabled=true", "inventory.engine.memory.flush-interval=50ms"})
+class MemoryEngineBenchmark {
+    private static final int THREADS = 8;
+    private static final int OPS_PER_THREAD = 100_000;
+    private static final int KEYS = 10_000;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InMemoryStockEngine memoryEngine;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @AfterEach
+    void cleanUp() {
+        memoryEngine.flush();
+        stockMovementRepository.deleteAllInBatch();
+        inventoryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void movementLatencyAndThroughput() throws Exception {
+        LatencyStats[] stats = new LatencyStats[THREADS];
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            LatencyStats threadStats = stats[t] = new LatencyStats(OPS_PER_THREAD);
+            pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < OPS_PER_THREAD; i++) {
+                    int key = random.nextInt(KEYS);
+                    long begin = System.nanoTime();
+                    inventoryService.registerMovement("SKU" + key, "Tienda1", "restock", 1);
+                    threadStats.record(System.nanoTime() - begin);
+                }
+                return null;
+            });
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.MINUTES);
+        double seconds = (System.nanoTime() - begin) / 1e9;
+
+        LatencyStats all = new LatencyStats(THREADS * OPS_PER_THREAD);
+        for (LatencyStats s : stats) {
+            for (int p = 0; p < s.count(); p++) all.record(s.sample(p));
+        }
+        memoryEngine.flush();
+        assertEquals((long) THREADS * OPS_PER_THREAD, stockMovementRepository.count());
+
+        LatencyStats.writeReport("memory-engine.txt", String.format(
+                "threads=%d ops=%d ops/s=%.0f p50(us)=%.2f p99(us)=%.2f p999(us)=%.2f%n",
+                THREADS, THREADS * OPS_PER_THREAD, THREADS * OPS_PER_THREAD / seconds,
+                all.percentileMicros(50), all.percentileMicros(99), all.percentileMicros(99.9)));
+    }
+}
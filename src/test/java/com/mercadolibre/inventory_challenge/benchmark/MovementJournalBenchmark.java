@@ -0,0 +1,78 @@
+package com.mercadolibre.inventory_challenge.benchmark;
+
+import com.mercadolibre.inventory_challenge.Service.InventoryService;
+import com.mercadolibre.inventory_challenge.journal.MovementJournal;
+import com.mercadolibre.inventory_challenge.model.Inventory;
+import com.mercadolibre.inventory_challenge.model.StockMovement;
+import com.mercadolibre.inventory_challenge.repository.InventoryRepository;
+import com.mercadolibre.inventory_challenge.repository.StockMovementRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Costo de persistir un movimiento: INSERT JPA en su propia transacción contra append al journal mapeado,
+ * y registerMovement completo con el journal activo.
+ * Ejecutar con: ./mvnw test -Pbenchmark -Dtest=MovementJournalBenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "inventory.journal.enabled=true",
+        "inventory.journal.directory=${java.io.tmpdir}/inventory-journal-${random.uuid}"
+})
+class MovementJournalBenchmark {
+    private static final int OPS = 20_000;
+
+    @Autowired
+    private MovementJournal journal;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void persistMovement() throws Exception {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        StringBuilder report = new StringBuilder(String.format("%-22s %12s %10s %10s%n", "path", "ops/s", "p50(us)", "p99(us)"));
+
+        report.append(measure("jpa insert", i -> transactionTemplate.executeWithoutResult(status ->
+                stockMovementRepository.save(StockMovement.builder().sku("SKU" + (i % 100)).storeId("Tienda1")
+                        .type("sale").quantity(1).timestamp(LocalDateTime.now()).build()))));
+        report.append(measure("journal append", i -> journal.append("SKU" + (i % 100), "Tienda1", "sale", 1)));
+
+        inventoryRepository.save(Inventory.builder().sku("HOT").storeId("Tienda1").quantity(OPS * 3).build());
+        report.append(measure("registerMovement", i -> inventoryService.registerMovement("HOT", "Tienda1", "sale", 1)));
+        assertEquals(OPS + OPS / 10, journal.findBySku("HOT").size());
+
+        LatencyStats.writeReport("movement-journal.txt", report.toString());
+    }
+
+    private String measure(String name, IntConsumer operation) {
+        for (int i = 0; i < OPS / 10; i++) operation.accept(i);
+        LatencyStats stats = new LatencyStats(OPS);
+        long begin = System.nanoTime();
+        for (int i = 0; i < OPS; i++) {
+            long start = System.nanoTime();
+            operation.accept(i);
+            stats.record(System.nanoTime() - start);
+        }
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        return String.format("%-22s %12.0f %10.1f %10.1f%n", name, OPS / seconds, stats.percentileMicros(50), stats.percentileMicros(99));
+    }
+}
@@ -0,0 +1,101 @@
+package com.mercadolibre.inventory_challenge.benchmark;
+
+import com.mercadolibre.inventory_challenge.Service.InventoryService;
+import com.mercadolibre.inventory_challenge.repository.InventoryRepository;
+import com.mercadolibre.inventory_challenge.repository.StockMovementRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Mide la latencia de registerMovement a medida que la tabla Inventory crece de 1k a 1M filas.
+ * Con la búsqueda indexada por (sku, storeId) la latencia debe mantenerse estable.
+ * Ejecutar con: ./mvnw test -Pbenchmark -Dtest=MovementLookupBenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class MovementLookupBenchmark {
+    private static final int[] TABLE_SIZES = {1_000, 10_000, 100_000, 1_000_000};
+    private static final int WARMUP_OPS = 1_000;
+    private static final int MEASURED_OPS = 5_000;
+    private static final int SEED_BATCH = 10_000;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        stockMovementRepository.deleteAllInBatch();
+        inventoryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void movementLatencyIsFlatAsTableGrows() throws Exception {
+        StringBuilder report = new StringBuilder(String.format("%-10s %12s %12s %12s%n", "rows", "mean(us)", "p50(us)", "p99(us)"));
+        List<Double> medians = new ArrayList<>();
+        int seeded = 0;
+        for (int size : TABLE_SIZES) {
+            seed(seeded, size);
+            seeded = size;
+
+            runMovements(size, WARMUP_OPS, null);
+            LatencyStats stats = new LatencyStats(MEASURED_OPS);
+            runMovements(size, MEASURED_OPS, stats);
+
+            medians.add(stats.percentileMicros(50));
+            report.append(String.format("%-10d %12.1f %12.1f %12.1f%n",
+                    size, stats.meanMicros(), stats.percentileMicros(50), stats.percentileMicros(99)));
+        }
+        LatencyStats.writeReport("movement-lookup.txt", report.toString());
+
+        // Tolerancia amplia: pasar de 1k a 1M filas no puede multiplicar la mediana.
+        assertTrue(medians.get(medians.size() - 1) < medians.get(0) * 4,
+                "Movement latency grew with table size: " + medians);
+    }
+
+    private void runMovements(int tableSize, int operations, LatencyStats stats) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < operations; i++) {
+            int row = random.nextInt(tableSize);
+            long start = System.nanoTime();
+            inventoryService.registerMovement(sku(row), store(row), "restock", 1);
+            if (stats != null) stats.record(System.nanoTime() - start);
+        }
+    }
+
+    private void seed(int from, int to) {
+        for (int start = from; start < to; start += SEED_BATCH) {
+            List<Object[]> rows = new ArrayList<>(SEED_BATCH);
+            for (int row = start; row < Math.min(start + SEED_BATCH, to); row++) {
+                rows.add(new Object[]{sku(row), store(row), 100});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO inventory (sku, store_id, quantity, version) VALUES (?, ?, ?, 0)", rows);
+        }
+    }
+
+    private static String sku(int row) {
+        return "SKU" + (row / 10);
+    }
+
+    private static String store(int row) {
+        return "Tienda" + (row % 10);
+    }
+}
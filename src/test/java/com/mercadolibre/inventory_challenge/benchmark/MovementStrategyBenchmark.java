@@ -0,0 +1,107 @@
+package com.mercadolibre.inventory_challenge.benchmark;
+
+import com.mercadolibre.inventory_challenge.Service.InventoryService;
+import com.mercadolibre.inventory_challenge.Service.MovementStrategy;
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import com.mercadolibre.inventory_challenge.model.Inventory;
+import com.mercadolibre.inventory_challenge.repository.InventoryRepository;
+import com.mercadolibre.inventory_challenge.repository.StockMovementRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compara las estrategias OPTIMISTIC y ATOMIC con muchos hilos vendiendo el mismo SKU.
+ * Ejecutar con: ./mvnw test -Pbenchmark -Dtest=MovementStrategyBenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class MovementStrategyBenchmark {
+    private static final int THREADS = 16;
+    private static final int OPS_PER_THREAD = 500;
+    private static final int INITIAL_STOCK = 1_000_000;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryProperties inventoryProperties;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @AfterEach
+    void cleanUp() {
+        inventoryProperties.getMovement().setStrategy(MovementStrategy.OPTIMISTIC);
+        stockMovementRepository.deleteAllInBatch();
+        inventoryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void hotSkuContention() throws Exception {
+        StringBuilder report = new StringBuilder(String.format("%-12s %12s %10s %10s %10s%n",
+                "strategy", "ops/s", "ok", "conflicts", "p99(us)"));
+        for (MovementStrategy strategy : MovementStrategy.values()) {
+            report.append(run(strategy));
+        }
+        LatencyStats.writeReport("movement-strategy.txt", report.toString());
+    }
+
+    private String run(MovementStrategy strategy) throws Exception {
+        inventoryRepository.deleteAllInBatch();
+        inventoryRepository.save(Inventory.builder().sku("HOT").storeId("Tienda1").quantity(INITIAL_STOCK).build());
+        inventoryProperties.getMovement().setStrategy(strategy);
+
+        AtomicLong succeeded = new AtomicLong();
+        AtomicLong conflicts = new AtomicLong();
+        LatencyStats[] stats = new LatencyStats[THREADS];
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            LatencyStats threadStats = stats[t] = new LatencyStats(OPS_PER_THREAD);
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < OPS_PER_THREAD; i++) {
+                    long begin = System.nanoTime();
+                    try {
+                        inventoryService.registerMovement("HOT", "Tienda1", "sale", 1);
+                        succeeded.incrementAndGet();
+                    } catch (OptimisticLockingFailureException ex) {
+                        conflicts.incrementAndGet();
+                    }
+                    threadStats.record(System.nanoTime() - begin);
+                }
+                return null;
+            });
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.MINUTES);
+        double seconds = (System.nanoTime() - begin) / 1e9;
+
+        int remaining = inventoryRepository.findBySkuAndStoreId("HOT", "Tienda1").orElseThrow().getQuantity();
+        assertEquals(INITIAL_STOCK - succeeded.get(), remaining, "Lost update with strategy " + strategy);
+
+        LatencyStats all = new LatencyStats(THREADS * OPS_PER_THREAD);
+        for (LatencyStats s : stats) {
+            for (int p = 0; p < s.count(); p++) all.record(s.sample(p));
+        }
+        return String.format("%-12s %12.0f %10d %10d %10.1f%n", strategy, THREADS * OPS_PER_THREAD / seconds,
+                succeeded.get(), conflicts.get(), all.percentileMicros(99));
+    }
+}
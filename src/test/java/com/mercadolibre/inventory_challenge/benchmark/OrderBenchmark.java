@@ -0,0 +1,183 @@
+package com.mercadolibre.inventory_challenge.benchmark;
+
+import com.mercadolibre.inventory_challenge.model.Inventory;
+import com.mercadolibre.inventory_challenge.repository.InventoryRepository;
+import com.mercadolibre.inventory_challenge.repository.StockMovementRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * Pedido de N líneas en un único POST /inventory/orders contra N POST /inventory/movement secuenciales, para
+ * N de 1 a 100, de punta a punta por MockMvc. Después, pedidos concurrentes con skus solapados en orden aleatorio:
+ * el bloqueo en orden de sku no debería producir deadlocks ni conflictos, y el stock final tiene que cuadrar.
+ * Ejecutar con: ./mvnw test -Pbenchmark -Dtest=OrderBenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:order-bench;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000",
+        "spring.jpa.show-sql=false",
+        "inventory.history.rollup-enabled=false"
+})
+@AutoConfigureMockMvc
+class OrderBenchmark {
+    private static final int[] SIZES = {1, 2, 5, 10, 20, 50, 100};
+    private static final int SKUS = 100;
+    private static final int INITIAL_STOCK = 1_000_000;
+    // Líneas por tamaño: los pedidos chicos se repiten más veces para tener percentiles estables
+    private static final int LINES_PER_SIZE = 20_000;
+    private static final int THREADS = 16;
+    private static final int ORDERS_PER_THREAD = 500;
+    private static final int CONCURRENT_ORDER_SIZE = 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @AfterEach
+    void cleanUp() {
+        stockMovementRepository.deleteAllInBatch();
+        inventoryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void orderVersusSequentialMovements() throws Exception {
+        for (int i = 0; i < SKUS; i++) {
+            inventoryRepository.save(Inventory.builder().sku(sku(i)).storeId("Tienda1").quantity(INITIAL_STOCK).build());
+        }
+        // Calentamiento de ambos caminos
+        for (int i = 0; i < 200; i++) {
+            sendOrder(orderBody(skus(10)));
+            sendMovements(skus(10));
+        }
+
+        StringBuilder report = new StringBuilder(String.format("%-6s %8s %14s %14s %14s %14s %9s%n",
+                "lines", "rounds", "order p50(ms)", "order p99(ms)", "seq p50(ms)", "seq p99(ms)", "speedup"));
+        for (int size : SIZES) {
+            int rounds = Math.max(20, LINES_PER_SIZE / size / 10);
+            LatencyStats order = new LatencyStats(rounds);
+            LatencyStats sequential = new LatencyStats(rounds);
+            for (int r = 0; r < rounds; r++) {
+                List<String> lines = skus(size);
+                String body = orderBody(lines);
+                long start = System.nanoTime();
+                sendOrder(body);
+                order.record(System.nanoTime() - start);
+
+                start = System.nanoTime();
+                sendMovements(lines);
+                sequential.record(System.nanoTime() - start);
+            }
+            report.append(String.format("%-6d %8d %14.3f %14.3f %14.3f %14.3f %8.1fx%n", size, rounds,
+                    order.percentileMicros(50) / 1000, order.percentileMicros(99) / 1000,
+                    sequential.percentileMicros(50) / 1000, sequential.percentileMicros(99) / 1000,
+                    sequential.meanMicros() / order.meanMicros()));
+        }
+
+        report.append(concurrentOrders());
+        LatencyStats.writeReport("order.txt", report.toString());
+    }
+
+    // Pedidos solapados desde varios hilos, cada uno con sus líneas en orden aleatorio
+    private String concurrentOrders() throws Exception {
+        long before = totalStock();
+        AtomicInteger failures = new AtomicInteger();
+        LatencyStats[] stats = new LatencyStats[THREADS];
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            LatencyStats threadStats = stats[t] = new LatencyStats(ORDERS_PER_THREAD);
+            pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < ORDERS_PER_THREAD; i++) {
+                    String body = orderBody(skus(CONCURRENT_ORDER_SIZE));
+                    long begin = System.nanoTime();
+                    int status = mockMvc.perform(post("/inventory/orders").contentType(MediaType.APPLICATION_JSON).content(body))
+                            .andReturn().getResponse().getStatus();
+                    threadStats.record(System.nanoTime() - begin);
+                    if (status != 200) failures.incrementAndGet();
+                }
+                return null;
+            });
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.MINUTES);
+        double seconds = (System.nanoTime() - begin) / 1e9;
+
+        int orders = THREADS * ORDERS_PER_THREAD;
+        assertEquals(0, failures.get());
+        assertEquals(before - (long) (orders - failures.get()) * CONCURRENT_ORDER_SIZE, totalStock());
+        LatencyStats all = new LatencyStats(orders);
+        for (LatencyStats s : stats) {
+            for (int p = 0; p < s.count(); p++) all.record(s.sample(p));
+        }
+        return String.format("%nconcurrent threads=%d lines=%d orders/s=%.0f p50(ms)=%.3f p99(ms)=%.3f failed=%d%n",
+                THREADS, CONCURRENT_ORDER_SIZE, orders / seconds, all.percentileMicros(50) / 1000,
+                all.percentileMicros(99) / 1000, failures.get());
+    }
+
+    private void sendOrder(String body) throws Exception {
+        int status = mockMvc.perform(post("/inventory/orders").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andReturn().getResponse().getStatus();
+        assertEquals(200, status);
+    }
+
+    private void sendMovements(List<String> skus) throws Exception {
+        for (String sku : skus) {
+            int status = mockMvc.perform(post("/inventory/movement").contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"sku\":\"" + sku + "\",\"storeId\":\"Tienda1\",\"type\":\"sale\",\"quantity\":1}"))
+                    .andReturn().getResponse().getStatus();
+            assertEquals(200, status);
+        }
+    }
+
+    private long totalStock() {
+        return inventoryRepository.findAll().stream().mapToLong(Inventory::getQuantity).sum();
+    }
+
+    // `size` skus distintos en orden aleatorio
+    private static List<String> skus(int size) {
+        List<String> all = new ArrayList<>(SKUS);
+        for (int i = 0; i < SKUS; i++) all.add(sku(i));
+        Collections.shuffle(all, ThreadLocalRandom.current());
+        return all.subList(0, size);
+    }
+
+    private static String orderBody(List<String> skus) {
+        StringBuilder body = new StringBuilder("{\"storeId\":\"Tienda1\",\"lines\":[");
+        for (int i = 0; i < skus.size(); i++) {
+            if (i > 0) body.append(',');
+            body.append("{\"sku\":\"").append(skus.get(i)).append("\",\"quantity\":1}");
+        }
+        return body.append("]}").toString();
+    }
+
+    private static String sku(int i) {
+        return String.format("SKU%03d", i);
+    }
+}
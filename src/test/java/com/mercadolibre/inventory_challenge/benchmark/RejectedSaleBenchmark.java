@@ -0,0 +1,81 @@
+package com.mercadolibre.inventory_challenge.benchmark;
+
+import com.mercadolibre.inventory_challenge.model.Inventory;
+import com.mercadolibre.inventory_challenge.repository.InventoryRepository;
+import com.mercadolibre.inventory_challenge.repository.StockMovementRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * POST /inventory/movement de punta a punta: venta aceptada contra venta rechazada por falta de stock
+ * (excepción sin stack trace, 409 y cuerpo de error). El rechazo no debería costar más que el éxito.
+ * Ejecutar con: ./mvnw test -Pbenchmark -Dtest=RejectedSaleBenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest
+@AutoConfigureMockMvc
+class RejectedSaleBenchmark {
+    private static final int OPS = 20_000;
+    private static final String SALE = "{\"sku\":\"%s\",\"storeId\":\"Tienda1\",\"type\":\"sale\",\"quantity\":1}";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @AfterEach
+    void cleanUp() {
+        stockMovementRepository.deleteAllInBatch();
+        inventoryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void rejectedVersusAcceptedSale() throws Exception {
+        inventoryRepository.save(Inventory.builder().sku("STOCKED").storeId("Tienda1").quantity(OPS * 3).build());
+        inventoryRepository.save(Inventory.builder().sku("EMPTY").storeId("Tienda1").quantity(0).build());
+
+        LatencyStats accepted = measure("STOCKED", 200);
+        LatencyStats rejected = measure("EMPTY", 409);
+
+        String report = String.format("%-10s %10s %10s %10s%n", "outcome", "mean(us)", "p50(us)", "p99(us)")
+                + line("accepted", accepted) + line("rejected", rejected);
+        LatencyStats.writeReport("rejected-sale.txt", report);
+        assertTrue(rejected.percentileMicros(50) < accepted.percentileMicros(50) * 1.5, report);
+    }
+
+    private LatencyStats measure(String sku, int expectedStatus) throws Exception {
+        String body = String.format(SALE, sku);
+        for (int i = 0; i < OPS / 10; i++) send(body, expectedStatus);
+        LatencyStats stats = new LatencyStats(OPS);
+        for (int i = 0; i < OPS; i++) {
+            long start = System.nanoTime();
+            send(body, expectedStatus);
+            stats.record(System.nanoTime() - start);
+        }
+        return stats;
+    }
+
+    private void send(String body, int expectedStatus) throws Exception {
+        int status = mockMvc.perform(post("/inventory/movement").contentType(MediaType.APPLICATION_JSON).content(body))
+                .andReturn().getResponse().getStatus();
+        assertEquals(expectedStatus, status);
+    }
+
+    private static String line(String name, LatencyStats stats) {
+        return String.format("%-10s %10.1f %10.1f %10.1f%n", name, stats.meanMicros(), stats.percentileMicros(50), stats.percentileMicros(99));
+    }
+}
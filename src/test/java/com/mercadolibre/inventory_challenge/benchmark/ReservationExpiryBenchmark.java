@@ -0,0 +1,103 @@
+package com.mercadolibre.inventory_challenge.benchmark;
+
+import com.mercadolibre.inventory_challenge.Service.InventoryService;
+import com.mercadolibre.inventory_challenge.reservation.ReservationHolds;
+import com.mercadolibre.inventory_challenge.reservation.ReservationService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Crea cientos de miles de reservas concurrentes que vencen dentro de la misma ventana y mide la latencia de
+ * reservar, cuánto tarda la rueda en vencerlas todas después de su plazo y que una venta siga sin competir con ellas.
+ * Ejecutar con: ./mvnw test -Pbenchmark -Dtest=ReservationExpiryBenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:reservation-bench;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "inventory.reservations.enabled=true",
+        "inventory.history.rollup-enabled=false"
+})
+class ReservationExpiryBenchmark {
+    private static final int THREADS = 16;
+    private static final int HOLDS_PER_THREAD = 12_500;
+    private static final int KEYS = 1_000;
+    private static final int TTL_SECONDS = 120;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationHolds holds;
+
+    @Test
+    void reserveLatencyAndExpiryDrain() throws Exception {
+        for (int key = 0; key < KEYS; key++) {
+            inventoryService.registerMovement("SKU" + key, "Tienda1", "restock", 1_000_000);
+        }
+
+        LatencyStats[] stats = new LatencyStats[THREADS];
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            LatencyStats threadStats = stats[t] = new LatencyStats(HOLDS_PER_THREAD);
+            pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < HOLDS_PER_THREAD; i++) {
+                    long begin = System.nanoTime();
+                    reservationService.reserve("SKU" + random.nextInt(KEYS), "Tienda1", 1, TTL_SECONDS);
+                    threadStats.record(System.nanoTime() - begin);
+                }
+                return null;
+            });
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.MINUTES);
+        double seconds = (System.nanoTime() - begin) / 1e9;
+        long lastDeadline = System.currentTimeMillis() + TTL_SECONDS * 1000L;
+        int peak = reservationService.activeCount();
+        assertEquals(THREADS * HOLDS_PER_THREAD, peak);
+
+        // Con todas las reservas activas, una venta solo paga la lectura del stock de su clave
+        LatencyStats sales = new LatencyStats(10_000);
+        for (int i = 0; i < 10_000; i++) {
+            long saleBegin = System.nanoTime();
+            inventoryService.registerMovement("SKU" + (i % KEYS), "Tienda1", "sale", 1);
+            sales.record(System.nanoTime() - saleBegin);
+        }
+
+        while (reservationService.activeCount() > 0) {
+            Thread.sleep(5);
+        }
+        long drainMillis = System.currentTimeMillis() - lastDeadline;
+        for (int key = 0; key < KEYS; key++) {
+            assertEquals(0, holds.held("SKU" + key, "Tienda1"));
+        }
+
+        LatencyStats all = new LatencyStats(THREADS * HOLDS_PER_THREAD);
+        for (LatencyStats s : stats) {
+            for (int p = 0; p < s.count(); p++) all.record(s.sample(p));
+        }
+        LatencyStats.writeReport("reservation-expiry.txt", String.format(
+                "holds=%d reserves/s=%.0f reserve p50(us)=%.2f p99(us)=%.2f "
+                        + "sale-with-holds p50(us)=%.2f p99(us)=%.2f expiry-drain-after-last-deadline(ms)=%d%n",
+                peak, peak / seconds, all.percentileMicros(50), all.percentileMicros(99),
+                sales.percentileMicros(50), sales.percentileMicros(99), drainMillis));
+    }
+}
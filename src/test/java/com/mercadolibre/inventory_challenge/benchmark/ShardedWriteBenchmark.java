@@ -0,0 +1,103 @@
+package com.mercadolibre.inventory_challenge.benchmark;
+
+import com.mercadolibre.inventory_challenge.InventoryChallengeApplication;
+import com.mercadolibre.inventory_challenge.Service.InventoryService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Throughput de escritura (registerMovement) con 1, 2 y 4 shards H2 en memoria: un contexto por configuración,
+ * muchos hilos moviendo stock de tiendas y SKUs al azar.
+ * Ejecutar con: ./mvnw test -Pbenchmark -Dtest=ShardedWriteBenchmark
+ */
+@Tag("benchmark")
+class ShardedWriteBenchmark {
+    private static final int[] SHARD_COUNTS = {1, 2, 4};
+    private static final int THREADS = 32;
+    private static final int OPS_PER_THREAD = 2_000;
+    private static final int STORES = 256;
+    private static final int SKUS = 8;
+
+    @Test
+    void writeThroughputByShardCount() throws Exception {
+        StringBuilder report = new StringBuilder(String.format("%-8s %12s %10s %10s %10s%n",
+                "shards", "ops/s", "conflicts", "p50(us)", "p99(us)"));
+        for (int shards : SHARD_COUNTS) {
+            try (ConfigurableApplicationContext context = start(shards)) {
+                report.append(run(shards, context.getBean(InventoryService.class)));
+            }
+        }
+        LatencyStats.writeReport("sharded-writes.txt", report.toString());
+    }
+
+    private static ConfigurableApplicationContext start(int shards) {
+        List<String> properties = new ArrayList<>(List.of(
+                "inventory.sharding.enabled=true",
+                "inventory.history.rollup-enabled=false",
+                "inventory.cache.enabled=false"));
+        for (int i = 0; i < shards; i++) {
+            properties.add("inventory.sharding.urls[" + i + "]=jdbc:h2:mem:bench-" + shards + "-" + i);
+        }
+        return new SpringApplicationBuilder(InventoryChallengeApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(properties.toArray(String[]::new))
+                .run();
+    }
+
+    private static String run(int shards, InventoryService inventoryService) throws Exception {
+        for (int store = 0; store < STORES; store++) {
+            for (int sku = 0; sku < SKUS; sku++) {
+                inventoryService.registerMovement("SKU" + sku, "Tienda" + store, "restock", 1_000_000);
+            }
+        }
+
+        AtomicLong conflicts = new AtomicLong();
+        LatencyStats[] stats = new LatencyStats[THREADS];
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        for (int t = 0; t < THREADS; t++) {
+            LatencyStats threadStats = stats[t] = new LatencyStats(OPS_PER_THREAD);
+            pool.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < OPS_PER_THREAD; i++) {
+                    String store = "Tienda" + random.nextInt(STORES);
+                    String sku = "SKU" + random.nextInt(SKUS);
+                    long begin = System.nanoTime();
+                    try {
+                        inventoryService.registerMovement(sku, store, i % 2 == 0 ? "sale" : "restock", 1);
+                    } catch (OptimisticLockingFailureException ex) {
+                        conflicts.incrementAndGet();
+                    }
+                    threadStats.record(System.nanoTime() - begin);
+                }
+                return null;
+            });
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        pool.shutdown();
+        pool.awaitTermination(10, TimeUnit.MINUTES);
+        double seconds = (System.nanoTime() - begin) / 1e9;
+
+        LatencyStats all = new LatencyStats(THREADS * OPS_PER_THREAD);
+        for (LatencyStats s : stats) {
+            for (int p = 0; p < s.count(); p++) all.record(s.sample(p));
+        }
+        return String.format("%-8d %12.0f %10d %10.1f %10.1f%n", shards, THREADS * OPS_PER_THREAD / seconds,
+                conflicts.get(), all.percentileMicros(50), all.percentileMicros(99));
+    }
+}
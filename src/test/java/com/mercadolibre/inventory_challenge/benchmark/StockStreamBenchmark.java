@@ -0,0 +1,160 @@
+package com.mercadolibre.inventory_challenge.benchmark;
+
+import com.mercadolibre.inventory_challenge.Service.InventoryService;
+import com.mercadolibre.inventory_challenge.dto.StockStreamEvent;
+import com.mercadolibre.inventory_challenge.model.Inventory;
+import com.mercadolibre.inventory_challenge.repository.InventoryRepository;
+import com.mercadolibre.inventory_challenge.stream.StockStream;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Costo de GET /inventory/stream sin la capa HTTP: memoria por suscriptor inactivo, latencia de una escritura y de
+ * su notificación (del commit a la entrega) con decenas de miles de suscriptores inactivos y clientes bloqueados,
+ * y tiempo de fan-out de un cambio a miles de suscriptores de la misma clave.
+ * Ejecutar con: ./mvnw test -Pbenchmark -Dtest=StockStreamBenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:stream-bench;DB_CLOSE_DELAY=-1",
+        "spring.jpa.show-sql=false",
+        "inventory.stream.enabled=true",
+        "inventory.stream.max-subscribers=100000",
+        "inventory.history.rollup-enabled=false"
+})
+class StockStreamBenchmark {
+    private static final int IDLE_SUBSCRIBERS = 50_000;
+    private static final int BLOCKED_SUBSCRIBERS = 100;
+    private static final int FAN_OUT_SUBSCRIBERS = 10_000;
+    private static final int CHANGES = 5_000;
+    private static final StockStream.Sink IDLE = new StockStream.Sink() {
+        @Override
+        public void send(StockStreamEvent event) {
+        }
+
+        @Override
+        public void heartbeat() {
+        }
+    };
+
+    @Autowired
+    private StockStream stockStream;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Test
+    void idleSubscribersNotificationLatencyAndFanOut() throws Exception {
+        inventoryRepository.save(Inventory.builder().sku("WATCHED").storeId("Tienda1").quantity(0).build());
+        inventoryRepository.save(Inventory.builder().sku("POPULAR").storeId("Tienda2").quantity(0).build());
+        List<StockStream.Subscription> subscriptions = new ArrayList<>();
+
+        long base = usedHeap();
+        for (int i = 0; i < IDLE_SUBSCRIBERS; i++) {
+            // Mitad por sku, mitad por tienda: ninguna coincide con las claves que cambian
+            subscriptions.add(i % 2 == 0 ? stockStream.subscribe("IDLE" + i, null, null, IDLE)
+                    : stockStream.subscribe(null, "Idle" + i, 5, IDLE));
+        }
+        double bytesPerIdle = (double) (usedHeap() - base) / IDLE_SUBSCRIBERS;
+
+        // Clientes que nunca terminan de recibir: cada uno retiene un hilo virtual y un buffer acotado
+        CountDownLatch release = new CountDownLatch(1);
+        for (int i = 0; i < BLOCKED_SUBSCRIBERS; i++) {
+            subscriptions.add(stockStream.subscribe(null, "Tienda1", null, new StockStream.Sink() {
+                @Override
+                public void send(StockStreamEvent event) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException ex) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+
+                @Override
+                public void heartbeat() {
+                }
+            }));
+        }
+
+        SynchronousQueue<Long> delivered = new SynchronousQueue<>();
+        subscriptions.add(stockStream.subscribe("WATCHED", "Tienda1", null, new StockStream.Sink() {
+            @Override
+            public void send(StockStreamEvent event) {
+                try {
+                    delivered.put(System.nanoTime());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public void heartbeat() {
+            }
+        }));
+        LatencyStats writes = new LatencyStats(CHANGES);
+        LatencyStats notifications = new LatencyStats(CHANGES);
+        for (int i = 0; i < CHANGES; i++) {
+            long start = System.nanoTime();
+            inventoryService.updateStock("WATCHED", "Tienda1", i + 1);
+            long committed = System.nanoTime();
+            writes.record(committed - start);
+            Long at = delivered.poll(5, TimeUnit.SECONDS);
+            assertNotNull(at);
+            notifications.record(at - committed);
+        }
+        release.countDown();
+
+        AtomicInteger received = new AtomicInteger();
+        CountDownLatch allReceived = new CountDownLatch(FAN_OUT_SUBSCRIBERS);
+        for (int i = 0; i < FAN_OUT_SUBSCRIBERS; i++) {
+            subscriptions.add(stockStream.subscribe("POPULAR", null, null, new StockStream.Sink() {
+                @Override
+                public void send(StockStreamEvent event) {
+                    received.incrementAndGet();
+                    allReceived.countDown();
+                }
+
+                @Override
+                public void heartbeat() {
+                }
+            }));
+        }
+        long fanOutStart = System.nanoTime();
+        inventoryService.updateStock("POPULAR", "Tienda2", 1);
+        allReceived.await(30, TimeUnit.SECONDS);
+        double fanOutMillis = (System.nanoTime() - fanOutStart) / 1e6;
+        assertEquals(FAN_OUT_SUBSCRIBERS, received.get());
+
+        int total = stockStream.subscriberCount();
+        subscriptions.forEach(StockStream.Subscription::close);
+        LatencyStats.writeReport("stock-stream.txt", String.format(
+                "idle-subscribers=%d bytes/idle-subscriber=%.0f blocked-subscribers=%d total-subscribers=%d%n"
+                        + "updateStock p50(us)=%.1f p99(us)=%.1f commit-to-delivery p50(us)=%.1f p99(us)=%.1f%n"
+                        + "fan-out subscribers=%d one-change-to-all(ms)=%.1f%n",
+                IDLE_SUBSCRIBERS, bytesPerIdle, BLOCKED_SUBSCRIBERS, total,
+                writes.percentileMicros(50), writes.percentileMicros(99),
+                notifications.percentileMicros(50), notifications.percentileMicros(99),
+                FAN_OUT_SUBSCRIBERS, fanOutMillis));
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
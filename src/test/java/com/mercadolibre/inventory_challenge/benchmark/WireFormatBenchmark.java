@@ -0,0 +1,112 @@
+package com.mercadolibre.inventory_challenge.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mercadolibre.inventory_challenge.dto.StockMovementRequest;
+import com.mercadolibre.inventory_challenge.model.Inventory;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Bytes por elemento y throughput de codificación/decodificación de JSON contra CBOR y Smile, con los mismos mappers
+ * que usan los converters de la app: un movimiento suelto, un lote de 100 movimientos (POST /inventory/movements/batch)
+ * y una página de 1000 filas de inventario (GET /inventory).
+ * Ejecutar con: ./mvnw test -Pbenchmark -Dtest=WireFormatBenchmark
+ */
+@Tag("benchmark")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class WireFormatBenchmark {
+    private static final int WARMUP_ROUNDS = 2;
+    private static final long MEASURED_NANOS = 1_000_000_000L;
+    private static final TypeReference<List<StockMovementRequest>> MOVEMENTS = new TypeReference<>() {
+    };
+    private static final TypeReference<List<Inventory>> INVENTORY = new TypeReference<>() {
+    };
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MappingJackson2CborHttpMessageConverter cborConverter;
+
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
+    @Test
+    void binaryFormatsAgainstJson() throws Exception {
+        Map<String, ObjectMapper> formats = new LinkedHashMap<>();
+        formats.put("json", objectMapper);
+        formats.put("cbor", cborConverter.getObjectMapper());
+        formats.put("smile", smileConverter.getObjectMapper());
+
+        StringBuilder report = new StringBuilder(String.format("%-18s %-6s %10s %12s %14s %14s%n",
+                "payload", "format", "bytes", "bytes/item", "encode(ops/s)", "decode(ops/s)"));
+        for (int warmup = 0; warmup <= WARMUP_ROUNDS; warmup++) {
+            boolean measured = warmup == WARMUP_ROUNDS;
+            for (Map.Entry<String, ObjectMapper> format : formats.entrySet()) {
+                ObjectMapper mapper = format.getValue();
+                String row = run("movement", format.getKey(), mapper, 1, movements(1).get(0), StockMovementRequest.class, null)
+                        + run("batch-100", format.getKey(), mapper, 100, movements(100), null, MOVEMENTS)
+                        + run("inventory-1000", format.getKey(), mapper, 1_000, inventory(1_000), null, INVENTORY);
+                if (measured) report.append(row);
+            }
+        }
+        LatencyStats.writeReport("wire-format.txt", report.toString());
+    }
+
+    private String run(String payload, String format, ObjectMapper mapper, int items, Object value,
+                       Class<?> type, TypeReference<?> listType) throws Exception {
+        byte[] encoded = mapper.writeValueAsBytes(value);
+        Object decoded = type != null ? mapper.readValue(encoded, type) : mapper.readValue(encoded, listType);
+        // Ida y vuelta sin pérdida
+        assertArrayEquals(encoded, mapper.writeValueAsBytes(decoded));
+
+        long encodes = 0;
+        long start = System.nanoTime();
+        while (System.nanoTime() - start < MEASURED_NANOS) {
+            mapper.writeValueAsBytes(value);
+            encodes++;
+        }
+        double encodeRate = encodes / ((System.nanoTime() - start) / 1e9);
+
+        long decodes = 0;
+        start = System.nanoTime();
+        while (System.nanoTime() - start < MEASURED_NANOS) {
+            if (type != null) mapper.readValue(encoded, type);
+            else mapper.readValue(encoded, listType);
+            decodes++;
+        }
+        double decodeRate = decodes / ((System.nanoTime() - start) / 1e9);
+        return String.format("%-18s %-6s %10d %12.1f %14.0f %14.0f%n",
+                payload, format, encoded.length, (double) encoded.length / items, encodeRate, decodeRate);
+    }
+
+    private static List<StockMovementRequest> movements(int count) {
+        List<StockMovementRequest> movements = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            movements.add(StockMovementRequest.builder().sku("SKU-" + (100_000 + i % 50)).storeId("Tienda" + (i % 4 + 1))
+                    .type(i % 5 == 0 ? "restock" : "sale").quantity(1 + i % 7).build());
+        }
+        return movements;
+    }
+
+    private static List<Inventory> inventory(int count) {
+        List<Inventory> rows = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            rows.add(Inventory.builder().id((long) i + 1).sku("SKU-" + (100_000 + i)).storeId("Tienda" + (i % 4 + 1))
+                    .quantity(i % 500).version((long) i % 13).changeSeq(1_000_000L + i).build());
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,105 @@
+package com.mercadolibre.inventory_challenge.bulk;
+
+import com.mercadolibre.inventory_challenge.Service.SplitCounterService;
+import com.mercadolibre.inventory_challenge.dto.BulkImportResult;
+import com.mercadolibre.inventory_challenge.model.Inventory;
+import com.mercadolibre.inventory_challenge.repository.InventoryRepository;
+import com.mercadolibre.inventory_challenge.repository.InventorySliceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "inventory.bulk.batch-size=2",
+        "inventory.hot-keys.enabled=true",
+        "inventory.hot-keys.skus=PROMO"
+})
+class InventoryBulkImporterTest {
+
+    @Autowired
+    private InventoryBulkImporter importer;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private InventorySliceRepository sliceRepository;
+
+    @Autowired
+    private SplitCounterService splitCounters;
+
+    @AfterEach
+    void cleanUp() {
+        sliceRepository.deleteAllInBatch();
+        inventoryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testCsvImport_upsertsAndReportsInvalidRows() throws Exception {
+        Inventory existing = inventoryRepository.save(Inventory.builder().sku("SKU1").storeId("Tienda1").quantity(1).build());
+        String csv = """
+                sku,storeId,quantity
+                SKU1,Tienda1,40
+                SKU2,Tienda1,5
+                SKU3,,7
+                "SKU,4",Tienda2,9
+                SKU5,Tienda2,abc
+                SKU6,Tienda2,-1
+                """;
+
+        BulkImportResult result = importer.importInventory(stream(csv), BulkFormat.CSV);
+
+        assertEquals(6, result.getRows());
+        assertEquals(3, result.getApplied());
+        assertEquals(3, result.getRejected());
+        assertEquals(4, result.getErrors().get(0).getLine());
+        assertEquals("Invalid quantity: abc", result.getErrors().get(1).getError());
+        Inventory updated = inventoryRepository.findBySkuAndStoreId("SKU1", "Tienda1").orElseThrow();
+        assertEquals(40, updated.getQuantity());
+        assertEquals(existing.getVersion() + 1, updated.getVersion());
+        assertTrue(updated.getChangeSeq() > 0);
+        assertEquals(9, inventoryRepository.findBySkuAndStoreId("SKU,4", "Tienda2").orElseThrow().getQuantity());
+        assertEquals(0L, inventoryRepository.findBySkuAndStoreId("SKU2", "Tienda1").orElseThrow().getVersion());
+    }
+
+    @Test
+    void testNdjsonImport_acceptsExportAndUpdateShapes() throws Exception {
+        String ndjson = """
+                {"id":3,"sku":"SKU1","storeId":"Tienda1","quantity":12,"version":4}
+                {"sku":"SKU2","storeId":"Tienda1","newStock":6}
+                {"sku":"SKU3",
+                """;
+
+        BulkImportResult result = importer.importInventory(stream(ndjson), BulkFormat.NDJSON);
+
+        assertEquals(2, result.getApplied());
+        assertEquals(1, result.getRejected());
+        assertEquals(3, result.getErrors().get(0).getLine());
+        assertEquals(12, inventoryRepository.findBySkuAndStoreId("SKU1", "Tienda1").orElseThrow().getQuantity());
+        assertEquals(6, inventoryRepository.findBySkuAndStoreId("SKU2", "Tienda1").orElseThrow().getQuantity());
+    }
+
+    @Test
+    void testCsvImport_alreadySplitKeyKeepsItsStockInSlicesOnly() throws Exception {
+        // La primera carga divide la clave; la segunda la encuentra ya dividida
+        importer.importInventory(stream("sku,storeId,quantity\nPROMO,Tienda1,10\n"), BulkFormat.CSV);
+        assertTrue(sliceRepository.existsBySkuAndStoreId("PROMO", "Tienda1"));
+
+        BulkImportResult result = importer.importInventory(stream("sku,storeId,quantity\nPROMO,Tienda1,30\n"), BulkFormat.CSV);
+
+        assertEquals(1, result.getApplied());
+        Inventory row = inventoryRepository.findBySkuAndStoreId("PROMO", "Tienda1").orElseThrow();
+        assertEquals(0, row.getQuantity());
+        assertEquals(30, splitCounters.withSliceTotal(row, splitCounters.sliceTotals("PROMO")).getQuantity());
+    }
+
+    private static ByteArrayInputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
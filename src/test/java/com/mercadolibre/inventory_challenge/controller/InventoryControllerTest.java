@@ -1,34 +1,69 @@
 package com.mercadolibre.inventory_challenge.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
 import com.mercadolibre.inventory_challenge.Service.InventoryService;
+import com.mercadolibre.inventory_challenge.dto.BatchMovementResult;
+import com.mercadolibre.inventory_challenge.dto.CacheStatsResponse;
+import com.mercadolibre.inventory_challenge.dto.ChangesResponse;
+import com.mercadolibre.inventory_challenge.dto.MovementHistoryEntry;
+import com.mercadolibre.inventory_challenge.dto.MovementHistoryResponse;
+import com.mercadolibre.inventory_challenge.dto.MovementStatus;
 import com.mercadolibre.inventory_challenge.dto.StockMovementRequest;
 import com.mercadolibre.inventory_challenge.dto.StockUpdateRequest;
+import com.mercadolibre.inventory_challenge.exception.InsufficientStockException;
 import com.mercadolibre.inventory_challenge.exception.InventoryException;
+import com.mercadolibre.inventory_challenge.exception.InventoryNotFoundException;
+import com.mercadolibre.inventory_challenge.exception.UnsupportedMovementTypeException;
+import com.mercadolibre.inventory_challenge.metrics.InventoryMetrics;
 import com.mercadolibre.inventory_challenge.model.Inventory;
 import com.mercadolibre.inventory_challenge.model.StockMovement;
+import com.mercadolibre.inventory_challenge.queue.MovementQueue;
+import com.mercadolibre.inventory_challenge.repository.InventoryRepository;
+import com.mercadolibre.inventory_challenge.queue.MovementStatusStore;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.sql.SQLException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
 @AutoConfigureMockMvc
 class InventoryControllerTest {
+    private static final MediaType CBOR = MediaType.parseMediaType("application/cbor");
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private final ObjectMapper cborMapper = new CBORMapper();
+    private final ObjectMapper smileMapper = new SmileMapper();
 
     @Autowired
     private MockMvc mockMvc;
@@ -36,21 +71,68 @@ class InventoryControllerTest {
     @MockBean
     private InventoryService inventoryService;
 
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @MockBean
+    private MovementQueue movementQueue;
+
+    @Autowired
+    private MovementStatusStore movementStatusStore;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private InventoryMetrics inventoryMetrics;
+
     @Test
     void testGetAllInventory() throws Exception {
         Inventory inv = Inventory.builder().sku("SKU1").storeId("Tienda1").quantity(10).build();
-        when(inventoryService.getAllInventory()).thenReturn(List.of(inv));
+        when(inventoryService.getInventoryPage(isNull(), isNull(), isNull(), eq(500))).thenReturn(List.of(inv));
 
         mockMvc.perform(get("/inventory"))
                 .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
                 .andExpect(jsonPath("$[0].sku", is("SKU1")))
                 .andExpect(jsonPath("$[0].storeId", is("Tienda1")))
                 .andExpect(jsonPath("$[0].quantity", is(10)));
     }
 
+    @Test
+    void testGetAllInventory_keysetPage() throws Exception {
+        Inventory first = Inventory.builder().id(11L).sku("SKU1").storeId("Tienda1").quantity(1).build();
+        Inventory second = Inventory.builder().id(12L).sku("SKU2").storeId("Tienda1").quantity(2).build();
+        when(inventoryService.getInventoryPage(10L, "Tienda1", null, 2)).thenReturn(List.of(first, second));
+
+        mockMvc.perform(get("/inventory").param("afterId", "10").param("storeId", "Tienda1").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "12"))
+                .andExpect(jsonPath("$[1].sku", is("SKU2")));
+    }
+
+    @Test
+    void testStreamInventory_ndjson() throws Exception {
+        doAnswer(i -> {
+            Consumer<Inventory> consumer = i.getArgument(2);
+            consumer.accept(Inventory.builder().id(1L).sku("SKU1").storeId("Tienda1").quantity(3).build());
+            consumer.accept(Inventory.builder().id(2L).sku("SKU2").storeId("Tienda1").quantity(4).build());
+            return null;
+        }).when(inventoryService).streamInventory(eq("Tienda1"), isNull(), any());
+
+        MvcResult result = mockMvc.perform(get("/inventory").param("storeId", "Tienda1").accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertEquals("SKU2", objectMapper.readTree(lines[1]).get("sku").asText());
+    }
+
     @Test
     void testGetInventoryBySku() throws Exception {
         Inventory inv = Inventory.builder().sku("SKU1").storeId("Tienda1").quantity(20).build();
@@ -62,6 +144,17 @@ class InventoryControllerTest {
                 .andExpect(jsonPath("$[0].quantity", is(20)));
     }
 
+    @Test
+    void testGetCacheStats() throws Exception {
+        when(inventoryService.getCacheStats()).thenReturn(CacheStatsResponse.builder()
+                .enabled(true).size(3).hits(10).misses(2).evictions(1).hitRate(10 / 12.0).build());
+
+        mockMvc.perform(get("/inventory/cache/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits", is(10)))
+                .andExpect(jsonPath("$.evictions", is(1)));
+    }
+
     @Test
     void testUpdateStock_success() throws Exception {
         Inventory inv = Inventory.builder().sku("SKU1").storeId("Tienda1").quantity(15).build();
@@ -97,7 +190,7 @@ class InventoryControllerTest {
         StockMovement movement = StockMovement.builder()
                 .sku("SKU1").storeId("Tienda1").type("sale").quantity(2).build();
 
-        when(inventoryService.registerMovement(eq("SKU1"), eq("Tienda1"), eq("sale"), eq(2)))
+        when(inventoryService.registerMovement(eq("SKU1"), eq("Tienda1"), eq("sale"), eq(2), isNull()))
                 .thenReturn(movement);
 
         StockMovementRequest req = StockMovementRequest.builder()
@@ -115,6 +208,26 @@ class InventoryControllerTest {
                 .andExpect(jsonPath("$.quantity", is(2)));
     }
 
+    @Test
+    void testRegisterMovement_duplicateIdempotencyKeyReturnsOriginalResponse() throws Exception {
+        StockMovement movement = StockMovement.builder()
+                .id(11L).sku("SKU1").storeId("Tienda1").type("sale").quantity(2).idempotencyKey("retry-1").build();
+        when(inventoryService.registerMovement("SKU1", "Tienda1", "sale", 2, "retry-1")).thenReturn(movement);
+        String body = objectMapper.writeValueAsString(StockMovementRequest.builder()
+                .sku("SKU1").storeId("Tienda1").type("sale").quantity(2).build());
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/inventory/movement")
+                            .header("Idempotency-Key", "retry-1")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id", is(11)));
+        }
+
+        verify(inventoryService, times(1)).registerMovement("SKU1", "Tienda1", "sale", 2, "retry-1");
+    }
+
     @Test
     void testRegisterMovement_validationError() throws Exception {
         // Falta type
@@ -130,6 +243,159 @@ class InventoryControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void testRegisterMovementAsync_accepted() throws Exception {
+        when(movementQueue.offer(any())).thenReturn(true);
+
+        mockMvc.perform(post("/inventory/movement/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                            {"sku": "SKU1", "storeId": "Tienda1", "type": "sale", "quantity": 2}
+                            """))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andExpect(jsonPath("$.status", is("pending")))
+                .andExpect(jsonPath("$.trackingId").exists());
+    }
+
+    @Test
+    void testRegisterMovementAsync_queueFull() throws Exception {
+        when(movementQueue.offer(any())).thenReturn(false);
+
+        mockMvc.perform(post("/inventory/movement/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("""
+                            {"sku": "SKU1", "storeId": "Tienda1", "type": "sale", "quantity": 2}
+                            """))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "1"))
+                .andExpect(jsonPath("$.status").value(429));
+    }
+
+    @Test
+    void testGetMovementStatus() throws Exception {
+        movementStatusStore.put(MovementStatus.builder().trackingId("abc").status("rejected").error("No hay suficiente stock").build());
+
+        mockMvc.perform(get("/inventory/movement/async/abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is("rejected")))
+                .andExpect(jsonPath("$.error", is("No hay suficiente stock")));
+        mockMvc.perform(get("/inventory/movement/async/unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testRegisterMovements_batch() throws Exception {
+        when(inventoryService.registerMovements(anyList())).thenReturn(List.of(
+                BatchMovementResult.builder().index(0).sku("SKU1").storeId("Tienda1")
+                        .status(BatchMovementResult.APPLIED).movementId(1L).build(),
+                BatchMovementResult.builder().index(1).sku("SKU1").storeId("Tienda1")
+                        .status(BatchMovementResult.REJECTED).error("No hay suficiente stock").build()));
+
+        List<StockMovementRequest> req = List.of(
+                StockMovementRequest.builder().sku("SKU1").storeId("Tienda1").type("restock").quantity(2).build(),
+                StockMovementRequest.builder().sku("SKU1").storeId("Tienda1").type("sale").quantity(50).build());
+
+        mockMvc.perform(post("/inventory/movements/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(req)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is("applied")))
+                .andExpect(jsonPath("$[1].status", is("rejected")))
+                .andExpect(jsonPath("$[1].error", is("No hay suficiente stock")));
+    }
+
+    @Test
+    void testRegisterOrder() throws Exception {
+        when(inventoryService.registerOrder(eq("Tienda1"), anyList())).thenReturn(List.of(
+                StockMovement.builder().id(1L).sku("SKU1").storeId("Tienda1").type("sale").quantity(2).build(),
+                StockMovement.builder().id(2L).sku("SKU2").storeId("Tienda1").type("sale").quantity(1).build()));
+
+        mockMvc.perform(post("/inventory/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"storeId\":\"Tienda1\",\"lines\":[{\"sku\":\"SKU1\",\"quantity\":2},{\"sku\":\"SKU2\",\"quantity\":1}]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1].sku", is("SKU2")));
+
+        mockMvc.perform(post("/inventory/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"storeId\":\"Tienda1\",\"lines\":[{\"sku\":\"SKU1\",\"quantity\":0}]}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/inventory/orders")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"storeId\":\"Tienda1\",\"lines\":[]}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testRegisterMovements_batchInCbor() throws Exception {
+        when(inventoryService.registerMovements(anyList())).thenReturn(List.of(
+                BatchMovementResult.builder().index(0).sku("SKU1").storeId("Tienda1")
+                        .status(BatchMovementResult.APPLIED).movementId(1L).build()));
+        List<StockMovementRequest> req = List.of(
+                StockMovementRequest.builder().sku("SKU1").storeId("Tienda1").type("restock").quantity(2).build());
+
+        MvcResult result = mockMvc.perform(post("/inventory/movements/batch")
+                        .contentType(CBOR)
+                        .accept(CBOR)
+                        .content(cborMapper.writeValueAsBytes(req)))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(CBOR))
+                .andReturn();
+
+        JsonNode body = cborMapper.readTree(result.getResponse().getContentAsByteArray());
+        assertEquals("applied", body.get(0).get("status").asText());
+        assertEquals(1L, body.get(0).get("movementId").asLong());
+    }
+
+    @Test
+    void testGetInventoryBySku_smileOnlyWhenRequested() throws Exception {
+        Inventory inv = Inventory.builder().sku("SKU1").storeId("Tienda1").quantity(10).build();
+        when(inventoryService.getInventoryBySku("SKU1")).thenReturn(List.of(inv, inv));
+
+        MvcResult result = mockMvc.perform(get("/inventory/SKU1").accept(SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE))
+                .andReturn();
+        JsonNode body = smileMapper.readTree(result.getResponse().getContentAsByteArray());
+        assertEquals("Tienda1", body.get(1).get("storeId").asText());
+        assertEquals(10, body.get(1).get("quantity").asInt());
+
+        mockMvc.perform(get("/inventory/SKU1"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].sku", is("SKU1")));
+    }
+
+    @Test
+    void testErrors_followNegotiatedFormat() throws Exception {
+        when(inventoryService.registerMovement(anyString(), anyString(), anyString(), anyInt(), isNull()))
+                .thenThrow(InsufficientStockException.INSTANCE);
+        StockMovementRequest sale = StockMovementRequest.builder().sku("SKU1").storeId("Tienda1").type("sale").quantity(5).build();
+
+        MvcResult conflict = mockMvc.perform(post("/inventory/movement")
+                        .contentType(CBOR)
+                        .accept(CBOR)
+                        .content(cborMapper.writeValueAsBytes(sale)))
+                .andExpect(status().isConflict())
+                .andExpect(content().contentType(CBOR))
+                .andReturn();
+        JsonNode error = cborMapper.readTree(conflict.getResponse().getContentAsByteArray());
+        assertEquals("No hay suficiente stock", error.get("error").asText());
+        assertEquals(409, error.get("status").asInt());
+
+        sale.setQuantity(null);
+        MvcResult invalid = mockMvc.perform(post("/inventory/movement")
+                        .contentType(SMILE)
+                        .accept(SMILE)
+                        .content(smileMapper.writeValueAsBytes(sale)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentType(SMILE))
+                .andReturn();
+        JsonNode validation = smileMapper.readTree(invalid.getResponse().getContentAsByteArray());
+        assertEquals("quantity: Quantity cannot be null", validation.get("errors").get(0).asText());
+    }
+
     @Test
     void testUpdateStock_inventoryExceptionHandler() throws Exception {
         when(inventoryService.updateStock(anyString(), anyString(), anyInt()))
@@ -150,6 +416,46 @@ class InventoryControllerTest {
                 .andExpect(jsonPath("$.status").value(400));
     }
 
+    @Test
+    void testRegisterMovement_insufficientStockIsConflict() throws Exception {
+        when(inventoryService.registerMovement(anyString(), anyString(), anyString(), anyInt(), isNull()))
+                .thenThrow(InsufficientStockException.INSTANCE);
+
+        mockMvc.perform(post("/inventory/movement")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"sku\":\"SKU1\",\"storeId\":\"Tienda1\",\"type\":\"sale\",\"quantity\":5}"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("No hay suficiente stock"))
+                .andExpect(jsonPath("$.status").value(409))
+                .andExpect(jsonPath("$.timestamp").doesNotExist());
+        assertEquals(0, InsufficientStockException.INSTANCE.getStackTrace().length);
+    }
+
+    @Test
+    void testRegisterMovement_unsupportedTypeIsUnprocessable() throws Exception {
+        when(inventoryService.registerMovement(anyString(), anyString(), anyString(), anyInt(), isNull()))
+                .thenThrow(UnsupportedMovementTypeException.INSTANCE);
+
+        mockMvc.perform(post("/inventory/movement")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"sku\":\"SKU1\",\"storeId\":\"Tienda1\",\"type\":\"gift\",\"quantity\":5}"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.error").value("Tipo de movimiento no soportado"))
+                .andExpect(jsonPath("$.status").value(422));
+    }
+
+    @Test
+    void testUpdateStock_notFound() throws Exception {
+        when(inventoryService.updateStock("SKU9", "Tienda9", 3)).thenThrow(new InventoryNotFoundException("SKU9", "Tienda9"));
+
+        mockMvc.perform(post("/inventory/update")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"sku\":\"SKU9\",\"storeId\":\"Tienda9\",\"newStock\":3}"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error").value("Inventory not found for SKU: SKU9 and Store ID: Tienda9"))
+                .andExpect(jsonPath("$.status").value(404));
+    }
+
     @Test
     void testUpdateStock_optimisticLockingHandler() throws Exception {
         when(inventoryService.updateStock(anyString(), anyString(), anyInt()))
@@ -171,6 +477,51 @@ class InventoryControllerTest {
         ;
     }
 
+    @Test
+    void testRegisterMovement_duplicateKeyHandler() throws Exception {
+        when(inventoryService.registerMovement(anyString(), anyString(), anyString(), anyInt(), isNull()))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement", new ConstraintViolationException(
+                        "Unique index violation", new SQLException("Unique index or primary key violation", "23505"),
+                        "PUBLIC.UK_INVENTORY_SKU_STORE_INDEX_2")));
+
+        String body = """
+            {
+                "sku": "SKU1",
+                "storeId": "Tienda1",
+                "type": "restock",
+                "quantity": 5
+            }
+            """;
+        mockMvc.perform(post("/inventory/movement")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error").value("Concurrency conflict: Resource was created by another transaction"))
+                .andExpect(jsonPath("$.status").value(409));
+    }
+
+    @Test
+    void testRegisterMovement_otherIntegrityViolationIsNotAConflict() throws Exception {
+        when(inventoryService.registerMovement(anyString(), anyString(), anyString(), anyInt(), isNull()))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement", new ConstraintViolationException(
+                        "NULL not allowed", new SQLException("NULL not allowed for column \"TYPE\"", "23502"), null)));
+
+        String body = """
+            {
+                "sku": "SKU1",
+                "storeId": "Tienda1",
+                "type": "restock",
+                "quantity": 5
+            }
+            """;
+        mockMvc.perform(post("/inventory/movement")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isInternalServerError())
+                .andExpect(jsonPath("$.error").value("Unexpected error occurred"))
+                .andExpect(jsonPath("$.status").value(500));
+    }
+
     @Test
     void testUpdateStock_generalExceptionHandler() throws Exception {
         when(inventoryService.updateStock(anyString(), anyString(), anyInt()))
@@ -191,4 +542,76 @@ class InventoryControllerTest {
                 .andExpect(jsonPath("$.details").value("Error inesperado!"))
                 .andExpect(jsonPath("$.status").value(500));
     }
-}
\ No newline at end of file
+
+    @Test
+    void testContentionEndpoint_listsMostContendedKeys() throws Exception {
+        inventoryMetrics.contention().reset();
+        inventoryMetrics.recordContention("SKU1", "Tienda1");
+        inventoryMetrics.recordContention("SKU1", "Tienda1");
+        inventoryMetrics.recordContention("SKU2", "Tienda1");
+
+        mockMvc.perform(get("/actuator/contention"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].sku", is("SKU1")))
+                .andExpect(jsonPath("$[0].conflicts", is(2)))
+                .andExpect(jsonPath("$[1].sku", is("SKU2")));
+    }
+
+    @Test
+    void testGetMovementHistory() throws Exception {
+        StockMovement movement = StockMovement.builder().id(3L).sku("SKU1").storeId("Tienda1").type("sale").quantity(2)
+                .timestamp(LocalDateTime.of(2026, 2, 1, 10, 0)).build();
+        LocalDateTime from = LocalDateTime.of(2026, 1, 1, 0, 0);
+        when(inventoryService.getMovementHistory("SKU1", "Tienda1", from, null, null, 500))
+                .thenReturn(new MovementHistoryResponse(List.of(MovementHistoryEntry.of(movement)), null));
+
+        mockMvc.perform(get("/inventory/movements").param("sku", "SKU1").param("storeId", "Tienda1")
+                        .param("from", "2026-01-01T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.movements[0].id", is(3)))
+                .andExpect(jsonPath("$.movements[0].type", is("sale")))
+                .andExpect(jsonPath("$.movements[0].granularity", is("movement")));
+    }
+
+    @Test
+    void testBulkImport_csv() throws Exception {
+        mockMvc.perform(post("/inventory/bulk")
+                        .contentType("text/csv")
+                        .content("sku,storeId,quantity\nBULK1,Tienda1,3\nBULK2,Tienda1,x\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.rows", is(2)))
+                .andExpect(jsonPath("$.applied", is(1)))
+                .andExpect(jsonPath("$.errors[0].line", is(3)));
+        inventoryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testExportInventoryCsv() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<Inventory> consumer = invocation.getArgument(2);
+            consumer.accept(Inventory.builder().sku("SKU,1").storeId("Tienda1").quantity(4).build());
+            return null;
+        }).when(inventoryService).streamInventory(isNull(), isNull(), any());
+
+        MvcResult result = mockMvc.perform(get("/inventory").accept("text/csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().string("sku,storeId,quantity\n\"SKU,1\",Tienda1,4\n"));
+    }
+
+    @Test
+    void testGetChanges() throws Exception {
+        Inventory inv = Inventory.builder().sku("SKU1").storeId("Tienda1").quantity(3).changeSeq(8).build();
+        when(inventoryService.getChanges("1-5", "Tienda1", 500))
+                .thenReturn(ChangesResponse.builder().changes(List.of(inv)).cursor("1-8").build());
+
+        mockMvc.perform(get("/inventory/changes").param("since", "1-5").param("storeId", "Tienda1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].changeSeq", is(8)))
+                .andExpect(jsonPath("$.cursor", is("1-8")))
+                .andExpect(jsonPath("$.hasMore", is(false)));
+    }
+}
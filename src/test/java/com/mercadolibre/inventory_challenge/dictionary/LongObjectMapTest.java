@@ -0,0 +1,52 @@
+package com.mercadolibre.inventory_challenge.dictionary;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongObjectMapTest {
+
+    @Test
+    void testPutAndGet_matchesHashMapAcrossResizes() {
+        LongObjectMap<Long> map = new LongObjectMap<>(4);
+        Map<Long, Long> expected = new HashMap<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        for (int i = 0; i < 50_000; i++) {
+            long key = LongObjectMap.pack(random.nextInt(1, 2_000), random.nextInt(1, 50));
+            assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+        }
+
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+        assertNull(map.get(LongObjectMap.pack(5_000, 1)));
+        long[] sum = {0};
+        map.forEachValue(value -> sum[0] += value);
+        assertEquals(expected.values().stream().mapToLong(Long::longValue).sum(), sum[0]);
+    }
+
+    @Test
+    void testZeroKey_isStoredApartFromFreeSlots() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+
+        assertNull(map.get(0));
+        map.put(0, "zero");
+        map.put(LongObjectMap.pack(0, 1), "one");
+
+        assertEquals("zero", map.get(0));
+        assertEquals("one", map.get(1));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    void testPack_roundTripsBothHalves() {
+        long key = LongObjectMap.pack(123_456, Integer.MAX_VALUE);
+
+        assertEquals(123_456, LongObjectMap.high(key));
+        assertEquals(Integer.MAX_VALUE, LongObjectMap.low(key));
+    }
+}
@@ -0,0 +1,116 @@
+package com.mercadolibre.inventory_challenge.idempotency;
+
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import com.mercadolibre.inventory_challenge.exception.InventoryException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+
+    private final IdempotencyStore store = new IdempotencyStore(new InventoryProperties());
+
+    @Test
+    void testExecute_replaysStoredResponseWithoutRunningAgain() {
+        AtomicInteger calls = new AtomicInteger();
+
+        ResponseEntity<Integer> first = store.execute("movement", "k1", () -> ResponseEntity.ok(calls.incrementAndGet()), k -> Optional.empty());
+        ResponseEntity<Integer> second = store.execute("movement", "k1", () -> ResponseEntity.ok(calls.incrementAndGet()), k -> Optional.empty());
+
+        assertSame(first, second);
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void testExecute_scopesAndMissingKeyAreIndependent() {
+        AtomicInteger calls = new AtomicInteger();
+
+        store.execute("movement", "k1", () -> ResponseEntity.ok(calls.incrementAndGet()), k -> Optional.empty());
+        store.execute("update", "k1", () -> ResponseEntity.ok(calls.incrementAndGet()), k -> Optional.empty());
+        store.execute("movement", null, () -> ResponseEntity.ok(calls.incrementAndGet()), k -> Optional.empty());
+        store.execute("movement", null, () -> ResponseEntity.ok(calls.incrementAndGet()), k -> Optional.empty());
+
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    void testExecute_failureIsNotRemembered() {
+        assertThrows(IllegalArgumentException.class, () -> store.execute("movement", "k1",
+                () -> { throw new IllegalArgumentException("No hay suficiente stock"); }, k -> Optional.empty()));
+
+        ResponseEntity<String> retry = store.execute("movement", "k1", () -> ResponseEntity.ok("applied"), k -> Optional.empty());
+
+        assertEquals("applied", retry.getBody());
+    }
+
+    @Test
+    void testExecute_concurrentDuplicateWaitsForOriginal() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ResponseEntity<Integer>> original = executor.submit(() -> store.execute("movement", "k1", () -> {
+                running.countDown();
+                await(release);
+                return ResponseEntity.ok(calls.incrementAndGet());
+            }, k -> Optional.empty()));
+            running.await();
+            Future<ResponseEntity<Integer>> duplicate = executor.submit(() ->
+                    store.execute("movement", "k1", () -> ResponseEntity.ok(calls.incrementAndGet()), k -> Optional.empty()));
+            release.countDown();
+
+            assertEquals(1, original.get().getBody());
+            assertEquals(1, duplicate.get().getBody());
+            assertEquals(1, calls.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void testExecute_recoversFromDurableStoreAfterRestart() {
+        // Otra instancia (reinicio): la clave no está en memoria y el INSERT choca con la columna única
+        ResponseEntity<String> response = store.execute("movement", "k1",
+                () -> { throw new DataIntegrityViolationException("duplicate idempotency_key"); },
+                k -> Optional.of(ResponseEntity.ok("original")));
+
+        assertEquals("original", response.getBody());
+    }
+
+    @Test
+    void testExecute_rejectsOversizedKey() {
+        assertThrows(InventoryException.class, () ->
+                store.execute("movement", "x".repeat(IdempotencyStore.MAX_KEY_LENGTH + 1), () -> ResponseEntity.ok(1), k -> Optional.empty()));
+    }
+
+    @Test
+    void testBloomFilter_noFalseNegativesAndBoundedFalsePositives() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) filter.put("key-" + i);
+
+        for (int i = 0; i < 10_000; i++) assertTrue(filter.mightContain("key-" + i));
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightContain("other-" + i)) falsePositives++;
+        }
+        assertTrue(falsePositives < 2_000, "false positives: " + falsePositives);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.mercadolibre.inventory_challenge.journal;
+
+import com.mercadolibre.inventory_challenge.Service.SplitCounterService;
+import com.mercadolibre.inventory_challenge.Service.StockKey;
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import com.mercadolibre.inventory_challenge.model.Inventory;
+import com.mercadolibre.inventory_challenge.repository.InventoryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class JournalCheckpointerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStart_restoresLatestSnapshotPlusJournalTail() throws Exception {
+        InventoryProperties properties = new InventoryProperties();
+        properties.getJournal().setDirectory(directory.toString());
+        InventoryRepository firstRun = mock(InventoryRepository.class);
+
+        // Primera ejecución: tabla vacía, movimientos, instantánea y más movimientos después de ella
+        MovementJournal journal = new MovementJournal(properties);
+        journal.start();
+        JournalCheckpointer checkpointer = new JournalCheckpointer(journal, firstRun, mock(SplitCounterService.class), mock(PlatformTransactionManager.class), properties);
+        checkpointer.start();
+        journal.append("SKU1", "Tienda1", "restock", 10);
+        journal.append("SKU2", "Tienda1", "restock", 4);
+        checkpointer.checkpoint();
+        journal.append("SKU1", "Tienda1", "sale", 3);
+        journal.appendSet("SKU2", "Tienda1", 20);
+        journal.stop();
+
+        // Reinicio con la base vacía: instantánea + cola del log
+        MovementJournal reopened = new MovementJournal(properties);
+        reopened.start();
+        InventoryRepository secondRun = mock(InventoryRepository.class);
+        new JournalCheckpointer(reopened, secondRun, mock(SplitCounterService.class), mock(PlatformTransactionManager.class), properties).start();
+
+        ArgumentCaptor<List<Inventory>> rows = ArgumentCaptor.forClass(List.class);
+        verify(secondRun).saveAll(rows.capture());
+        Map<String, Integer> quantities = rows.getValue().stream()
+                .collect(Collectors.toMap(Inventory::getSku, Inventory::getQuantity));
+        assertEquals(Map.of("SKU1", 7, "SKU2", 20), quantities);
+        verify(firstRun, never()).saveAll(anyList());
+        reopened.stop();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStart_keepsRowsTheDatabaseAlreadyHolds() throws Exception {
+        InventoryProperties properties = new InventoryProperties();
+        properties.getJournal().setDirectory(directory.toString());
+        MovementJournal journal = new MovementJournal(properties);
+        journal.start();
+        journal.append("SKU1", "Tienda1", "restock", 10);
+        journal.append("SKU2", "Tienda1", "restock", 4);
+
+        // La base confirmó una venta de SKU1 cuyo registro no llegó al log: su fila manda
+        InventoryRepository repository = mock(InventoryRepository.class);
+        Inventory committed = Inventory.builder().sku("SKU1").storeId("Tienda1").quantity(8).build();
+        when(repository.findAll()).thenReturn(List.of(committed));
+        new JournalCheckpointer(journal, repository, mock(SplitCounterService.class), mock(PlatformTransactionManager.class), properties).start();
+
+        ArgumentCaptor<List<Inventory>> rows = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAll(rows.capture());
+        assertEquals(List.of("SKU2"), rows.getValue().stream().map(Inventory::getSku).toList());
+        assertEquals(8, committed.getQuantity());
+        journal.stop();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStart_snapshotCountsStockHeldInSlices() throws Exception {
+        InventoryProperties properties = new InventoryProperties();
+        properties.getJournal().setDirectory(directory.toString());
+
+        // Clave dividida: la fila quedó en 0 y los slices tienen las 12 unidades
+        InventoryRepository firstRun = mock(InventoryRepository.class);
+        when(firstRun.findAll()).thenReturn(List.of(Inventory.builder().sku("SKU1").storeId("Tienda1").quantity(0).build()));
+        SplitCounterService splitCounters = mock(SplitCounterService.class);
+        when(splitCounters.sliceTotals(null)).thenReturn(Map.of(new StockKey("SKU1", "Tienda1"), 12L));
+        MovementJournal journal = new MovementJournal(properties);
+        journal.start();
+        new JournalCheckpointer(journal, firstRun, splitCounters, mock(PlatformTransactionManager.class), properties).start();
+        journal.append("SKU1", "Tienda1", "sale", 2);
+        journal.stop();
+
+        // Reinicio con la base vacía: la fila recreada lleva el total, no solo lo que tenía la fila
+        MovementJournal reopened = new MovementJournal(properties);
+        reopened.start();
+        InventoryRepository secondRun = mock(InventoryRepository.class);
+        new JournalCheckpointer(reopened, secondRun, mock(SplitCounterService.class), mock(PlatformTransactionManager.class), properties).start();
+
+        ArgumentCaptor<List<Inventory>> rows = ArgumentCaptor.forClass(List.class);
+        verify(secondRun).saveAll(rows.capture());
+        assertEquals(10, rows.getValue().get(0).getQuantity());
+        reopened.stop();
+    }
+}
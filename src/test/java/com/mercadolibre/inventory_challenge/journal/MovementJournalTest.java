@@ -0,0 +1,151 @@
+package com.mercadolibre.inventory_challenge.journal;
+
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import com.mercadolibre.inventory_challenge.model.StockMovement;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MovementJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testAppend_assignsSequentialIdsAndServesHistoryBySku() throws Exception {
+        MovementJournal journal = open(DataSize.ofKilobytes(64));
+        StockMovement first = journal.append("SKU1", "Tienda1", "sale", 2);
+        journal.append("SKU2", "Tienda1", "restock", 5);
+        journal.appendSet("SKU1", "Tienda1", 40);
+        StockMovement last = journal.append("SKU1", "Tienda2", "restock", 7);
+
+        List<StockMovement> history = journal.findBySku("SKU1");
+
+        assertEquals(1L, first.getId());
+        assertEquals(4L, last.getId());
+        assertEquals(2, history.size());
+        assertEquals("sale", history.get(0).getType());
+        assertEquals(2, history.get(0).getQuantity());
+        assertEquals("Tienda2", history.get(1).getStoreId());
+        assertEquals(List.of(), journal.findBySku("SKU9"));
+        journal.stop();
+    }
+
+    @Test
+    void testReopen_rebuildsIndexAcrossSegments() throws Exception {
+        // 4 registros por segmento: 10 movimientos ocupan 3 segmentos
+        MovementJournal journal = open(DataSize.ofBytes(4 * JournalRecord.SIZE));
+        for (int i = 0; i < 10; i++) {
+            journal.append(i % 2 == 0 ? "SKU1" : "SKU2", "Tienda1", "restock", i);
+        }
+        journal.stop();
+
+        MovementJournal reopened = open(DataSize.ofBytes(4 * JournalRecord.SIZE));
+        assertEquals(10, reopened.lastId());
+        assertTrue(Files.exists(directory.resolve("segment-00000002.log")));
+        assertEquals(List.of(0, 2, 4, 6, 8), reopened.findBySku("SKU1").stream().map(StockMovement::getQuantity).toList());
+
+        StockMovement next = reopened.append("SKU2", "Tienda1", "sale", 1);
+        assertEquals(11L, next.getId());
+        assertEquals(6, reopened.findBySku("SKU2").size());
+        reopened.stop();
+    }
+
+    @Test
+    void testForEach_replaysRecordsInRange() throws Exception {
+        MovementJournal journal = open(DataSize.ofKilobytes(64));
+        journal.append("SKU1", "Tienda1", "restock", 10);
+        journal.append("SKU1", "Tienda1", "sale", 3);
+        journal.appendSet("SKU1", "Tienda1", 50);
+        journal.append("SKU1", "Tienda1", "sale", 5);
+
+        List<JournalRecord> records = new ArrayList<>();
+        journal.forEach(1, 3, records::add);
+        int quantity = 0;
+        for (JournalRecord record : records) quantity = record.applyTo(quantity);
+
+        assertEquals(List.of(2L, 3L), records.stream().map(JournalRecord::id).toList());
+        assertEquals(50, quantity);
+        assertEquals("SKU1", journal.valueOf(records.get(0).skuId()));
+        journal.stop();
+    }
+
+    @Test
+    void testAppendAfterCommit_rollbackLeavesNoRecords() throws Exception {
+        MovementJournal journal = open(DataSize.ofKilobytes(64));
+        TransactionTemplate transaction = new TransactionTemplate(new LocalTransactionManager());
+
+        assertThrows(IllegalStateException.class, () -> transaction.executeWithoutResult(status -> {
+            journal.appendAfterCommit("SKU1", "Tienda1", "sale", 2);
+            journal.appendAllAfterCommit(List.of(StockMovement.builder().sku("SKU1").storeId("Tienda1").type("restock").quantity(5).build()));
+            journal.appendSetAfterCommit("SKU1", "Tienda1", 40);
+            throw new IllegalStateException("rollback");
+        }));
+        assertEquals(0, journal.lastId());
+        assertEquals(List.of(), journal.findBySku("SKU1"));
+
+        StockMovement committed = transaction.execute(status -> {
+            StockMovement movement = journal.appendAfterCommit("SKU1", "Tienda1", "sale", 3);
+            // Dentro de la transacción todavía no tiene posición en el log
+            assertNull(movement.getId());
+            return movement;
+        });
+        assertEquals(1L, committed.getId());
+        assertNotNull(committed.getTimestamp());
+        assertEquals(1, journal.lastId());
+        journal.stop();
+    }
+
+    @Test
+    void testAppendAfterCommit_failureIsNotPropagatedToTheCommittedCaller() throws Exception {
+        MovementJournal journal = open(DataSize.ofKilobytes(64));
+        TransactionTemplate transaction = new TransactionTemplate(new LocalTransactionManager());
+        // Con el diccionario cerrado no se puede registrar un sku nuevo
+        journal.stop();
+
+        StockMovement movement = assertDoesNotThrow(() -> transaction.execute(status ->
+                journal.appendAfterCommit("SKU-NEW", "Tienda1", "sale", 1)));
+        assertNull(movement.getId());
+        assertEquals(0, journal.lastId());
+    }
+
+    private MovementJournal open(DataSize segmentSize) throws Exception {
+        InventoryProperties properties = new InventoryProperties();
+        properties.getJournal().setDirectory(directory.toString());
+        properties.getJournal().setSegmentSize(segmentSize);
+        MovementJournal journal = new MovementJournal(properties);
+        journal.start();
+        return journal;
+    }
+
+    // Transacciones sin recurso: alcanza para ejercitar commit, rollback y sus sincronizaciones
+    private static class LocalTransactionManager extends AbstractPlatformTransactionManager {
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.mercadolibre.inventory_challenge.metrics;
+
+import com.mercadolibre.inventory_challenge.dto.ContentionEntry;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentionTrackerTest {
+
+    @Test
+    void testTopK_keepsMostContendedKeysInOrder() {
+        ContentionTracker tracker = new ContentionTracker(2, 1024);
+        record(tracker, "SKU1", "Tienda1", 5);
+        record(tracker, "SKU2", "Tienda1", 1);
+        record(tracker, "SKU3", "Tienda2", 3);
+
+        List<ContentionEntry> top = tracker.topK();
+
+        assertEquals(2, top.size());
+        assertEquals(new ContentionEntry("SKU1", "Tienda1", 5), top.get(0));
+        assertEquals(new ContentionEntry("SKU3", "Tienda2", 3), top.get(1));
+    }
+
+    @Test
+    void testReset_clearsCounts() {
+        ContentionTracker tracker = new ContentionTracker(4, 1024);
+        record(tracker, "SKU1", "Tienda1", 3);
+
+        tracker.reset();
+        record(tracker, "SKU1", "Tienda1", 1);
+
+        assertEquals(List.of(new ContentionEntry("SKU1", "Tienda1", 1)), tracker.topK());
+    }
+
+    @Test
+    void testRecord_doesNotAllocate() {
+        ContentionTracker tracker = new ContentionTracker(4, 1024);
+        String[] skus = {"SKU1", "SKU2", "SKU3", "SKU4", "SKU5", "SKU6"};
+        // Calentamiento para que el JIT compile el camino y los hashCode de los Strings queden cacheados
+        for (int i = 0; i < 200_000; i++) tracker.record(skus[i % skus.length], "Tienda1");
+
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 100_000; i++) tracker.record(skus[i % skus.length], "Tienda1");
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // Margen para la propia medición; cualquier objeto por llamada sumaría megabytes
+        assertTrue(allocated < 64 * 1024, "record allocated " + allocated + " bytes");
+    }
+
+    private static void record(ContentionTracker tracker, String sku, String storeId, int times) {
+        for (int i = 0; i < times; i++) tracker.record(sku, storeId);
+    }
+}
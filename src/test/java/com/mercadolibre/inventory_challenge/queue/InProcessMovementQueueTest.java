@@ -0,0 +1,153 @@
+package com.mercadolibre.inventory_challenge.queue;
+
+import com.mercadolibre.inventory_challenge.Service.InventoryService;
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import com.mercadolibre.inventory_challenge.dto.BatchMovementResult;
+import com.mercadolibre.inventory_challenge.dto.MovementStatus;
+import com.mercadolibre.inventory_challenge.dto.StockMovementRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class InProcessMovementQueueTest {
+
+    @Mock
+    private InventoryService inventoryService;
+
+    private InventoryProperties properties;
+    private MovementStatusStore statusStore;
+    private InProcessMovementQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        properties = new InventoryProperties();
+        properties.getAsync().setPartitions(2);
+        properties.getAsync().setCapacity(2);
+        statusStore = new MovementStatusStore(properties);
+        queue = new InProcessMovementQueue(inventoryService, statusStore, properties);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        queue.stop();
+    }
+
+    @Test
+    void testOffer_appliesMovementAndRecordsStatus() throws Exception {
+        when(inventoryService.registerMovements(anyList())).thenAnswer(i -> {
+            List<StockMovementRequest> requests = i.getArgument(0);
+            List<BatchMovementResult> results = new ArrayList<>();
+            for (int index = 0; index < requests.size(); index++) {
+                results.add(BatchMovementResult.builder().index(index).status(BatchMovementResult.APPLIED).movementId(40L + index).build());
+            }
+            return results;
+        });
+        queue.start();
+
+        assertTrue(queue.offer(new QueuedMovement("t1", request("SKU1"))));
+
+        MovementStatus status = awaitStatus("t1");
+        assertEquals(BatchMovementResult.APPLIED, status.getStatus());
+        assertEquals(40L, status.getMovementId());
+    }
+
+    @Test
+    void testOffer_rejectsWhenPartitionIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(inventoryService.registerMovements(anyList())).thenAnswer(i -> {
+            release.await(5, TimeUnit.SECONDS);
+            List<BatchMovementResult> results = new ArrayList<>();
+            for (int index = 0; index < i.<List<?>>getArgument(0).size(); index++) {
+                results.add(BatchMovementResult.builder().index(index).status(BatchMovementResult.APPLIED).build());
+            }
+            return results;
+        });
+        queue.start();
+
+        // El consumidor toma el primero y se bloquea; la partición (capacidad 2) se llena con los siguientes
+        int accepted = 0;
+        for (int i = 0; i < 10; i++) {
+            if (queue.offer(new QueuedMovement("t" + i, request("SKU1")))) accepted++;
+        }
+        release.countDown();
+
+        assertTrue(accepted < 10);
+        assertTrue(statusStore.get("t9").isEmpty());
+    }
+
+    @Test
+    void testFailedBatch_isRetriedThenRejected() throws Exception {
+        when(inventoryService.registerMovements(anyList())).thenThrow(new RuntimeException("DB down"));
+        queue.start();
+
+        queue.offer(new QueuedMovement("t1", request("SKU1")));
+
+        MovementStatus status = awaitStatus("t1");
+        assertEquals(BatchMovementResult.REJECTED, status.getStatus());
+        verify(inventoryService, times(3)).registerMovements(anyList());
+    }
+
+    @Test
+    void testPartiallyFailedBatch_resendsOnlyItemsWithoutResult() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        List<List<String>> calls = new ArrayList<>();
+        when(inventoryService.registerMovements(anyList())).thenAnswer(i -> {
+            List<StockMovementRequest> requests = i.getArgument(0);
+            if (calls.isEmpty()) release.await(5, TimeUnit.SECONDS);
+            calls.add(requests.stream().map(StockMovementRequest::getStoreId).toList());
+            boolean firstTry = calls.stream().filter(call -> call.contains("Tienda2")).count() == 1;
+            List<BatchMovementResult> results = new ArrayList<>();
+            for (int index = 0; index < requests.size(); index++) {
+                // El primer intento con Tienda2 revierte su shard; lo de Tienda1 queda confirmado
+                boolean shardFailed = firstTry && "Tienda2".equals(requests.get(index).getStoreId());
+                results.add(BatchMovementResult.builder()
+                        .index(index)
+                        .status(shardFailed ? BatchMovementResult.REJECTED : BatchMovementResult.APPLIED)
+                        .retryable(shardFailed)
+                        .build());
+            }
+            return results;
+        });
+        properties.getAsync().setPartitions(1);
+        queue = new InProcessMovementQueue(inventoryService, statusStore, properties);
+        queue.start();
+
+        // El consumidor se bloquea con t0 mientras t1 y t2 (misma partición) esperan para salir en un mismo lote
+        queue.offer(new QueuedMovement("t0", request("SKU1")));
+        Thread.sleep(200);
+        queue.offer(new QueuedMovement("t1", request("SKU1")));
+        queue.offer(new QueuedMovement("t2", StockMovementRequest.builder()
+                .sku("SKU1").storeId("Tienda2").type("sale").quantity(1).build()));
+        release.countDown();
+
+        assertEquals(BatchMovementResult.APPLIED, awaitStatus("t1").getStatus());
+        assertEquals(BatchMovementResult.APPLIED, awaitStatus("t2").getStatus());
+        assertEquals(List.of(List.of("Tienda1"), List.of("Tienda1", "Tienda2"), List.of("Tienda2")), calls);
+    }
+
+    private MovementStatus awaitStatus(String trackingId) throws InterruptedException {
+        for (int i = 0; i < 100; i++) {
+            MovementStatus status = statusStore.get(trackingId).orElseThrow();
+            if (!MovementStatus.PENDING.equals(status.getStatus())) return status;
+            Thread.sleep(20);
+        }
+        fail("Movement " + trackingId + " was not processed");
+        return null;
+    }
+
+    private static StockMovementRequest request(String sku) {
+        return StockMovementRequest.builder().sku(sku).storeId("Tienda1").type("sale").quantity(1).build();
+    }
+}
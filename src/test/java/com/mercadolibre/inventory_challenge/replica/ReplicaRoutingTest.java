@@ -0,0 +1,168 @@
+package com.mercadolibre.inventory_challenge.replica;
+
+import com.mercadolibre.inventory_challenge.Service.InventoryService;
+import com.mercadolibre.inventory_challenge.dto.ChangesResponse;
+import com.mercadolibre.inventory_challenge.model.Inventory;
+import com.mercadolibre.inventory_challenge.repository.InventoryRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * La réplica es otra base H2 sin replicación: cada prueba carga valores distintos en las dos bases
+ * para ver de cuál salió cada lectura.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:replica-test-primary;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=3",
+        "inventory.replica.enabled=true",
+        "inventory.replica.url=jdbc:h2:mem:replica-test-replica;DB_CLOSE_DELAY=-1",
+        "inventory.replica.maximum-pool-size=2",
+        "inventory.cache.enabled=false",
+        "inventory.history.rollup-enabled=false"
+})
+@AutoConfigureMockMvc
+class ReplicaRoutingTest {
+    private static final int PRIMARY_STOCK = 10;
+    private static final int REPLICA_STOCK = 99;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void seed() {
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("CREATE TABLE IF NOT EXISTS inventory (id BIGINT AUTO_INCREMENT PRIMARY KEY, sku VARCHAR(255) NOT NULL, "
+                + "store_id VARCHAR(255) NOT NULL, quantity INT, version BIGINT, change_seq BIGINT NOT NULL DEFAULT 0)");
+        inventoryRepository.save(Inventory.builder().sku("SKU1").storeId("Tienda1").quantity(PRIMARY_STOCK).build());
+        replica.update("INSERT INTO inventory (sku, store_id, quantity, version) VALUES ('SKU1', 'Tienda1', ?, 0)", REPLICA_STOCK);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        inventoryRepository.deleteAllInBatch();
+        replica.update("DELETE FROM inventory");
+    }
+
+    @Test
+    void testReadOnlyQueries_useReplica() {
+        assertEquals(REPLICA_STOCK, inventoryService.getInventoryBySku("SKU1").get(0).getQuantity());
+        assertEquals(REPLICA_STOCK, inventoryService.getAllInventory().get(0).getQuantity());
+        assertEquals(REPLICA_STOCK, inventoryService.getInventoryPage(null, "Tienda1", null, 10).get(0).getQuantity());
+    }
+
+    @Test
+    void testWrites_goToPrimary() {
+        inventoryService.updateStock("SKU1", "Tienda1", 5);
+
+        assertEquals(5, new JdbcTemplate(primaryDataSource).queryForObject(
+                "SELECT quantity FROM inventory WHERE sku = 'SKU1'", Integer.class));
+        assertEquals(REPLICA_STOCK, replica.queryForObject("SELECT quantity FROM inventory WHERE sku = 'SKU1'", Integer.class));
+    }
+
+    @Test
+    void testOnPrimary_overridesReadOnlyRouting() {
+        assertEquals(PRIMARY_STOCK, ReadRouting.onPrimary(() -> inventoryService.getAllInventory()).get(0).getQuantity());
+    }
+
+    @Test
+    void testChangesFeed_readsPrimary() {
+        String cursor = inventoryService.getChanges(null, null, 10).getCursor();
+        inventoryService.updateStock("SKU1", "Tienda1", 7);
+
+        ChangesResponse changes = inventoryService.getChanges(cursor, null, 10);
+
+        assertEquals(1, changes.getChanges().size());
+        assertEquals(7, changes.getChanges().get(0).getQuantity());
+    }
+
+    @Test
+    void testReadYourWritesHeader_routesRequestToPrimary() throws Exception {
+        mockMvc.perform(get("/inventory/SKU1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].quantity", is(REPLICA_STOCK)));
+
+        mockMvc.perform(get("/inventory/SKU1").header(ReadYourWritesFilter.HEADER, "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].quantity", is(PRIMARY_STOCK)));
+    }
+
+    @Test
+    void testReadThenWriteInOneRequest_writeGoesToPrimary() throws Exception {
+        // La lectura sale de la réplica (99); la escritura siguiente del mismo request no puede quedar en esa conexión
+        mockMvc.perform(post("/test/read-then-write"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(String.valueOf(REPLICA_STOCK + 1)));
+
+        assertEquals(REPLICA_STOCK + 1, new JdbcTemplate(primaryDataSource).queryForObject(
+                "SELECT quantity FROM inventory WHERE sku = 'SKU1'", Integer.class));
+        assertEquals(REPLICA_STOCK, replica.queryForObject("SELECT quantity FROM inventory WHERE sku = 'SKU1'", Integer.class));
+    }
+
+    @Test
+    void testPools_areSizedIndependently() {
+        assertEquals(3, primaryDataSource.getMaximumPoolSize());
+        assertEquals(2, replicaDataSource.getMaximumPoolSize());
+        assertTrue(replicaDataSource.isReadOnly());
+    }
+
+    @TestConfiguration
+    static class ReadThenWriteConfiguration {
+        @Bean
+        ReadThenWriteController readThenWriteController(InventoryService inventoryService) {
+            return new ReadThenWriteController(inventoryService);
+        }
+    }
+
+    // Una lectura de solo lectura seguida de una escritura y una lectura del primario, en el mismo request
+    @RestController
+    static class ReadThenWriteController {
+        private final InventoryService inventoryService;
+
+        ReadThenWriteController(InventoryService inventoryService) {
+            this.inventoryService = inventoryService;
+        }
+
+        @PostMapping("/test/read-then-write")
+        int readThenWrite() {
+            int read = inventoryService.getInventoryBySku("SKU1").get(0).getQuantity();
+            inventoryService.updateStock("SKU1", "Tienda1", read + 1);
+            return ReadRouting.onPrimary(() -> inventoryService.getAllInventory()).get(0).getQuantity();
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.mercadolibre.inventory_challenge.repository;
+
+import com.mercadolibre.inventory_challenge.model.Inventory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class InventoryRepositoryTest {
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Test
+    void testFindBySkuAndStoreId() {
+        inventoryRepository.save(Inventory.builder().sku("SKU1").storeId("Tienda1").quantity(4).build());
+        inventoryRepository.save(Inventory.builder().sku("SKU1").storeId("Tienda2").quantity(6).build());
+
+        Optional<Inventory> result = inventoryRepository.findBySkuAndStoreId("SKU1", "Tienda2");
+
+        assertTrue(result.isPresent());
+        assertEquals(6, result.get().getQuantity());
+    }
+
+    @Test
+    void testUniqueSkuAndStoreId() {
+        inventoryRepository.saveAndFlush(Inventory.builder().sku("SKU1").storeId("Tienda1").quantity(4).build());
+
+        assertThrows(DataIntegrityViolationException.class, () ->
+                inventoryRepository.saveAndFlush(Inventory.builder().sku("SKU1").storeId("Tienda1").quantity(9).build()));
+    }
+
+    @Test
+    void testDecrementStock_onlyWhenEnoughStock() {
+        inventoryRepository.saveAndFlush(Inventory.builder().sku("SKU1").storeId("Tienda1").quantity(5).build());
+
+        assertEquals(1, inventoryRepository.decrementStock("SKU1", "Tienda1", 3, 1L));
+        assertEquals(0, inventoryRepository.decrementStock("SKU1", "Tienda1", 3, 1L));
+
+        Inventory result = inventoryRepository.findBySkuAndStoreId("SKU1", "Tienda1").orElseThrow();
+        assertEquals(2, result.getQuantity());
+        assertEquals(1L, result.getVersion());
+    }
+
+    @Test
+    void testKeysetPagination() {
+        for (int i = 0; i < 5; i++) {
+            inventoryRepository.save(Inventory.builder().sku("SKU" + i).storeId(i % 2 == 0 ? "Tienda1" : "Tienda2").quantity(i).build());
+        }
+
+        List<Inventory> first = inventoryRepository.findByStoreIdAndIdGreaterThanOrderByIdAsc("Tienda1", 0L, Limit.of(2));
+        List<Inventory> second = inventoryRepository.findByStoreIdAndIdGreaterThanOrderByIdAsc(
+                "Tienda1", first.get(1).getId(), Limit.of(2));
+
+        assertEquals(List.of("SKU0", "SKU2"), first.stream().map(Inventory::getSku).toList());
+        assertEquals(List.of("SKU4"), second.stream().map(Inventory::getSku).toList());
+    }
+
+    @Test
+    void testStreamAll_withFilters() {
+        inventoryRepository.save(Inventory.builder().sku("SKU1").storeId("Tienda1").quantity(1).build());
+        inventoryRepository.save(Inventory.builder().sku("SKU2").storeId("Tienda1").quantity(2).build());
+        inventoryRepository.save(Inventory.builder().sku("SKU1").storeId("Tienda2").quantity(3).build());
+
+        try (Stream<Inventory> all = inventoryRepository.streamAll(null, null);
+             Stream<Inventory> store = inventoryRepository.streamAll("Tienda1", null)) {
+            assertEquals(3, all.count());
+            assertEquals(List.of("SKU1", "SKU2"), store.map(Inventory::getSku).toList());
+        }
+    }
+
+    @Test
+    void testChangesByStore_returnsRangeInChangeOrder() {
+        inventoryRepository.save(Inventory.builder().sku("SKU1").storeId("Tienda1").quantity(1).changeSeq(3).build());
+        inventoryRepository.save(Inventory.builder().sku("SKU2").storeId("Tienda1").quantity(2).changeSeq(1).build());
+        inventoryRepository.save(Inventory.builder().sku("SKU3").storeId("Tienda2").quantity(3).changeSeq(2).build());
+        inventoryRepository.save(Inventory.builder().sku("SKU4").storeId("Tienda1").quantity(4).changeSeq(5).build());
+
+        List<Inventory> changes = inventoryRepository.findByStoreIdAndChangeSeqGreaterThanAndChangeSeqLessThanEqualOrderByChangeSeqAsc(
+                "Tienda1", 0L, 4L, Limit.of(10));
+
+        assertEquals(List.of("SKU2", "SKU1"), changes.stream().map(Inventory::getSku).toList());
+        assertEquals(5L, inventoryRepository.maxChangeSeq());
+    }
+
+    @Test
+    void testLockForOrder_returnsStoreRowsInSkuOrder() {
+        inventoryRepository.save(Inventory.builder().sku("SKU3").storeId("Tienda1").quantity(3).build());
+        inventoryRepository.save(Inventory.builder().sku("SKU1").storeId("Tienda1").quantity(1).build());
+        inventoryRepository.save(Inventory.builder().sku("SKU2").storeId("Tienda2").quantity(2).build());
+        inventoryRepository.save(Inventory.builder().sku("SKU2").storeId("Tienda1").quantity(2).build());
+
+        List<Inventory> locked = inventoryRepository.lockForOrder("Tienda1", List.of("SKU3", "SKU2", "SKU1", "SKU9"));
+
+        assertEquals(List.of("SKU1", "SKU2", "SKU3"), locked.stream().map(Inventory::getSku).toList());
+        assertTrue(locked.stream().allMatch(inventory -> "Tienda1".equals(inventory.getStoreId())));
+    }
+}
@@ -0,0 +1,250 @@
+package com.mercadolibre.inventory_challenge.reservation;
+
+import com.mercadolibre.inventory_challenge.Service.InventoryService;
+import com.mercadolibre.inventory_challenge.bulk.BulkFormat;
+import com.mercadolibre.inventory_challenge.bulk.InventoryBulkImporter;
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import com.mercadolibre.inventory_challenge.dto.BatchMovementResult;
+import com.mercadolibre.inventory_challenge.dto.BulkImportResult;
+import com.mercadolibre.inventory_challenge.dto.OrderLine;
+import com.mercadolibre.inventory_challenge.dto.ReservationResponse;
+import com.mercadolibre.inventory_challenge.dto.StockMovementRequest;
+import com.mercadolibre.inventory_challenge.exception.InsufficientStockException;
+import com.mercadolibre.inventory_challenge.exception.ReservationNotFoundException;
+import com.mercadolibre.inventory_challenge.model.Inventory;
+import com.mercadolibre.inventory_challenge.model.StockMovement;
+import com.mercadolibre.inventory_challenge.model.StockReservation;
+import com.mercadolibre.inventory_challenge.repository.InventoryRepository;
+import com.mercadolibre.inventory_challenge.repository.StockMovementRepository;
+import com.mercadolibre.inventory_challenge.repository.StockReservationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reservation-test;DB_CLOSE_DELAY=-1",
+        "inventory.reservations.enabled=true",
+        "inventory.reservations.tick=10ms",
+        "inventory.reservations.max-ttl=10m",
+        "inventory.history.rollup-enabled=false"
+})
+@AutoConfigureMockMvc
+class ReservationServiceTest {
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private ReservationHolds holds;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private StockReservationRepository reservationRepository;
+
+    @Autowired
+    private InventoryProperties inventoryProperties;
+
+    @Autowired
+    private InventoryBulkImporter bulkImporter;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        inventoryRepository.save(Inventory.builder().sku("SKU1").storeId("Tienda1").quantity(10).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        reservationRepository.findAll().forEach(reservation -> {
+            try {
+                reservationService.cancel(reservation.getId());
+            } catch (ReservationNotFoundException ignored) {
+                // ya vencida
+            }
+        });
+        reservationRepository.deleteAllInBatch();
+        stockMovementRepository.deleteAllInBatch();
+        inventoryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testReserve_salesCannotTakeReservedUnits() {
+        reservationService.reserve("SKU1", "Tienda1", 7, 60);
+
+        assertThrows(InsufficientStockException.class, () ->
+                inventoryService.registerMovement("SKU1", "Tienda1", "sale", 4));
+        inventoryService.registerMovement("SKU1", "Tienda1", "sale", 3);
+        assertThrows(InsufficientStockException.class, () -> reservationService.reserve("SKU1", "Tienda1", 1, 60));
+
+        List<BatchMovementResult> batch = inventoryService.registerMovements(List.of(
+                StockMovementRequest.builder().sku("SKU1").storeId("Tienda1").type("restock").quantity(2).build(),
+                StockMovementRequest.builder().sku("SKU1").storeId("Tienda1").type("sale").quantity(3).build()));
+        assertEquals(BatchMovementResult.APPLIED, batch.get(0).getStatus());
+        assertEquals(BatchMovementResult.REJECTED, batch.get(1).getStatus());
+        assertEquals(9, quantity());
+    }
+
+    @Test
+    void testOrder_isAllOrNothingAndRespectsReservedUnits() {
+        inventoryRepository.save(Inventory.builder().sku("SKU2").storeId("Tienda1").quantity(5).build());
+        reservationService.reserve("SKU2", "Tienda1", 4, 60);
+
+        assertThrows(InsufficientStockException.class, () -> inventoryService.registerOrder("Tienda1", List.of(
+                OrderLine.builder().sku("SKU1").quantity(6).build(),
+                OrderLine.builder().sku("SKU2").quantity(2).build())));
+        assertEquals(10, quantity());
+        assertEquals(0, stockMovementRepository.count());
+
+        List<StockMovement> movements = inventoryService.registerOrder("Tienda1", List.of(
+                OrderLine.builder().sku("SKU2").quantity(1).build(),
+                OrderLine.builder().sku("SKU1").quantity(6).build()));
+        assertEquals(List.of("SKU1", "SKU2"), movements.stream().map(StockMovement::getSku).toList());
+        assertEquals(4, quantity());
+        assertEquals(4, inventoryService.getCurrentQuantity("SKU2", "Tienda1").orElseThrow());
+        assertEquals(2, stockMovementRepository.count());
+    }
+
+    @Test
+    void testBulkImport_rejectsRowsBelowReservedUnits() throws Exception {
+        inventoryRepository.save(Inventory.builder().sku("SKU2").storeId("Tienda1").quantity(5).build());
+        reservationService.reserve("SKU1", "Tienda1", 6, 60);
+        String csv = """
+                sku,storeId,quantity
+                SKU1,Tienda1,4
+                SKU2,Tienda1,1
+                """;
+
+        BulkImportResult result = bulkImporter.importInventory(
+                new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), BulkFormat.CSV);
+
+        assertEquals(1, result.getApplied());
+        assertEquals(1, result.getRejected());
+        assertEquals(2, result.getErrors().get(0).getLine());
+        assertEquals(10, quantity());
+        assertEquals(1, inventoryService.getCurrentQuantity("SKU2", "Tienda1").orElseThrow());
+    }
+
+    @Test
+    void testConfirm_turnsReservationIntoSale() {
+        ReservationResponse reservation = reservationService.reserve("SKU1", "Tienda1", 4, 60);
+
+        StockMovement sale = reservationService.confirm(reservation.getId());
+
+        assertEquals("sale", sale.getType());
+        assertEquals(4, sale.getQuantity());
+        assertEquals(6, quantity());
+        assertEquals(0, holds.held("SKU1", "Tienda1"));
+        assertFalse(reservationRepository.existsById(reservation.getId()));
+        assertThrows(ReservationNotFoundException.class, () -> reservationService.confirm(reservation.getId()));
+    }
+
+    @Test
+    void testConfirm_failedSaleKeepsReservation() {
+        ReservationResponse reservation = reservationService.reserve("SKU1", "Tienda1", 4, 60);
+        inventoryService.updateStock("SKU1", "Tienda1", 2);
+
+        assertThrows(InsufficientStockException.class, () -> reservationService.confirm(reservation.getId()));
+
+        assertTrue(reservationService.get(reservation.getId()).isPresent());
+        assertEquals(4, holds.held("SKU1", "Tienda1"));
+        assertTrue(reservationRepository.existsById(reservation.getId()));
+    }
+
+    @Test
+    void testCancelAndExpiry_releaseReservedUnits() throws InterruptedException {
+        ReservationResponse cancelled = reservationService.reserve("SKU1", "Tienda1", 5, 60);
+        ReservationResponse expiring = reservationService.reserve("SKU1", "Tienda1", 5, 1);
+
+        reservationService.cancel(cancelled.getId());
+        assertEquals(5, holds.held("SKU1", "Tienda1"));
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        // El tick libera la reserva en memoria y después borra su fila
+        while ((reservationService.get(expiring.getId()).isPresent() || reservationRepository.existsById(expiring.getId()))
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(reservationService.get(expiring.getId()).isEmpty());
+        assertEquals(0, holds.held("SKU1", "Tienda1"));
+        assertFalse(reservationRepository.existsById(expiring.getId()));
+        inventoryService.registerMovement("SKU1", "Tienda1", "sale", 10);
+    }
+
+    @Test
+    void testStart_restoresPersistedReservations() throws InterruptedException {
+        long now = System.currentTimeMillis();
+        StockReservation live = reservationRepository.save(StockReservation.builder()
+                .sku("SKU1").storeId("Tienda1").quantity(3).expiresAt(now + 60_000).build());
+        StockReservation stale = reservationRepository.save(StockReservation.builder()
+                .sku("SKU1").storeId("Tienda1").quantity(2).expiresAt(now - 1).build());
+        ReservationHolds restoredHolds = new ReservationHolds();
+        ReservationService restarted = new ReservationService(inventoryService, reservationRepository, restoredHolds,
+                inventoryProperties);
+
+        restarted.start();
+        try {
+            assertEquals(1, restarted.activeCount());
+            assertTrue(restarted.get(live.getId()).isPresent());
+            assertEquals(3, restoredHolds.held("SKU1", "Tienda1"));
+            assertFalse(reservationRepository.existsById(stale.getId()));
+        } finally {
+            restarted.stop();
+        }
+    }
+
+    @Test
+    void testEndpoints() throws Exception {
+        String location = mockMvc.perform(post("/inventory/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"sku\":\"SKU1\",\"storeId\":\"Tienda1\",\"quantity\":2,\"ttlSeconds\":30}"))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.quantity", is(2)))
+                .andReturn().getResponse().getHeader("Location");
+
+        mockMvc.perform(post(location + "/confirm"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.type", is("sale")));
+        mockMvc.perform(delete(location))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(post("/inventory/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"sku\":\"SKU1\",\"storeId\":\"Tienda1\",\"quantity\":2,\"ttlSeconds\":3600}"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/inventory/reservations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"sku\":\"SKU1\",\"storeId\":\"Tienda1\",\"quantity\":20,\"ttlSeconds\":30}"))
+                .andExpect(status().isConflict())
+                .andExpect(header().doesNotExist("Location"));
+    }
+
+    private int quantity() {
+        return inventoryService.getCurrentQuantity("SKU1", "Tienda1").orElseThrow();
+    }
+}
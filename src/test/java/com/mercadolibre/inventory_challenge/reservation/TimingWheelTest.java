@@ -0,0 +1,59 @@
+package com.mercadolibre.inventory_challenge.reservation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimingWheelTest {
+    private static final long TICK = 10;
+
+    @Test
+    void testAdvance_expiresEachTimeoutWithinOneTickOfItsDeadline() {
+        long start = 1_000_000;
+        TimingWheel<TimingWheel.Timeout> wheel = new TimingWheel<>(TICK, 3, start);
+        List<TimingWheel.Timeout> timeouts = new ArrayList<>();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        // Plazos en los tres niveles y más allá del alcance (64^3 ticks)
+        for (int i = 0; i < 20_000; i++) {
+            TimingWheel.Timeout timeout = new TimingWheel.Timeout(start + random.nextLong(1, 64L * 64 * 64 * TICK * 2));
+            timeouts.add(timeout);
+            wheel.schedule(timeout);
+        }
+
+        int expired = 0;
+        for (long now = start; expired < timeouts.size(); now += TICK * 37) {
+            for (TimingWheel.Timeout timeout : wheel.advance(now)) {
+                assertTrue(timeout.deadline <= now, "expired early");
+                assertTrue(timeout.deadline > now - TICK * 38, "expired late: deadline " + (timeout.deadline - start) / TICK + " now " + (now - start) / TICK);
+                expired++;
+            }
+        }
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void testCancel_removesTimeoutBeforeItExpires() {
+        TimingWheel<TimingWheel.Timeout> wheel = new TimingWheel<>(TICK, 2, 0);
+        TimingWheel.Timeout kept = new TimingWheel.Timeout(500);
+        TimingWheel.Timeout cancelled = new TimingWheel.Timeout(500);
+        wheel.schedule(kept);
+        wheel.schedule(cancelled);
+
+        assertTrue(wheel.cancel(cancelled));
+        assertFalse(wheel.cancel(cancelled));
+        assertTrue(wheel.advance(490).isEmpty());
+        assertEquals(List.of(kept), wheel.advance(500));
+        assertFalse(wheel.cancel(kept));
+    }
+
+    @Test
+    void testLevelsFor_coversTheSpan() {
+        assertEquals(1, TimingWheel.levelsFor(100, 5_000));
+        assertEquals(2, TimingWheel.levelsFor(100, 60_000));
+        assertEquals(3, TimingWheel.levelsFor(100, 3_600_000));
+    }
+}
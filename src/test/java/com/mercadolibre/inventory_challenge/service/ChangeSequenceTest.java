@@ -0,0 +1,124 @@
+package com.mercadolibre.inventory_challenge.service;
+
+import com.mercadolibre.inventory_challenge.Service.ChangeSequence;
+import com.mercadolibre.inventory_challenge.model.ChangeSequenceEpoch;
+import com.mercadolibre.inventory_challenge.repository.ChangeSequenceEpochRepository;
+import com.mercadolibre.inventory_challenge.repository.InventoryRepository;
+import com.mercadolibre.inventory_challenge.repository.InventorySliceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ChangeSequenceTest {
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testLoad_continuesFromPersistedMaximum() {
+        InventoryRepository inventoryRepository = mock(InventoryRepository.class);
+        InventorySliceRepository sliceRepository = mock(InventorySliceRepository.class);
+        when(inventoryRepository.maxChangeSeq()).thenReturn(40L);
+        when(sliceRepository.maxChangeSeq()).thenReturn(42L);
+        ChangeSequence sequence = new ChangeSequence(inventoryRepository, sliceRepository, storedEpoch(7L));
+
+        sequence.load();
+
+        assertEquals(42, sequence.watermark());
+        assertEquals(43, sequence.next());
+    }
+
+    @Test
+    void testLoad_keepsTheStoredEpochAcrossRestarts() {
+        ChangeSequenceEpochRepository epochRepository = storedEpoch(7L);
+        ChangeSequence sequence = new ChangeSequence(mock(InventoryRepository.class), mock(InventorySliceRepository.class), epochRepository);
+
+        sequence.load();
+
+        assertEquals(7L, sequence.epoch());
+        verify(epochRepository, never()).save(any());
+    }
+
+    @Test
+    void testLoad_newDatabaseStartsANewEpoch() {
+        ChangeSequenceEpochRepository epochRepository = mock(ChangeSequenceEpochRepository.class);
+        when(epochRepository.findById(ChangeSequenceEpoch.SINGLETON_ID)).thenReturn(Optional.empty());
+        when(epochRepository.save(any())).thenAnswer(i -> i.getArgument(0));
+        ChangeSequence sequence = new ChangeSequence(mock(InventoryRepository.class), mock(InventorySliceRepository.class), epochRepository);
+        long before = System.currentTimeMillis();
+
+        sequence.load();
+
+        assertTrue(sequence.epoch() >= before);
+        verify(epochRepository).save(any());
+    }
+
+    @Test
+    void testWatermark_staysBelowOldestUncommittedChange() {
+        ChangeSequence sequence = new ChangeSequence(mock(InventoryRepository.class), mock(InventorySliceRepository.class),
+                mock(ChangeSequenceEpochRepository.class));
+        TransactionSynchronizationManager.initSynchronization();
+        sequence.next();
+        List<TransactionSynchronization> slow = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        long fast = sequence.next();
+
+        // El cambio 2 ya es visible, pero el 1 sigue en curso: el feed no debe avanzar más allá de 0
+        assertEquals(0, sequence.watermark());
+
+        slow.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertEquals(fast, sequence.watermark());
+    }
+
+    @Test
+    void testNext_completesAfterTransaction() {
+        ChangeSequence sequence = new ChangeSequence(mock(InventoryRepository.class), mock(InventorySliceRepository.class),
+                mock(ChangeSequenceEpochRepository.class));
+        TransactionSynchronizationManager.initSynchronization();
+        long seq = sequence.next();
+        assertEquals(seq - 1, sequence.watermark());
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+        }
+        assertEquals(seq, sequence.watermark());
+    }
+
+    @Test
+    void testNextBlock_holdsWatermarkUntilTransactionCompletes() {
+        ChangeSequence sequence = new ChangeSequence(mock(InventoryRepository.class), mock(InventorySliceRepository.class),
+                mock(ChangeSequenceEpochRepository.class));
+        TransactionSynchronizationManager.initSynchronization();
+        long first = sequence.nextBlock(100);
+        assertEquals(first - 1, sequence.watermark());
+        assertEquals(first + 100, sequence.next());
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        assertEquals(first + 100, sequence.watermark());
+    }
+
+    private static ChangeSequenceEpochRepository storedEpoch(long epoch) {
+        ChangeSequenceEpochRepository epochRepository = mock(ChangeSequenceEpochRepository.class);
+        when(epochRepository.findById(ChangeSequenceEpoch.SINGLETON_ID))
+                .thenReturn(Optional.of(ChangeSequenceEpoch.builder().id(ChangeSequenceEpoch.SINGLETON_ID).epoch(epoch).build()));
+        return epochRepository;
+    }
+}
@@ -0,0 +1,78 @@
+package com.mercadolibre.inventory_challenge.service;
+
+import com.mercadolibre.inventory_challenge.Service.InventoryService;
+import com.mercadolibre.inventory_challenge.dto.OrderLine;
+import com.mercadolibre.inventory_challenge.exception.InsufficientStockException;
+import com.mercadolibre.inventory_challenge.model.Inventory;
+import com.mercadolibre.inventory_challenge.model.StockMovement;
+import com.mercadolibre.inventory_challenge.repository.InventoryRepository;
+import com.mercadolibre.inventory_challenge.repository.InventorySliceRepository;
+import com.mercadolibre.inventory_challenge.repository.StockMovementRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "spring.datasource.url=jdbc:h2:mem:hot-key-order-test;DB_CLOSE_DELAY=-1",
+        "inventory.hot-keys.enabled=true",
+        "inventory.hot-keys.skus=PROMO"
+})
+class HotKeyOrderTest {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private InventorySliceRepository sliceRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @BeforeEach
+    void setUp() {
+        inventoryRepository.save(Inventory.builder().sku("PROMO").storeId("Tienda1").quantity(20).build());
+        inventoryRepository.save(Inventory.builder().sku("SKU1").storeId("Tienda1").quantity(10).build());
+        inventoryRepository.save(Inventory.builder().sku("SKU2").storeId("Tienda1").quantity(5).build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        stockMovementRepository.deleteAllInBatch();
+        sliceRepository.deleteAllInBatch();
+        inventoryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testRegisterOrder_mixedHotAndNormalSkusDecrementsEveryLine() {
+        List<StockMovement> movements = inventoryService.registerOrder("Tienda1", List.of(
+                OrderLine.builder().sku("SKU1").quantity(4).build(),
+                OrderLine.builder().sku("PROMO").quantity(3).build(),
+                OrderLine.builder().sku("SKU2").quantity(2).build()));
+
+        assertEquals(3, movements.size());
+        assertEquals(17, inventoryService.getCurrentQuantity("PROMO", "Tienda1").orElseThrow());
+        assertEquals(6, inventoryService.getCurrentQuantity("SKU1", "Tienda1").orElseThrow());
+        assertEquals(3, inventoryService.getCurrentQuantity("SKU2", "Tienda1").orElseThrow());
+        assertEquals(3, stockMovementRepository.count());
+    }
+
+    @Test
+    void testRegisterOrder_hotSkuWithoutStockRollsBackNormalLines() {
+        assertThrows(InsufficientStockException.class, () -> inventoryService.registerOrder("Tienda1", List.of(
+                OrderLine.builder().sku("SKU1").quantity(4).build(),
+                OrderLine.builder().sku("PROMO").quantity(30).build())));
+
+        assertEquals(20, inventoryService.getCurrentQuantity("PROMO", "Tienda1").orElseThrow());
+        assertEquals(10, inventoryService.getCurrentQuantity("SKU1", "Tienda1").orElseThrow());
+        assertEquals(0, stockMovementRepository.count());
+    }
+}
@@ -0,0 +1,189 @@
+package com.mercadolibre.inventory_challenge.service;
+
+import com.mercadolibre.inventory_challenge.Service.ChangeSequence;
+import com.mercadolibre.inventory_challenge.Service.InMemoryStockEngine;
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import com.mercadolibre.inventory_challenge.dictionary.KeyDictionary;
+import com.mercadolibre.inventory_challenge.exception.InsufficientStockException;
+import com.mercadolibre.inventory_challenge.exception.InventoryException;
+import com.mercadolibre.inventory_challenge.model.Inventory;
+import com.mercadolibre.inventory_challenge.model.StockMovement;
+import com.mercadolibre.inventory_challenge.repository.ChangeSequenceEpochRepository;
+import com.mercadolibre.inventory_challenge.repository.InventoryRepository;
+import com.mercadolibre.inventory_challenge.repository.InventorySliceRepository;
+import com.mercadolibre.inventory_challenge.repository.ProductRepository;
+import com.mercadolibre.inventory_challenge.repository.StockMovementRepository;
+import com.mercadolibre.inventory_challenge.repository.StoreRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class InMemoryStockEngineTest {
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private StockMovementRepository stockMovementRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private StoreRepository storeRepository;
+
+    private InMemoryStockEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        InventoryProperties properties = new InventoryProperties();
+        properties.getEngine().getMemory().setFlushInterval(Duration.ofHours(1));
+        when(inventoryRepository.findAll()).thenReturn(List.of(
+                Inventory.builder().id(1L).sku("SKU1").storeId("Tienda1").quantity(10).build(),
+                Inventory.builder().id(2L).sku("SKU1").storeId("Tienda2").quantity(3).build()));
+        engine = new InMemoryStockEngine(inventoryRepository, stockMovementRepository, transactionManager,
+                new ChangeSequence(inventoryRepository, mock(InventorySliceRepository.class), mock(ChangeSequenceEpochRepository.class)), properties,
+                new KeyDictionary(productRepository, storeRepository));
+        engine.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        engine.stop();
+    }
+
+    @Test
+    void testLoadsStateFromRepository() {
+        List<Inventory> result = engine.getInventoryBySku("SKU1");
+
+        assertEquals(2, result.size());
+        assertEquals(13, result.stream().mapToInt(Inventory::getQuantity).sum());
+    }
+
+    @Test
+    void testRegisterMovement_updatesCounterWithoutTouchingRepository() {
+        engine.registerMovement("SKU1", "Tienda1", "sale", 4);
+        engine.registerMovement("SKU1", "Tienda1", "restock", 1);
+
+        assertEquals(7, quantity("SKU1", "Tienda1"));
+        verify(inventoryRepository, never()).setStock(anyString(), anyString(), anyInt(), anyLong());
+        verify(stockMovementRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void testRegisterMovement_insufficientStock() {
+        InsufficientStockException ex = assertThrows(InsufficientStockException.class, () ->
+                engine.registerMovement("SKU1", "Tienda2", "sale", 4));
+        assertEquals("No hay suficiente stock", ex.getMessage());
+        assertEquals(3, quantity("SKU1", "Tienda2"));
+    }
+
+    @Test
+    void testRegisterOrder_appliesAllLinesOrNone() {
+        when(inventoryRepository.save(any(Inventory.class))).thenAnswer(i -> i.getArgument(0));
+        engine.registerMovement("SKU2", "Tienda1", "restock", 2);
+
+        assertThrows(InsufficientStockException.class, () ->
+                engine.registerOrder("Tienda1", new TreeMap<>(Map.of("SKU1", 4, "SKU2", 3))));
+        assertThrows(InsufficientStockException.class, () ->
+                engine.registerOrder("Tienda1", new TreeMap<>(Map.of("SKU1", 4, "SKU_X", 1))));
+        assertEquals(10, quantity("SKU1", "Tienda1"));
+
+        List<StockMovement> movements = engine.registerOrder("Tienda1", new TreeMap<>(Map.of("SKU1", 4, "SKU2", 2)));
+
+        assertEquals(List.of("SKU1", "SKU2"), movements.stream().map(StockMovement::getSku).toList());
+        assertEquals(6, quantity("SKU1", "Tienda1"));
+        assertEquals(0, quantity("SKU2", "Tienda1"));
+    }
+
+    @Test
+    void testUpdateStock_inventoryNotFound() {
+        assertThrows(InventoryException.class, () -> engine.updateStock("SKU_X", "Tienda_X", 5));
+    }
+
+    @Test
+    void testDictionary_internsNewKeysOnlyOnWrites() {
+        assertThrows(InventoryException.class, () -> engine.updateStock("SKU_X", "Tienda1", 5));
+        assertTrue(engine.getInventoryBySku("SKU_X").isEmpty());
+        verify(productRepository, never()).save(argThat(product -> product.getSku().equals("SKU_X")));
+
+        when(inventoryRepository.save(any(Inventory.class))).thenAnswer(i -> i.getArgument(0));
+        engine.registerMovement("SKU_X", "Tienda3", "restock", 2);
+
+        // El alta no toma conexión: se persiste con el próximo flush
+        verifyNoInteractions(storeRepository);
+        engine.flush();
+        verify(productRepository).save(argThat(product -> product.getSku().equals("SKU_X") && product.getKeyId() == 2));
+        verify(storeRepository).save(argThat(store -> store.getStoreId().equals("Tienda3") && store.getId() == 3));
+        assertEquals(2, quantity("SKU_X", "Tienda3"));
+        assertEquals(1, engine.getInventoryBySku("SKU1").stream().filter(inv -> inv.getStoreId().equals("Tienda1")).count());
+    }
+
+    @Test
+    void testFlush_groupCommitsDirtyCountersAndJournal() {
+        engine.registerMovement("SKU1", "Tienda1", "sale", 2);
+        engine.registerMovement("SKU1", "Tienda1", "sale", 1);
+        engine.registerMovement("SKU_NEW", "Tienda1", "restock", 5);
+        when(inventoryRepository.save(any(Inventory.class))).thenAnswer(i -> {
+            Inventory inv = i.getArgument(0);
+            inv.setId(99L);
+            return inv;
+        });
+
+        engine.flush();
+
+        verify(inventoryRepository).setStock(eq("SKU1"), eq("Tienda1"), eq(7), anyLong());
+        verify(inventoryRepository).save(argThat(inv -> inv.getSku().equals("SKU_NEW") && inv.getQuantity() == 5));
+        verify(stockMovementRepository).saveAll(argThat(movements -> ((List<StockMovement>) movements).size() == 3));
+        verify(transactionManager).commit(any());
+        assertEquals(99L, engine.getInventoryBySku("SKU_NEW").get(0).getId());
+    }
+
+    @Test
+    void testFlush_failureKeepsChangesForNextFlush() {
+        engine.registerMovement("SKU1", "Tienda1", "sale", 2);
+        when(stockMovementRepository.saveAll(anyList())).thenThrow(new RuntimeException("DB down"));
+
+        assertThrows(RuntimeException.class, () -> engine.flush());
+
+        reset(stockMovementRepository);
+        engine.flush();
+        verify(stockMovementRepository).saveAll(argThat(movements -> ((List<StockMovement>) movements).size() == 1));
+        verify(inventoryRepository, times(2)).setStock(eq("SKU1"), eq("Tienda1"), eq(8), anyLong());
+    }
+
+    @Test
+    void testFlush_failureKeepsNewDictionaryKeysForNextFlush() {
+        when(inventoryRepository.save(any(Inventory.class))).thenAnswer(i -> i.getArgument(0));
+        engine.registerMovement("SKU_X", "Tienda3", "restock", 2);
+        when(stockMovementRepository.saveAll(anyList())).thenThrow(new RuntimeException("DB down"));
+
+        assertThrows(RuntimeException.class, () -> engine.flush());
+
+        reset(stockMovementRepository, storeRepository);
+        engine.flush();
+        verify(storeRepository).save(argThat(store -> store.getStoreId().equals("Tienda3") && store.getId() == 3));
+    }
+
+    private int quantity(String sku, String storeId) {
+        return engine.getInventoryBySku(sku).stream()
+                .filter(inv -> inv.getStoreId().equals(storeId))
+                .findFirst().orElseThrow().getQuantity();
+    }
+}
@@ -0,0 +1,113 @@
+package com.mercadolibre.inventory_challenge.service;
+
+import com.mercadolibre.inventory_challenge.Service.InventoryCache;
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import com.mercadolibre.inventory_challenge.dto.CacheStatsResponse;
+import com.mercadolibre.inventory_challenge.model.Inventory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InventoryCacheTest {
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void testGetBySku_loadsOnceAndCountsHits() {
+        InventoryCache cache = new InventoryCache(new InventoryProperties());
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getBySku("SKU1", sku -> load(loads, 5));
+        List<Inventory> result = cache.getBySku("SKU1", sku -> load(loads, 9));
+
+        assertEquals(1, loads.get());
+        assertEquals(5, result.get(0).getQuantity());
+        CacheStatsResponse stats = cache.stats();
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getMisses());
+    }
+
+    @Test
+    void testEvictAfterCommit_keepsValueUntilCommit() {
+        InventoryCache cache = new InventoryCache(new InventoryProperties());
+        AtomicInteger loads = new AtomicInteger();
+        cache.getBySku("SKU1", sku -> load(loads, 5));
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.evictAfterCommit("SKU1");
+        assertEquals(5, cache.getBySku("SKU1", sku -> load(loads, 7)).get(0).getQuantity());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(7, cache.getBySku("SKU1", sku -> load(loads, 7)).get(0).getQuantity());
+    }
+
+    @Test
+    void testEvict_doesNotWaitForLoadAndDiscardsIt() throws Exception {
+        InventoryCache cache = new InventoryCache(new InventoryProperties());
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService reader = Executors.newSingleThreadExecutor();
+        try {
+            Future<List<Inventory>> slowLoad = reader.submit(() -> cache.getBySku("SKU1", sku -> {
+                loading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                return load(loads, 5);
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            // La invalidación no espera a la carga en curso (que en la app retiene el pedido de una conexión)
+            assertTimeoutPreemptively(Duration.ofSeconds(1), () -> cache.evictAfterCommit("SKU1"));
+            release.countDown();
+            assertEquals(5, slowLoad.get(5, TimeUnit.SECONDS).get(0).getQuantity());
+
+            // El valor leído antes de la invalidación no quedó en la cache
+            assertEquals(7, cache.getBySku("SKU1", sku -> load(loads, 7)).get(0).getQuantity());
+            assertEquals(7, cache.getBySku("SKU1", sku -> load(loads, 9)).get(0).getQuantity());
+            assertEquals(2, loads.get());
+        } finally {
+            release.countDown();
+            reader.shutdownNow();
+        }
+    }
+
+    @Test
+    void testDisabled_alwaysLoads() {
+        InventoryProperties properties = new InventoryProperties();
+        properties.getCache().setEnabled(false);
+        InventoryCache cache = new InventoryCache(properties);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.getBySku("SKU1", sku -> load(loads, 5));
+        cache.getBySku("SKU1", sku -> load(loads, 5));
+
+        assertEquals(2, loads.get());
+        assertFalse(cache.stats().isEnabled());
+    }
+
+    private static List<Inventory> load(AtomicInteger loads, int quantity) {
+        loads.incrementAndGet();
+        return List.of(Inventory.builder().sku("SKU1").storeId("Tienda1").quantity(quantity).build());
+    }
+}
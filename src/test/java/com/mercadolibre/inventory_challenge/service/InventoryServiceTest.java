@@ -1,20 +1,45 @@
 package com.mercadolibre.inventory_challenge.service;
 
+import com.mercadolibre.inventory_challenge.Service.ChangeSequence;
+import com.mercadolibre.inventory_challenge.Service.InventoryCache;
 import com.mercadolibre.inventory_challenge.Service.InventoryService;
+import com.mercadolibre.inventory_challenge.Service.MovementStrategy;
+import com.mercadolibre.inventory_challenge.Service.SplitCounterService;
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import com.mercadolibre.inventory_challenge.dto.BatchMovementResult;
+import com.mercadolibre.inventory_challenge.dto.ChangesResponse;
+import com.mercadolibre.inventory_challenge.dto.ContentionEntry;
+import com.mercadolibre.inventory_challenge.dto.MovementHistoryEntry;
+import com.mercadolibre.inventory_challenge.dto.MovementHistoryResponse;
+import com.mercadolibre.inventory_challenge.dto.OrderLine;
+import com.mercadolibre.inventory_challenge.dto.StockMovementRequest;
+import com.mercadolibre.inventory_challenge.exception.InsufficientStockException;
 import com.mercadolibre.inventory_challenge.exception.InventoryException;
+import com.mercadolibre.inventory_challenge.exception.UnsupportedMovementTypeException;
+import com.mercadolibre.inventory_challenge.metrics.InventoryMetrics;
 import com.mercadolibre.inventory_challenge.model.Inventory;
+import com.mercadolibre.inventory_challenge.model.MovementRollup;
 import com.mercadolibre.inventory_challenge.model.StockMovement;
+import com.mercadolibre.inventory_challenge.repository.ChangeSequenceEpochRepository;
 import com.mercadolibre.inventory_challenge.repository.InventoryRepository;
+import com.mercadolibre.inventory_challenge.repository.InventorySliceRepository;
+import com.mercadolibre.inventory_challenge.repository.MovementRollupRepository;
 import com.mercadolibre.inventory_challenge.repository.StockMovementRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -28,12 +53,36 @@ class InventoryServiceTest {
     @Mock
     private StockMovementRepository stockMovementRepository;
 
+    @Mock
+    private MovementRollupRepository movementRollupRepository;
+
+    @Mock
+    private SplitCounterService splitCounters;
+
+    @Mock
+    private InventoryCache inventoryCache;
+
+    @Spy
+    private InventoryProperties inventoryProperties = new InventoryProperties();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private ChangeSequence changeSequence = new ChangeSequence(mock(InventoryRepository.class), mock(InventorySliceRepository.class),
+            mock(ChangeSequenceEpochRepository.class));
+
+    @Spy
+    private InventoryMetrics metrics = new InventoryMetrics(meterRegistry, new InventoryProperties());
+
     @InjectMocks
     private InventoryService inventoryService;
 
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(splitCounters.withSliceTotals(anyList(), any())).thenAnswer(i -> i.getArgument(0));
+        when(inventoryCache.getBySku(anyString(), any())).thenAnswer(i ->
+                i.<Function<String, List<Inventory>>>getArgument(1).apply(i.getArgument(0)));
     }
 
     @Test
@@ -62,6 +111,17 @@ class InventoryServiceTest {
         assertEquals(20, result.get(0).getQuantity());
     }
 
+    @Test
+    void testGetInventoryPage_storeFilterUsesKeysetQuery() {
+        Inventory inv = Inventory.builder().id(8L).sku("SKU1").storeId("Tienda1").quantity(3).build();
+        when(inventoryRepository.findByStoreIdAndIdGreaterThanOrderByIdAsc("Tienda1", 7L, Limit.of(50))).thenReturn(List.of(inv));
+
+        List<Inventory> result = inventoryService.getInventoryPage(7L, "Tienda1", null, 50);
+
+        assertEquals(1, result.size());
+        verify(inventoryRepository, never()).findAll();
+    }
+
     @Test
     void testUpdateStock_success() {
         Inventory inv = Inventory.builder().sku("SKU1").storeId("Tienda1").quantity(Integer.valueOf(5)).build();
@@ -88,7 +148,7 @@ class InventoryServiceTest {
     @Test
     void testRegisterMovement_sale_success() {
         Inventory inv = Inventory.builder().sku("SKU1").storeId("Tienda1").quantity(8).build();
-        when(inventoryRepository.findAll()).thenReturn(List.of(inv));
+        when(inventoryRepository.findBySkuAndStoreId("SKU1", "Tienda1")).thenReturn(Optional.of(inv));
         when(inventoryRepository.save(any(Inventory.class))).thenAnswer(i -> i.getArgument(0));
         StockMovement expectedMovement = StockMovement.builder()
                 .sku("SKU1").storeId("Tienda1").type("sale").quantity(3)
@@ -102,13 +162,27 @@ class InventoryServiceTest {
         assertEquals(3, result.getQuantity());
         verify(inventoryRepository).save(inv);
         verify(stockMovementRepository).save(any(StockMovement.class));
+        verify(inventoryRepository, never()).findAll();
+        verify(inventoryCache).evictAfterCommit("SKU1");
         assertEquals(5, inv.getQuantity());
     }
 
+    @Test
+    void testRegisterMovement_storesIdempotencyKey() {
+        Inventory inv = Inventory.builder().sku("SKU1").storeId("Tienda1").quantity(8).build();
+        when(inventoryRepository.findBySkuAndStoreId("SKU1", "Tienda1")).thenReturn(Optional.of(inv));
+        when(inventoryRepository.save(any(Inventory.class))).thenAnswer(i -> i.getArgument(0));
+        when(stockMovementRepository.save(any(StockMovement.class))).thenAnswer(i -> i.getArgument(0));
+
+        StockMovement result = inventoryService.registerMovement("SKU1", "Tienda1", "sale", 3, "retry-1");
+
+        assertEquals("retry-1", result.getIdempotencyKey());
+    }
+
     @Test
     void testRegisterMovement_restock_success() {
         Inventory inv = Inventory.builder().sku("SKU2").storeId("Tienda2").quantity(2).build();
-        when(inventoryRepository.findAll()).thenReturn(List.of(inv));
+        when(inventoryRepository.findBySkuAndStoreId("SKU2", "Tienda2")).thenReturn(Optional.of(inv));
         when(inventoryRepository.save(any(Inventory.class))).thenAnswer(i -> i.getArgument(0));
         StockMovement expectedMovement = StockMovement.builder()
                 .sku("SKU2").storeId("Tienda2").type("restock").quantity(7)
@@ -124,26 +198,28 @@ class InventoryServiceTest {
     @Test
     void testRegisterMovement_sale_insufficientStock() {
         Inventory inv = Inventory.builder().sku("SKU1").storeId("Tienda1").quantity(1).build();
-        when(inventoryRepository.findAll()).thenReturn(List.of(inv));
+        when(inventoryRepository.findBySkuAndStoreId("SKU1", "Tienda1")).thenReturn(Optional.of(inv));
 
-        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
+        InsufficientStockException ex = assertThrows(InsufficientStockException.class, () ->
                 inventoryService.registerMovement("SKU1", "Tienda1", "sale", 10));
         assertEquals("No hay suficiente stock", ex.getMessage());
+        assertEquals(1, operationCount("register_movement", "insufficient_stock"));
+        assertEquals(0, operationCount("register_movement", "success"));
     }
 
     @Test
     void testRegisterMovement_unsupportedType() {
         Inventory inv = Inventory.builder().sku("SKU3").storeId("Tienda3").quantity(5).build();
-        when(inventoryRepository.findAll()).thenReturn(List.of(inv));
+        when(inventoryRepository.findBySkuAndStoreId("SKU3", "Tienda3")).thenReturn(Optional.of(inv));
 
-        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () ->
+        UnsupportedMovementTypeException ex = assertThrows(UnsupportedMovementTypeException.class, () ->
                 inventoryService.registerMovement("SKU3", "Tienda3", "unknown", 1));
         assertEquals("Tipo de movimiento no soportado", ex.getMessage());
     }
 
     @Test
     void testRegisterMovement_newInventoryIfNotExists() {
-        when(inventoryRepository.findAll()).thenReturn(List.of());
+        when(inventoryRepository.findBySkuAndStoreId("SKU_NEW", "Store_NEW")).thenReturn(Optional.empty());
         when(inventoryRepository.save(any(Inventory.class))).thenAnswer(i -> i.getArgument(0));
         when(stockMovementRepository.save(any(StockMovement.class))).thenAnswer(i -> i.getArgument(0));
 
@@ -153,4 +229,256 @@ class InventoryServiceTest {
         assertEquals("Store_NEW", result.getStoreId());
         assertEquals("restock", result.getType());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testRegisterMovement_atomicSale_success() {
+        inventoryProperties.getMovement().setStrategy(MovementStrategy.ATOMIC);
+        when(inventoryRepository.decrementStock(eq("SKU1"), eq("Tienda1"), eq(3), anyLong())).thenReturn(1);
+        when(stockMovementRepository.save(any(StockMovement.class))).thenAnswer(i -> i.getArgument(0));
+
+        StockMovement result = inventoryService.registerMovement("SKU1", "Tienda1", "sale", 3);
+
+        assertEquals("sale", result.getType());
+        assertEquals(3, result.getQuantity());
+        verify(inventoryRepository, never()).findBySkuAndStoreId(anyString(), anyString());
+        verify(inventoryRepository, never()).save(any(Inventory.class));
+    }
+
+    @Test
+    void testRegisterMovement_atomicSale_insufficientStock() {
+        inventoryProperties.getMovement().setStrategy(MovementStrategy.ATOMIC);
+        when(inventoryRepository.decrementStock(eq("SKU1"), eq("Tienda1"), eq(10), anyLong())).thenReturn(0);
+
+        InsufficientStockException ex = assertThrows(InsufficientStockException.class, () ->
+                inventoryService.registerMovement("SKU1", "Tienda1", "sale", 10));
+        assertEquals("No hay suficiente stock", ex.getMessage());
+        verify(stockMovementRepository, never()).save(any(StockMovement.class));
+    }
+
+    @Test
+    void testRegisterMovement_atomicRestock_createsMissingInventory() {
+        inventoryProperties.getMovement().setStrategy(MovementStrategy.ATOMIC);
+        when(inventoryRepository.incrementStock(eq("SKU_NEW"), eq("Store_NEW"), eq(4), anyLong())).thenReturn(0);
+        when(stockMovementRepository.save(any(StockMovement.class))).thenAnswer(i -> i.getArgument(0));
+
+        inventoryService.registerMovement("SKU_NEW", "Store_NEW", "restock", 4);
+
+        verify(inventoryRepository).save(argThat(inv -> inv.getQuantity() == 4 && inv.getSku().equals("SKU_NEW")));
+    }
+
+    @Test
+    void testUpdateStock_atomic_inventoryNotFound() {
+        inventoryProperties.getMovement().setStrategy(MovementStrategy.ATOMIC);
+        when(inventoryRepository.setStock(anyString(), anyString(), anyInt(), anyLong())).thenReturn(0);
+
+        InventoryException ex = assertThrows(InventoryException.class, () ->
+                inventoryService.updateStock("SKU_X", "Tienda_X", 13));
+        assertTrue(ex.getMessage().contains("Inventory not found"));
+    }
+
+    @Test
+    void testRegisterMovements_netDeltaPerKeyAndPerItemResults() {
+        Inventory inv = Inventory.builder().sku("SKU1").storeId("Tienda1").quantity(5).build();
+        when(inventoryRepository.findByStoreIdAndSkuIn(eq("Tienda1"), anyCollection())).thenReturn(List.of(inv));
+        when(inventoryRepository.applyDelta(eq("SKU1"), eq("Tienda1"), eq(-1), anyLong())).thenReturn(1);
+        when(stockMovementRepository.saveAll(anyList())).thenAnswer(i -> i.getArgument(0));
+
+        List<BatchMovementResult> results = inventoryService.registerMovements(List.of(
+                StockMovementRequest.builder().sku("SKU1").storeId("Tienda1").type("sale").quantity(4).build(),
+                StockMovementRequest.builder().sku("SKU1").storeId("Tienda1").type("sale").quantity(3).build(),
+                StockMovementRequest.builder().sku("SKU1").storeId("Tienda1").type("restock").quantity(3).build(),
+                StockMovementRequest.builder().sku("SKU1").storeId("Tienda1").type("unknown").quantity(1).build()));
+
+        assertEquals(4, results.size());
+        assertEquals(BatchMovementResult.APPLIED, results.get(0).getStatus());
+        assertEquals(BatchMovementResult.REJECTED, results.get(1).getStatus());
+        assertEquals("No hay suficiente stock", results.get(1).getError());
+        assertEquals(BatchMovementResult.APPLIED, results.get(2).getStatus());
+        assertEquals(BatchMovementResult.REJECTED, results.get(3).getStatus());
+        verify(inventoryRepository).applyDelta(eq("SKU1"), eq("Tienda1"), eq(-1), anyLong());
+        verify(stockMovementRepository).saveAll(argThat(movements -> ((List<?>) movements).size() == 2));
+    }
+
+    @Test
+    void testRegisterMovements_rejectsNonPositiveQuantities() {
+        when(stockMovementRepository.saveAll(anyList())).thenAnswer(i -> i.getArgument(0));
+
+        List<BatchMovementResult> results = inventoryService.registerMovements(List.of(
+                StockMovementRequest.builder().sku("SKU1").storeId("Tienda1").type("sale").quantity(-10).build(),
+                StockMovementRequest.builder().sku("SKU1").storeId("Tienda1").type("restock").quantity(0).build()));
+
+        assertTrue(results.stream().allMatch(r -> BatchMovementResult.REJECTED.equals(r.getStatus())));
+        assertEquals("quantity must be positive", results.get(0).getError());
+        verify(inventoryRepository, never()).applyDelta(anyString(), anyString(), anyInt(), anyLong());
+    }
+
+    @Test
+    void testRegisterMovements_createsMissingInventory() {
+        when(inventoryRepository.findByStoreIdAndSkuIn(eq("Tienda9"), anyCollection())).thenReturn(List.of());
+        when(stockMovementRepository.saveAll(anyList())).thenAnswer(i -> i.getArgument(0));
+
+        List<BatchMovementResult> results = inventoryService.registerMovements(List.of(
+                StockMovementRequest.builder().sku("SKU9").storeId("Tienda9").type("restock").quantity(6).build(),
+                StockMovementRequest.builder().sku("SKU9").storeId("Tienda9").type("sale").quantity(2).build()));
+
+        assertTrue(results.stream().allMatch(r -> BatchMovementResult.APPLIED.equals(r.getStatus())));
+        verify(inventoryRepository).save(argThat(inv -> inv.getQuantity() == 4));
+        verify(inventoryRepository, never()).applyDelta(anyString(), anyString(), anyInt(), anyLong());
+    }
+
+    @Test
+    void testRegisterOrder_locksRowsInSkuOrderAndWritesInBatches() {
+        Inventory a = Inventory.builder().sku("SKU-A").storeId("Tienda1").quantity(5).build();
+        Inventory b = Inventory.builder().sku("SKU-B").storeId("Tienda1").quantity(9).build();
+        when(inventoryRepository.lockForOrder("Tienda1", List.of("SKU-A", "SKU-B"))).thenReturn(List.of(a, b));
+        when(stockMovementRepository.saveAll(anyList())).thenAnswer(i -> i.getArgument(0));
+
+        List<StockMovement> result = inventoryService.registerOrder("Tienda1", List.of(
+                OrderLine.builder().sku("SKU-B").quantity(4).build(),
+                OrderLine.builder().sku("SKU-A").quantity(2).build(),
+                OrderLine.builder().sku("SKU-B").quantity(1).build()));
+
+        assertEquals(List.of("SKU-A", "SKU-B"), result.stream().map(StockMovement::getSku).toList());
+        assertEquals(List.of(2, 5), result.stream().map(StockMovement::getQuantity).toList());
+        assertEquals(3, a.getQuantity());
+        assertEquals(4, b.getQuantity());
+        verify(inventoryRepository).flush();
+        verify(stockMovementRepository).saveAll(anyList());
+        verify(inventoryRepository, never()).findBySkuAndStoreId(anyString(), anyString());
+        verify(inventoryRepository, never()).applyDelta(anyString(), anyString(), anyInt(), anyLong());
+    }
+
+    @Test
+    void testRegisterOrder_oneShortLineRejectsWholeOrder() {
+        Inventory a = Inventory.builder().sku("SKU-A").storeId("Tienda1").quantity(5).build();
+        when(inventoryRepository.lockForOrder(eq("Tienda1"), anyCollection())).thenReturn(List.of(a));
+
+        assertThrows(InsufficientStockException.class, () -> inventoryService.registerOrder("Tienda1", List.of(
+                OrderLine.builder().sku("SKU-A").quantity(2).build(),
+                OrderLine.builder().sku("SKU-B").quantity(1).build())));
+        assertThrows(InventoryException.class, () -> inventoryService.registerOrder("Tienda1", List.of(
+                OrderLine.builder().sku("SKU-A").quantity(0).build())));
+
+        assertEquals(5, a.getQuantity());
+        verify(inventoryRepository, never()).flush();
+        verify(stockMovementRepository, never()).saveAll(anyList());
+        assertEquals(1, operationCount("register_order", "insufficient_stock"));
+    }
+
+    @Test
+    void testRegisterMovement_hotKeyUsesSplitCounters() {
+        when(splitCounters.isHot("HOT", "Tienda1")).thenReturn(true);
+        when(stockMovementRepository.save(any(StockMovement.class))).thenAnswer(i -> i.getArgument(0));
+
+        inventoryService.registerMovement("HOT", "Tienda1", "sale", 1);
+
+        verify(splitCounters).applyMovement("HOT", "Tienda1", "sale", 1);
+        verify(inventoryRepository, never()).findBySkuAndStoreId(anyString(), anyString());
+        verify(inventoryRepository, never()).decrementStock(anyString(), anyString(), anyInt(), anyLong());
+    }
+
+    @Test
+    void testRegisterMovement_conflictIsRecordedForHotKeyDetection() {
+        Inventory inv = Inventory.builder().sku("SKU1").storeId("Tienda1").quantity(8).build();
+        when(inventoryRepository.findBySkuAndStoreId("SKU1", "Tienda1")).thenReturn(Optional.of(inv));
+        doThrow(new OptimisticLockingFailureException("conflict")).when(inventoryRepository).flush();
+
+        assertThrows(OptimisticLockingFailureException.class, () ->
+                inventoryService.registerMovement("SKU1", "Tienda1", "sale", 1));
+        verify(splitCounters).recordConflict("SKU1", "Tienda1");
+        verify(stockMovementRepository, never()).save(any(StockMovement.class));
+        assertEquals(1, operationCount("register_movement", "conflict"));
+        assertEquals(List.of(new ContentionEntry("SKU1", "Tienda1", 1)), metrics.contention().topK());
+    }
+
+    @Test
+    void testUpdateStock_notFoundIsCountedByOutcome() {
+        when(inventoryRepository.findBySkuAndStoreId("SKU9", "Tienda9")).thenReturn(Optional.empty());
+
+        assertThrows(InventoryException.class, () -> inventoryService.updateStock("SKU9", "Tienda9", 3));
+        assertEquals(1, operationCount("update_stock", "not_found"));
+    }
+
+    private long operationCount(String operation, String outcome) {
+        return meterRegistry.get(InventoryMetrics.OPERATION_TIMER)
+                .tag("operation", operation)
+                .tag("outcome", outcome)
+                .timer()
+                .count();
+    }
+
+    @Test
+    void testGetChanges_withoutCursorReturnsCurrentCursorOnly() {
+        ChangesResponse response = inventoryService.getChanges(null, null, 10);
+
+        assertTrue(response.getChanges().isEmpty());
+        assertEquals(changeSequence.epoch() + "-0", response.getCursor());
+        verifyNoInteractions(inventoryRepository);
+    }
+
+    @Test
+    void testGetChanges_returnsRowsAfterCursorUpToWatermark() {
+        changeSequence.next();
+        changeSequence.next();
+        Inventory changed = Inventory.builder().sku("SKU1").storeId("Tienda1").quantity(4).changeSeq(2).build();
+        when(inventoryRepository.findByStoreIdAndChangeSeqGreaterThanAndChangeSeqLessThanEqualOrderByChangeSeqAsc(
+                "Tienda1", 1L, 2L, Limit.of(10))).thenReturn(List.of(changed));
+
+        ChangesResponse response = inventoryService.getChanges(changeSequence.epoch() + "-1", "Tienda1", 10);
+
+        assertEquals(List.of(changed), response.getChanges());
+        assertEquals(changeSequence.epoch() + "-2", response.getCursor());
+        assertFalse(response.isHasMore());
+        assertFalse(response.isFullSyncRequired());
+    }
+
+    @Test
+    void testGetChanges_cursorFromAnotherEpochRequiresFullSync() {
+        ChangesResponse response = inventoryService.getChanges("1-500", null, 10);
+
+        assertTrue(response.isFullSyncRequired());
+        assertTrue(response.getChanges().isEmpty());
+        assertEquals(changeSequence.epoch() + "-0", response.getCursor());
+    }
+
+    @Test
+    void testGetMovementHistory_mergesDailyRollupsBeforeRawMovements() {
+        LocalDateTime from = LocalDateTime.of(2026, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2026, 3, 1, 12, 0);
+        MovementRollup rollup = MovementRollup.builder().id(4L).sku("SKU1").storeId("Tienda1")
+                .day(LocalDate.of(2026, 1, 10)).type("sale").quantity(12).movements(5).build();
+        StockMovement movement = StockMovement.builder().id(90L).sku("SKU1").storeId("Tienda1").type("restock")
+                .quantity(3).timestamp(LocalDateTime.of(2026, 2, 20, 9, 30)).build();
+        when(movementRollupRepository.findHistory("SKU1", "Tienda1", from.toLocalDate(), LocalDate.of(2026, 3, 2),
+                from.toLocalDate(), -1, Limit.of(2))).thenReturn(List.of(rollup));
+        when(stockMovementRepository.findHistory("SKU1", "Tienda1", from, to, from, -1, Limit.of(1)))
+                .thenReturn(List.of(movement));
+
+        MovementHistoryResponse response = inventoryService.getMovementHistory("SKU1", "Tienda1", from, to, null, 2);
+
+        assertEquals(2, response.getMovements().size());
+        MovementHistoryEntry daily = response.getMovements().get(0);
+        assertEquals(MovementHistoryEntry.DAILY, daily.getGranularity());
+        assertEquals(12, daily.getQuantity());
+        assertEquals(5, daily.getMovements());
+        assertEquals(MovementHistoryEntry.MOVEMENT, response.getMovements().get(1).getGranularity());
+        assertEquals("m:2026-02-20T09:30:90", response.getNextCursor());
+    }
+
+    @Test
+    void testGetMovementHistory_movementCursorSkipsRollups() {
+        when(stockMovementRepository.findHistory(eq("SKU1"), isNull(), any(), any(),
+                eq(LocalDateTime.of(2026, 2, 20, 9, 30)), eq(90L), eq(Limit.of(10)))).thenReturn(List.of());
+
+        MovementHistoryResponse response = inventoryService.getMovementHistory("SKU1", null, null, null, "m:2026-02-20T09:30:90", 10);
+
+        assertTrue(response.getMovements().isEmpty());
+        assertNull(response.getNextCursor());
+        verifyNoInteractions(movementRollupRepository);
+    }
+
+    @Test
+    void testGetMovementHistory_invalidCursor() {
+        assertThrows(InventoryException.class, () -> inventoryService.getMovementHistory("SKU1", null, null, null, "x:1", 10));
+    }
+}
@@ -0,0 +1,105 @@
+package com.mercadolibre.inventory_challenge.service;
+
+import com.mercadolibre.inventory_challenge.Service.ExecutionMode;
+import com.mercadolibre.inventory_challenge.Service.KeyedExecutor;
+import com.mercadolibre.inventory_challenge.Service.StockKey;
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import com.mercadolibre.inventory_challenge.exception.InventoryException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeyedExecutorTest {
+    private KeyedExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        InventoryProperties properties = new InventoryProperties();
+        properties.getExecution().setMode(ExecutionMode.ACTOR);
+        executor = new KeyedExecutor(properties);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.stop();
+    }
+
+    @Test
+    void testSameKey_runsSerially() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            int value = i;
+            results.add(executor.submit(new StockKey("SKU1", "Tienda1"), () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.yield();
+                running.decrementAndGet();
+                return value;
+            }));
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).join());
+        }
+        assertEquals(1, maxRunning.get());
+    }
+
+    @Test
+    void testDifferentKeys_runInParallel() throws Exception {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        CompletableFuture<Boolean> first = executor.submit(new StockKey("SKU1", "Tienda1"), () -> await(bothStarted));
+        CompletableFuture<Boolean> second = executor.submit(new StockKey("SKU1", "Tienda2"), () -> await(bothStarted));
+
+        assertTrue(first.get(5, TimeUnit.SECONDS));
+        assertTrue(second.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testExecute_propagatesExceptionAndKeepsProcessing() {
+        InventoryException ex = assertThrows(InventoryException.class, () -> executor.execute("SKU1", "Tienda1", () -> {
+            throw new InventoryException("No hay suficiente stock");
+        }));
+        assertEquals("No hay suficiente stock", ex.getMessage());
+        assertEquals(7, executor.execute("SKU1", "Tienda1", () -> 7));
+    }
+
+    @Test
+    void testMailboxRemovedWhenIdle() throws Exception {
+        executor.execute("SKU1", "Tienda1", () -> 1);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.activeKeys() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, executor.activeKeys());
+    }
+
+    @Test
+    void testDirectMode_runsOnCallerThread() {
+        executor.stop();
+        executor = new KeyedExecutor(new InventoryProperties());
+        Thread caller = Thread.currentThread();
+
+        assertSame(caller, executor.execute("SKU1", "Tienda1", Thread::currentThread));
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        latch.countDown();
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
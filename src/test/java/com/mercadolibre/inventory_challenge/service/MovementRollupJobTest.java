@@ -0,0 +1,96 @@
+package com.mercadolibre.inventory_challenge.service;
+
+import com.mercadolibre.inventory_challenge.Service.MovementRollupJob;
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import com.mercadolibre.inventory_challenge.model.MovementRollup;
+import com.mercadolibre.inventory_challenge.model.StockMovement;
+import com.mercadolibre.inventory_challenge.repository.MovementRollupRepository;
+import com.mercadolibre.inventory_challenge.repository.StockMovementRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class MovementRollupJobTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 1, 10);
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private MovementRollupRepository movementRollupRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private MovementRollupJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new MovementRollupJob(stockMovementRepository, movementRollupRepository, transactionManager, new InventoryProperties());
+    }
+
+    @Test
+    void testRollup_compactsOldDaysIntoDailyAggregates() {
+        save("SKU1", "Tienda1", "sale", 2, DAY.atTime(9, 0));
+        save("SKU1", "Tienda1", "sale", 3, DAY.atTime(18, 0));
+        save("SKU1", "Tienda1", "restock", 10, DAY.atTime(12, 0));
+        save("SKU1", "Tienda2", "sale", 1, DAY.plusDays(1).atTime(8, 0));
+        StockMovement recent = save("SKU1", "Tienda1", "sale", 4, DAY.plusDays(5).atTime(8, 0));
+
+        int compacted = job.rollup(DAY.plusDays(2));
+
+        assertEquals(4, compacted);
+        assertEquals(List.of(recent.getId()), stockMovementRepository.findAll().stream().map(StockMovement::getId).toList());
+        MovementRollup sales = movementRollupRepository.findBySkuAndStoreIdAndDayAndType("SKU1", "Tienda1", DAY, "sale").orElseThrow();
+        assertEquals(5, sales.getQuantity());
+        assertEquals(2, sales.getMovements());
+        assertEquals(3, movementRollupRepository.count());
+    }
+
+    @Test
+    void testRollup_addsToExistingAggregate() {
+        save("SKU1", "Tienda1", "sale", 2, DAY.atTime(9, 0));
+        job.rollup(DAY.plusDays(1));
+        save("SKU1", "Tienda1", "sale", 3, DAY.atTime(10, 0));
+
+        job.rollup(DAY.plusDays(1));
+
+        MovementRollup sales = movementRollupRepository.findBySkuAndStoreIdAndDayAndType("SKU1", "Tienda1", DAY, "sale").orElseThrow();
+        assertEquals(5, sales.getQuantity());
+        assertEquals(2, sales.getMovements());
+    }
+
+    @Test
+    void testFindHistory_keysetByTimestampAndId() {
+        LocalDateTime at = DAY.atTime(9, 0);
+        StockMovement first = save("SKU1", "Tienda1", "sale", 1, at);
+        StockMovement second = save("SKU1", "Tienda1", "sale", 2, at);
+        save("SKU1", "Tienda2", "sale", 3, at);
+        StockMovement third = save("SKU1", "Tienda1", "restock", 4, at.plusHours(1));
+        LocalDateTime from = DAY.atStartOfDay();
+        LocalDateTime to = DAY.plusDays(1).atStartOfDay();
+
+        List<StockMovement> page = stockMovementRepository.findHistory("SKU1", "Tienda1", from, to, from, -1, Limit.of(2));
+        List<StockMovement> next = stockMovementRepository.findHistory("SKU1", "Tienda1", from, to,
+                page.get(1).getTimestamp(), page.get(1).getId(), Limit.of(2));
+
+        assertEquals(List.of(first.getId(), second.getId()), page.stream().map(StockMovement::getId).toList());
+        assertEquals(List.of(third.getId()), next.stream().map(StockMovement::getId).toList());
+    }
+
+    private StockMovement save(String sku, String storeId, String type, int quantity, LocalDateTime timestamp) {
+        return stockMovementRepository.save(StockMovement.builder()
+                .sku(sku).storeId(storeId).type(type).quantity(quantity).timestamp(timestamp).build());
+    }
+}
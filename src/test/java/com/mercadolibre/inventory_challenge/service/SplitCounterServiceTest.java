@@ -0,0 +1,131 @@
+package com.mercadolibre.inventory_challenge.service;
+
+import com.mercadolibre.inventory_challenge.Service.ChangeSequence;
+import com.mercadolibre.inventory_challenge.Service.HotKeyDetector;
+import com.mercadolibre.inventory_challenge.Service.SplitCounterService;
+import com.mercadolibre.inventory_challenge.config.InventoryProperties;
+import com.mercadolibre.inventory_challenge.exception.InsufficientStockException;
+import com.mercadolibre.inventory_challenge.model.Inventory;
+import com.mercadolibre.inventory_challenge.model.InventorySlice;
+import com.mercadolibre.inventory_challenge.repository.ChangeSequenceEpochRepository;
+import com.mercadolibre.inventory_challenge.repository.InventoryRepository;
+import com.mercadolibre.inventory_challenge.repository.InventorySliceRepository;
+import com.mercadolibre.inventory_challenge.repository.SliceTotal;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class SplitCounterServiceTest {
+
+    @Mock
+    private InventoryRepository inventoryRepository;
+
+    @Mock
+    private InventorySliceRepository sliceRepository;
+
+    private InventoryProperties properties;
+    private SplitCounterService splitCounters;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        properties = new InventoryProperties();
+        properties.getHotKeys().setEnabled(true);
+        properties.getHotKeys().setSlices(4);
+        properties.getHotKeys().setSkus(Set.of("PROMO"));
+        properties.getHotKeys().setConflictThreshold(2);
+        splitCounters = new SplitCounterService(inventoryRepository, sliceRepository, new HotKeyDetector(properties),
+                new ChangeSequence(inventoryRepository, sliceRepository, mock(ChangeSequenceEpochRepository.class)), properties);
+    }
+
+    @Test
+    void testIsHot_configuredSkuOrConflictThreshold() {
+        assertTrue(splitCounters.isHot("PROMO", "Tienda1"));
+        assertFalse(splitCounters.isHot("SKU1", "Tienda1"));
+
+        splitCounters.recordConflict("SKU1", "Tienda1");
+        splitCounters.recordConflict("SKU1", "Tienda1");
+
+        assertTrue(splitCounters.isHot("SKU1", "Tienda1"));
+        assertFalse(splitCounters.isHot("SKU1", "Tienda2"));
+    }
+
+    @Test
+    void testIsHot_disabled() {
+        properties.getHotKeys().setEnabled(false);
+        assertFalse(splitCounters.isHot("PROMO", "Tienda1"));
+    }
+
+    @Test
+    void testApplyMovement_splitsInventoryOnFirstUse() {
+        Inventory inv = Inventory.builder().sku("PROMO").storeId("Tienda1").quantity(10).build();
+        when(inventoryRepository.findBySkuAndStoreId("PROMO", "Tienda1")).thenReturn(Optional.of(inv));
+        when(sliceRepository.decrementSlice(eq("PROMO"), eq("Tienda1"), anyInt(), eq(1), anyLong())).thenReturn(1);
+
+        splitCounters.applyMovement("PROMO", "Tienda1", "sale", 1);
+
+        assertEquals(0, inv.getQuantity());
+        verify(sliceRepository).saveAll(argThat(slices -> {
+            List<InventorySlice> list = new ArrayList<>();
+            slices.forEach(list::add);
+            return list.size() == 4 && list.stream().mapToInt(InventorySlice::getQuantity).sum() == 10;
+        }));
+        verify(sliceRepository, times(1)).decrementSlice(eq("PROMO"), eq("Tienda1"), anyInt(), eq(1), anyLong());
+    }
+
+    @Test
+    void testApplyMovement_rebalancesWhenNoSliceIsEnough() {
+        when(sliceRepository.existsBySkuAndStoreId("PROMO", "Tienda1")).thenReturn(true);
+        when(sliceRepository.decrementSlice(anyString(), anyString(), anyInt(), anyInt(), anyLong())).thenReturn(0);
+        List<InventorySlice> slices = List.of(slice(0, 2), slice(1, 2), slice(2, 1), slice(3, 0));
+        when(sliceRepository.lockSlices("PROMO", "Tienda1")).thenReturn(slices);
+
+        splitCounters.applyMovement("PROMO", "Tienda1", "sale", 4);
+
+        assertEquals(1, slices.stream().mapToInt(InventorySlice::getQuantity).sum());
+        // Los cuatro intentos fallidos y el rebalanceo comparten un único número de cambio
+        ArgumentCaptor<Long> changeSeqs = ArgumentCaptor.forClass(Long.class);
+        verify(sliceRepository, times(4)).decrementSlice(anyString(), anyString(), anyInt(), eq(4), changeSeqs.capture());
+        assertEquals(1, changeSeqs.getAllValues().stream().distinct().count());
+        assertTrue(slices.stream().allMatch(slice -> slice.getChangeSeq() == changeSeqs.getValue()));
+    }
+
+    @Test
+    void testApplyMovement_insufficientStockAcrossSlices() {
+        when(sliceRepository.existsBySkuAndStoreId("PROMO", "Tienda1")).thenReturn(true);
+        when(sliceRepository.lockSlices("PROMO", "Tienda1")).thenReturn(List.of(slice(0, 1), slice(1, 1), slice(2, 0), slice(3, 0)));
+
+        InsufficientStockException ex = assertThrows(InsufficientStockException.class, () ->
+                splitCounters.applyMovement("PROMO", "Tienda1", "sale", 3));
+        assertEquals("No hay suficiente stock", ex.getMessage());
+    }
+
+    @Test
+    void testWithSliceTotals_addsSliceSums() {
+        when(sliceRepository.existsBySkuAndStoreId("PROMO", "Tienda1")).thenReturn(true);
+        splitCounters.applyMovement("PROMO", "Tienda1", "restock", 1);
+        when(sliceRepository.findTotalsBySku("PROMO")).thenReturn(List.of(new SliceTotal("PROMO", "Tienda1", 25L)));
+
+        List<Inventory> result = splitCounters.withSliceTotals(List.of(
+                Inventory.builder().sku("PROMO").storeId("Tienda1").quantity(0).build(),
+                Inventory.builder().sku("PROMO").storeId("Tienda2").quantity(7).build()), "PROMO");
+
+        assertEquals(25, result.get(0).getQuantity());
+        assertEquals(7, result.get(1).getQuantity());
+    }
+
+    private static InventorySlice slice(int index, int quantity) {
+        return InventorySlice.builder().sku("PROMO").storeId("Tienda1").slice(index).quantity(quantity).build();
+    }
+}
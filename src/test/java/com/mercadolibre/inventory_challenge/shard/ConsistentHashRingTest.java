@@ -0,0 +1,46 @@
+package com.mercadolibre.inventory_challenge.shard;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+    private static final int STORES = 10_000;
+
+    @Test
+    void testNodeFor_isStableAndSpreadsKeys() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("shard-0", "shard-1", "shard-2", "shard-3"), 128);
+        ConsistentHashRing same = new ConsistentHashRing(List.of("shard-3", "shard-2", "shard-1", "shard-0"), 128);
+        Map<String, Integer> counts = new HashMap<>();
+
+        for (int i = 0; i < STORES; i++) {
+            String store = "Tienda" + i;
+            assertEquals(ring.nodeFor(store), same.nodeFor(store));
+            counts.merge(ring.nodeFor(store), 1, Integer::sum);
+        }
+
+        assertEquals(4, counts.size());
+        counts.values().forEach(count -> assertTrue(count > STORES / 4 * 0.7 && count < STORES / 4 * 1.3, counts.toString()));
+    }
+
+    @Test
+    void testAddingNode_onlyMovesKeysToTheNewNode() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("shard-0", "shard-1", "shard-2"), 128);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("shard-0", "shard-1", "shard-2", "shard-3"), 128);
+        int moved = 0;
+
+        for (int i = 0; i < STORES; i++) {
+            String store = "Tienda" + i;
+            if (!before.nodeFor(store).equals(after.nodeFor(store))) {
+                assertEquals("shard-3", after.nodeFor(store));
+                moved++;
+            }
+        }
+
+        assertTrue(moved > STORES / 4 * 0.7 && moved < STORES / 4 * 1.3, "moved " + moved);
+    }
+}
@@ -0,0 +1,207 @@
+package com.mercadolibre.inventory_challenge.shard;
+
+import com.mercadolibre.inventory_challenge.Service.InventoryService;
+import com.mercadolibre.inventory_challenge.dto.BatchMovementResult;
+import com.mercadolibre.inventory_challenge.dto.MovementHistoryEntry;
+import com.mercadolibre.inventory_challenge.dto.MovementHistoryResponse;
+import com.mercadolibre.inventory_challenge.dto.StockMovementRequest;
+import com.mercadolibre.inventory_challenge.model.Inventory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties = {
+        "inventory.sharding.enabled=true",
+        "inventory.sharding.urls[0]=jdbc:h2:mem:shard-test-0;LAZY_QUERY_EXECUTION=TRUE",
+        "inventory.sharding.urls[1]=jdbc:h2:mem:shard-test-1;LAZY_QUERY_EXECUTION=TRUE",
+        "inventory.sharding.urls[2]=jdbc:h2:mem:shard-test-2;LAZY_QUERY_EXECUTION=TRUE",
+        "inventory.sharding.stores.Pinned=shard-1",
+        "inventory.history.rollup-enabled=false"
+})
+class ShardingTest {
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    @Autowired
+    private ShardDataSources shardDataSources;
+
+    @AfterEach
+    void cleanUp() {
+        for (String shard : shardDataSources.names()) {
+            JdbcTemplate jdbc = jdbc(shard);
+            jdbc.update("DELETE FROM stock_movement");
+            jdbc.update("DELETE FROM inventory");
+        }
+    }
+
+    @Test
+    void testWrites_goOnlyToTheStoreShard() {
+        List<String> stores = storesOnDistinctShards();
+
+        for (String store : stores) {
+            inventoryService.registerMovement("SKU-W", store, "restock", 5);
+            inventoryService.updateStock("SKU-W", store, 7);
+        }
+
+        for (String store : stores) {
+            for (String shard : shardDataSources.names()) {
+                int expected = shard.equals(shardRouter.shardFor(store)) ? 1 : 0;
+                assertEquals(expected, count(shard, "SELECT COUNT(*) FROM inventory WHERE store_id = ?", store));
+                assertEquals(expected, count(shard, "SELECT COUNT(*) FROM stock_movement WHERE store_id = ?", store));
+            }
+        }
+    }
+
+    @Test
+    void testPinnedStore_overridesTheRing() {
+        inventoryService.registerMovement("SKU-P", "Pinned", "restock", 3);
+
+        assertEquals("shard-1", shardRouter.shardFor("Pinned"));
+        assertEquals(1, count("shard-1", "SELECT COUNT(*) FROM inventory WHERE store_id = ?", "Pinned"));
+    }
+
+    @Test
+    void testGetInventoryBySku_mergesAllShards() {
+        List<String> stores = storesOnDistinctShards();
+        for (String store : stores) inventoryService.registerMovement("SKU-R", store, "restock", 4);
+
+        List<Inventory> result = inventoryService.getInventoryBySku("SKU-R");
+
+        assertEquals(new HashSet<>(stores), storesOf(result));
+        assertEquals(stores.size(), inventoryService.getAllInventory().size());
+    }
+
+    @Test
+    void testRegisterMovements_splitsBatchByShardAndKeepsOrder() {
+        List<String> stores = storesOnDistinctShards();
+        List<StockMovementRequest> requests = new ArrayList<>();
+        for (String store : stores) {
+            requests.add(request("SKU-B", store, "restock", 10));
+            requests.add(request("SKU-B", store, "sale", 20));
+        }
+
+        List<BatchMovementResult> results = inventoryService.registerMovements(requests);
+
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+            assertEquals(requests.get(i).getStoreId(), results.get(i).getStoreId());
+            assertEquals(i % 2 == 0 ? BatchMovementResult.APPLIED : BatchMovementResult.REJECTED, results.get(i).getStatus());
+        }
+        for (String store : stores) {
+            assertEquals(1, count(shardRouter.shardFor(store), "SELECT COUNT(*) FROM stock_movement WHERE store_id = ?", store));
+        }
+    }
+
+    @Test
+    void testRegisterMovements_failingShardRejectsOnlyItsItems() {
+        List<String> stores = storesOnDistinctShards();
+        String failing = shardRouter.shardFor(stores.get(1));
+        List<StockMovementRequest> requests = new ArrayList<>();
+        for (String store : stores) requests.add(request("SKU-F", store, "restock", 5));
+        jdbc(failing).execute("ALTER TABLE stock_movement ADD CONSTRAINT fail_inserts CHECK (quantity < 0)");
+        List<BatchMovementResult> results;
+        try {
+            results = inventoryService.registerMovements(requests);
+        } finally {
+            jdbc(failing).execute("ALTER TABLE stock_movement DROP CONSTRAINT fail_inserts");
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            String store = stores.get(i);
+            boolean failed = shardRouter.shardFor(store).equals(failing);
+            assertEquals(i, results.get(i).getIndex());
+            assertEquals(failed ? BatchMovementResult.REJECTED : BatchMovementResult.APPLIED, results.get(i).getStatus());
+            assertEquals(failed ? 0 : 1, count(shardRouter.shardFor(store), "SELECT COUNT(*) FROM inventory WHERE store_id = ?", store));
+        }
+        assertTrue(results.get(1).getError().contains(failing));
+    }
+
+    @Test
+    void testInventoryPage_walksAllShardsWithoutDuplicates() {
+        List<String> stores = storesOnDistinctShards();
+        for (String store : stores) {
+            for (int i = 0; i < 3; i++) inventoryService.registerMovement("SKU-G" + i, store, "restock", 1);
+        }
+
+        Set<Long> ids = new HashSet<>();
+        Long after = null;
+        List<Inventory> page;
+        do {
+            page = inventoryService.getInventoryPage(after, null, null, 2);
+            for (Inventory row : page) {
+                assertTrue(after == null || row.getId() > after);
+                assertTrue(ids.add(row.getId()));
+                after = row.getId();
+            }
+        } while (page.size() == 2);
+
+        assertEquals(stores.size() * 3, ids.size());
+    }
+
+    @Test
+    void testMovementHistory_withoutStoreMergesShardsInOrder() {
+        List<String> stores = storesOnDistinctShards();
+        for (int i = 0; i < 2; i++) {
+            for (String store : stores) inventoryService.registerMovement("SKU-H", store, "restock", 1);
+        }
+
+        List<MovementHistoryEntry> entries = new ArrayList<>();
+        String cursor = null;
+        do {
+            MovementHistoryResponse page = inventoryService.getMovementHistory("SKU-H", null, null, null, cursor, 2);
+            entries.addAll(page.getMovements());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(stores.size() * 2, entries.size());
+        for (int i = 1; i < entries.size(); i++) {
+            MovementHistoryEntry previous = entries.get(i - 1);
+            MovementHistoryEntry current = entries.get(i);
+            assertTrue(previous.getTimestamp().isBefore(current.getTimestamp())
+                    || previous.getTimestamp().equals(current.getTimestamp()) && previous.getId() < current.getId());
+        }
+    }
+
+    // Una tienda por shard, para que cada prueba toque todas las bases
+    private List<String> storesOnDistinctShards() {
+        Map<String, String> storeByShard = new LinkedHashMap<>();
+        for (int i = 0; storeByShard.size() < shardDataSources.names().size(); i++) {
+            String store = "Tienda" + i;
+            storeByShard.putIfAbsent(shardRouter.shardFor(store), store);
+        }
+        return List.copyOf(storeByShard.values());
+    }
+
+    private int count(String shard, String sql, String storeId) {
+        return jdbc(shard).queryForObject(sql, Integer.class, storeId);
+    }
+
+    private JdbcTemplate jdbc(String shard) {
+        return new JdbcTemplate(shardDataSources.get(shard));
+    }
+
+    private static Set<String> storesOf(List<Inventory> rows) {
+        Set<String> stores = new HashSet<>();
+        for (Inventory row : rows) stores.add(row.getStoreId());
+        return stores;
+    }
+
+    private static StockMovementRequest request(String sku, String storeId, String type, int quantity) {
+        return StockMovementRequest.builder().sku(sku).storeId(storeId).type(type).quantity(quantity).build();
+    }
+}
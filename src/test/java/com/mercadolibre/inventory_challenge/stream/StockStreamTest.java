@@ -0,0 +1,227 @@
+package com.mercadolibre.inventory_challenge.stream;
+
+import com.mercadolibre.inventory_challenge.Service.InventoryService;
+import com.mercadolibre.inventory_challenge.bulk.BulkFormat;
+import com.mercadolibre.inventory_challenge.bulk.InventoryBulkImporter;
+import com.mercadolibre.inventory_challenge.dto.StockStreamEvent;
+import com.mercadolibre.inventory_challenge.exception.InsufficientStockException;
+import com.mercadolibre.inventory_challenge.model.Inventory;
+import com.mercadolibre.inventory_challenge.repository.InventoryRepository;
+import com.mercadolibre.inventory_challenge.repository.StockMovementRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:stream-test;DB_CLOSE_DELAY=-1",
+        "inventory.stream.enabled=true",
+        "inventory.stream.buffer-size=4",
+        "inventory.history.rollup-enabled=false"
+})
+@AutoConfigureMockMvc
+class StockStreamTest {
+
+    @Autowired
+    private StockStream stockStream;
+
+    @Autowired
+    private InventoryService inventoryService;
+
+    @Autowired
+    private InventoryRepository inventoryRepository;
+
+    @Autowired
+    private StockMovementRepository stockMovementRepository;
+
+    @Autowired
+    private InventoryBulkImporter bulkImporter;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final List<StockStream.Subscription> subscriptions = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        inventoryRepository.save(Inventory.builder().sku("SKU1").storeId("Tienda1").quantity(10).build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        subscriptions.forEach(StockStream.Subscription::close);
+        stockMovementRepository.deleteAllInBatch();
+        inventoryRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void testSubscribers_receiveOnlyCommittedChangesOfTheirSkuOrStore() throws InterruptedException {
+        RecordingSink store = subscribe(null, "Tienda1", null);
+        RecordingSink otherStore = subscribe("SKU1", "Tienda2", null);
+
+        inventoryService.registerMovement("SKU1", "Tienda1", "sale", 1);
+        assertThrows(InsufficientStockException.class, () -> inventoryService.registerMovement("SKU1", "Tienda1", "sale", 50));
+
+        StockStreamEvent first = store.next();
+        assertEquals(StockStreamEvent.STOCK, first.getType());
+        assertEquals("SKU1", first.getSku());
+        assertEquals(9, first.getQuantity());
+        // Se espera el evento anterior: dos cambios en la misma pasada del despachador llegan como uno
+        inventoryService.updateStock("SKU1", "Tienda1", 20);
+        assertEquals(20, store.next().getQuantity());
+        assertNull(store.events.poll(200, TimeUnit.MILLISECONDS));
+        assertTrue(otherStore.events.isEmpty());
+    }
+
+    @Test
+    void testThreshold_onlyCrossingsAreSent() throws InterruptedException {
+        RecordingSink barrier = subscribe(null, "Tienda1", null);
+        RecordingSink lowStock = subscribe("SKU1", "Tienda1", 5);
+
+        sellAndWait(barrier, 3, 7);
+        assertTrue(lowStock.events.isEmpty());
+        sellAndWait(barrier, 3, 4);
+        StockStreamEvent low = lowStock.next();
+        assertEquals(StockStreamEvent.LOW_STOCK, low.getType());
+        assertEquals(4, low.getQuantity());
+        assertEquals(5, low.getThreshold());
+        sellAndWait(barrier, 4, 0);
+        assertTrue(lowStock.events.isEmpty());
+        inventoryService.registerMovement("SKU1", "Tienda1", "restock", 6);
+        assertEquals(6, barrier.next().getQuantity());
+        assertEquals(StockStreamEvent.RESTOCKED, lowStock.next().getType());
+    }
+
+    @Test
+    void testBulkImport_notifiesImportedKeys() throws Exception {
+        RecordingSink store = subscribe(null, "Tienda1", null);
+
+        bulkImporter.importInventory(new ByteArrayInputStream("""
+                sku,storeId,quantity
+                SKU1,Tienda1,25
+                """.getBytes(StandardCharsets.UTF_8)), BulkFormat.CSV);
+
+        StockStreamEvent event = store.next();
+        assertEquals("SKU1", event.getSku());
+        assertEquals(25, event.getQuantity());
+    }
+
+    @Test
+    void testSlowSubscriber_coalescesWithoutDelayingOthers() throws InterruptedException {
+        for (int i = 0; i < 10; i++) {
+            inventoryRepository.save(Inventory.builder().sku("BULK" + i).storeId("Tienda1").quantity(0).build());
+        }
+        inventoryRepository.save(Inventory.builder().sku("MARK").storeId("Tienda9").quantity(0).build());
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink slow = new RecordingSink() {
+            @Override
+            public void send(StockStreamEvent event) throws IOException {
+                blocked.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+                super.send(event);
+            }
+        };
+        StockStream.Subscription slowSubscription = stockStream.subscribe(null, "Tienda1", null, slow);
+        subscriptions.add(slowSubscription);
+        RecordingSink fast = subscribe(null, "Tienda1", null);
+        // Un único evento queda en vuelo mientras el cliente lento está bloqueado
+        inventoryService.updateStock("BULK0", "Tienda1", 1);
+        assertTrue(blocked.await(5, TimeUnit.SECONDS));
+        assertEquals(1, fast.next().getQuantity());
+
+        for (int round = 1; round <= 3; round++) {
+            for (int i = 0; i < 10; i++) {
+                inventoryService.updateStock("BULK" + i, "Tienda1", round * 100 + i);
+                while (fast.next().getQuantity() != round * 100 + i) {
+                    // eventos de claves anteriores
+                }
+            }
+        }
+        // Las pasadas del despachador son secuenciales: cuando llega la marca, el último cambio ya se ofreció a todos
+        RecordingSink marker = subscribe(null, "Tienda9", null);
+        inventoryService.updateStock("MARK", "Tienda9", 1);
+        marker.next();
+        release.countDown();
+
+        List<StockStreamEvent> received = new ArrayList<>();
+        StockStreamEvent event;
+        while ((event = slow.events.poll(500, TimeUnit.MILLISECONDS)) != null) received.add(event);
+        // El que estaba en vuelo más el buffer de 4 claves con su último estado
+        assertTrue(received.size() <= 5, "received " + received.size());
+        assertTrue(slowSubscription.dropped() > 0);
+        assertEquals(309, received.get(received.size() - 1).getQuantity());
+    }
+
+    @Test
+    void testEndpoint_streamsServerSentEvents() throws Exception {
+        MvcResult result = mockMvc.perform(get("/inventory/stream").param("sku", "SKU1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        inventoryService.registerMovement("SKU1", "Tienda1", "sale", 2);
+
+        long deadline = System.currentTimeMillis() + 5_000;
+        String body = "";
+        while (!body.contains("\"quantity\":8") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            body = result.getResponse().getContentAsString();
+        }
+        assertTrue(body.contains("event:stock"), body);
+        assertTrue(body.contains("\"quantity\":8"), body);
+
+        mockMvc.perform(get("/inventory/stream")).andExpect(status().isBadRequest());
+    }
+
+    private void sellAndWait(RecordingSink barrier, int quantity, int expected) throws InterruptedException {
+        inventoryService.registerMovement("SKU1", "Tienda1", "sale", quantity);
+        assertEquals(expected, barrier.next().getQuantity());
+    }
+
+    private RecordingSink subscribe(String sku, String storeId, Integer threshold) {
+        RecordingSink sink = new RecordingSink();
+        subscriptions.add(stockStream.subscribe(sku, storeId, threshold, sink));
+        return sink;
+    }
+
+    private static class RecordingSink implements StockStream.Sink {
+        final BlockingQueue<StockStreamEvent> events = new LinkedBlockingQueue<>();
+
+        @Override
+        public void send(StockStreamEvent event) throws IOException {
+            events.add(event);
+        }
+
+        @Override
+        public void heartbeat() {
+        }
+
+        StockStreamEvent next() throws InterruptedException {
+            StockStreamEvent event = events.poll(5, TimeUnit.SECONDS);
+            assertNotNull(event, "no event received");
+            return event;
+        }
+    }
+}